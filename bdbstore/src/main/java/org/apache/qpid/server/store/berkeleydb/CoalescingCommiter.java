@@ -21,7 +21,9 @@
 package org.apache.qpid.server.store.berkeleydb;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
@@ -29,6 +31,9 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import com.google.common.util.concurrent.AbstractFuture;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -42,7 +47,28 @@ public class CoalescingCommiter implements Committer
 
     public CoalescingCommiter(String name, int commiterNotifyThreshold, long commiterWaitTimeout, EnvironmentFacade environmentFacade)
     {
-        _commitThread = new CommitThread("Commit-Thread-" + name, commiterNotifyThreshold, commiterWaitTimeout, environmentFacade);
+        this(name, commiterNotifyThreshold, commiterWaitTimeout, false, 0L, environmentFacade);
+    }
+
+    /**
+     * @param adaptive if true, the notify threshold and the time the commit thread waits for further commits before
+     *                 flushing the log are derived from the observed commit arrival rate and log flush latency
+     * @param targetLatency when adaptive, the commit latency in milliseconds to aim for; if zero, batches are
+     *                      sized to maximise throughput
+     */
+    public CoalescingCommiter(String name,
+                              int commiterNotifyThreshold,
+                              long commiterWaitTimeout,
+                              boolean adaptive,
+                              long targetLatency,
+                              EnvironmentFacade environmentFacade)
+    {
+        _commitThread = new CommitThread("Commit-Thread-" + name,
+                                         commiterNotifyThreshold,
+                                         commiterWaitTimeout,
+                                         adaptive,
+                                         targetLatency,
+                                         environmentFacade);
     }
 
     @Override
@@ -90,6 +116,12 @@ public class CoalescingCommiter implements Committer
         return future;
     }
 
+    @Override
+    public Map<String, Object> getStatistics(final boolean reset)
+    {
+        return _commitThread.getStatistics(reset);
+    }
+
 
     private static final class BDBCommitFutureResult<X> implements CommitThreadJob
     {
@@ -135,20 +167,38 @@ public class CoalescingCommiter implements Committer
     {
         private static final Logger LOGGER = LoggerFactory.getLogger(CommitThread.class);
 
-        private final int _jobQueueNotifyThreshold;
+        private static final int MAX_ADAPTIVE_NOTIFY_THRESHOLD = 1024;
+        private static final double SMOOTHING_FACTOR = 0.2;
+
         private final long _commiterWaitTimeout;
+        private final boolean _adaptive;
+        private final long _targetLatencyNanos;
         private final AtomicBoolean _stopped = new AtomicBoolean(false);
         private final Queue<CommitThreadJob> _jobQueue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger _jobQueueSize = new AtomicInteger();
         private final Object _lock = new Object();
         private final EnvironmentFacade _environmentFacade;
+        private final CommitStatistics _statistics = new CommitStatistics();
 
         private final List<CommitThreadJob> _inProcessJobs = new ArrayList<>(256);
 
-        public CommitThread(String name, int commiterNotifyThreshold, long commiterWaitTimeout, EnvironmentFacade environmentFacade)
+        private volatile int _jobQueueNotifyThreshold;
+        private double _averageFlushNanos;
+        private double _averageArrivalRate;
+        private long _lastProcessTime = System.nanoTime();
+
+        public CommitThread(String name,
+                            int commiterNotifyThreshold,
+                            long commiterWaitTimeout,
+                            boolean adaptive,
+                            long targetLatency,
+                            EnvironmentFacade environmentFacade)
         {
             super(name);
             this._jobQueueNotifyThreshold = commiterNotifyThreshold;
             this._commiterWaitTimeout = commiterWaitTimeout;
+            _adaptive = adaptive;
+            _targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(targetLatency, 0L));
             _environmentFacade = environmentFacade;
         }
 
@@ -179,34 +229,105 @@ public class CoalescingCommiter implements Committer
                         {
                         }
                     }
+                    if (_adaptive)
+                    {
+                        awaitBatch();
+                    }
                 }
                 processJobs();
             }
         }
 
+        /**
+         * Waits for further commits to join the batch, for as long as the target latency (or, when maximising
+         * throughput, the time of a log flush) allows and the arrival rate suggests more commits will come.
+         */
+        private void awaitBatch()
+        {
+            final long lingerNanos = getLingerNanos();
+            if (lingerNanos > 0)
+            {
+                final long lingerUntil = System.nanoTime() + lingerNanos;
+                long remaining = lingerNanos;
+                while (!_stopped.get() && remaining > 0 && _jobQueueSize.get() < _jobQueueNotifyThreshold)
+                {
+                    try
+                    {
+                        TimeUnit.NANOSECONDS.timedWait(_lock, remaining);
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+                    remaining = lingerUntil - System.nanoTime();
+                }
+            }
+        }
+
+        private long getMaximumLingerNanos()
+        {
+            if (_targetLatencyNanos > 0)
+            {
+                return Math.max(0L, _targetLatencyNanos - (long) _averageFlushNanos);
+            }
+            return (long) _averageFlushNanos;
+        }
+
+        private long getLingerNanos()
+        {
+            final long maximumLingerNanos = getMaximumLingerNanos();
+            final double expectedArrivals = _averageArrivalRate * maximumLingerNanos;
+            if (expectedArrivals < 1.0)
+            {
+                return 0L;
+            }
+            final int awaitedJobs = Math.max(0, _jobQueueNotifyThreshold - _jobQueueSize.get());
+            return Math.min(maximumLingerNanos, (long) (awaitedJobs / _averageArrivalRate));
+        }
+
+        private void updateAdaptiveParameters(final int batchSize, final long flushNanos, final long now)
+        {
+            final long elapsed = Math.max(1L, now - _lastProcessTime);
+            _lastProcessTime = now;
+            _averageFlushNanos = smooth(_averageFlushNanos, flushNanos);
+            _averageArrivalRate = smooth(_averageArrivalRate, (double) batchSize / elapsed);
+
+            if (_adaptive)
+            {
+                final double window = getMaximumLingerNanos() + _averageFlushNanos;
+                final long threshold = Math.round(_averageArrivalRate * window);
+                _jobQueueNotifyThreshold = (int) Math.max(1L, Math.min(MAX_ADAPTIVE_NOTIFY_THRESHOLD, threshold));
+            }
+        }
+
+        private static double smooth(final double average, final double sample)
+        {
+            return average == 0.0 ? sample : average + SMOOTHING_FACTOR * (sample - average);
+        }
+
         private void processJobs()
         {
             CommitThreadJob job;
             while((job = _jobQueue.poll()) != null)
             {
+                _jobQueueSize.decrementAndGet();
                 _inProcessJobs.add(job);
             }
 
             int completedJobsIndex = 0;
             try
             {
-                long startTime = 0;
-                if(LOGGER.isDebugEnabled())
-                {
-                    startTime = System.currentTimeMillis();
-                }
+                final long startTime = System.nanoTime();
 
                 _environmentFacade.flushLog();
 
+                final long endTime = System.nanoTime();
+                final long duration = endTime - startTime;
+                _statistics.recordFlush(_inProcessJobs.size(), duration);
+                updateAdaptiveParameters(_inProcessJobs.size(), duration, endTime);
                 if(LOGGER.isDebugEnabled())
                 {
-                    long duration = System.currentTimeMillis() - startTime;
-                    LOGGER.debug("flushLog completed in " + duration  + " ms");
+                    LOGGER.debug("flushLog completed in " + TimeUnit.NANOSECONDS.toMillis(duration)  + " ms");
                 }
 
                 while(completedJobsIndex < _inProcessJobs.size())
@@ -251,7 +372,7 @@ public class CoalescingCommiter implements Committer
                 throw new IllegalStateException("Commit thread is stopped");
             }
             _jobQueue.add(commit);
-            if(sync || _jobQueue.size() >= _jobQueueNotifyThreshold)
+            if(_jobQueueSize.incrementAndGet() >= _jobQueueNotifyThreshold || sync)
             {
                 synchronized (_lock)
                 {
@@ -272,6 +393,7 @@ public class CoalescingCommiter implements Committer
                     _environmentFacade.flushLog();
                     while ((commit = _jobQueue.poll()) != null)
                     {
+                        _jobQueueSize.decrementAndGet();
                         commit.complete();
                     }
                 }
@@ -281,6 +403,7 @@ public class CoalescingCommiter implements Committer
                     int abortedCommits = 0;
                     while ((commit = _jobQueue.poll()) != null)
                     {
+                        _jobQueueSize.decrementAndGet();
                         abortedCommits++;
                         commit.abort(e);
                     }
@@ -293,6 +416,88 @@ public class CoalescingCommiter implements Committer
                 _lock.notifyAll();
             }
         }
+
+        Map<String, Object> getStatistics(final boolean reset)
+        {
+            final Map<String, Object> statistics = _statistics.toMap(reset);
+            statistics.put("notifyThreshold", _jobQueueNotifyThreshold);
+            return statistics;
+        }
+    }
+
+    /**
+     * Counts of log flushes by the number of commits in the batch and by flush latency, each bucketed by powers
+     * of two.  The counts are only updated by the commit thread.
+     */
+    static final class CommitStatistics
+    {
+        private static final int BATCH_SIZE_BUCKETS = 12;
+        private static final int FLUSH_LATENCY_BUCKETS = 22;
+
+        private final AtomicLong _flushes = new AtomicLong();
+        private final AtomicLong _commits = new AtomicLong();
+        private final AtomicLong _flushNanos = new AtomicLong();
+        private final AtomicLongArray _batchSizes = new AtomicLongArray(BATCH_SIZE_BUCKETS);
+        private final AtomicLongArray _flushLatencies = new AtomicLongArray(FLUSH_LATENCY_BUCKETS);
+
+        void recordFlush(final int batchSize, final long flushNanos)
+        {
+            _flushes.incrementAndGet();
+            _commits.addAndGet(batchSize);
+            _flushNanos.addAndGet(flushNanos);
+            _batchSizes.incrementAndGet(bucket(batchSize, BATCH_SIZE_BUCKETS));
+            _flushLatencies.incrementAndGet(bucket(TimeUnit.NANOSECONDS.toMicros(flushNanos), FLUSH_LATENCY_BUCKETS));
+        }
+
+        Map<String, Object> toMap(final boolean reset)
+        {
+            final long flushes = reset ? _flushes.getAndSet(0) : _flushes.get();
+            final long commits = reset ? _commits.getAndSet(0) : _commits.get();
+            final long flushNanos = reset ? _flushNanos.getAndSet(0) : _flushNanos.get();
+
+            final Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("flushes", flushes);
+            statistics.put("commits", commits);
+            statistics.put("meanBatchSize", flushes == 0 ? 0.0 : (double) commits / flushes);
+            statistics.put("meanFlushLatencyMicros", flushes == 0 ? 0L : TimeUnit.NANOSECONDS.toMicros(flushNanos / flushes));
+            statistics.put("batchSizeHistogram", toHistogram(_batchSizes, reset));
+            statistics.put("flushLatencyMicrosHistogram", toHistogram(_flushLatencies, reset));
+            return statistics;
+        }
+
+        private static int bucket(final long value, final int buckets)
+        {
+            return Math.min(buckets - 1, 64 - Long.numberOfLeadingZeros(Math.max(0L, value)));
+        }
+
+        private static Map<String, Long> toHistogram(final AtomicLongArray counts, final boolean reset)
+        {
+            final Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length(); i++)
+            {
+                final long count = reset ? counts.getAndSet(i, 0) : counts.get(i);
+                if (count > 0)
+                {
+                    histogram.put(bucketLabel(i, counts.length()), count);
+                }
+            }
+            return histogram;
+        }
+
+        private static String bucketLabel(final int bucket, final int buckets)
+        {
+            if (bucket == 0)
+            {
+                return "0";
+            }
+            final long lower = 1L << (bucket - 1);
+            if (bucket == buckets - 1)
+            {
+                return ">=" + lower;
+            }
+            final long upper = (1L << bucket) - 1;
+            return lower == upper ? String.valueOf(lower) : lower + "-" + upper;
+        }
     }
 
     private final class ThreadNotifyingSettableFuture<X> extends AbstractFuture<X>
@@ -20,6 +20,8 @@
  */
 package org.apache.qpid.server.store.berkeleydb;
 
+import java.util.Map;
+
 import com.google.common.util.concurrent.ListenableFuture;
 import com.sleepycat.je.Transaction;
 
@@ -31,4 +33,6 @@ public interface Committer
     <X> ListenableFuture<X> commitAsync(Transaction tx, X val);
 
     void stop();
+
+    Map<String, Object> getStatistics(boolean reset);
 }
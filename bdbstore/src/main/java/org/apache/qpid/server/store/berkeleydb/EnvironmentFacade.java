@@ -89,6 +89,8 @@ public interface EnvironmentFacade
 
     Map<String, Object> getTransactionStatistics(boolean reset);
 
+    Map<String, Object> getCommitStatistics(boolean reset);
+
     Map<String,Object> getDatabaseStatistics(String database, boolean reset);
 
     void deleteDatabase(String databaseName);
@@ -166,7 +166,22 @@ public class StandardEnvironmentFacade implements EnvironmentFacade
                 BDBVirtualHost.QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT,
                 BDBVirtualHost.DEFAULT_QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT
         );
-        _committer =  new CoalescingCommiter(name, commiterNotifyThreshold, commiterWaitTimeout, this);
+        final boolean commiterAdaptive = configuration.getFacadeParameter(
+                Boolean.class,
+                BDBVirtualHost.QPID_BROKER_BDB_COMMITER_ADAPTIVE,
+                BDBVirtualHost.DEFAULT_QPID_BROKER_BDB_COMMITER_ADAPTIVE
+        );
+        final long commiterTargetLatency = configuration.getFacadeParameter(
+                Long.class,
+                BDBVirtualHost.QPID_BROKER_BDB_COMMITER_TARGET_LATENCY,
+                BDBVirtualHost.DEFAULT_QPID_BROKER_BDB_COMMITER_TARGET_LATENCY
+        );
+        _committer =  new CoalescingCommiter(name,
+                                             commiterNotifyThreshold,
+                                             commiterWaitTimeout,
+                                             commiterAdaptive,
+                                             commiterTargetLatency,
+                                             this);
         _committer.start();
     }
 
@@ -342,6 +357,12 @@ public class StandardEnvironmentFacade implements EnvironmentFacade
         return EnvironmentUtils.getTransactionStatistics(getEnvironment(), reset);
     }
 
+    @Override
+    public Map<String, Object> getCommitStatistics(final boolean reset)
+    {
+        return _committer.getStatistics(reset);
+    }
+
     private void closeSequences()
     {
         RuntimeException firstThrownException = null;
@@ -892,6 +892,13 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
         return submitEnvironmentTask(timeout, task, "get transaction statistics");
     }
 
+    @Override
+    public Map<String, Object> getCommitStatistics(final boolean reset)
+    {
+        final CoalescingCommiter coalescingCommiter = _coalescingCommiter;
+        return coalescingCommiter == null ? Collections.emptyMap() : coalescingCommiter.getStatistics(reset);
+    }
+
     @Override
     public Map<String,Object> getDatabaseStatistics(final String database, final boolean reset)
     {
@@ -1711,7 +1718,22 @@ public class ReplicatedEnvironmentFacade implements EnvironmentFacade, StateChan
                         BDBVirtualHost.QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT,
                         BDBVirtualHost.DEFAULT_QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT
                 );
-                _coalescingCommiter = new CoalescingCommiter(_configuration.getGroupName(), commiterNotifyThreshold, commiterWaitTimeout,  this);
+                final boolean commiterAdaptive = _configuration.getFacadeParameter(
+                        Boolean.class,
+                        BDBVirtualHost.QPID_BROKER_BDB_COMMITER_ADAPTIVE,
+                        BDBVirtualHost.DEFAULT_QPID_BROKER_BDB_COMMITER_ADAPTIVE
+                );
+                final long commiterTargetLatency = _configuration.getFacadeParameter(
+                        Long.class,
+                        BDBVirtualHost.QPID_BROKER_BDB_COMMITER_TARGET_LATENCY,
+                        BDBVirtualHost.DEFAULT_QPID_BROKER_BDB_COMMITER_TARGET_LATENCY
+                );
+                _coalescingCommiter = new CoalescingCommiter(_configuration.getGroupName(),
+                                                             commiterNotifyThreshold,
+                                                             commiterWaitTimeout,
+                                                             commiterAdaptive,
+                                                             commiterTargetLatency,
+                                                             this);
                 _coalescingCommiter.start();
             }
             _realMessageStoreDurability = new Durability(localTransactionSynchronizationPolicy, remoteTransactionSynchronizationPolicy, replicaAcknowledgmentPolicy);
@@ -39,6 +39,8 @@ public interface BDBVirtualHost<X extends BDBVirtualHost<X>> extends QueueManagi
     String QPID_BROKER_BDB_TOTAL_CACHE_SIZE = "qpid.broker.bdbTotalCacheSize";
     String QPID_BROKER_BDB_COMMITER_NOTIFY_THRESHOLD = "qpid.broker.bdbCommiterNotifyThreshold";
     String QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT = "qpid.broker.bdbCommiterWaitTimeout";
+    String QPID_BROKER_BDB_COMMITER_ADAPTIVE = "qpid.broker.bdbCommiterAdaptive";
+    String QPID_BROKER_BDB_COMMITER_TARGET_LATENCY = "qpid.broker.bdbCommiterTargetLatency";
 
     // Default the JE cache to 5% of total memory, but no less than 10Mb
     @ManagedContextDefault(name= QPID_BROKER_BDB_TOTAL_CACHE_SIZE)
@@ -52,6 +54,14 @@ public interface BDBVirtualHost<X extends BDBVirtualHost<X>> extends QueueManagi
     @ManagedContextDefault(name = QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT, description = "Timeout for BDB log flush to the disk")
     long DEFAULT_QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT = 500L;
 
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = QPID_BROKER_BDB_COMMITER_ADAPTIVE, description = "If true, the BDB log flush threshold and the time spent waiting for further commits are derived from the observed commit rate and log flush latency")
+    boolean DEFAULT_QPID_BROKER_BDB_COMMITER_ADAPTIVE = false;
+
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = QPID_BROKER_BDB_COMMITER_TARGET_LATENCY, description = "Commit latency in milliseconds the adaptive BDB commiter aims for. If zero, batches are sized to maximise throughput")
+    long DEFAULT_QPID_BROKER_BDB_COMMITER_TARGET_LATENCY = 0L;
+
     @Override
     @ManagedAttribute(mandatory = true, defaultValue = "${qpid.work_dir}${file.separator}${this:name}${file.separator}messages")
     String getStorePath();
@@ -169,6 +169,21 @@ public class BDBVirtualHostNodeImpl extends AbstractStandardVirtualHostNode<BDBV
         return Collections.emptyMap();
     }
 
+    @Override
+    public Map<String, Object> commitStatistics(final boolean reset)
+    {
+        BDBConfigurationStore bdbConfigurationStore = (BDBConfigurationStore) getConfigurationStore();
+        if (bdbConfigurationStore != null)
+        {
+            EnvironmentFacade environmentFacade = bdbConfigurationStore.getEnvironmentFacade();
+            if (environmentFacade != null)
+            {
+                return environmentFacade.getCommitStatistics(reset);
+            }
+        }
+        return Collections.emptyMap();
+    }
+
     @Override
     public Map<String, Object> databaseStatistics(String database, final boolean reset)
     {
@@ -21,6 +21,7 @@
 package org.apache.qpid.server.store.berkeleydb;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.mockito.Mockito.doNothing;
@@ -29,10 +30,14 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import org.junit.jupiter.api.AfterEach;
@@ -120,4 +125,48 @@ public class CoalescingCommitterTest extends UnitTestBase
         verify(_environmentFacade, times(2)).flushLog();
         verify(_environmentFacade, times(1)).flushLogFailed(testFailure);
     }
+
+    @Test
+    public void testCommitStatistics()
+    {
+        _coalescingCommitter.commit(null, true);
+        _coalescingCommitter.commit(null, true);
+
+        final Map<String, Object> statistics = _coalescingCommitter.getStatistics(true);
+        assertEquals(2L, statistics.get("flushes"), "Unexpected number of flushes");
+        assertEquals(2L, statistics.get("commits"), "Unexpected number of commits");
+        assertEquals(Map.of("1", 2L), statistics.get("batchSizeHistogram"), "Unexpected batch size histogram");
+        final Map<?, ?> flushLatencies = (Map<?, ?>) statistics.get("flushLatencyMicrosHistogram");
+        assertEquals(2L, flushLatencies.values().stream().mapToLong(Long.class::cast).sum(),
+                     "Unexpected flush latency histogram");
+
+        final Map<String, Object> resetStatistics = _coalescingCommitter.getStatistics(false);
+        assertEquals(0L, resetStatistics.get("flushes"), "Unexpected number of flushes after reset");
+        assertEquals(Map.of(), resetStatistics.get("batchSizeHistogram"), "Unexpected batch size histogram after reset");
+    }
+
+    @Test
+    public void testAdaptiveCommitterCompletesCommits() throws Exception
+    {
+        _coalescingCommitter.stop();
+        _coalescingCommitter = new CoalescingCommiter("Test", 8, 500, true, 5, _environmentFacade);
+        _coalescingCommitter.start();
+
+        final List<ListenableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+        {
+            futures.add(_coalescingCommitter.commitAsync(null, i));
+            if (i % 10 == 0)
+            {
+                _coalescingCommitter.commit(null, true);
+            }
+        }
+        final List<Integer> results = Futures.allAsList(futures).get(5000, TimeUnit.MILLISECONDS);
+        assertEquals(100, results.size(), "Unexpected number of completed commits");
+
+        final Map<String, Object> statistics = _coalescingCommitter.getStatistics(false);
+        assertEquals(110L, statistics.get("commits"), "Unexpected number of commits");
+        final int notifyThreshold = (Integer) statistics.get("notifyThreshold");
+        assertTrue(notifyThreshold >= 1, "Unexpected notify threshold " + notifyThreshold);
+    }
 }
@@ -33,9 +33,13 @@ import static org.apache.qpid.server.store.berkeleydb.replication.ReplicatedEnvi
 import static org.apache.qpid.server.store.berkeleydb.replication.ReplicatedEnvironmentFacade.REMOTE_NODE_MONITOR_TIMEOUT_PROPERTY_NAME;
 import static org.apache.qpid.server.store.berkeleydb.replication.ReplicatedEnvironmentFacade.ReplicationNodeImpl;
 import static org.apache.qpid.server.store.berkeleydb.replication.ReplicatedEnvironmentFacade.getRemoteNodeState;
+import static org.apache.qpid.server.virtualhost.berkeleydb.BDBVirtualHost.DEFAULT_QPID_BROKER_BDB_COMMITER_ADAPTIVE;
 import static org.apache.qpid.server.virtualhost.berkeleydb.BDBVirtualHost.DEFAULT_QPID_BROKER_BDB_COMMITER_NOTIFY_THRESHOLD;
+import static org.apache.qpid.server.virtualhost.berkeleydb.BDBVirtualHost.DEFAULT_QPID_BROKER_BDB_COMMITER_TARGET_LATENCY;
 import static org.apache.qpid.server.virtualhost.berkeleydb.BDBVirtualHost.DEFAULT_QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT;
+import static org.apache.qpid.server.virtualhost.berkeleydb.BDBVirtualHost.QPID_BROKER_BDB_COMMITER_ADAPTIVE;
 import static org.apache.qpid.server.virtualhost.berkeleydb.BDBVirtualHost.QPID_BROKER_BDB_COMMITER_NOTIFY_THRESHOLD;
+import static org.apache.qpid.server.virtualhost.berkeleydb.BDBVirtualHost.QPID_BROKER_BDB_COMMITER_TARGET_LATENCY;
 import static org.apache.qpid.server.virtualhost.berkeleydb.BDBVirtualHost.QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -1460,6 +1464,12 @@ public class ReplicatedEnvironmentFacadeTest extends UnitTestBase
         when(node.getFacadeParameter(eq(Long.class),
                                      eq(QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT),
                                      anyLong())).thenReturn(DEFAULT_QPID_BROKER_BDB_COMMITER_WAIT_TIMEOUT);
+        when(node.getFacadeParameter(eq(Boolean.class),
+                                     eq(QPID_BROKER_BDB_COMMITER_ADAPTIVE),
+                                     anyBoolean())).thenReturn(DEFAULT_QPID_BROKER_BDB_COMMITER_ADAPTIVE);
+        when(node.getFacadeParameter(eq(Long.class),
+                                     eq(QPID_BROKER_BDB_COMMITER_TARGET_LATENCY),
+                                     anyLong())).thenReturn(DEFAULT_QPID_BROKER_BDB_COMMITER_TARGET_LATENCY);
 
         Map<String, String> repConfig = new HashMap<>();
         repConfig.put(ReplicationConfig.REPLICA_ACK_TIMEOUT, "2 s");
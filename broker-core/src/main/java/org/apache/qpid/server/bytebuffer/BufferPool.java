@@ -20,27 +20,69 @@
  */
 package org.apache.qpid.server.bytebuffer;
 
+import java.lang.ref.WeakReference;
 import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Pool of direct buffers organised in two tiers.  Each thread caches up to two magazines of buffers which it
+ * allocates from and returns to without synchronisation.  Threads exchange full and empty magazines with a shared
+ * depot, so the shared state is touched once per magazine rather than once per buffer.
+ * <p>
+ * Every magazine holding buffers, whether cached by a thread or in the depot, counts against {@code maxSize}, so the
+ * pool as a whole never holds more than {@code maxSize} buffers.  A magazine is given back to the pool as soon as a
+ * thread has emptied it, so that idle threads do not keep room in the pool reserved.  The caches of threads which
+ * have terminated are returned to the depot.
+ */
 class BufferPool
 {
+    static final int DEFAULT_MAGAZINE_SIZE = 8;
+
     private final int _maxSize;
-    private final ConcurrentLinkedQueue<ByteBuffer> _pooledBuffers = new ConcurrentLinkedQueue<>();
-    private final AtomicInteger _size = new AtomicInteger();
+    private final int _magazineSize;
+    private final int _maxMagazines;
+    private final AtomicInteger _magazines = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Magazine> _depot = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger _depotMagazines = new AtomicInteger();
+    private final Set<ThreadCache> _threadCaches = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<ThreadCache> _threadCache = ThreadLocal.withInitial(this::createThreadCache);
 
     BufferPool(final int maxSize)
+    {
+        this(maxSize, DEFAULT_MAGAZINE_SIZE);
+    }
+
+    BufferPool(final int maxSize, final int magazineSize)
     {
         _maxSize = maxSize;
+        _magazineSize = Math.max(1, Math.min(magazineSize, Math.max(1, maxSize)));
+        _maxMagazines = maxSize / _magazineSize;
     }
 
     ByteBuffer getBuffer()
     {
-        final ByteBuffer buffer = _pooledBuffers.poll();
-        if (buffer != null)
+        final ThreadCache cache = _threadCache.get();
+        ByteBuffer buffer = cache.poll();
+        if (buffer == null)
+        {
+            Magazine full = pollDepot();
+            if (full == null && reclaimTerminatedThreadCaches())
+            {
+                full = pollDepot();
+            }
+            if (full != null)
+            {
+                cache.load(full);
+                buffer = cache.poll();
+            }
+        }
+        if (buffer != null && cache.discardEmpty())
         {
-            _size.decrementAndGet();
+            releaseMagazine();
         }
         return buffer;
     }
@@ -48,10 +90,19 @@ class BufferPool
     void returnBuffer(ByteBuffer buf)
     {
         buf.clear();
-        if (size() < _maxSize)
+        final ThreadCache cache = _threadCache.get();
+        if (!cache.offer(buf))
         {
-            _pooledBuffers.add(buf);
-            _size.incrementAndGet();
+            if (cache.isFull())
+            {
+                offerDepot(cache.unload());
+            }
+            if (reserveMagazine())
+            {
+                cache.load(new Magazine(_magazineSize));
+                cache.offer(buf);
+            }
+            // otherwise the pool is full: the buffer is left to the garbage collector
         }
     }
 
@@ -60,8 +111,279 @@ class BufferPool
         return _maxSize;
     }
 
+    int getMagazineSize()
+    {
+        return _magazineSize;
+    }
+
     public int size()
     {
-        return _size.get();
+        return getSharedSize() + getThreadCachedSize();
+    }
+
+    /**
+     * Returns the number of buffers held in the shared depot.
+     */
+    int getSharedSize()
+    {
+        return _depotMagazines.get() * _magazineSize;
+    }
+
+    /**
+     * Returns the number of buffers cached by threads.  As the caches are read without synchronisation, the
+     * result is approximate.
+     */
+    int getThreadCachedSize()
+    {
+        int size = 0;
+        for (ThreadCache cache : _threadCaches)
+        {
+            size += cache.size();
+        }
+        return size;
+    }
+
+    private ThreadCache createThreadCache()
+    {
+        final ThreadCache cache = new ThreadCache(Thread.currentThread());
+        _threadCaches.add(cache);
+        return cache;
+    }
+
+    private Magazine pollDepot()
+    {
+        final Magazine magazine = _depot.poll();
+        if (magazine != null)
+        {
+            _depotMagazines.decrementAndGet();
+        }
+        return magazine;
+    }
+
+    private void offerDepot(final Magazine magazine)
+    {
+        _depotMagazines.incrementAndGet();
+        _depot.add(magazine);
+    }
+
+    private boolean reserveMagazine()
+    {
+        int magazines;
+        do
+        {
+            magazines = _magazines.get();
+            if (magazines >= _maxMagazines)
+            {
+                return false;
+            }
+        }
+        while (!_magazines.compareAndSet(magazines, magazines + 1));
+        return true;
+    }
+
+    private void releaseMagazine()
+    {
+        _magazines.decrementAndGet();
+    }
+
+    private boolean reclaimTerminatedThreadCaches()
+    {
+        boolean reclaimed = false;
+        final Iterator<ThreadCache> iterator = _threadCaches.iterator();
+        while (iterator.hasNext())
+        {
+            final ThreadCache cache = iterator.next();
+            if (cache.isOwnerTerminated() && _threadCaches.remove(cache))
+            {
+                reclaimed |= cache.drainTo(this);
+            }
+        }
+        return reclaimed;
+    }
+
+    private static final class Magazine
+    {
+        private final ByteBuffer[] _buffers;
+        private int _count;
+
+        private Magazine(final int capacity)
+        {
+            _buffers = new ByteBuffer[capacity];
+        }
+
+        private boolean isEmpty()
+        {
+            return _count == 0;
+        }
+
+        private boolean isFull()
+        {
+            return _count == _buffers.length;
+        }
+
+        private ByteBuffer pop()
+        {
+            final ByteBuffer buffer = _buffers[--_count];
+            _buffers[_count] = null;
+            return buffer;
+        }
+
+        private void push(final ByteBuffer buffer)
+        {
+            _buffers[_count++] = buffer;
+        }
+    }
+
+    /**
+     * The magazines of a single thread, each of which is reserved from the pool when first needed and discarded once
+     * emptied, so that the cache never holds an empty magazine.  Only the owning thread modifies the cache, except
+     * once it has terminated.
+     */
+    private static final class ThreadCache
+    {
+        private final WeakReference<Thread> _owner;
+        private Magazine _loaded;
+        private Magazine _previous;
+
+        private ThreadCache(final Thread owner)
+        {
+            _owner = new WeakReference<>(owner);
+        }
+
+        private ByteBuffer poll()
+        {
+            if (_loaded == null || _loaded.isEmpty())
+            {
+                if (_previous == null || _previous.isEmpty())
+                {
+                    return null;
+                }
+                swap();
+            }
+            return _loaded.pop();
+        }
+
+        private boolean offer(final ByteBuffer buffer)
+        {
+            if (_loaded == null || _loaded.isFull())
+            {
+                if (_previous == null || _previous.isFull())
+                {
+                    return false;
+                }
+                swap();
+            }
+            _loaded.push(buffer);
+            return true;
+        }
+
+        /**
+         * Loads a magazine into a free place in the cache, which the caller must have made room for.
+         */
+        private void load(final Magazine magazine)
+        {
+            if (_loaded != null)
+            {
+                _previous = _loaded;
+            }
+            _loaded = magazine;
+        }
+
+        /**
+         * Discards the loaded magazine if it has been emptied.
+         *
+         * @return true if a magazine was discarded
+         */
+        private boolean discardEmpty()
+        {
+            if (_loaded != null && _loaded.isEmpty())
+            {
+                _loaded = _previous;
+                _previous = null;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isFull()
+        {
+            return _loaded != null && _loaded.isFull() && _previous != null && _previous.isFull();
+        }
+
+        /**
+         * Removes a full magazine from the cache, if it holds one.
+         */
+        private Magazine unload()
+        {
+            if (_loaded != null && _loaded.isFull())
+            {
+                final Magazine full = _loaded;
+                _loaded = null;
+                return full;
+            }
+            if (_previous != null && _previous.isFull())
+            {
+                final Magazine full = _previous;
+                _previous = null;
+                return full;
+            }
+            return null;
+        }
+
+        private void swap()
+        {
+            final Magazine magazine = _loaded;
+            _loaded = _previous;
+            _previous = magazine;
+        }
+
+        private int size()
+        {
+            final Magazine loaded = _loaded;
+            final Magazine previous = _previous;
+            return (loaded == null ? 0 : loaded._count) + (previous == null ? 0 : previous._count);
+        }
+
+        private boolean isOwnerTerminated()
+        {
+            final Thread owner = _owner.get();
+            return owner == null || !owner.isAlive();
+        }
+
+        private boolean drainTo(final BufferPool pool)
+        {
+            boolean drained = false;
+            Magazine full;
+            while ((full = unload()) != null)
+            {
+                pool.offerDepot(full);
+                drained = true;
+            }
+            if (_loaded != null && _previous != null)
+            {
+                while (!_loaded.isFull() && !_previous.isEmpty())
+                {
+                    _loaded.push(_previous.pop());
+                }
+                if (_loaded.isFull())
+                {
+                    pool.offerDepot(_loaded);
+                    _loaded = null;
+                    drained = true;
+                }
+            }
+            // buffers not filling a whole magazine are left to the garbage collector
+            if (_loaded != null)
+            {
+                pool.releaseMagazine();
+                _loaded = null;
+            }
+            if (_previous != null)
+            {
+                pool.releaseMagazine();
+                _previous = null;
+            }
+            return drained;
+        }
     }
 }
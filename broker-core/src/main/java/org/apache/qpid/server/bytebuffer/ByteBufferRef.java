@@ -31,4 +31,6 @@ public interface ByteBufferRef
     ByteBuffer getBuffer();
 
     boolean isSparse(double minimumSparsityFraction);
+
+    boolean isShared();
 }
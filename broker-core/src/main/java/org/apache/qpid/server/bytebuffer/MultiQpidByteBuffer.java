@@ -1002,6 +1002,19 @@ class MultiQpidByteBuffer implements QpidByteBuffer
         return false;
     }
 
+    @Override
+    public boolean isShared()
+    {
+        for (int i = 0, fragmentsSize = _fragments.length; i < fragmentsSize; i++)
+        {
+            if (_fragments[i].isShared())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     SingleQpidByteBuffer[] getFragments()
     {
         return _fragments;
@@ -58,4 +58,10 @@ class NonPooledByteBufferRef implements ByteBufferRef
     {
         return false;
     }
+
+    @Override
+    public boolean isShared()
+    {
+        return false;
+    }
 }
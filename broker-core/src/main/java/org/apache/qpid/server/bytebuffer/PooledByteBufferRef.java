@@ -85,6 +85,12 @@ class PooledByteBufferRef implements ByteBufferRef
         return minimumSparsityFraction > (double) CLAIMED_UPDATER.get(this) / (double) _buffer.capacity();
     }
 
+    @Override
+    public boolean isShared()
+    {
+        return REF_COUNT_UPDATER.get(this) > 1;
+    }
+
     static int getActiveBufferCount()
     {
         return ACTIVE_BUFFERS.get();
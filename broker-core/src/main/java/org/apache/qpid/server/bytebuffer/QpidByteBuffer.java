@@ -104,6 +104,11 @@ public interface QpidByteBuffer extends AutoCloseable
         QpidByteBufferFactory.initialisePool(bufferSize, maxPoolSize, sparsityFraction);
     }
 
+    static void initialisePool(int bufferSize, int maxPoolSize, double sparsityFraction, int threadCacheSize)
+    {
+        QpidByteBufferFactory.initialisePool(bufferSize, maxPoolSize, sparsityFraction, threadCacheSize);
+    }
+
     /**
      * Test use only
      */
@@ -137,6 +142,16 @@ public interface QpidByteBuffer extends AutoCloseable
         return QpidByteBufferFactory.getNumberOfBuffersInPool();
     }
 
+    static int getNumberOfBuffersInThreadCaches()
+    {
+        return QpidByteBufferFactory.getNumberOfBuffersInThreadCaches();
+    }
+
+    static int getNumberOfBuffersInSharedPool()
+    {
+        return QpidByteBufferFactory.getNumberOfBuffersInSharedPool();
+    }
+
     static long getPooledBufferDisposalCounter()
     {
         return QpidByteBufferFactory.getPooledBufferDisposalCounter();
@@ -305,4 +320,10 @@ public interface QpidByteBuffer extends AutoCloseable
     QpidByteBuffer view(int offset, int length);
 
     boolean isSparse();
+
+    /**
+     * @return true if the memory underlying this buffer is also referenced by other buffers, such as its slices,
+     * so that disposing of this buffer would not free it
+     */
+    boolean isShared();
 }
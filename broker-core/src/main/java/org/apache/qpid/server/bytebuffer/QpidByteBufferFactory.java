@@ -48,6 +48,7 @@ final class QpidByteBufferFactory
     private volatile static BufferPool _bufferPool;
     private volatile static int _pooledBufferSize;
     private volatile static double _sparsityFraction;
+    private volatile static int _threadCacheSize = BufferPool.DEFAULT_MAGAZINE_SIZE;
     private volatile static ByteBuffer _zeroed;
 
     static QpidByteBuffer allocate(boolean direct, int size)
@@ -292,18 +293,25 @@ final class QpidByteBufferFactory
     }
 
     static void initialisePool(int bufferSize, int maxPoolSize, double sparsityFraction)
+    {
+        initialisePool(bufferSize, maxPoolSize, sparsityFraction, BufferPool.DEFAULT_MAGAZINE_SIZE);
+    }
+
+    static void initialisePool(int bufferSize, int maxPoolSize, double sparsityFraction, int threadCacheSize)
     {
         if (_isPoolInitialized && (bufferSize != _pooledBufferSize
                                                        || maxPoolSize != _bufferPool.getMaxSize()
-                                                       || sparsityFraction != _sparsityFraction))
+                                                       || sparsityFraction != _sparsityFraction
+                                                       || threadCacheSize != _threadCacheSize))
         {
             final String errorMessage = String.format(
-                    "QpidByteBuffer pool has already been initialised with bufferSize=%d, maxPoolSize=%d, and sparsityFraction=%f."
+                    "QpidByteBuffer pool has already been initialised with bufferSize=%d, maxPoolSize=%d, sparsityFraction=%f and threadCacheSize=%d."
                     +
                     "Re-initialisation with different bufferSize=%d and maxPoolSize=%d is not allowed.",
                     _pooledBufferSize,
                     _bufferPool.getMaxSize(),
                     _sparsityFraction,
+                    _threadCacheSize,
                     bufferSize,
                     maxPoolSize);
             throw new IllegalStateException(errorMessage);
@@ -313,7 +321,8 @@ final class QpidByteBufferFactory
             throw new IllegalArgumentException("Negative or zero bufferSize illegal : " + bufferSize);
         }
 
-        _bufferPool = new BufferPool(maxPoolSize);
+        _bufferPool = new BufferPool(maxPoolSize, threadCacheSize);
+        _threadCacheSize = threadCacheSize;
         _pooledBufferSize = bufferSize;
         _zeroed = ByteBuffer.allocateDirect(_pooledBufferSize);
         _sparsityFraction = sparsityFraction;
@@ -337,6 +346,7 @@ final class QpidByteBufferFactory
             _pooledBufferSize = -1;
             _isPoolInitialized = false;
             _sparsityFraction = 1.0;
+            _threadCacheSize = BufferPool.DEFAULT_MAGAZINE_SIZE;
             _zeroed = null;
         }
     }
@@ -379,6 +389,16 @@ final class QpidByteBufferFactory
         return _bufferPool.size();
     }
 
+    static int getNumberOfBuffersInThreadCaches()
+    {
+        return _bufferPool.getThreadCachedSize();
+    }
+
+    static int getNumberOfBuffersInSharedPool()
+    {
+        return _bufferPool.getSharedSize();
+    }
+
     static long getPooledBufferDisposalCounter()
     {
         return PooledByteBufferRef.getDisposalCounter();
@@ -595,4 +595,10 @@ class SingleQpidByteBuffer implements QpidByteBuffer
     {
         return _ref.isSparse(QpidByteBufferFactory.getSparsityFraction());
     }
+
+    @Override
+    public boolean isShared()
+    {
+        return _ref.isShared();
+    }
 }
@@ -21,9 +21,12 @@
 package org.apache.qpid.server.consumer;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -59,10 +62,11 @@ public abstract class AbstractConsumerTarget<T extends AbstractConsumerTarget<T>
 
     private final boolean _isMultiQueue;
     private final SuspendedConsumerLoggingTicker _suspendedConsumerLoggingTicker;
-    private final List<MessageInstanceConsumer> _consumers = new CopyOnWriteArrayList<>();
+    // the value is set while the consumer is in _consumersWithPendingWork, so that it is queued at most once
+    private final ConcurrentMap<MessageInstanceConsumer, AtomicBoolean> _consumers = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<MessageInstanceConsumer> _consumersWithPendingWork = new ConcurrentLinkedQueue<>();
     private final AtomicBoolean _scheduled = new AtomicBoolean();
 
-    private volatile Iterator<MessageInstanceConsumer> _pullIterator;
     private volatile boolean _notifyWorkDesired;
 
     protected AbstractConsumerTarget(final boolean isMultiQueue,
@@ -82,14 +86,16 @@ public abstract class AbstractConsumerTarget<T extends AbstractConsumerTarget<T>
 
     private LogSubject getLogSubject()
     {
-        if (_consumers.size() == 1 && _consumers.get(0) instanceof LogSubject)
+        if (_consumers.size() == 1)
         {
-            return (LogSubject) _consumers.get(0);
-        }
-        else
-        {
-            return MULTI_QUEUE_LOG_SUBJECT;
+            final Iterator<MessageInstanceConsumer> iterator = _consumers.keySet().iterator();
+            final MessageInstanceConsumer consumer = iterator.hasNext() ? iterator.next() : null;
+            if (consumer instanceof LogSubject)
+            {
+                return (LogSubject) consumer;
+            }
         }
+        return MULTI_QUEUE_LOG_SUBJECT;
     }
 
     @Override
@@ -106,12 +112,37 @@ public abstract class AbstractConsumerTarget<T extends AbstractConsumerTarget<T>
 
     @Override
     public void notifyWork()
+    {
+        for (MessageInstanceConsumer consumer : _consumers.keySet())
+        {
+            schedule(consumer);
+        }
+        notifySession();
+    }
+
+    @Override
+    public void notifyWork(final MessageInstanceConsumer<T> consumer)
+    {
+        schedule(consumer);
+        notifySession();
+    }
+
+    private void notifySession()
     {
         @SuppressWarnings("unchecked")
         final T target = (T) this;
         getSession().notifyWork(target);
     }
 
+    private void schedule(final MessageInstanceConsumer consumer)
+    {
+        final AtomicBoolean scheduled = _consumers.get(consumer);
+        if (scheduled != null && scheduled.compareAndSet(false, true))
+        {
+            _consumersWithPendingWork.add(consumer);
+        }
+    }
+
     protected final void setNotifyWorkDesired(final boolean desired)
     {
         if (desired != _notifyWorkDesired)
@@ -126,7 +157,7 @@ public abstract class AbstractConsumerTarget<T extends AbstractConsumerTarget<T>
                 getSession().addTicker(_suspendedConsumerLoggingTicker);
             }
 
-            for (MessageInstanceConsumer consumer : _consumers)
+            for (MessageInstanceConsumer consumer : _consumers.keySet())
             {
                 consumer.setNotifyWorkDesired(desired);
             }
@@ -156,13 +187,14 @@ public abstract class AbstractConsumerTarget<T extends AbstractConsumerTarget<T>
     @Override
     public void consumerAdded(final MessageInstanceConsumer sub)
     {
-        _consumers.add(sub);
+        _consumers.put(sub, new AtomicBoolean());
+        schedule(sub);
     }
 
     @Override
     public ListenableFuture<Void> consumerRemoved(final MessageInstanceConsumer sub)
     {
-        if(_consumers.contains(sub))
+        if(_consumers.containsKey(sub))
         {
             return doOnIoThreadAsync(
                     () -> consumerRemovedInternal(sub));
@@ -187,9 +219,9 @@ public abstract class AbstractConsumerTarget<T extends AbstractConsumerTarget<T>
         }
     }
 
-    public List<MessageInstanceConsumer> getConsumers()
+    public Collection<MessageInstanceConsumer> getConsumers()
     {
-        return _consumers;
+        return _consumers.keySet();
     }
 
 
@@ -241,30 +273,35 @@ public abstract class AbstractConsumerTarget<T extends AbstractConsumerTarget<T>
     @Override
     public boolean sendNextMessage()
     {
-        MessageContainer messageContainer = null;
-        MessageInstanceConsumer consumer = null;
-        boolean iteratedCompleteList = false;
-        while (messageContainer == null)
+        if (_consumersWithPendingWork.isEmpty())
         {
-            if (_pullIterator == null || !_pullIterator.hasNext())
+            // the target was scheduled without any of its consumers being notified, for instance to drain the
+            // credit of a link or to flush, so every consumer is pulled and an idle one reports that no messages
+            // are available
+            for (MessageInstanceConsumer consumer : _consumers.keySet())
             {
-                if (iteratedCompleteList)
-                {
-                    break;
-                }
-                iteratedCompleteList = true;
-
-                _pullIterator = getConsumers().iterator();
+                schedule(consumer);
             }
-            if (_pullIterator.hasNext())
+        }
+
+        MessageContainer messageContainer = null;
+        MessageInstanceConsumer consumer = null;
+        // otherwise only consumers whose source has notified work are visited, a consumer that yields nothing is
+        // not revisited until its source notifies again
+        while (messageContainer == null && (consumer = _consumersWithPendingWork.poll()) != null)
+        {
+            final AtomicBoolean scheduled = _consumers.get(consumer);
+            if (scheduled != null)
             {
-                consumer = _pullIterator.next();
+                scheduled.set(false);
                 messageContainer = consumer.pullMessage();
             }
         }
 
         if (consumer != null && messageContainer != null)
         {
+            // the consumer may have further messages, it goes to the back so the others get their turn
+            schedule(consumer);
             final MessageInstance entry = messageContainer.getMessageInstance();
             try
             {
@@ -348,8 +385,9 @@ public abstract class AbstractConsumerTarget<T extends AbstractConsumerTarget<T>
         {
             setNotifyWorkDesired(false);
 
-            List<MessageInstanceConsumer> consumers = new ArrayList<>(_consumers);
+            List<MessageInstanceConsumer> consumers = new ArrayList<>(_consumers.keySet());
             _consumers.clear();
+            _consumersWithPendingWork.clear();
 
             for (MessageInstanceConsumer consumer : consumers)
             {
@@ -40,6 +40,8 @@ public interface ConsumerTarget<T extends ConsumerTarget<T>>
 
     void notifyWork();
 
+    void notifyWork(MessageInstanceConsumer<T> consumer);
+
     void updateNotifyWorkDesired();
 
     boolean isNotifyWorkDesired();
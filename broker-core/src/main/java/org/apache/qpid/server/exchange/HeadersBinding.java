@@ -107,6 +107,27 @@ class HeadersBinding
         return _binding;
     }
 
+    boolean isMatchAny()
+    {
+        return matchAny;
+    }
+
+    /**
+     * @return the names of the headers which this binding requires to be present, irrespective of their value
+     */
+    Set<String> getRequiredHeaders()
+    {
+        return required;
+    }
+
+    /**
+     * @return the header names and the values which this binding requires them to have
+     */
+    Map<String, Object> getRequiredValues()
+    {
+        return matches;
+    }
+
     /**
      * Checks whether the supplied headers match the requirements of this binding
      * @param headers the headers to check
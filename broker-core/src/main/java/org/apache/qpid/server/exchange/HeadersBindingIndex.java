@@ -0,0 +1,180 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.exchange;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.qpid.server.message.AMQMessageHeader;
+
+/**
+ * An inverted index over the {@link HeadersBinding}s of a headers exchange.
+ * <p>
+ * Each binding is indexed under the header keys (and header key/value pairs) that a message must carry for the
+ * binding to be able to match it:
+ * <ul>
+ *     <li>an x-match=all binding is indexed under a single one of its key/value pairs or, if it has none, under a
+ *     single one of its required header names, as a message lacking that header can never match it;</li>
+ *     <li>an x-match=any binding is indexed under every one of its key/value pairs and required header names;</li>
+ *     <li>a binding without any header arguments matches every message and is held separately.</li>
+ * </ul>
+ * Looking up a message therefore only visits the bindings sharing at least one header (or header value) with it.
+ * The returned candidates still have to be evaluated with {@link HeadersBinding#matches}.
+ * <p>
+ * The index is updated incrementally as bindings are added and removed. Updates are serialised; lookups are
+ * lock-free and may run concurrently with updates.
+ */
+class HeadersBindingIndex
+{
+    private final Map<AbstractExchange.BindingIdentifier, HeadersBinding> _bindings = new ConcurrentHashMap<>();
+    private final Set<HeadersBinding> _unconditional = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<HeadersBinding>> _byHeaderName = new ConcurrentHashMap<>();
+    private final Map<String, Map<Object, Set<HeadersBinding>>> _byHeaderValue = new ConcurrentHashMap<>();
+
+    synchronized void add(final HeadersBinding binding)
+    {
+        final HeadersBinding previous = _bindings.put(binding.getBinding(), binding);
+        if (previous != null)
+        {
+            unindex(previous);
+        }
+        index(binding);
+    }
+
+    synchronized void remove(final AbstractExchange.BindingIdentifier bindingIdentifier)
+    {
+        final HeadersBinding previous = _bindings.remove(bindingIdentifier);
+        if (previous != null)
+        {
+            unindex(previous);
+        }
+    }
+
+    /**
+     * Returns the bindings which could match a message with the given headers.
+     *
+     * @param headers the message headers, may be null
+     * @return the candidate bindings, without duplicates
+     */
+    Collection<HeadersBinding> getCandidates(final AMQMessageHeader headers)
+    {
+        if (_bindings.isEmpty())
+        {
+            return Collections.emptySet();
+        }
+
+        final Set<HeadersBinding> candidates = new HashSet<>(_unconditional);
+        if (headers != null && !(_byHeaderName.isEmpty() && _byHeaderValue.isEmpty()))
+        {
+            for (final String name : headers.getHeaderNames())
+            {
+                final Set<HeadersBinding> presence = _byHeaderName.get(name);
+                if (presence != null)
+                {
+                    candidates.addAll(presence);
+                }
+                final Map<Object, Set<HeadersBinding>> values = _byHeaderValue.get(name);
+                if (values != null)
+                {
+                    final Object value = headers.getHeader(name);
+                    if (value != null)
+                    {
+                        final Set<HeadersBinding> valueMatches = values.get(value);
+                        if (valueMatches != null)
+                        {
+                            candidates.addAll(valueMatches);
+                        }
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void index(final HeadersBinding binding)
+    {
+        final Set<String> requiredHeaders = binding.getRequiredHeaders();
+        final Map<String, Object> requiredValues = binding.getRequiredValues();
+        if (requiredHeaders.isEmpty() && requiredValues.isEmpty())
+        {
+            _unconditional.add(binding);
+        }
+        else if (binding.isMatchAny())
+        {
+            requiredHeaders.forEach(name -> addByName(name, binding));
+            requiredValues.forEach((name, value) -> addByValue(name, value, binding));
+        }
+        else if (!requiredValues.isEmpty())
+        {
+            final Map.Entry<String, Object> anchor = requiredValues.entrySet().iterator().next();
+            addByValue(anchor.getKey(), anchor.getValue(), binding);
+        }
+        else
+        {
+            addByName(requiredHeaders.iterator().next(), binding);
+        }
+    }
+
+    private void unindex(final HeadersBinding binding)
+    {
+        _unconditional.remove(binding);
+        binding.getRequiredHeaders().forEach(name -> removeByName(name, binding));
+        binding.getRequiredValues().forEach((name, value) -> removeByValue(name, value, binding));
+    }
+
+    private void addByName(final String name, final HeadersBinding binding)
+    {
+        _byHeaderName.computeIfAbsent(name, n -> ConcurrentHashMap.newKeySet()).add(binding);
+    }
+
+    private void removeByName(final String name, final HeadersBinding binding)
+    {
+        _byHeaderName.computeIfPresent(name, (n, bindings) ->
+        {
+            bindings.remove(binding);
+            return bindings.isEmpty() ? null : bindings;
+        });
+    }
+
+    private void addByValue(final String name, final Object value, final HeadersBinding binding)
+    {
+        _byHeaderValue.computeIfAbsent(name, n -> new ConcurrentHashMap<>())
+                      .computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet())
+                      .add(binding);
+    }
+
+    private void removeByValue(final String name, final Object value, final HeadersBinding binding)
+    {
+        _byHeaderValue.computeIfPresent(name, (n, values) ->
+        {
+            values.computeIfPresent(value, (v, bindings) ->
+            {
+                bindings.remove(binding);
+                return bindings.isEmpty() ? null : bindings;
+            });
+            return values.isEmpty() ? null : values;
+        });
+    }
+}
@@ -20,10 +20,8 @@
  */
 package org.apache.qpid.server.exchange;
 
-import java.util.Collections;
+import java.util.Collection;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,7 +67,7 @@ public class HeadersExchangeImpl extends AbstractExchange<HeadersExchangeImpl> i
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HeadersExchangeImpl.class);
 
-    private final Set<HeadersBinding> _bindingHeaderMatchers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final HeadersBindingIndex _bindingIndex = new HeadersBindingIndex();
 
     @ManagedObjectFactoryConstructor
     public HeadersExchangeImpl(final Map<String, Object> attributes, final QueueManagingVirtualHost<?> vhost)
@@ -85,9 +83,16 @@ public class HeadersExchangeImpl extends AbstractExchange<HeadersExchangeImpl> i
     {
         LOGGER.debug("Exchange {}: routing message with headers {}", getName(), payload.getMessageHeader());
 
-        for (HeadersBinding hb : _bindingHeaderMatchers)
+        final Collection<HeadersBinding> candidates = _bindingIndex.getCandidates(payload.getMessageHeader());
+        if (candidates.isEmpty())
         {
-            if (hb.matches(Filterable.Factory.newInstance(payload,instanceProperties)))
+            return;
+        }
+
+        final Filterable filterable = Filterable.Factory.newInstance(payload, instanceProperties);
+        for (HeadersBinding hb : candidates)
+        {
+            if (hb.matches(filterable))
             {
                 MessageDestination destination = hb.getBinding().getDestination();
 
@@ -108,26 +113,19 @@ public class HeadersExchangeImpl extends AbstractExchange<HeadersExchangeImpl> i
     @Override
     protected void onBind(final BindingIdentifier binding, Map<String,Object> arguments) throws AMQInvalidArgumentException
     {
-        _bindingHeaderMatchers.add(new HeadersBinding(binding, arguments));
+        _bindingIndex.add(new HeadersBinding(binding, arguments));
     }
 
     @Override
     protected void onBindingUpdated(final BindingIdentifier binding, final Map<String, Object> arguments)  throws AMQInvalidArgumentException
     {
-        _bindingHeaderMatchers.add(new HeadersBinding(binding, arguments));
+        _bindingIndex.add(new HeadersBinding(binding, arguments));
     }
 
     @Override
     protected void onUnbind(final BindingIdentifier binding)
     {
-        try
-        {
-            _bindingHeaderMatchers.remove(new HeadersBinding(binding, Map.of()));
-        }
-        catch (AMQInvalidArgumentException e)
-        {
-            // ignore
-        }
+        _bindingIndex.remove(binding);
     }
 
 }
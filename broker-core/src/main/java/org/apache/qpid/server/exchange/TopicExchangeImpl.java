@@ -49,8 +49,15 @@ class TopicExchangeImpl extends AbstractExchange<TopicExchangeImpl> implements T
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(TopicExchangeImpl.class);
 
+    /**
+     * Minimum number of results of removed bindings left in the parser before it is compacted.
+     */
+    private static final int MIN_STALE_RESULTS_BEFORE_REBUILD = 64;
+
     private final TopicParser _parser = new TopicParser();
 
+    private int _staleResults;
+
     private final Map<String, TopicExchangeResult> _topicExchangeResults = new ConcurrentHashMap<>();
 
     private final Map<BindingIdentifier, Map<String,Object>> _bindings = new HashMap<>();
@@ -179,7 +186,11 @@ class TopicExchangeImpl extends AbstractExchange<TopicExchangeImpl> implements T
                 result.removeUnfilteredDestination(binding.getDestination());
             }
 
-            // shall we delete the result from _topicExchangeResults if result is empty?
+            if (result.isEmpty())
+            {
+                _topicExchangeResults.remove(bindingKey);
+                removeStaleResult();
+            }
             return true;
         }
         else
@@ -188,6 +199,24 @@ class TopicExchangeImpl extends AbstractExchange<TopicExchangeImpl> implements T
         }
     }
 
+    /**
+     * The state machine of the parser only ever grows when bindings are added, so results of removed bindings
+     * linger (matching nothing) until the parser is rebuilt. Rebuilding once the number of stale results exceeds
+     * the number of live ones keeps the state machine proportional to the live bindings at an amortised constant
+     * cost per unbind. The parser publishes the rebuilt state machine atomically, thus routing is never blocked.
+     */
+    private void removeStaleResult()
+    {
+        _staleResults++;
+        if (_staleResults >= MIN_STALE_RESULTS_BEFORE_REBUILD && _staleResults > _topicExchangeResults.size())
+        {
+            LOGGER.debug("Rebuilding topic parser of exchange {} with {} binding keys",
+                         getName(), _topicExchangeResults.size());
+            _parser.rebuild(_topicExchangeResults);
+            _staleResults = 0;
+        }
+    }
+
     private Map<MessageDestination, Set<String>> getMatchedDestinations(final Filterable message,
                                                                         final String routingKey)
     {
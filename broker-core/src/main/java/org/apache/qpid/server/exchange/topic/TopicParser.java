@@ -117,6 +117,25 @@ public class TopicParser
 
     }
 
+    /**
+     * Replaces the state machine with one built from the given bindings only, discarding any results
+     * of bindings which have since been removed. The new state machine is built aside and published
+     * atomically, so concurrent calls to {@link #parse(String)} always see a complete state machine.
+     * Must not be called concurrently with {@link #addBinding(String, TopicMatcherResult)}.
+     *
+     * @param bindings the results keyed by their (normalized) binding key
+     */
+    public void rebuild(Map<String, ? extends TopicMatcherResult> bindings)
+    {
+        TopicMatcherDFAState newStateMachine = null;
+        for(Map.Entry<String, ? extends TopicMatcherResult> binding : bindings.entrySet())
+        {
+            final TopicMatcherDFAState stateMachine = createStateMachine(binding.getKey(), binding.getValue());
+            newStateMachine = newStateMachine == null ? stateMachine : newStateMachine.mergeStateMachines(stateMachine);
+        }
+        _stateMachine.set(newStateMachine);
+    }
+
     public Collection<TopicMatcherResult> parse(String routingKey)
     {
         TopicMatcherDFAState stateMachine = _stateMachine.get();
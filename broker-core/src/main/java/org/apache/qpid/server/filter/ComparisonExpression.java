@@ -581,7 +581,7 @@ public abstract class ComparisonExpression<T> extends BinaryExpression<T> implem
         return (object != null) && (object == Boolean.TRUE);
     }
 
-    private static class EqualExpression<E> extends ComparisonExpression<E>
+    static class EqualExpression<E> extends ComparisonExpression<E>
     {
         public EqualExpression(final Expression<E> left, final Expression<E> right)
         {
@@ -20,6 +20,11 @@
  */
 package org.apache.qpid.server.filter;
 
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,15 +39,48 @@ public class JMSSelectorFilter implements MessageFilter
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(JMSSelectorFilter.class);
 
+    public static final String QPID_SELECTOR_COMPILATION = "qpid.selector_compilation";
+
+    private static final boolean COMPILE_SELECTORS =
+            Boolean.parseBoolean(System.getProperty(QPID_SELECTOR_COMPILATION, "true"));
+
+    private static final Map<String, WeakReference<BooleanExpression<FilterableMessage>>> _programCache =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
     private final String _selector;
-    private final BooleanExpression _matcher;
+    private final BooleanExpression<FilterableMessage> _matcher;
 
     public JMSSelectorFilter(String selector) throws ParseException, TokenMgrError, SelectorParsingException
+    {
+        this(selector, COMPILE_SELECTORS);
+    }
+
+    JMSSelectorFilter(String selector, boolean compile) throws ParseException, TokenMgrError, SelectorParsingException
     {
         _selector = selector;
+        _matcher = compile ? getCompiledProgram(selector) : parse(selector);
+    }
+
+    private static BooleanExpression<FilterableMessage> getCompiledProgram(String selector)
+            throws ParseException, TokenMgrError, SelectorParsingException
+    {
+        WeakReference<BooleanExpression<FilterableMessage>> programRef = _programCache.get(selector);
+        BooleanExpression<FilterableMessage> program;
+
+        if (programRef == null || (program = programRef.get()) == null)
+        {
+            program = SelectorCompiler.compile(parse(selector));
+            _programCache.put(selector, new WeakReference<>(program));
+        }
+        return program;
+    }
+
+    private static BooleanExpression<FilterableMessage> parse(String selector)
+            throws ParseException, TokenMgrError, SelectorParsingException
+    {
         SelectorParser<FilterableMessage> selectorParser = new SelectorParser<>();
         selectorParser.setPropertyExpressionFactory(JMSMessagePropertyExpression.FACTORY);
-        _matcher = selectorParser.parse(selector);
+        return selectorParser.parse(selector);
     }
 
     @Override
@@ -55,7 +93,15 @@ public class JMSSelectorFilter implements MessageFilter
     public boolean matches(Filterable message)
     {
 
-        boolean match = _matcher.matches(message);
+        final boolean match;
+        if (message instanceof MemoizingFilterable)
+        {
+            match = ((MemoizingFilterable) message).evaluate(this, _matcher, message) == Boolean.TRUE;
+        }
+        else
+        {
+            match = _matcher.matches(message);
+        }
         if(LOGGER.isDebugEnabled())
         {
             LOGGER.debug(message + " match(" + match + ") selector(" + System.identityHashCode(_selector) + "):" + _selector);
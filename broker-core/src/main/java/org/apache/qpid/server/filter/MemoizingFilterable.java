@@ -0,0 +1,180 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *
+ */
+package org.apache.qpid.server.filter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.qpid.server.message.AMQMessageHeader;
+
+/**
+ * A {@link Filterable} which remembers the header values and filter results computed against it, so that the
+ * work can be shared by all the consumers of a queue that evaluate their filters against the same queue entry.
+ * <p>
+ * Results are keyed by an object identifying the predicate: a {@link JMSSelectorFilter} for a whole selector
+ * (two filters with the same selector text are equal), or the canonical text of a sub-expression for the parts
+ * of selectors shared by {@link SelectorCompiler}.  Evaluation happens outside the lock, so two threads may
+ * occasionally compute the same value; both arrive at the same answer.
+ */
+public final class MemoizingFilterable implements Filterable
+{
+    private static final Object ABSENT = new Object();
+
+    private final Filterable _delegate;
+    private Map<String, Object> _headers;
+    private Map<Object, Object> _results;
+
+    public MemoizingFilterable(final Filterable delegate)
+    {
+        _delegate = delegate;
+    }
+
+    @Override
+    public Object getHeader(final String name)
+    {
+        synchronized (this)
+        {
+            if (_headers == null)
+            {
+                _headers = new HashMap<>();
+            }
+            else if (_headers.containsKey(name))
+            {
+                return _headers.get(name);
+            }
+        }
+        final Object value = _delegate.getHeader(name);
+        synchronized (this)
+        {
+            _headers.put(name, value);
+        }
+        return value;
+    }
+
+    <E> Object evaluate(final Object key, final Expression<E> expression, final E message)
+    {
+        synchronized (this)
+        {
+            if (_results == null)
+            {
+                _results = new HashMap<>();
+            }
+            else
+            {
+                final Object result = _results.getOrDefault(key, ABSENT);
+                if (result != ABSENT)
+                {
+                    return result;
+                }
+            }
+        }
+        final Object result = expression.evaluate(message);
+        synchronized (this)
+        {
+            _results.put(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public AMQMessageHeader getMessageHeader()
+    {
+        return _delegate.getMessageHeader();
+    }
+
+    @Override
+    public boolean isPersistent()
+    {
+        return _delegate.isPersistent();
+    }
+
+    @Override
+    public boolean isRedelivered()
+    {
+        return _delegate.isRedelivered();
+    }
+
+    @Override
+    public Object getConnectionReference()
+    {
+        return _delegate.getConnectionReference();
+    }
+
+    @Override
+    public long getMessageNumber()
+    {
+        return _delegate.getMessageNumber();
+    }
+
+    @Override
+    public long getArrivalTime()
+    {
+        return _delegate.getArrivalTime();
+    }
+
+    @Override
+    public String getReplyTo()
+    {
+        return _delegate.getReplyTo();
+    }
+
+    @Override
+    public String getType()
+    {
+        return _delegate.getType();
+    }
+
+    @Override
+    public byte getPriority()
+    {
+        return _delegate.getPriority();
+    }
+
+    @Override
+    public String getMessageId()
+    {
+        return _delegate.getMessageId();
+    }
+
+    @Override
+    public long getTimestamp()
+    {
+        return _delegate.getTimestamp();
+    }
+
+    @Override
+    public String getCorrelationId()
+    {
+        return _delegate.getCorrelationId();
+    }
+
+    @Override
+    public long getExpiration()
+    {
+        return _delegate.getExpiration();
+    }
+
+    @Override
+    public String toString()
+    {
+        return _delegate.toString();
+    }
+}
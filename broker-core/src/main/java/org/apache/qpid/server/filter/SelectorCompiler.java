@@ -0,0 +1,539 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ *
+ */
+package org.apache.qpid.server.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lowers a parsed selector into a tree of evaluators specialised for the shapes that dominate real selectors:
+ * chains of AND/OR are flattened into a single short-circuiting loop, constant operands are folded away, and
+ * comparisons of a value against a string or integral literal are evaluated without the generic type promotion
+ * performed by {@link ComparisonExpression}.  Whenever a value does not have the type the specialisation was built
+ * for, evaluation falls back to the original node, so the compiled selector always yields the same result as the
+ * interpreted one.
+ * <p>
+ * Composite operands of AND/OR chains (nested chains, IN and LIKE) are keyed by their canonical text.  When the
+ * selector is evaluated against a {@link MemoizingFilterable}, results of these operands are shared with every
+ * other selector containing the same sub-expression.
+ */
+final class SelectorCompiler
+{
+    private SelectorCompiler()
+    {
+    }
+
+    static <E> BooleanExpression<E> compile(final BooleanExpression<E> expression)
+    {
+        return new CompiledExpression<>(expression, lower(expression));
+    }
+
+    private static <E> Expression<E> lower(final Expression<E> expression)
+    {
+        if (expression instanceof LogicExpression.AndExpression)
+        {
+            return lowerAnd((LogicExpression.AndExpression<E>) expression);
+        }
+        else if (expression instanceof LogicExpression.OrExpression)
+        {
+            return lowerOr((LogicExpression.OrExpression<E>) expression);
+        }
+        else if (expression instanceof UnaryExpression.NotExpression)
+        {
+            return lowerNot((UnaryExpression.NotExpression<E>) expression);
+        }
+        else if (expression instanceof ComparisonExpression.EqualExpression)
+        {
+            return lowerEqual((ComparisonExpression.EqualExpression<E>) expression);
+        }
+        else if (expression instanceof ComparisonExpression)
+        {
+            return lowerComparison((ComparisonExpression<E>) expression);
+        }
+        else if (expression instanceof UnaryExpression.InExpression)
+        {
+            return lowerIn((UnaryExpression.InExpression<E>) expression);
+        }
+        return expression;
+    }
+
+    private static <E> Expression<E> lowerAnd(final LogicExpression.AndExpression<E> expression)
+    {
+        final List<Expression<E>> operands = new ArrayList<>();
+        flatten(expression, LogicExpression.AndExpression.class, operands);
+
+        // AND evaluates its operands left to right, stopping at the first FALSE or unknown (null) value and
+        // otherwise yielding the value of the last operand.  A constant TRUE can therefore only be dropped, while a
+        // constant FALSE or NULL makes everything to its right unreachable.
+        final List<Expression<E>> lowered = new ArrayList<>();
+        for (Expression<E> operand : operands)
+        {
+            final Expression<E> loweredOperand = share(operand, lower(operand));
+            if (isConstant(loweredOperand, Boolean.TRUE))
+            {
+                continue;
+            }
+            lowered.add(loweredOperand);
+            if (loweredOperand instanceof ConstantExpression)
+            {
+                break;
+            }
+        }
+        if (lowered.isEmpty())
+        {
+            return ConstantExpression.TRUE();
+        }
+        else if (lowered.size() == 1)
+        {
+            return lowered.get(0);
+        }
+        return new AndProgram<>(lowered);
+    }
+
+    private static <E> Expression<E> lowerOr(final LogicExpression.OrExpression<E> expression)
+    {
+        final List<Expression<E>> operands = new ArrayList<>();
+        flatten(expression, LogicExpression.OrExpression.class, operands);
+
+        // OR stops at the first TRUE value and otherwise yields the value of its last operand, so leading
+        // constant FALSE or NULL operands can be dropped and a constant TRUE ends the chain.
+        final List<Expression<E>> lowered = new ArrayList<>();
+        for (int i = 0; i < operands.size(); i++)
+        {
+            final Expression<E> loweredOperand = share(operands.get(i), lower(operands.get(i)));
+            final boolean last = i == operands.size() - 1;
+            if (!last && loweredOperand instanceof ConstantExpression && !isConstant(loweredOperand, Boolean.TRUE))
+            {
+                continue;
+            }
+            lowered.add(loweredOperand);
+            if (isConstant(loweredOperand, Boolean.TRUE))
+            {
+                break;
+            }
+        }
+        if (lowered.size() == 1)
+        {
+            return lowered.get(0);
+        }
+        return new OrProgram<>(lowered);
+    }
+
+    private static <E> Expression<E> share(final Expression<E> source, final Expression<E> lowered)
+    {
+        if (lowered instanceof AndProgram
+            || lowered instanceof OrProgram
+            || lowered instanceof StringInProgram
+            || lowered instanceof UnaryExpression.InExpression
+            || lowered instanceof ComparisonExpression.LikeExpression)
+        {
+            return new SharedProgram<>(source.toString().intern(), lowered);
+        }
+        return lowered;
+    }
+
+    private static <E> void flatten(final Expression<E> expression,
+                                    final Class<?> operator,
+                                    final List<Expression<E>> operands)
+    {
+        if (operator.isInstance(expression))
+        {
+            final BinaryExpression<E> binaryExpression = (BinaryExpression<E>) expression;
+            flatten(binaryExpression.getLeft(), operator, operands);
+            flatten(binaryExpression.getRight(), operator, operands);
+        }
+        else
+        {
+            operands.add(expression);
+        }
+    }
+
+    private static <E> Expression<E> lowerNot(final UnaryExpression.NotExpression<E> expression)
+    {
+        final Expression<E> operand = lower(expression.getRight());
+        if (isConstant(operand, null))
+        {
+            return ConstantExpression.NULL();
+        }
+        else if (isConstant(operand, Boolean.TRUE))
+        {
+            return ConstantExpression.FALSE();
+        }
+        else if (isConstant(operand, Boolean.FALSE))
+        {
+            return ConstantExpression.TRUE();
+        }
+        return new NotProgram<>(operand);
+    }
+
+    private static <E> Expression<E> lowerEqual(final ComparisonExpression.EqualExpression<E> expression)
+    {
+        final Expression<E> left = expression.getLeft();
+        final Expression<E> right = expression.getRight();
+        final Expression<E> operand;
+        final Object literal;
+        if (right instanceof ConstantExpression)
+        {
+            operand = left;
+            literal = ((ConstantExpression<E>) right).getValue();
+        }
+        else if (left instanceof ConstantExpression)
+        {
+            operand = right;
+            literal = ((ConstantExpression<E>) left).getValue();
+        }
+        else
+        {
+            return expression;
+        }
+
+        if (literal == null)
+        {
+            return new IsNullProgram<>(operand);
+        }
+        else if (literal instanceof String)
+        {
+            return new StringEqualProgram<>(expression, operand, (String) literal);
+        }
+        else if (isIntegral(literal))
+        {
+            return new IntegralEqualProgram<>(expression, operand, ((Number) literal).longValue());
+        }
+        return expression;
+    }
+
+    private static <E> Expression<E> lowerComparison(final ComparisonExpression<E> expression)
+    {
+        final Expression<E> left = expression.getLeft();
+        final Expression<E> right = expression.getRight();
+        if (right instanceof ConstantExpression && isIntegral(((ConstantExpression<E>) right).getValue()))
+        {
+            final long literal = ((Number) ((ConstantExpression<E>) right).getValue()).longValue();
+            return new IntegralComparisonProgram<>(expression, left, literal, false);
+        }
+        else if (left instanceof ConstantExpression && isIntegral(((ConstantExpression<E>) left).getValue()))
+        {
+            final long literal = ((Number) ((ConstantExpression<E>) left).getValue()).longValue();
+            return new IntegralComparisonProgram<>(expression, right, literal, true);
+        }
+        return expression;
+    }
+
+    private static <E> Expression<E> lowerIn(final UnaryExpression.InExpression<E> expression)
+    {
+        final Collection<?> inList = expression.getInList();
+        if (inList == null)
+        {
+            return expression;
+        }
+        final Set<String> values = new HashSet<>();
+        for (Object element : inList)
+        {
+            if (!(element instanceof String))
+            {
+                return expression;
+            }
+            values.add((String) element);
+        }
+        return new StringInProgram<>(expression, values);
+    }
+
+    private static boolean isIntegral(final Object value)
+    {
+        return value instanceof Integer || value instanceof Long;
+    }
+
+    private static <E> boolean isConstant(final Expression<E> expression, final Object value)
+    {
+        return expression instanceof ConstantExpression && ((ConstantExpression<E>) expression).getValue() == value;
+    }
+
+    private static final class CompiledExpression<E> implements BooleanExpression<E>
+    {
+        private final BooleanExpression<E> _source;
+        private final Expression<E> _program;
+
+        private CompiledExpression(final BooleanExpression<E> source, final Expression<E> program)
+        {
+            _source = source;
+            _program = program;
+        }
+
+        @Override
+        public boolean matches(final E message)
+        {
+            return _program.evaluate(message) == Boolean.TRUE;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            return _program.evaluate(message);
+        }
+
+        @Override
+        public String toString()
+        {
+            return _source.toString();
+        }
+    }
+
+    private static final class AndProgram<E> implements Expression<E>
+    {
+        private final Expression<E>[] _operands;
+        private final Expression<E> _last;
+
+        @SuppressWarnings("unchecked")
+        private AndProgram(final List<Expression<E>> operands)
+        {
+            _operands = operands.subList(0, operands.size() - 1).toArray(new Expression[0]);
+            _last = operands.get(operands.size() - 1);
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            for (Expression<E> operand : _operands)
+            {
+                final Boolean value = (Boolean) operand.evaluate(message);
+                if (value == null)
+                {
+                    return null;
+                }
+                if (!value)
+                {
+                    return Boolean.FALSE;
+                }
+            }
+            return _last.evaluate(message);
+        }
+    }
+
+    private static final class OrProgram<E> implements Expression<E>
+    {
+        private final Expression<E>[] _operands;
+        private final Expression<E> _last;
+
+        @SuppressWarnings("unchecked")
+        private OrProgram(final List<Expression<E>> operands)
+        {
+            _operands = operands.subList(0, operands.size() - 1).toArray(new Expression[0]);
+            _last = operands.get(operands.size() - 1);
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            for (Expression<E> operand : _operands)
+            {
+                final Boolean value = (Boolean) operand.evaluate(message);
+                if (value != null && value)
+                {
+                    return Boolean.TRUE;
+                }
+            }
+            return _last.evaluate(message);
+        }
+    }
+
+    private static final class SharedProgram<E> implements Expression<E>
+    {
+        private final String _key;
+        private final Expression<E> _program;
+
+        private SharedProgram(final String key, final Expression<E> program)
+        {
+            _key = key;
+            _program = program;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            if (message instanceof MemoizingFilterable)
+            {
+                return ((MemoizingFilterable) message).evaluate(_key, _program, message);
+            }
+            return _program.evaluate(message);
+        }
+    }
+
+    private static final class NotProgram<E> implements Expression<E>
+    {
+        private final Expression<E> _operand;
+
+        private NotProgram(final Expression<E> operand)
+        {
+            _operand = operand;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            final Boolean value = (Boolean) _operand.evaluate(message);
+            if (value == null)
+            {
+                return null;
+            }
+            return value ? Boolean.FALSE : Boolean.TRUE;
+        }
+    }
+
+    private static final class IsNullProgram<E> implements Expression<E>
+    {
+        private final Expression<E> _operand;
+
+        private IsNullProgram(final Expression<E> operand)
+        {
+            _operand = operand;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            return _operand.evaluate(message) == null ? Boolean.TRUE : Boolean.FALSE;
+        }
+    }
+
+    private static final class StringEqualProgram<E> implements Expression<E>
+    {
+        private final Expression<E> _fallback;
+        private final Expression<E> _operand;
+        private final String _literal;
+
+        private StringEqualProgram(final Expression<E> fallback, final Expression<E> operand, final String literal)
+        {
+            _fallback = fallback;
+            _operand = operand;
+            _literal = literal;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            final Object value = _operand.evaluate(message);
+            if (value == null)
+            {
+                return Boolean.FALSE;
+            }
+            else if (value instanceof String)
+            {
+                return _literal.equals(value) ? Boolean.TRUE : Boolean.FALSE;
+            }
+            return _fallback.evaluate(message);
+        }
+    }
+
+    private static final class IntegralEqualProgram<E> implements Expression<E>
+    {
+        private final Expression<E> _fallback;
+        private final Expression<E> _operand;
+        private final long _literal;
+
+        private IntegralEqualProgram(final Expression<E> fallback, final Expression<E> operand, final long literal)
+        {
+            _fallback = fallback;
+            _operand = operand;
+            _literal = literal;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            final Object value = _operand.evaluate(message);
+            if (value == null)
+            {
+                return Boolean.FALSE;
+            }
+            else if (isIntegral(value))
+            {
+                return ((Number) value).longValue() == _literal ? Boolean.TRUE : Boolean.FALSE;
+            }
+            return _fallback.evaluate(message);
+        }
+    }
+
+    private static final class IntegralComparisonProgram<E> implements Expression<E>
+    {
+        private final ComparisonExpression<E> _fallback;
+        private final Expression<E> _operand;
+        private final long _literal;
+        private final boolean _literalOnLeft;
+
+        private IntegralComparisonProgram(final ComparisonExpression<E> fallback,
+                                          final Expression<E> operand,
+                                          final long literal,
+                                          final boolean literalOnLeft)
+        {
+            _fallback = fallback;
+            _operand = operand;
+            _literal = literal;
+            _literalOnLeft = literalOnLeft;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            final Object value = _operand.evaluate(message);
+            if (value == null)
+            {
+                return null;
+            }
+            else if (isIntegral(value))
+            {
+                final long operand = ((Number) value).longValue();
+                final int answer = _literalOnLeft ? Long.compare(_literal, operand) : Long.compare(operand, _literal);
+                return _fallback.asBoolean(answer) ? Boolean.TRUE : Boolean.FALSE;
+            }
+            return _fallback.evaluate(message);
+        }
+    }
+
+    private static final class StringInProgram<E> implements Expression<E>
+    {
+        private final UnaryExpression.InExpression<E> _fallback;
+        private final Expression<E> _operand;
+        private final Set<String> _values;
+        private final boolean _not;
+
+        private StringInProgram(final UnaryExpression.InExpression<E> fallback, final Set<String> values)
+        {
+            _fallback = fallback;
+            _operand = fallback.getRight();
+            _values = values;
+            _not = fallback.isNot();
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            final Object value = _operand.evaluate(message);
+            if (value instanceof String)
+            {
+                return _values.contains(value) ^ _not ? Boolean.TRUE : Boolean.FALSE;
+            }
+            return _fallback.evaluate(message);
+        }
+    }
+}
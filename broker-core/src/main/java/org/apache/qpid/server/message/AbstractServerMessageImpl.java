@@ -59,6 +59,13 @@ public abstract class AbstractServerMessageImpl<X extends AbstractServerMessageI
                                                                               ServerMessage.ValidationStatus.class,
                                                                               "_validationStatus");
 
+    private static final AtomicReferenceFieldUpdater<AbstractServerMessageImpl, ConvertedMessageCache>
+            _convertedMessageCacheUpdater = AtomicReferenceFieldUpdater.newUpdater(AbstractServerMessageImpl.class,
+                                                                                   ConvertedMessageCache.class,
+                                                                                   "_convertedMessageCache");
+    private static final ConvertedMessageCache RELEASED_MESSAGE_CACHE = new ConvertedMessageCache(true);
+    private volatile ConvertedMessageCache _convertedMessageCache;
+
     public AbstractServerMessageImpl(StoredMessage<T> handle, Object connectionReference)
     {
         _handle = handle;
@@ -124,6 +131,12 @@ public abstract class AbstractServerMessageImpl<X extends AbstractServerMessageI
                 updated = _refCountUpdater.compareAndSet(this, count, -1);
                 if (updated)
                 {
+                    final ConvertedMessageCache convertedMessageCache =
+                            _convertedMessageCacheUpdater.getAndSet(this, RELEASED_MESSAGE_CACHE);
+                    if (convertedMessageCache != null)
+                    {
+                        convertedMessageCache.clear(true);
+                    }
                     _handle.remove();
                 }
             }
@@ -146,6 +159,28 @@ public abstract class AbstractServerMessageImpl<X extends AbstractServerMessageI
         return _referenceCount;
     }
 
+    ConvertedMessageCache getConvertedMessageCache()
+    {
+        ConvertedMessageCache cache = _convertedMessageCache;
+        if (cache == null)
+        {
+            _convertedMessageCacheUpdater.compareAndSet(this, null, new ConvertedMessageCache(false));
+            cache = _convertedMessageCache;
+        }
+        return cache;
+    }
+
+    ConvertedMessageCache peekConvertedMessageCache()
+    {
+        return _convertedMessageCache;
+    }
+
+    boolean isHeldByMoreThanOneResource()
+    {
+        final Collection<UUID> resources = _resources;
+        return resources != null && resources.size() > 1;
+    }
+
     @Override
     final public MessageReference<X> newReference()
     {
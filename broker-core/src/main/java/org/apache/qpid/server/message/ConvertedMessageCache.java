@@ -0,0 +1,335 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.qpid.server.model.NamedAddressSpace;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.plugin.MessageConverter;
+import org.apache.qpid.server.store.TransactionLogResource;
+
+/**
+ * Holds the representations of a message produced by message converters so that a message delivered to several
+ * consumers speaking the same protocol is only converted once.  A conversion is only kept when further deliveries of
+ * the message are to be expected: the message is held by more than one queue, the queue of the instance being
+ * delivered has other consumers, which may browse the message or receive it should it be released, or the instance
+ * has already been redelivered.  Otherwise the converted message is used by the single delivery and disposed.
+ * <p>
+ * Each cached representation is reference counted: the cache holds one reference and every delivery holds another
+ * for as long as it uses the converted message. The converted message is disposed once the cache has dropped it
+ * (because the source message has been released or its content has flowed to disk) and no delivery is still
+ * using it.  Whilst cached, the size of the converted message is counted in the {@link Statistics} of the address
+ * space it was converted for.
+ */
+public final class ConvertedMessageCache
+{
+    private final Map<CacheKey, CachedConversion<?>> _conversions = new HashMap<>(4);
+    private boolean _closed;
+
+    ConvertedMessageCache(final boolean closed)
+    {
+        _closed = closed;
+    }
+
+    /**
+     * Returns a reference to the message of the given instance converted by the given converter. The caller must
+     * release the returned reference once it has finished using the converted message; it must not dispose the
+     * converted message itself.
+     */
+    public static <M extends ServerMessage, N extends ServerMessage> MessageReference<N> convert(final M message,
+                                                                                              final MessageInstance instance,
+                                                                                              final MessageConverter<M, N> converter,
+                                                                                              final NamedAddressSpace addressSpace)
+    {
+        if (message instanceof AbstractServerMessageImpl)
+        {
+            return ((AbstractServerMessageImpl<?, ?>) message).getConvertedMessageCache()
+                                                             .getConversion(message, instance, converter, addressSpace);
+        }
+        return convertUncached(message, converter, addressSpace);
+    }
+
+    /**
+     * Drops the cached conversions of the given message. Conversions still in use are disposed when the last
+     * delivery using them releases its reference.
+     */
+    public static void evict(final ServerMessage<?> message)
+    {
+        if (message instanceof AbstractServerMessageImpl)
+        {
+            final ConvertedMessageCache cache = ((AbstractServerMessageImpl<?, ?>) message).peekConvertedMessageCache();
+            if (cache != null)
+            {
+                cache.clear(false);
+            }
+        }
+    }
+
+    private static <M extends ServerMessage, N extends ServerMessage> MessageReference<N> convertUncached(final M message,
+                                                                                                      final MessageConverter<M, N> converter,
+                                                                                                      final NamedAddressSpace addressSpace)
+    {
+        final Statistics statistics = addressSpace.getConvertedMessageCacheStatistics();
+        if (statistics != null)
+        {
+            statistics._misses.incrementAndGet();
+        }
+        return uncachedReference(new CachedConversion<>(converter, converter.convert(message, addressSpace), null));
+    }
+
+    private static <N extends ServerMessage> MessageReference<N> uncachedReference(final CachedConversion<N> conversion)
+    {
+        try
+        {
+            return conversion.newReference();
+        }
+        finally
+        {
+            conversion.release();
+        }
+    }
+
+    private static boolean isFurtherDeliveryExpected(final AbstractServerMessageImpl<?, ?> message,
+                                                     final MessageInstance instance)
+    {
+        if (message.isHeldByMoreThanOneResource() || (instance != null && instance.getDeliveryCount() > 0))
+        {
+            return true;
+        }
+        final TransactionLogResource owningResource = instance == null ? null : instance.getOwningResource();
+        return owningResource instanceof Queue && ((Queue<?>) owningResource).getConsumerCount() > 1;
+    }
+
+    private <M extends ServerMessage, N extends ServerMessage> MessageReference<N> getConversion(final M message,
+                                                                                              final MessageInstance instance,
+                                                                                              final MessageConverter<M, N> converter,
+                                                                                              final NamedAddressSpace addressSpace)
+    {
+        final CacheKey key = new CacheKey(converter, addressSpace);
+        final Statistics statistics = addressSpace.getConvertedMessageCacheStatistics();
+        synchronized (this)
+        {
+            @SuppressWarnings("unchecked")
+            final CachedConversion<N> conversion = (CachedConversion<N>) _conversions.get(key);
+            if (conversion != null)
+            {
+                if (statistics != null)
+                {
+                    statistics._hits.incrementAndGet();
+                }
+                return conversion.newReference();
+            }
+        }
+
+        if (!isFurtherDeliveryExpected((AbstractServerMessageImpl<?, ?>) message, instance))
+        {
+            return convertUncached(message, converter, addressSpace);
+        }
+
+        if (statistics != null)
+        {
+            statistics._misses.incrementAndGet();
+        }
+        // converted outside the monitor: conversion can be expensive and would block other deliveries of the message
+        final CachedConversion<N> converted =
+                new CachedConversion<>(converter, converter.convert(message, addressSpace), statistics);
+        synchronized (this)
+        {
+            if (!_closed)
+            {
+                @SuppressWarnings("unchecked")
+                final CachedConversion<N> conversion = (CachedConversion<N>) _conversions.putIfAbsent(key, converted);
+                if (conversion == null)
+                {
+                    converted.cached();
+                    return converted.newReference();
+                }
+            }
+        }
+        // the message was released, or converted concurrently for another delivery, in the meantime
+        return uncachedReference(converted);
+    }
+
+    void clear(final boolean close)
+    {
+        final Collection<CachedConversion<?>> conversions;
+        synchronized (this)
+        {
+            _closed |= close;
+            if (_conversions.isEmpty())
+            {
+                return;
+            }
+            conversions = new ArrayList<>(_conversions.values());
+            _conversions.clear();
+        }
+        for (CachedConversion<?> conversion : conversions)
+        {
+            conversion.uncached();
+            conversion.release();
+        }
+    }
+
+    /**
+     * Counts the use of the cache by the deliveries from one address space.
+     */
+    public static final class Statistics
+    {
+        private final AtomicLong _hits = new AtomicLong();
+        private final AtomicLong _misses = new AtomicLong();
+        private final AtomicLong _size = new AtomicLong();
+
+        public long getHits()
+        {
+            return _hits.get();
+        }
+
+        public long getMisses()
+        {
+            return _misses.get();
+        }
+
+        /**
+         * @return the size of the converted messages held by the cache
+         */
+        public long getSize()
+        {
+            return _size.get();
+        }
+    }
+
+    private static final class CacheKey
+    {
+        private final MessageConverter<?, ?> _converter;
+        private final NamedAddressSpace _addressSpace;
+
+        private CacheKey(final MessageConverter<?, ?> converter, final NamedAddressSpace addressSpace)
+        {
+            _converter = converter;
+            _addressSpace = addressSpace;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+            final CacheKey cacheKey = (CacheKey) o;
+            return _converter == cacheKey._converter && _addressSpace == cacheKey._addressSpace;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(System.identityHashCode(_converter), System.identityHashCode(_addressSpace));
+        }
+    }
+
+    private static final class CachedConversion<N extends ServerMessage>
+    {
+        private final MessageConverter<?, N> _converter;
+        private final N _message;
+        private final Statistics _statistics;
+        private final AtomicInteger _referenceCount = new AtomicInteger(1);
+
+        private CachedConversion(final MessageConverter<?, N> converter, final N message, final Statistics statistics)
+        {
+            _converter = converter;
+            _message = message;
+            _statistics = statistics;
+        }
+
+        private void cached()
+        {
+            if (_statistics != null)
+            {
+                _statistics._size.addAndGet(_message.getSizeIncludingHeader());
+            }
+        }
+
+        private void uncached()
+        {
+            if (_statistics != null)
+            {
+                _statistics._size.addAndGet(-_message.getSizeIncludingHeader());
+            }
+        }
+
+        private MessageReference<N> newReference()
+        {
+            _referenceCount.incrementAndGet();
+            return new ConversionReference<>(this);
+        }
+
+        private void release()
+        {
+            if (_referenceCount.decrementAndGet() == 0)
+            {
+                _converter.dispose(_message);
+            }
+        }
+    }
+
+    private static final class ConversionReference<N extends ServerMessage> implements MessageReference<N>
+    {
+        private final CachedConversion<N> _conversion;
+        private final AtomicInteger _released = new AtomicInteger();
+
+        private ConversionReference(final CachedConversion<N> conversion)
+        {
+            _conversion = conversion;
+        }
+
+        @Override
+        public N getMessage()
+        {
+            return _conversion._message;
+        }
+
+        @Override
+        public void release()
+        {
+            if (_released.compareAndSet(0, 1))
+            {
+                _conversion.release();
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            release();
+        }
+    }
+}
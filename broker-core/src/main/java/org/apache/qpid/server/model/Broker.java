@@ -190,6 +190,13 @@ public interface Broker<X extends Broker<X>> extends ConfiguredObject<X>, EventL
     @ManagedContextDefault(name = BROKER_DIRECT_BYTE_BUFFER_POOL_SPARSITY_REALLOCATION_FRACTION)
     double DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_SPARSITY_REALLOCATION_FRACTION = 0.5;
 
+    String BROKER_DIRECT_BYTE_BUFFER_POOL_THREAD_CACHE_SIZE = "broker.directByteBufferPoolThreadCacheSize";
+    @ManagedContextDefault(name = BROKER_DIRECT_BYTE_BUFFER_POOL_THREAD_CACHE_SIZE,
+            description = "Number of pooled direct memory buffers exchanged in a batch between the per-thread"
+                          + " caches and the shared pool. Each thread caches at most twice this number of buffers;"
+                          + " buffers cached by threads count towards the pool size.")
+    int DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_THREAD_CACHE_SIZE = 8;
+
     @ManagedAttribute(validValues = {"org.apache.qpid.server.model.BrokerImpl#getAvailableConfigurationEncrypters()"})
     String getConfidentialConfigurationEncryptionProvider();
 
@@ -336,6 +343,22 @@ public interface Broker<X extends Broker<X>> extends ConfiguredObject<X>, EventL
             description = "Number of unused direct memory buffers currently in the pool.")
     long getNumberOfBuffersInPool();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME,
+            units = StatisticUnit.COUNT,
+            label = "Number of Pooled Buffers In Thread Caches",
+            description = "Number of unused direct memory buffers currently cached by threads.",
+            metricDisabled = true)
+    long getNumberOfBuffersInThreadCaches();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME,
+            units = StatisticUnit.COUNT,
+            label = "Number of Pooled Buffers In Shared Pool",
+            description = "Number of unused direct memory buffers currently in the pool shared between threads.",
+            metricDisabled = true)
+    long getNumberOfBuffersInSharedPool();
+
     @SuppressWarnings("unused")
     @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME,
             units = StatisticUnit.BYTES,
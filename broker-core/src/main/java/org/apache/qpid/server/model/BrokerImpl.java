@@ -44,6 +44,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 
 import javax.security.auth.Subject;
@@ -108,12 +109,12 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
 
     private final BrokerPrincipal _principal;
 
-    private final AtomicLong _messagesIn = new AtomicLong();
-    private final AtomicLong _messagesOut = new AtomicLong();
-    private final AtomicLong _transactedMessagesIn = new AtomicLong();
-    private final AtomicLong _transactedMessagesOut = new AtomicLong();
-    private final AtomicLong _bytesIn = new AtomicLong();
-    private final AtomicLong _bytesOut = new AtomicLong();
+    private final LongAdder _messagesIn = new LongAdder();
+    private final LongAdder _messagesOut = new LongAdder();
+    private final LongAdder _transactedMessagesIn = new LongAdder();
+    private final LongAdder _transactedMessagesOut = new LongAdder();
+    private final LongAdder _bytesIn = new LongAdder();
+    private final LongAdder _bytesOut = new LongAdder();
     private final AtomicLong _maximumMessageSize = new AtomicLong();
     private final boolean _virtualHostPropertiesNodeEnabled;
     private final AddressSpaceRegistry _addressSpaceRegistry = new AddressSpaceRegistry();
@@ -195,8 +196,9 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
 
         _sparsityFraction = getContextValue(Double.class, BROKER_DIRECT_BYTE_BUFFER_POOL_SPARSITY_REALLOCATION_FRACTION);
         int poolSize = getContextValue(Integer.class, BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE);
+        int threadCacheSize = getContextValue(Integer.class, BROKER_DIRECT_BYTE_BUFFER_POOL_THREAD_CACHE_SIZE);
 
-        QpidByteBuffer.initialisePool(_networkBufferSize, poolSize, _sparsityFraction);
+        QpidByteBuffer.initialisePool(_networkBufferSize, poolSize, _sparsityFraction, threadCacheSize);
     }
 
     @Override
@@ -856,27 +858,27 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
     @Override
     public void registerMessageDelivered(long messageSize)
     {
-        _messagesOut.incrementAndGet();
-        _bytesOut.addAndGet(messageSize);
+        _messagesOut.increment();
+        _bytesOut.add(messageSize);
     }
 
     @Override
     public void registerTransactedMessageReceived()
     {
-        _transactedMessagesIn.incrementAndGet();
+        _transactedMessagesIn.increment();
     }
 
     @Override
     public void registerTransactedMessageDelivered()
     {
-        _transactedMessagesOut.incrementAndGet();
+        _transactedMessagesOut.increment();
     }
 
     @Override
     public void registerMessageReceived(long messageSize)
     {
-        _messagesIn.incrementAndGet();
-        _bytesIn.addAndGet(messageSize);
+        _messagesIn.increment();
+        _bytesIn.add(messageSize);
         long hwm;
         while((hwm = _maximumMessageSize.get()) < messageSize)
         {
@@ -904,6 +906,18 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
         return QpidByteBuffer.getNumberOfBuffersInPool();
     }
 
+    @Override
+    public long getNumberOfBuffersInThreadCaches()
+    {
+        return QpidByteBuffer.getNumberOfBuffersInThreadCaches();
+    }
+
+    @Override
+    public long getNumberOfBuffersInSharedPool()
+    {
+        return QpidByteBuffer.getNumberOfBuffersInSharedPool();
+    }
+
     @Override
     public long getInboundMessageSizeHighWatermark()
     {
@@ -913,37 +927,37 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
     @Override
     public long getMessagesIn()
     {
-        return _messagesIn.get();
+        return _messagesIn.sum();
     }
 
     @Override
     public long getBytesIn()
     {
-        return _bytesIn.get();
+        return _bytesIn.sum();
     }
 
     @Override
     public long getMessagesOut()
     {
-        return _messagesOut.get();
+        return _messagesOut.sum();
     }
 
     @Override
     public long getBytesOut()
     {
-        return _bytesOut.get();
+        return _bytesOut.sum();
     }
 
     @Override
     public long getTransactedMessagesIn()
     {
-        return _transactedMessagesIn.get();
+        return _transactedMessagesIn.sum();
     }
 
     @Override
     public long getTransactedMessagesOut()
     {
-        return _transactedMessagesOut.get();
+        return _transactedMessagesOut.sum();
     }
 
     @Override
@@ -975,12 +989,12 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
     {
         _maximumMessageSize.set(0L);
 
-        _bytesIn.set(0L);
-        _bytesOut.set(0L);
-        _messagesIn.set(0L);
-        _messagesOut.set(0L);
-        _transactedMessagesIn.set(0L);
-        _transactedMessagesOut.set(0L);
+        _bytesIn.reset();
+        _bytesOut.reset();
+        _messagesIn.reset();
+        _messagesOut.reset();
+        _transactedMessagesIn.reset();
+        _transactedMessagesOut.reset();
 
         getChildren(BrokerLogger.class).forEach(BrokerLogger::resetStatistics);
         getChildren(Port.class).stream()
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
+import org.apache.qpid.server.message.ConvertedMessageCache;
 import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.message.MessageSource;
 import org.apache.qpid.server.model.port.AmqpPort;
@@ -80,4 +81,13 @@ public interface NamedAddressSpace extends Named
     List<String> getGlobalAddressDomains();
 
     String getLocalAddress(String routingAddress);
+
+    /**
+     * @return the statistics of the converted messages cached for deliveries from this address space, or null if
+     * they are not kept
+     */
+    default ConvertedMessageCache.Statistics getConvertedMessageCacheStatistics()
+    {
+        return null;
+    }
 }
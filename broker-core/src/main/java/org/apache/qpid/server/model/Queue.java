@@ -40,6 +40,7 @@ import org.apache.qpid.server.queue.NotificationCheck;
 import org.apache.qpid.server.queue.QueueConsumer;
 import org.apache.qpid.server.queue.QueueEntry;
 import org.apache.qpid.server.queue.QueueEntryIterator;
+import org.apache.qpid.server.queue.QueueEntryTimer;
 import org.apache.qpid.server.queue.QueueEntryVisitor;
 import org.apache.qpid.server.store.MessageDurability;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
@@ -202,6 +203,13 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
     @ManagedAttribute( defaultValue = "${queue.maximumDeliveryAttempts}")
     int getMaximumDeliveryAttempts();
 
+    String QUEUE_SHARED_FILTER_EVALUATION_CACHE_SIZE = "queue.sharedFilterEvaluationCacheSize";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_SHARED_FILTER_EVALUATION_CACHE_SIZE,
+            description = "Number of queue entries for which header values and filter results are remembered so"
+                          + " that they can be shared between consumers with filters. Zero disables sharing.")
+    int DEFAULT_QUEUE_SHARED_FILTER_EVALUATION_CACHE_SIZE = 1024;
+
     String QUEUE_FLOW_RESUME_LIMIT = "queue.queueFlowResumeLimit";
     @SuppressWarnings("unused")
     @ManagedContextDefault( name = QUEUE_FLOW_RESUME_LIMIT,
@@ -436,6 +444,18 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
                       description = "Current number of messages enqueued by this queue.", metricName = "depth_messages_total")
     int getQueueDepthMessages();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.BYTES, label = "Held Queue Depth",
+                      description = "Current size of all messages held by this queue until they may be delivered, and not included in the queue depth.",
+                      metricName = "held_depth_bytes_total")
+    long getHeldQueueDepthBytes();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.MESSAGES, label = "Held Queue Depth",
+                      description = "Current number of messages held by this queue until they may be delivered, and not included in the queue depth.",
+                      metricName = "held_depth_messages_total")
+    int getHeldQueueDepthMessages();
+
     @SuppressWarnings("unused")
     @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.BYTES, label = "Delivered",
             description = "Total size of all messages delivered by this queue.",
@@ -627,6 +647,48 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
      */
     void checkMessageStatus();
 
+    /**
+     * Performs the periodic housekeeping of the queue.  Expired and held messages are dealt with as they fall due by
+     * the virtual host's {@link QueueEntryTimer}, so the messages are only walked if a message specific alert is
+     * enabled or the timer is disabled.
+     */
+    void performHousekeeping();
+
+    /**
+     * Expires the entry if its expiration has passed, or otherwise releases it if it is no longer held.  Called by
+     * the {@link QueueEntryTimer} once a time the entry was scheduled for has passed.
+     */
+    void checkEntryStatus(QueueEntry queueEntry, long evaluationTime);
+
+    /**
+     * Removes the entry from the times recorded by the entry as scheduled for with the {@link QueueEntryTimer}.
+     */
+    void cancelScheduledEntry(QueueEntry queueEntry);
+
+    /**
+     * Adds the messages kept apart from the entry list whose holds ended before the given time to the entry list.
+     * Called by the {@link QueueEntryTimer} once a time the queue was scheduled for has passed.
+     */
+    void releaseHeldMessages(long evaluationTime);
+
+    /**
+     * Drops whatever the queue remembers about the entry, such as shared filter results, once it has been deleted.
+     */
+    void entryDeleted(QueueEntry queueEntry);
+
+    /**
+     * @return the size of the messages whose content could be flowed to disk by {@link #flowNewestEntriesToDisk()}
+     */
+    long getFlowToDiskCandidateSize();
+
+    /**
+     * Flows to disk the content of the most recently enqueued entries not yet dealt with, these being the furthest
+     * from the consumers.
+     *
+     * @return the number of bytes freed from memory
+     */
+    long flowNewestEntriesToDisk();
+
     void reallocateMessages();
 
     Set<NotificationCheck> getNotificationChecks();
@@ -637,7 +699,10 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
 
     void recover(ServerMessage<?> message, MessageEnqueueRecord enqueueRecord);
 
-    boolean isHeld(QueueEntry queueEntry, final long evaluationTime);
+    /**
+     * @return the time up to and including which the entry is held, or zero if it is not held
+     */
+    long getHeldUntil(QueueEntry queueEntry);
 
     void checkCapacity();
 
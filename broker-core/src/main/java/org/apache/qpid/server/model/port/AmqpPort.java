@@ -55,7 +55,9 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
     String PORT_AMQP_THREAD_POOL_KEEP_ALIVE_TIMEOUT = "qpid.port.amqp.threadPool.keep_alive_timeout";
 
     String PORT_AMQP_NUMBER_OF_SELECTORS = "qpid.port.amqp.threadPool.numberOfSelectors";
+    String PORT_AMQP_THREAD_POOL_EVENT_LOOP = "qpid.port.amqp.threadPool.eventLoop";
     String PORT_AMQP_ACCEPT_BACKLOG = "qpid.port.amqp.acceptBacklog";
+    String PORT_AMQP_TRANSPORT_PROVIDER = "qpid.port.amqp.transportProvider";
 
     String PORT_DIAGNOSIS_OF_SSL_ENGINE_LOOPING = "qpid.port.amqp.diagnosisOfSslEngineLooping";
     String PORT_DIAGNOSIS_OF_SSL_ENGINE_LOOPING_WARN_THRESHOLD = "qpid.port.amqp.diagnosisOfSslEngineLoopingWarnThreshold";
@@ -105,10 +107,26 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
     @ManagedContextDefault(name = PORT_AMQP_NUMBER_OF_SELECTORS)
     long DEFAULT_PORT_AMQP_NUMBER_OF_SELECTORS = Math.max(DEFAULT_PORT_AMQP_THREAD_POOL_SIZE / 8, 1);
 
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PORT_AMQP_THREAD_POOL_EVENT_LOOP,
+                           description = "If true, each thread of the port's thread pool runs its own selector and"
+                                         + " processes only the connections assigned to it, rather than the threads"
+                                         + " sharing connections between them. The number of selectors is then"
+                                         + " equal to the thread pool size.")
+    boolean DEFAULT_PORT_AMQP_THREAD_POOL_EVENT_LOOP = false;
+
     @SuppressWarnings("unused")
     @ManagedContextDefault(name = PORT_AMQP_ACCEPT_BACKLOG)
     int DEFAULT_PORT_AMQP_ACCEPT_BACKLOG = 1024;
 
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PORT_AMQP_TRANSPORT_PROVIDER,
+                           description = "Type of the transport provider used by the port, for example 'Epoll' for"
+                                         + " the native epoll transport. If no provider of this type is installed, or"
+                                         + " it is not available on this platform, the port falls back to the"
+                                         + " default NIO transport.")
+    String DEFAULT_PORT_AMQP_TRANSPORT_PROVIDER = "TCPandSSL";
+
     String OPEN_CONNECTIONS_WARN_PERCENT = "qpid.port.open_connections_warn_percent";
 
     @ManagedContextDefault(name = OPEN_CONNECTIONS_WARN_PERCENT)
@@ -148,6 +166,14 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
     @ManagedContextDefault(name = TLS_SESSION_TIMEOUT, description = "TLS session timeout for AMQP ports (seconds).")
     int DEFAULT_TLS_SESSION_TIMEOUT = 5* 60;
 
+    String PORT_AMQP_TLS_RELEASE_IDLE_BUFFERS = "qpid.port.amqp.tlsReleaseIdleBuffers";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PORT_AMQP_TLS_RELEASE_IDLE_BUFFERS,
+            description = "If true, TLS connections borrow their network and application buffers only while data is"
+                          + " being read or written and return them to the pool once the connection goes quiet."
+                          + " If false, the buffers are held for the lifetime of the connection.")
+    boolean DEFAULT_PORT_AMQP_TLS_RELEASE_IDLE_BUFFERS = true;
+
     String TLS_SESSION_CACHE_SIZE = "qpid.port.amqp.tlsSessionCacheSize";
     @SuppressWarnings("unused")
     @ManagedContextDefault(name = TLS_SESSION_CACHE_SIZE, description = "TLS session cache size for AMQP ports.")
@@ -204,6 +230,12 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
             resettable = true)
     long getTotalConnectionCount();
 
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.BYTES,
+            label = "TLS Buffer Memory",
+            description = "Current size of the direct memory buffers held by the TLS connections of this port",
+            metricName = "tls_buffer_bytes_total")
+    long getTlsBufferMemory();
+
     @ManagedOperation(description = "Resets port statistics", changesConfiguredObjectState = true)
     void resetStatistics();
 
@@ -235,6 +267,8 @@ public interface AmqpPort<X extends AmqpPort<X>> extends Port<X>
 
     long decrementConnectionCount();
 
+    void updateTlsBufferMemory(long delta);
+
     int getNetworkBufferSize();
 
     List<ConnectionPropertyEnricher> getConnectionPropertyEnrichers();
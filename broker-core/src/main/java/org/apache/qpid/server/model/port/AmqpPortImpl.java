@@ -94,6 +94,7 @@ public class AmqpPortImpl extends AbstractPort<AmqpPortImpl> implements AmqpPort
     private final AtomicLong _connectionCount = new AtomicLong();
     private final AtomicBoolean _connectionCountWarningGiven = new AtomicBoolean();
     private final AtomicLong _totalConnectionCount = new AtomicLong();
+    private final AtomicLong _tlsBufferMemory = new AtomicLong();
 
     private final Container<?> _container;
     private final AtomicBoolean _closingOrDeleting = new AtomicBoolean();
@@ -230,15 +231,39 @@ public class AmqpPortImpl extends AbstractPort<AmqpPortImpl> implements AmqpPort
             Collection<Transport> transports = getTransports();
 
             TransportProvider transportProvider = null;
+            TransportProvider fallbackTransportProvider = null;
+            final String transportProviderType = getContextValue(String.class, PORT_AMQP_TRANSPORT_PROVIDER);
             final HashSet<Transport> transportSet = new HashSet<>(transports);
             for (TransportProviderFactory tpf : (new QpidServiceLoader()).instancesOf(TransportProviderFactory.class))
             {
                 if (tpf.getSupportedTransports().contains(transports))
                 {
-                    transportProvider = tpf.getTransportProvider(transportSet);
+                    if (tpf.getType().equals(transportProviderType))
+                    {
+                        transportProvider = tpf.getTransportProvider(transportSet);
+                        if (transportProvider == null)
+                        {
+                            LOGGER.warn("Transport provider '{}' is not available on port {}, the default transport"
+                                        + " provider will be used", transportProviderType, getName());
+                        }
+                    }
+                    else if (fallbackTransportProvider == null
+                             || DEFAULT_PORT_AMQP_TRANSPORT_PROVIDER.equals(tpf.getType()))
+                    {
+                        final TransportProvider provider = tpf.getTransportProvider(transportSet);
+                        if (provider != null)
+                        {
+                            fallbackTransportProvider = provider;
+                        }
+                    }
                 }
             }
 
+            if (transportProvider == null)
+            {
+                transportProvider = fallbackTransportProvider;
+            }
+
             if (transportProvider == null)
             {
                 throw new IllegalConfigurationException(
@@ -616,6 +641,18 @@ public class AmqpPortImpl extends AbstractPort<AmqpPortImpl> implements AmqpPort
         return _totalConnectionCount.get();
     }
 
+    @Override
+    public long getTlsBufferMemory()
+    {
+        return _tlsBufferMemory.get();
+    }
+
+    @Override
+    public void updateTlsBufferMemory(final long delta)
+    {
+        _tlsBufferMemory.addAndGet(delta);
+    }
+
     @Override
     public long getProtocolHandshakeTimeout()
     {
@@ -29,6 +29,10 @@ public interface TransportProviderFactory extends Pluggable
 {
     Set<Set<Transport>> getSupportedTransports();
 
+    /**
+     * Returns the provider for the given transports, or null if the provider cannot be used on this platform, in
+     * which case the port falls back to another provider supporting the transports.
+     */
     TransportProvider getTransportProvider(Set<Transport> transports);
 
 
@@ -76,6 +76,7 @@ import org.apache.qpid.server.consumer.ConsumerOption;
 import org.apache.qpid.server.consumer.ConsumerTarget;
 import org.apache.qpid.server.exchange.DestinationReferrer;
 import org.apache.qpid.server.filter.FilterManager;
+import org.apache.qpid.server.filter.Filterable;
 import org.apache.qpid.server.filter.JMSSelectorFilter;
 import org.apache.qpid.server.filter.MessageFilter;
 import org.apache.qpid.server.filter.SelectorParsingException;
@@ -87,6 +88,7 @@ import org.apache.qpid.server.logging.LogSubject;
 import org.apache.qpid.server.logging.messages.QueueMessages;
 import org.apache.qpid.server.logging.messages.SenderMessages;
 import org.apache.qpid.server.logging.subjects.QueueLogSubject;
+import org.apache.qpid.server.message.ConvertedMessageCache;
 import org.apache.qpid.server.message.InstanceProperties;
 import org.apache.qpid.server.message.MessageContainer;
 import org.apache.qpid.server.message.MessageDeletedException;
@@ -179,8 +181,10 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     private final DeletedChildListener _deletedChildListener = new DeletedChildListener();
 
     private final QueueConsumerManagerImpl _queueConsumerManager;
+    private final FlowToDiskSegments _flowToDiskSegments = new FlowToDiskSegments();
 
     private final AtomicInteger _activeSubscriberCount = new AtomicInteger();
+    private final AtomicInteger _filteredConsumerCount = new AtomicInteger();
 
     private final QueueStatistics _queueStatistics = new QueueStatistics();
 
@@ -205,6 +209,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     private final ConcurrentLinkedQueue<EnqueueRequest> _postRecoveryQueue = new ConcurrentLinkedQueue<>();
     private final ConcurrentMap<String, Callable<MessageFilter>> _defaultFiltersMap = new ConcurrentHashMap<>();
     private final List<HoldMethod> _holdMethods = new CopyOnWriteArrayList<>();
+    private final HeldMessages _heldMessages = new HeldMessages();
     private final Set<DestinationReferrer> _referrers = Collections.newSetFromMap(new ConcurrentHashMap<>());
     private final Set<LocalTransaction> _transactions = ConcurrentHashMap.newKeySet();
     private final LocalTransaction.LocalTransactionListener _localTransactionListener = _transactions::remove;
@@ -304,10 +309,15 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     private long _flowToDiskThreshold;
     private volatile MessageDestination _alternateBindingDestination;
     private volatile MessageConversionExceptionHandlingPolicy _messageConversionExceptionHandlingPolicy;
+    private int _sharedFilterEvaluationCacheSize;
+    private volatile SharedFilterableCache _sharedFilterableCache;
 
     private interface HoldMethod
     {
-        boolean isHeld(MessageReference<?> message, long evaluationTime);
+        /**
+         * @return the time up to and including which the message is held, or zero if it is not held
+         */
+        long getHeldUntil(MessageReference<?> message);
     }
 
     protected AbstractQueue(Map<String, Object> attributes, QueueManagingVirtualHost<?> virtualHost)
@@ -525,6 +535,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
         _mimeTypeToFileExtension = getContextValue(Map.class, MAP_OF_STRING_STRING, MIME_TYPE_TO_FILE_EXTENSION);
         _messageConversionExceptionHandlingPolicy = getContextValue(MessageConversionExceptionHandlingPolicy.class, MESSAGE_CONVERSION_EXCEPTION_HANDLING_POLICY);
+        _sharedFilterEvaluationCacheSize = getContextValue(Integer.class, QUEUE_SHARED_FILTER_EVALUATION_CACHE_SIZE);
 
         _flowToDiskThreshold = getAncestor(Broker.class).getFlowToDiskThreshold();
 
@@ -565,8 +576,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
         if (isHoldOnPublishEnabled())
         {
-            _holdMethods.add((messageReference, evaluationTime) ->
-                    messageReference.getMessage().getMessageHeader().getNotValidBefore() >= evaluationTime);
+            _holdMethods.add(messageReference -> messageReference.getMessage().getMessageHeader().getNotValidBefore());
         }
 
         if (getAlternateBinding() != null)
@@ -842,7 +852,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
                 target.noMessagesAvailable();
             }
             target.updateNotifyWorkDesired();
-            target.notifyWork();
+            queueConsumer.notifyWork();
             return queueConsumer;
         }
         catch (ExistingExclusiveConsumer | ConsumerAccessRefused
@@ -1018,16 +1028,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
             _exclusiveSubscriber = consumer;
         }
 
-        QueueContext queueContext;
-        if(filters == null || !filters.startAtTail())
-        {
-            queueContext = new QueueContext(getEntries().getHead());
-        }
-        else
-        {
-            queueContext = new QueueContext(getEntries().getTail());
-        }
-        consumer.setQueueContext(queueContext);
+        consumer.setQueueContext(createQueueContext(filters != null && filters.startAtTail()));
         if (_maximumLiveConsumers > 0 && !incrementNumberOfLiveConsumersIfApplicable())
         {
             consumer.setNonLive(true);
@@ -1038,6 +1039,10 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         {
             _activeSubscriberCount.incrementAndGet();
         }
+        if (filters != null && filters.hasFilters())
+        {
+            _filteredConsumerCount.incrementAndGet();
+        }
 
         childAdded(consumer);
         consumer.addChangeListener(_deletedChildListener);
@@ -1084,6 +1089,10 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
         if (removed)
         {
+            if (consumer.hasFilters() && _filteredConsumerCount.decrementAndGet() <= 1)
+            {
+                _sharedFilterableCache = null;
+            }
             consumer.closeAsync();
             // No longer can the queue have an exclusive consumer
             clearExclusiveSubscriber();
@@ -1278,7 +1287,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
                 {
                     Thread.yield();
                 }
-                entry = doEnqueue(message, action, enqueueRecord);
+                entry = holdOrEnqueue(message, action, enqueueRecord);
             }
             else
             {
@@ -1287,7 +1296,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         }
         else
         {
-            entry = doEnqueue(message, action, enqueueRecord);
+            entry = holdOrEnqueue(message, action, enqueueRecord);
         }
 
         final StoredMessage storedMessage = message.getStoredMessage();
@@ -1316,7 +1325,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     @Override
     public final void recover(ServerMessage message, final MessageEnqueueRecord enqueueRecord)
     {
-        doEnqueue(message, null, enqueueRecord);
+        holdOrEnqueue(message, null, enqueueRecord);
     }
 
 
@@ -1347,15 +1356,78 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         {
             EnqueueRequest request = _postRecoveryQueue.poll();
             MessageReference<?> messageReference = request.getMessage();
-            doEnqueue(messageReference.getMessage(), request.getAction(), request.getEnqueueRecord());
+            holdOrEnqueue(messageReference.getMessage(), request.getAction(), request.getEnqueueRecord());
             messageReference.release();
         }
     }
 
+    /**
+     * Keeps a message which is held apart from the entry list until its hold ends, or otherwise adds it to the entry
+     * list.  A message with a post enqueue action is always added to the entry list, as the action needs its entry.
+     *
+     * @return the entry, or null if the message is held
+     */
+    private QueueEntry holdOrEnqueue(final ServerMessage message,
+                                     final Action<? super MessageInstance> action,
+                                     final MessageEnqueueRecord enqueueRecord)
+    {
+        final QueueEntryTimer queueEntryTimer = _virtualHost.getQueueEntryTimer();
+        if (action == null && queueEntryTimer != null && !_holdMethods.isEmpty())
+        {
+            final long heldUntil = getHeldUntil(message);
+            if (heldUntil >= System.currentTimeMillis())
+            {
+                _heldMessages.add(message.newReference(this), enqueueRecord, heldUntil);
+                queueEntryTimer.scheduleHeldMessages(this, heldUntil);
+                return null;
+            }
+        }
+        return doEnqueue(message, action, enqueueRecord);
+    }
+
+    @Override
+    public void releaseHeldMessages(final long evaluationTime)
+    {
+        HeldMessages.HeldMessage heldMessage;
+        while ((heldMessage = _heldMessages.pollDue(evaluationTime)) != null)
+        {
+            enqueueHeldMessage(heldMessage);
+        }
+    }
+
+    /**
+     * Adds every held message to the entry list whether or not its hold has ended, for operations which act upon
+     * all the messages of the queue.  The entries of the messages still held are held in the entry list.
+     */
+    private void releaseAllHeldMessages()
+    {
+        final QueueEntryTimer queueEntryTimer = _virtualHost.getQueueEntryTimer();
+        HeldMessages.HeldMessage heldMessage;
+        while ((heldMessage = _heldMessages.poll()) != null)
+        {
+            if (queueEntryTimer != null)
+            {
+                queueEntryTimer.cancelHeldMessages(this, heldMessage.getHeldUntil());
+            }
+            enqueueHeldMessage(heldMessage);
+        }
+    }
+
+    private void enqueueHeldMessage(final HeldMessages.HeldMessage heldMessage)
+    {
+        // the entry takes its own reference to the message
+        try (MessageReference<?> reference = heldMessage.getReference())
+        {
+            doEnqueue(reference.getMessage(), null, heldMessage.getEnqueueRecord());
+        }
+    }
+
     protected QueueEntry doEnqueue(final ServerMessage message, final Action<? super MessageInstance> action, MessageEnqueueRecord enqueueRecord)
     {
         final QueueEntry entry = getEntries().add(message, enqueueRecord);
+        _flowToDiskSegments.add(entry);
         updateExpiration(entry);
+        scheduleHeldEntry(entry);
 
         try
         {
@@ -1390,6 +1462,25 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         if (expiration > 0)
         {
             entry.setExpiration(expiration);
+            final QueueEntryTimer queueEntryTimer = _virtualHost.getQueueEntryTimer();
+            if (queueEntryTimer != null)
+            {
+                // a time recorded before a change of time to live is cancelled so that its slot lets go of the entry
+                queueEntryTimer.reschedule(entry, entry.setScheduledExpiration(expiration), expiration);
+            }
+        }
+    }
+
+    private void scheduleHeldEntry(final QueueEntry entry)
+    {
+        final QueueEntryTimer queueEntryTimer = _virtualHost.getQueueEntryTimer();
+        if (queueEntryTimer != null && !_holdMethods.isEmpty())
+        {
+            final long heldUntil = getHeldUntil(entry);
+            if (heldUntil >= System.currentTimeMillis())
+            {
+                queueEntryTimer.reschedule(entry, entry.setScheduledRelease(heldUntil), heldUntil);
+            }
         }
     }
 
@@ -1499,7 +1590,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         {
             QueueEntry oldEntry;
 
-            while((oldEntry  = subContext.getReleasedEntry()) == null || oldEntry.compareTo(entry) > 0)
+            while((oldEntry  = subContext.getReleasedEntry()) == null || compareEntries(subContext, oldEntry, entry) > 0)
             {
                 if(QueueContext._releasedUpdater.compareAndSet(subContext, oldEntry, entry))
                 {
@@ -1551,6 +1642,36 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return _activeSubscriberCount.get();
     }
 
+    /**
+     * Returns the view of the entry against which consumer filters are evaluated.  When more than one consumer
+     * has filters, header values and filter results are remembered so that the consumers share the work.
+     */
+    Filterable asFilterable(final QueueEntry entry)
+    {
+        if (_sharedFilterEvaluationCacheSize > 0 && _filteredConsumerCount.get() > 1)
+        {
+            SharedFilterableCache sharedFilterableCache = _sharedFilterableCache;
+            if (sharedFilterableCache == null)
+            {
+                // allocated on first use; should two threads race, the cache of one is lost, costing re-evaluation
+                sharedFilterableCache = new SharedFilterableCache(_sharedFilterEvaluationCacheSize);
+                _sharedFilterableCache = sharedFilterableCache;
+            }
+            return sharedFilterableCache.getFilterable(entry);
+        }
+        return entry.asFilterable();
+    }
+
+    @Override
+    public void entryDeleted(final QueueEntry entry)
+    {
+        final SharedFilterableCache sharedFilterableCache = _sharedFilterableCache;
+        if (sharedFilterableCache != null)
+        {
+            sharedFilterableCache.remove(entry);
+        }
+    }
+
     @Override
     public boolean isUnused()
     {
@@ -1575,6 +1696,18 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return _queueStatistics.getQueueSize();
     }
 
+    @Override
+    public int getHeldQueueDepthMessages()
+    {
+        return _heldMessages.getCount();
+    }
+
+    @Override
+    public long getHeldQueueDepthBytes()
+    {
+        return _heldMessages.getSize();
+    }
+
     @Override
     public long getAvailableBytes()
     {
@@ -1711,6 +1844,28 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     /** Used to track bindings to exchanges so that on deletion they can easily be cancelled. */
     abstract QueueEntryList getEntries();
 
+    QueueContext createQueueContext(final boolean startAtTail)
+    {
+        return new QueueContext(startAtTail ? getEntries().getTail() : getEntries().getHead());
+    }
+
+    /**
+     * Returns the entry following the given one in the order in which the consumer owning the context visits
+     * the queue.
+     */
+    QueueEntry nextEntry(final QueueContext context, final QueueEntry entry)
+    {
+        return getEntries().next(entry);
+    }
+
+    /**
+     * Compares two entries by the order in which the consumer owning the context visits the queue.
+     */
+    int compareEntries(final QueueContext context, final QueueEntry entry, final QueueEntry other)
+    {
+        return entry.compareTo(other);
+    }
+
     final QueueStatistics getQueueStatistics()
     {
         return _queueStatistics;
@@ -1816,6 +1971,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     @Override
     public long clearQueue()
     {
+        releaseAllHeldMessages();
         QueueEntryIterator queueListIterator = getEntries().iterator();
         long count = 0;
 
@@ -2008,6 +2164,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     {
         try
         {
+            releaseAllHeldMessages();
             final int queueDepthMessages = getQueueDepthMessages();
 
             for(MessageSender sender : _linkedSenders.keySet())
@@ -2286,6 +2443,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
                     else
                     {
                         setLastSeenEntry(sub, node);
+                        readAhead(sub, node);
                         return new MessageContainer(node, messageReference);
                     }
                 }
@@ -2299,6 +2457,45 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         return NO_MESSAGES;
     }
 
+    /**
+     * Extends the read-ahead horizon of the consumer to cover the given number of entries beyond the delivered one,
+     * asking for the content of any newly covered entry to be reloaded if it has been flowed to disk.
+     */
+    private void readAhead(final QueueConsumer<?,?> sub, final QueueEntry node)
+    {
+        final MessageContentReadAhead readAhead = _virtualHost.getMessageContentReadAhead();
+        final QueueContext context = sub.getQueueContext();
+        if (readAhead != null && context != null)
+        {
+            readAhead.entryDelivered(node);
+
+            QueueEntry entry = context.getReadAheadEntry();
+            int count;
+            if (entry == null || compareEntries(context, entry, node) <= 0)
+            {
+                entry = node;
+                count = 0;
+            }
+            else
+            {
+                count = Math.max(context.getReadAheadCount() - 1, 0);
+            }
+
+            // content read while over the target size would only be flowed to disk again
+            if (!_virtualHost.isOverTargetSize())
+            {
+                QueueEntry next;
+                while (count < readAhead.getDepth() && (next = nextEntry(context, entry)) != null)
+                {
+                    readAhead.readAhead(next);
+                    entry = next;
+                    count++;
+                }
+            }
+            context.setReadAhead(entry, count);
+        }
+    }
+
     private boolean noHigherPriorityWithCredit(final QueueConsumer<?,?> sub, final QueueEntry queueEntry)
     {
         Iterator<QueueConsumer<?,?>> consumerIterator = _queueConsumerManager.getAllIterator();
@@ -2333,8 +2530,9 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
             QueueEntry lastSeen = context.getLastSeenEntry();
             QueueEntry releasedNode = context.getReleasedEntry();
 
-            QueueEntry node = (releasedNode != null && lastSeen.compareTo(releasedNode)>=0) ? releasedNode : getEntries()
-                    .next(lastSeen);
+            QueueEntry node = (releasedNode != null && compareEntries(context, lastSeen, releasedNode)>=0)
+                    ? releasedNode
+                    : nextEntry(context, lastSeen);
 
             boolean expired = false;
             while (node != null && (!node.isAvailable() || (expired = node.expired()) || !sub.hasInterest(node) ||
@@ -2353,9 +2551,9 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
                 lastSeen = context.getLastSeenEntry();
                 releasedNode = context.getReleasedEntry();
-                node = (releasedNode != null && lastSeen.compareTo(releasedNode)>=0)
+                node = (releasedNode != null && compareEntries(context, lastSeen, releasedNode)>=0)
                         ? releasedNode
-                        : getEntries().next(lastSeen);
+                        : nextEntry(context, lastSeen);
             }
             return node;
         }
@@ -2372,7 +2570,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         if(context != null)
         {
             QueueEntry releasedNode = context.getReleasedEntry();
-            return releasedNode != null && releasedNode.compareTo(entry) < 0;
+            return releasedNode != null && compareEntries(context, releasedNode, entry) < 0;
         }
         else
         {
@@ -2384,8 +2582,17 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     @Override
     public void checkMessageStatus()
     {
-        QueueEntryIterator queueListIterator = getEntries().iterator();
+        checkMessageStatus(true);
+    }
+
+    @Override
+    public void performHousekeeping()
+    {
+        checkMessageStatus(_virtualHost.getQueueEntryTimer() == null);
+    }
 
+    private void checkMessageStatus(final boolean checkAllEntries)
+    {
         final Set<NotificationCheck> perMessageChecks = new HashSet<>();
         final Set<NotificationCheck> queueLevelChecks = new HashSet<>();
 
@@ -2404,7 +2611,11 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         final long currentTime = System.currentTimeMillis();
         final long thresholdTime = currentTime - getAlertRepeatGap();
 
-        while (!_stopped.get() && queueListIterator.advance())
+        // expired and held entries are otherwise taken care of by the queue entry timer as they fall due
+        final QueueEntryIterator queueListIterator = checkAllEntries || !perMessageChecks.isEmpty()
+                ? getEntries().iterator()
+                : null;
+        while (queueListIterator != null && !_stopped.get() && queueListIterator.advance())
         {
             final QueueEntry node = queueListIterator.getNode();
             // Only process nodes that are not currently deleted and not dequeued
@@ -2448,12 +2659,104 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
             }
         }
 
+        if (checkAllEntries)
+        {
+            releaseHeldMessagesNoLongerHeld(currentTime);
+        }
+
         for(NotificationCheck check : queueLevelChecks)
         {
             checkForNotification(null, listener, currentTime, thresholdTime, check);
         }
     }
 
+    private void releaseHeldMessagesNoLongerHeld(final long evaluationTime)
+    {
+        final Iterator<HeldMessages.HeldMessage> iterator = _heldMessages.iterator();
+        while (iterator.hasNext() && !_stopped.get())
+        {
+            final HeldMessages.HeldMessage heldMessage = iterator.next();
+            if (getHeldUntil(heldMessage.getReference().getMessage()) < evaluationTime
+                && _heldMessages.remove(heldMessage))
+            {
+                enqueueHeldMessage(heldMessage);
+            }
+        }
+    }
+
+    @Override
+    public void checkEntryStatus(final QueueEntry queueEntry, final long evaluationTime)
+    {
+        if (!queueEntry.isDeleted())
+        {
+            if (queueEntry.expired())
+            {
+                expireEntry(queueEntry);
+                final QueueEntryTimer queueEntryTimer = _virtualHost.getQueueEntryTimer();
+                if (!queueEntry.isDeleted() && queueEntryTimer != null)
+                {
+                    // acquired by a consumer or still being deleted, look again on the next tick
+                    queueEntryTimer.reschedule(queueEntry, queueEntry.setScheduledExpiration(evaluationTime),
+                                               evaluationTime);
+                }
+            }
+            else
+            {
+                queueEntry.checkHeld(evaluationTime);
+            }
+        }
+    }
+
+    @Override
+    public void cancelScheduledEntry(final QueueEntry queueEntry)
+    {
+        final QueueEntryTimer queueEntryTimer = _virtualHost.getQueueEntryTimer();
+        if (queueEntryTimer != null)
+        {
+            final long scheduledExpiration = queueEntry.getScheduledExpiration();
+            if (scheduledExpiration != 0L)
+            {
+                queueEntryTimer.cancel(queueEntry, scheduledExpiration);
+            }
+            final long scheduledRelease = queueEntry.getScheduledRelease();
+            if (scheduledRelease != 0L)
+            {
+                queueEntryTimer.cancel(queueEntry, scheduledRelease);
+            }
+        }
+    }
+
+    @Override
+    public long getFlowToDiskCandidateSize()
+    {
+        return _flowToDiskSegments.getSize();
+    }
+
+    @Override
+    public long flowNewestEntriesToDisk()
+    {
+        long freed = 0L;
+        for (final QueueEntry entry : _flowToDiskSegments.takeNewest())
+        {
+            try (MessageReference<?> messageReference = entry.getMessage().newReference())
+            {
+                final StoredMessage<?> storedMessage = messageReference.getMessage().getStoredMessage();
+                final long inMemorySize = storedMessage.getInMemorySize();
+                if (inMemorySize > 0 && checkValid(entry))
+                {
+                    ConvertedMessageCache.evict(messageReference.getMessage());
+                    storedMessage.flowToDisk();
+                    freed += inMemorySize;
+                }
+            }
+            catch (MessageDeletedException e)
+            {
+                // pass
+            }
+        }
+        return freed;
+    }
+
     private void expireEntry(final QueueEntry node)
     {
         ExpiryPolicy expiryPolicy = getExpiryPolicy();
@@ -2884,40 +3187,39 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     }
 
     @Override
-    public boolean isHeld(final QueueEntry queueEntry, final long evaluationTime)
+    public long getHeldUntil(final QueueEntry queueEntry)
     {
-        if(!_holdMethods.isEmpty())
+        return getHeldUntil(queueEntry.getMessage());
+    }
+
+    private long getHeldUntil(final ServerMessage<?> message)
+    {
+        if (_holdMethods.isEmpty())
+        {
+            return 0L;
+        }
+
+        try
         {
-            ServerMessage message = queueEntry.getMessage();
+            MessageReference ref = message.newReference();
             try
             {
-                MessageReference ref = message.newReference();
-                try
+                long heldUntil = 0L;
+                for(HoldMethod method : _holdMethods)
                 {
-                    for(HoldMethod method : _holdMethods)
-                    {
-                        if(method.isHeld(ref, evaluationTime))
-                        {
-                            return true;
-                        }
-                    }
-                    return false;
-                }
-                finally
-                {
-                    ref.release();
+                    heldUntil = Math.max(heldUntil, method.getHeldUntil(ref));
                 }
+                return heldUntil;
             }
-            catch (MessageDeletedException e)
+            finally
             {
-                return false;
+                ref.release();
             }
         }
-        else
+        catch (MessageDeletedException e)
         {
-            return false;
+            return 0L;
         }
-
     }
 
     @Override
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+
+/**
+ * An implementation of SortedQueueEntry to be used in ConcurrentSortedQueueEntryList.
+ * The entry does not maintain its own links; the successor is looked up in the owning list.
+ */
+public class ConcurrentSortedQueueEntry extends SortedQueueEntry
+{
+    private final ConcurrentSortedQueueEntryList _queueEntryList;
+
+    ConcurrentSortedQueueEntry(final ConcurrentSortedQueueEntryList queueEntryList)
+    {
+        super(queueEntryList);
+        _queueEntryList = queueEntryList;
+    }
+
+    ConcurrentSortedQueueEntry(final ConcurrentSortedQueueEntryList queueEntryList,
+                               final ServerMessage message,
+                               final long entryId,
+                               final MessageEnqueueRecord messageEnqueueRecord)
+    {
+        super(queueEntryList, message, entryId, messageEnqueueRecord);
+        _queueEntryList = queueEntryList;
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntry getNextNode()
+    {
+        return _queueEntryList.next(this);
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntry getNextValidEntry()
+    {
+        return getNextNode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "(" + getKey() + ")";
+    }
+}
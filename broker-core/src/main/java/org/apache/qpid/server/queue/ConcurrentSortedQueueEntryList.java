@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+
+/**
+ * A sorted implementation of QueueEntryList which does not serialise adds, deletes and iteration
+ * through a single lock.
+ * Entries are held in a skip list ordered by sort key and then by entry id (see {@link SortedQueueEntry#compareTo}),
+ * so that concurrent producers and consumers only contend on the nodes they actually touch.
+ * The head entry has the lowest possible entry id and a null key, thus it always sorts before any other entry.
+ */
+public class ConcurrentSortedQueueEntryList extends AbstractQueueEntryList
+{
+    private final ConcurrentSortedQueueEntry _head;
+    private final ConcurrentSkipListMap<ConcurrentSortedQueueEntry, ConcurrentSortedQueueEntry> _entries =
+            new ConcurrentSkipListMap<>();
+    private final AtomicLong _entryId = new AtomicLong(Long.MIN_VALUE);
+    private final SortedQueueImpl _queue;
+    private final String _propertyName;
+
+    public ConcurrentSortedQueueEntryList(final SortedQueueImpl queue, final QueueStatistics queueStatistics)
+    {
+        super(queue, queueStatistics);
+        _queue = queue;
+        _head = new ConcurrentSortedQueueEntry(this);
+        _propertyName = queue.getSortKey();
+    }
+
+    @Override
+    public SortedQueueImpl getQueue()
+    {
+        return _queue;
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntry add(final ServerMessage message, final MessageEnqueueRecord enqueueRecord)
+    {
+        String key = null;
+        final Object val = message.getMessageHeader().getHeader(_propertyName);
+        if (val != null)
+        {
+            key = val.toString();
+        }
+
+        final ConcurrentSortedQueueEntry entry =
+                new ConcurrentSortedQueueEntry(this, message, _entryId.incrementAndGet(), enqueueRecord);
+        entry.setKey(key);
+        updateStatsOnEnqueue(entry);
+
+        _entries.put(entry, entry);
+
+        return entry;
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntry next(final QueueEntry entry)
+    {
+        if (entry == _head)
+        {
+            final Map.Entry<ConcurrentSortedQueueEntry, ConcurrentSortedQueueEntry> first = _entries.firstEntry();
+            return first == null ? null : first.getKey();
+        }
+        // the skip list does not require the entry to be present, so deleted entries need no special handling
+        return _entries.higherKey((ConcurrentSortedQueueEntry) entry);
+    }
+
+    @Override
+    public QueueEntryIterator iterator()
+    {
+        return new QueueEntryIteratorImpl(_head);
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntry getHead()
+    {
+        return _head;
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntry getTail()
+    {
+        final Map.Entry<ConcurrentSortedQueueEntry, ConcurrentSortedQueueEntry> last = _entries.lastEntry();
+        return last == null ? _head : last.getKey();
+    }
+
+    @Override
+    public QueueEntry getOldestEntry()
+    {
+        QueueEntry oldestEntry = null;
+        for (final ConcurrentSortedQueueEntry node : _entries.keySet())
+        {
+            if (!node.isDeleted())
+            {
+                final ServerMessage msg = node.getMessage();
+                if (msg != null && (oldestEntry == null
+                                    || oldestEntry.getMessage().getMessageNumber() > msg.getMessageNumber()))
+                {
+                    oldestEntry = node;
+                }
+            }
+        }
+        return oldestEntry;
+    }
+
+    @Override
+    public void entryDeleted(final QueueEntry entry)
+    {
+        _entries.remove((ConcurrentSortedQueueEntry) entry);
+    }
+
+    @Override
+    public int getPriorities()
+    {
+        return 0;
+    }
+
+    @Override
+    public QueueEntry getLeastSignificantOldestEntry()
+    {
+        return getOldestEntry();
+    }
+
+    public class QueueEntryIteratorImpl implements QueueEntryIterator
+    {
+        private ConcurrentSortedQueueEntry _lastNode;
+
+        public QueueEntryIteratorImpl(final ConcurrentSortedQueueEntry startNode)
+        {
+            _lastNode = startNode;
+        }
+
+        @Override
+        public boolean atTail()
+        {
+            return next(_lastNode) == null;
+        }
+
+        @Override
+        public ConcurrentSortedQueueEntry getNode()
+        {
+            return _lastNode;
+        }
+
+        @Override
+        public boolean advance()
+        {
+            ConcurrentSortedQueueEntry nextNode = next(_lastNode);
+            if (nextNode == null)
+            {
+                return false;
+            }
+
+            ConcurrentSortedQueueEntry following;
+            while (nextNode.isDeleted() && (following = next(nextNode)) != null)
+            {
+                nextNode = following;
+            }
+            _lastNode = nextNode;
+            return true;
+        }
+    }
+}
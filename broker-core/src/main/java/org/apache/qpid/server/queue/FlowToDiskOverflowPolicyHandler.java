@@ -19,6 +19,7 @@
 package org.apache.qpid.server.queue;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.message.ConvertedMessageCache;
 import org.apache.qpid.server.message.MessageDeletedException;
 import org.apache.qpid.server.message.MessageReference;
 import org.apache.qpid.server.message.ServerMessage;
@@ -208,6 +209,7 @@ public class FlowToDiskOverflowPolicyHandler implements OverflowPolicyHandler
             {
                 if (node.getQueue().checkValid(node))
                 {
+                    ConvertedMessageCache.evict(messageReference.getMessage());
                     messageReference.getMessage().getStoredMessage().flowToDisk();
                 }
             }
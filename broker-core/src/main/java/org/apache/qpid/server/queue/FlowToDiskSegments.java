@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the entries of a queue in segments of a fixed number of entries, in the order in which they were enqueued, so
+ * that content can be flowed to disk starting with the entries furthest from the consumers without walking the queue.
+ * <p>
+ * Entries are appended to the newest segment as they are enqueued, and each entry refers back to its segment so that
+ * the segment can account for the entry, and let go of it, when it is deleted.  A segment all of whose entries have
+ * been deleted is dropped.  The size of the queue's messages held by the segments is kept up to date in the same way,
+ * allowing the virtual host to choose which queue to flow to disk first.
+ * <p>
+ * Once a segment has been taken for flowing to disk, its entries are no longer tracked: content reloaded afterwards,
+ * for instance for browsing consumers, is only found by walking the queue.
+ */
+final class FlowToDiskSegments
+{
+    static final int SEGMENT_SIZE = 256;
+
+    private final Deque<Segment> _segments = new ConcurrentLinkedDeque<>();
+    private final AtomicLong _size = new AtomicLong();
+    private volatile Segment _tail;
+
+    FlowToDiskSegments()
+    {
+        _tail = new Segment();
+        _segments.add(_tail);
+    }
+
+    void add(final QueueEntry entry)
+    {
+        final long size = entry.getMessage().getSizeIncludingHeader();
+        Segment segment = _tail;
+        while (!segment.add(entry, size))
+        {
+            segment = rollOver(segment);
+        }
+    }
+
+    /**
+     * @return the size of the messages of the entries held by the segments
+     */
+    long getSize()
+    {
+        return Math.max(_size.get(), 0L);
+    }
+
+    int getSegmentCount()
+    {
+        return _segments.size();
+    }
+
+    /**
+     * Removes the newest segment holding entries and returns those entries which have not been deleted yet.
+     */
+    List<QueueEntry> takeNewest()
+    {
+        final Segment segment = takeNewestSegment();
+        return segment == null ? List.of() : segment.take();
+    }
+
+    private synchronized Segment rollOver(final Segment full)
+    {
+        if (_tail == full)
+        {
+            _tail = new Segment();
+            _segments.addLast(_tail);
+        }
+        return _tail;
+    }
+
+    private synchronized Segment takeNewestSegment()
+    {
+        final Iterator<Segment> iterator = _segments.descendingIterator();
+        while (iterator.hasNext())
+        {
+            final Segment segment = iterator.next();
+            if (segment == _tail)
+            {
+                if (segment.isEmpty())
+                {
+                    continue;
+                }
+                _tail = new Segment();
+                _segments.addLast(_tail);
+            }
+            if (_segments.removeLastOccurrence(segment) && segment.close())
+            {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    final class Segment
+    {
+        private static final long CLOSED = Long.MIN_VALUE / 2;
+
+        private final AtomicReferenceArray<QueueEntry> _entries = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        private final AtomicInteger _reserved = new AtomicInteger();
+        private final AtomicInteger _live = new AtomicInteger();
+        // once the segment is closed its size is pushed far below zero, so that deletions racing with the
+        // closing of the segment are accounted by exactly one of them
+        private final AtomicLong _size = new AtomicLong();
+
+        private boolean add(final QueueEntry entry, final long size)
+        {
+            _live.incrementAndGet();
+            final int index = _reserved.getAndIncrement();
+            if (index >= SEGMENT_SIZE)
+            {
+                entryRemoved(0L);
+                return false;
+            }
+            if (_size.addAndGet(size) <= CLOSED / 2)
+            {
+                // the segment has been taken whilst the entry was being added, it goes to the new newest segment
+                return false;
+            }
+            FlowToDiskSegments.this._size.addAndGet(size);
+            _entries.set(index, entry);
+            if (isClosed() && _entries.compareAndSet(index, entry, null))
+            {
+                // taken before the entry could be seen, closing the segment has already accounted for its size
+                return false;
+            }
+            if (entry instanceof QueueEntryImpl)
+            {
+                final QueueEntryImpl queueEntry = (QueueEntryImpl) entry;
+                queueEntry.setFlowToDiskSegment(this, index);
+                // an entry deleted before it referred to the segment is accounted here instead
+                if (queueEntry.isDeleted() && queueEntry.detachFlowToDiskSegment(this))
+                {
+                    entryDeleted(entry, index, size);
+                }
+            }
+            return true;
+        }
+
+        void entryDeleted(final QueueEntry entry, final int index, final long size)
+        {
+            // the segment lets go of the entry straight away rather than once all of its entries are deleted
+            _entries.compareAndSet(index, entry, null);
+            entryRemoved(size);
+        }
+
+        private void entryRemoved(final long size)
+        {
+            if (_size.addAndGet(-size) > CLOSED / 2)
+            {
+                FlowToDiskSegments.this._size.addAndGet(-size);
+                if (_live.decrementAndGet() == 0 && _reserved.get() >= SEGMENT_SIZE)
+                {
+                    _segments.remove(this);
+                }
+            }
+        }
+
+        private boolean isEmpty()
+        {
+            return _live.get() == 0;
+        }
+
+        private boolean isClosed()
+        {
+            return _size.get() <= CLOSED / 2;
+        }
+
+        private boolean close()
+        {
+            final long size = _size.getAndSet(CLOSED);
+            if (size > CLOSED / 2)
+            {
+                FlowToDiskSegments.this._size.addAndGet(-size);
+                return true;
+            }
+            return false;
+        }
+
+        private List<QueueEntry> take()
+        {
+            final int length = Math.min(_reserved.get(), SEGMENT_SIZE);
+            final List<QueueEntry> entries = new ArrayList<>(length);
+            for (int i = 0; i < length; i++)
+            {
+                final QueueEntry entry = _entries.getAndSet(i, null);
+                if (entry != null && !entry.isDeleted())
+                {
+                    entries.add(entry);
+                }
+            }
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+
+/**
+ * Holds the messages of a queue which are held when they are enqueued, in the order in which their holds end, apart
+ * from the entry list of the queue.  Consumers therefore never pass over them, and the cost of delivery does not
+ * depend on the number of messages waiting for a time in the future.  The queue adds each message to its entry list
+ * once its hold has ended.
+ * <p>
+ * Each held message keeps a reference to the message on behalf of the queue until it is taken out again.
+ */
+final class HeldMessages
+{
+    private final ConcurrentSkipListSet<HeldMessage> _messages = new ConcurrentSkipListSet<>();
+    private final AtomicLong _sequence = new AtomicLong();
+    private final AtomicInteger _count = new AtomicInteger();
+    private final AtomicLong _size = new AtomicLong();
+
+    void add(final MessageReference<?> reference, final MessageEnqueueRecord enqueueRecord, final long heldUntil)
+    {
+        final HeldMessage heldMessage =
+                new HeldMessage(reference, enqueueRecord, heldUntil, _sequence.getAndIncrement());
+        _count.incrementAndGet();
+        _size.addAndGet(heldMessage.getSize());
+        _messages.add(heldMessage);
+    }
+
+    /**
+     * Takes out the held message whose hold ends first, if it ended before the given time.
+     *
+     * @return the held message, or null if there is none whose hold has ended
+     */
+    HeldMessage pollDue(final long evaluationTime)
+    {
+        final Iterator<HeldMessage> iterator = _messages.iterator();
+        while (iterator.hasNext())
+        {
+            final HeldMessage heldMessage = iterator.next();
+            if (heldMessage.getHeldUntil() >= evaluationTime)
+            {
+                return null;
+            }
+            else if (remove(heldMessage))
+            {
+                return heldMessage;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes out the held message whose hold ends first, whether or not its hold has ended.
+     *
+     * @return the held message, or null if there are none
+     */
+    HeldMessage poll()
+    {
+        final HeldMessage heldMessage = _messages.pollFirst();
+        if (heldMessage != null)
+        {
+            removed(heldMessage);
+        }
+        return heldMessage;
+    }
+
+    boolean remove(final HeldMessage heldMessage)
+    {
+        if (_messages.remove(heldMessage))
+        {
+            removed(heldMessage);
+            return true;
+        }
+        return false;
+    }
+
+    Iterator<HeldMessage> iterator()
+    {
+        return _messages.iterator();
+    }
+
+    int getCount()
+    {
+        return _count.get();
+    }
+
+    long getSize()
+    {
+        return _size.get();
+    }
+
+    private void removed(final HeldMessage heldMessage)
+    {
+        _count.decrementAndGet();
+        _size.addAndGet(-heldMessage.getSize());
+    }
+
+    static final class HeldMessage implements Comparable<HeldMessage>
+    {
+        private final MessageReference<?> _reference;
+        private final MessageEnqueueRecord _enqueueRecord;
+        private final long _heldUntil;
+        private final long _sequence;
+        private final long _size;
+
+        private HeldMessage(final MessageReference<?> reference,
+                            final MessageEnqueueRecord enqueueRecord,
+                            final long heldUntil,
+                            final long sequence)
+        {
+            _reference = reference;
+            _enqueueRecord = enqueueRecord;
+            _heldUntil = heldUntil;
+            _sequence = sequence;
+            _size = reference.getMessage().getSizeIncludingHeader();
+        }
+
+        MessageReference<?> getReference()
+        {
+            return _reference;
+        }
+
+        MessageEnqueueRecord getEnqueueRecord()
+        {
+            return _enqueueRecord;
+        }
+
+        /**
+         * @return the time up to and including which the message is held
+         */
+        long getHeldUntil()
+        {
+            return _heldUntil;
+        }
+
+        long getSize()
+        {
+            return _size;
+        }
+
+        @Override
+        public int compareTo(final HeldMessage other)
+        {
+            final int result = Long.compare(_heldUntil, other._heldUntil);
+            return result == 0 ? Long.compare(_sequence, other._sequence) : result;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.store.StoredMessage;
+
+/**
+ * Reloads the content of queue entries which has been flowed to disk before the consumers reach them, so that the
+ * content is read on a separate store reader pool rather than on the IO thread of the delivering connection.
+ * <p>
+ * Each consumer keeps a read-ahead horizon in its {@link QueueContext}, no more than the configured depth of entries
+ * ahead of the last entry delivered to it.  As a consumer advances, its horizon is extended by the same number of
+ * entries, and those of the newly covered entries whose content is not in memory are handed to the pool.  The cost on
+ * the delivery path is therefore constant per delivered entry, whatever the depth.
+ * <p>
+ * Hits count the entries whose content was reloaded before they were delivered; misses count the entries which still
+ * had to be loaded by the delivering thread.
+ */
+public class MessageContentReadAhead
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageContentReadAhead.class);
+
+    private final int _depth;
+    private final ExecutorService _executor;
+    private final Set<QueueEntry> _pending = ConcurrentHashMap.newKeySet();
+    private final AtomicLong _hitCount = new AtomicLong();
+    private final AtomicLong _missCount = new AtomicLong();
+
+    public MessageContentReadAhead(final int depth, final ExecutorService executor)
+    {
+        if (depth <= 0)
+        {
+            throw new IllegalArgumentException("Read-ahead depth must be positive: " + depth);
+        }
+        _depth = depth;
+        _executor = executor;
+    }
+
+    public int getDepth()
+    {
+        return _depth;
+    }
+
+    /**
+     * Records the delivery of the entry, counting a miss if its content is not in memory.
+     */
+    void entryDelivered(final QueueEntry entry)
+    {
+        final StoredMessage<?> storedMessage = entry.getMessage().getStoredMessage();
+        if (!storedMessage.isInContentInMemory())
+        {
+            _missCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Requests the content of the entry to be reloaded by the pool if it is not in memory.
+     */
+    void readAhead(final QueueEntry entry)
+    {
+        if (entry.isAvailable()
+            && !entry.getMessage().getStoredMessage().isInContentInMemory()
+            && _pending.add(entry))
+        {
+            try
+            {
+                _executor.execute(() -> reload(entry));
+            }
+            catch (RejectedExecutionException e)
+            {
+                _pending.remove(entry);
+            }
+        }
+    }
+
+    private void reload(final QueueEntry entry)
+    {
+        try
+        {
+            // there is no point in reading the content of entries already taken by a consumer
+            if (entry.isAvailable())
+            {
+                try (MessageReference<?> messageReference = entry.newMessageReference())
+                {
+                    if (messageReference != null)
+                    {
+                        final StoredMessage<?> storedMessage = messageReference.getMessage().getStoredMessage();
+                        if (!storedMessage.isInContentInMemory())
+                        {
+                            storedMessage.getMetaData();
+                            storedMessage.getContent(0, Integer.MAX_VALUE).dispose();
+                            _hitCount.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // the consumer will load the content itself and report any problem with the store
+            LOGGER.debug("Failed to read ahead content of queue entry {}", entry, e);
+        }
+        finally
+        {
+            _pending.remove(entry);
+        }
+    }
+
+    public long getHitCount()
+    {
+        return _hitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return _missCount.get();
+    }
+
+    public void resetStatistics()
+    {
+        _hitCount.set(0L);
+        _missCount.set(0L);
+    }
+
+    public void close()
+    {
+        _executor.shutdownNow();
+        _pending.clear();
+    }
+}
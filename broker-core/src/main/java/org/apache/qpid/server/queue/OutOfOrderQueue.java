@@ -49,7 +49,7 @@ public abstract class OutOfOrderQueue<X extends OutOfOrderQueue<X>> extends Abst
                 if(context != null)
                 {
                     QueueEntry released = context.getReleasedEntry();
-                    while(!entry.isAcquired() && (released == null || released.compareTo(entry) > 0))
+                    while(!entry.isAcquired() && (released == null || compareEntries(context, released, entry) > 0))
                     {
                         if(QueueContext._releasedUpdater.compareAndSet(context,released,entry))
                         {
@@ -202,7 +202,7 @@ class QueueConsumerImpl<T extends ConsumerTarget>
     @Override
     public void externalStateChange()
     {
-        _target.notifyWork();
+        _target.notifyWork(this);
     }
 
     @Override
@@ -270,7 +270,7 @@ class QueueConsumerImpl<T extends ConsumerTarget>
     @Override
     public void notifyWork()
     {
-        _target.notifyWork();
+        _target.notifyWork(this);
     }
 
     @Override
@@ -385,7 +385,7 @@ class QueueConsumerImpl<T extends ConsumerTarget>
     public final boolean hasInterest(QueueEntry entry)
     {
        //check that the message hasn't been rejected
-        if (entry.isRejectedBy(this) || entry.checkHeld(System.currentTimeMillis()))
+        if (entry.isRejectedBy(this) || entry.isHeldAt(System.currentTimeMillis()))
         {
             return false;
         }
@@ -423,7 +423,7 @@ class QueueConsumerImpl<T extends ConsumerTarget>
                 try
                 {
 
-                    Filterable msg = entry.asFilterable();
+                    Filterable msg = _queue.asFilterable(entry);
                     try
                     {
                         return _filters.allAllow(msg);
@@ -448,6 +448,11 @@ class QueueConsumerImpl<T extends ConsumerTarget>
         }
     }
 
+    boolean hasFilters()
+    {
+        return _filters != null && _filters.hasFilters();
+    }
+
     protected String getFilterLogString()
     {
         StringBuilder filterLogString = new StringBuilder();
@@ -613,7 +618,7 @@ class QueueConsumerImpl<T extends ConsumerTarget>
             entry.addStateChangeListener(this);
             if(!entry.isAvailable())
             {
-                _target.notifyWork();
+                _target.notifyWork(QueueConsumerImpl.this);
                 remove();
             }
         }
@@ -633,7 +638,7 @@ class QueueConsumerImpl<T extends ConsumerTarget>
         {
             entry.removeStateChangeListener(this);
             _entry.compareAndSet(entry, null);
-            _target.notifyWork();
+            _target.notifyWork(QueueConsumerImpl.this);
         }
 
     }
@@ -20,12 +20,12 @@
  */
 package org.apache.qpid.server.queue;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 public class QueueConsumerManagerImpl implements QueueConsumerManager
 {
@@ -39,14 +39,15 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
     private static final EnumSet<NodeState> INTERESTED = EnumSet.of(NodeState.INTERESTED);
     private static final EnumSet<NodeState> NOTIFIED = EnumSet.of(NodeState.NOTIFIED);
 
+    private static final PriorityLevel[] NO_PRIORITY_LEVELS = new PriorityLevel[0];
+
     private final AbstractQueue<?> _queue;
 
-    private final List<PriorityConsumerListPair> _interested;
     private final QueueConsumerNodeList _notInterested;
-    private final List<PriorityConsumerListPair> _notified;
     private final QueueConsumerNodeList _nonAcquiring;
 
-    private final List<PriorityConsumerListPair> _allConsumers;
+    // ordered highest priority first, only ever replaced (copy on write) by the config thread
+    private volatile PriorityLevel[] _priorityLevels = NO_PRIORITY_LEVELS;
 
     private volatile int _count;
 
@@ -63,10 +64,7 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
     {
         _queue = queue;
         _notInterested = new QueueConsumerNodeList(queue);
-        _interested = new CopyOnWriteArrayList<>();
-        _notified = new CopyOnWriteArrayList<>();
         _nonAcquiring = new QueueConsumerNodeList(queue);
-        _allConsumers = new CopyOnWriteArrayList<>();
     }
 
     // Always in the config thread
@@ -163,13 +161,15 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
     @Override
     public Iterator<QueueConsumer<?,?>> getInterestedIterator()
     {
-        return new QueueConsumerIterator(new PrioritisedQueueConsumerNodeIterator(_interested));
+        return new QueueConsumerIterator(new PrioritisedQueueConsumerNodeIterator(_priorityLevels,
+                                                                                  PriorityLevel::getInterested));
     }
 
     @Override
     public Iterator<QueueConsumer<?,?>> getAllIterator()
     {
-        return new QueueConsumerIterator(new PrioritisedQueueConsumerNodeIterator(_allConsumers));
+        return new QueueConsumerIterator(new PrioritisedQueueConsumerNodeIterator(_priorityLevels,
+                                                                                  PriorityLevel::getAll));
     }
 
     @Override
@@ -187,17 +187,14 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
     @Override
     public int getHighestNotifiedPriority()
     {
-        final Iterator<QueueConsumerNode> notifiedIterator =
-                new PrioritisedQueueConsumerNodeIterator(_notified);
-        if(notifiedIterator.hasNext())
+        for (PriorityLevel priorityLevel : _priorityLevels)
         {
-            final QueueConsumerNode queueConsumerNode = notifiedIterator.next();
-            return queueConsumerNode.getQueueConsumer().getPriority();
-        }
-        else
-        {
-            return Integer.MIN_VALUE;
+            if (!priorityLevel._notified.isEmpty())
+            {
+                return priorityLevel._priority;
+            }
         }
+        return Integer.MIN_VALUE;
     }
 
     QueueConsumerNodeListEntry addNodeToInterestList(final QueueConsumerNode queueConsumerNode)
@@ -206,29 +203,13 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
         switch (queueConsumerNode.getState())
         {
             case INTERESTED:
-                newListEntry = null;
-                for (PriorityConsumerListPair pair : _interested)
-                {
-                    if (pair._priority == queueConsumerNode.getQueueConsumer().getPriority())
-                    {
-                        newListEntry = pair._consumers.add(queueConsumerNode);
-                        break;
-                    }
-                }
+                newListEntry = queueConsumerNode.getPriorityLevel()._interested.add(queueConsumerNode);
                 break;
             case NOT_INTERESTED:
                 newListEntry = _notInterested.add(queueConsumerNode);
                 break;
             case NOTIFIED:
-                newListEntry = null;
-                for (PriorityConsumerListPair pair : _notified)
-                {
-                    if (pair._priority == queueConsumerNode.getQueueConsumer().getPriority())
-                    {
-                        newListEntry = pair._consumers.add(queueConsumerNode);
-                        break;
-                    }
-                }
+                newListEntry = queueConsumerNode.getPriorityLevel()._notified.add(queueConsumerNode);
                 break;
             case NON_ACQUIRING:
                 newListEntry = _nonAcquiring.add(queueConsumerNode);
@@ -270,77 +251,96 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
 
     private void addToAll(final QueueConsumerNode consumerNode)
     {
-        int consumerPriority = consumerNode.getQueueConsumer().getPriority();
+        final int consumerPriority = consumerNode.getQueueConsumer().getPriority();
+        final PriorityLevel[] priorityLevels = _priorityLevels;
         int i;
-        for (i = 0; i < _allConsumers.size(); ++i)
+        for (i = 0; i < priorityLevels.length; ++i)
         {
-            final PriorityConsumerListPair priorityConsumerListPair = _allConsumers.get(i);
-            if (priorityConsumerListPair._priority == consumerPriority)
+            final PriorityLevel priorityLevel = priorityLevels[i];
+            if (priorityLevel._priority == consumerPriority)
             {
-                final QueueConsumerNodeListEntry entry = priorityConsumerListPair._consumers.add(consumerNode);
-                consumerNode.setAllEntry(entry);
+                consumerNode.setPriorityLevel(priorityLevel);
+                consumerNode.setAllEntry(priorityLevel._all.add(consumerNode));
                 return;
             }
-            else if (priorityConsumerListPair._priority < consumerPriority)
+            else if (priorityLevel._priority < consumerPriority)
             {
                 break;
             }
         }
 
-        PriorityConsumerListPair newPriorityConsumerListPair = new PriorityConsumerListPair(consumerPriority);
-        final QueueConsumerNodeListEntry entry = newPriorityConsumerListPair._consumers.add(consumerNode);
-        consumerNode.setAllEntry(entry);
-        _allConsumers.add(i, newPriorityConsumerListPair);
-        _notified.add(i, new PriorityConsumerListPair(consumerPriority));
-        _interested.add(i, new PriorityConsumerListPair(consumerPriority));
+        final PriorityLevel newPriorityLevel = new PriorityLevel(consumerPriority, _queue);
+        consumerNode.setPriorityLevel(newPriorityLevel);
+        consumerNode.setAllEntry(newPriorityLevel._all.add(consumerNode));
+
+        final PriorityLevel[] newPriorityLevels = new PriorityLevel[priorityLevels.length + 1];
+        System.arraycopy(priorityLevels, 0, newPriorityLevels, 0, i);
+        newPriorityLevels[i] = newPriorityLevel;
+        System.arraycopy(priorityLevels, i, newPriorityLevels, i + 1, priorityLevels.length - i);
+        _priorityLevels = newPriorityLevels;
     }
 
     private void removeFromAll(final QueueConsumer<?,?> consumer)
     {
         final QueueConsumerNode node = consumer.getQueueConsumerNode();
-        int consumerPriority = consumer.getPriority();
-        for (int i = 0; i < _allConsumers.size(); ++i)
+        final PriorityLevel priorityLevel = node.getPriorityLevel();
+        priorityLevel._all.removeEntry(node.getAllEntry());
+        if (priorityLevel._all.isEmpty())
         {
-            final PriorityConsumerListPair priorityConsumerListPair = _allConsumers.get(i);
-            if (priorityConsumerListPair._priority == consumerPriority)
+            final PriorityLevel[] priorityLevels = _priorityLevels;
+            final int i = Arrays.asList(priorityLevels).indexOf(priorityLevel);
+            if (i >= 0)
             {
-                priorityConsumerListPair._consumers.removeEntry(node.getAllEntry());
-                if (priorityConsumerListPair._consumers.isEmpty())
-                {
-                    _allConsumers.remove(i);
-                    _notified.remove(i);
-                    _interested.remove(i);
-                }
-                return;
-            }
-            else if (priorityConsumerListPair._priority < consumerPriority)
-            {
-                break;
+                final PriorityLevel[] newPriorityLevels = new PriorityLevel[priorityLevels.length - 1];
+                System.arraycopy(priorityLevels, 0, newPriorityLevels, 0, i);
+                System.arraycopy(priorityLevels, i + 1, newPriorityLevels, i, newPriorityLevels.length - i);
+                _priorityLevels = newPriorityLevels;
             }
         }
     }
 
-
-    private class PriorityConsumerListPair
+    /**
+     * The consumers of one priority.  Each node holds a reference to its level so that the frequent
+     * INTERESTED/NOTIFIED transitions made on every delivery go straight to the right list.
+     */
+    static final class PriorityLevel
     {
-        final int _priority;
-        final QueueConsumerNodeList _consumers;
+        private final int _priority;
+        private final QueueConsumerNodeList _all;
+        private final QueueConsumerNodeList _interested;
+        private final QueueConsumerNodeList _notified;
 
-        private PriorityConsumerListPair(final int priority)
+        private PriorityLevel(final int priority, final AbstractQueue<?> queue)
         {
             _priority = priority;
-            _consumers = new QueueConsumerNodeList(_queue);
+            _all = new QueueConsumerNodeList(queue);
+            _interested = new QueueConsumerNodeList(queue);
+            _notified = new QueueConsumerNodeList(queue);
+        }
+
+        private QueueConsumerNodeList getAll()
+        {
+            return _all;
+        }
+
+        private QueueConsumerNodeList getInterested()
+        {
+            return _interested;
         }
     }
 
-    private class PrioritisedQueueConsumerNodeIterator implements Iterator<QueueConsumerNode>
+    private static class PrioritisedQueueConsumerNodeIterator implements Iterator<QueueConsumerNode>
     {
-        final Iterator<PriorityConsumerListPair> _outerIterator;
-        Iterator<QueueConsumerNode> _innerIterator;
+        private final PriorityLevel[] _priorityLevels;
+        private final Function<PriorityLevel, QueueConsumerNodeList> _listSelector;
+        private int _nextLevel;
+        private Iterator<QueueConsumerNode> _innerIterator;
 
-        private PrioritisedQueueConsumerNodeIterator(List<PriorityConsumerListPair> list)
+        private PrioritisedQueueConsumerNodeIterator(final PriorityLevel[] priorityLevels,
+                                                     final Function<PriorityLevel, QueueConsumerNodeList> listSelector)
         {
-            _outerIterator = list.iterator();
+            _priorityLevels = priorityLevels;
+            _listSelector = listSelector;
             _innerIterator = Collections.emptyIterator();
         }
 
@@ -353,10 +353,14 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
                 {
                     return true;
                 }
-                else if (_outerIterator.hasNext())
+                else if (_nextLevel < _priorityLevels.length)
                 {
-                    final PriorityConsumerListPair priorityConsumersPair = _outerIterator.next();
-                    _innerIterator = priorityConsumersPair._consumers.iterator();
+                    // levels without consumers in the list are passed over without creating an iterator
+                    final QueueConsumerNodeList list = _listSelector.apply(_priorityLevels[_nextLevel++]);
+                    if (!list.isEmpty())
+                    {
+                        _innerIterator = list.iterator();
+                    }
                 }
                 else
                 {
@@ -368,15 +372,11 @@ public class QueueConsumerManagerImpl implements QueueConsumerManager
         @Override
         public QueueConsumerNode next()
         {
-            try
-            {
-                return _innerIterator.next();
-            }
-            catch (NoSuchElementException e)
+            if (!hasNext())
             {
-                hasNext();
-                return _innerIterator.next();
+                throw new NoSuchElementException();
             }
+            return _innerIterator.next();
         }
 
         @Override
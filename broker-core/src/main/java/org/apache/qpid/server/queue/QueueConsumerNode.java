@@ -29,6 +29,7 @@ final class QueueConsumerNode
     private QueueConsumerNodeListEntry _listEntry;
     private QueueConsumerManagerImpl.NodeState _state = QueueConsumerManagerImpl.NodeState.REMOVED;
     private QueueConsumerNodeListEntry _allEntry;
+    private QueueConsumerManagerImpl.PriorityLevel _priorityLevel;
 
     QueueConsumerNode(final QueueConsumerManagerImpl queueConsumerManager, final QueueConsumer<?,?> queueConsumer)
     {
@@ -74,4 +75,14 @@ final class QueueConsumerNode
     {
         _allEntry = allEntry;
     }
+
+    QueueConsumerManagerImpl.PriorityLevel getPriorityLevel()
+    {
+        return _priorityLevel;
+    }
+
+    void setPriorityLevel(final QueueConsumerManagerImpl.PriorityLevel priorityLevel)
+    {
+        _priorityLevel = priorityLevel;
+    }
 }
@@ -25,8 +25,11 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 final class QueueContext
 {
+    private final int _shard;
     private volatile QueueEntry _lastSeenEntry;
     private volatile QueueEntry _releasedEntry;
+    private volatile QueueEntry _readAheadEntry;
+    private volatile int _readAheadCount;
 
     static final AtomicReferenceFieldUpdater<QueueContext, QueueEntry>
             _lastSeenUpdater =
@@ -38,8 +41,19 @@ final class QueueContext
         (QueueContext.class, QueueEntry.class, "_releasedEntry");
 
     public QueueContext(QueueEntry head)
+    {
+        this(head, 0);
+    }
+
+    QueueContext(QueueEntry head, int shard)
     {
         _lastSeenEntry = head;
+        _shard = shard;
+    }
+
+    int getShard()
+    {
+        return _shard;
     }
 
     public QueueEntry getLastSeenEntry()
@@ -53,12 +67,35 @@ final class QueueContext
         return _releasedEntry;
     }
 
+    /**
+     * @return the furthest entry considered for reading ahead of the consumer, or null if none has been yet
+     */
+    QueueEntry getReadAheadEntry()
+    {
+        return _readAheadEntry;
+    }
+
+    /**
+     * @return the number of entries between the last delivered entry and the read-ahead entry
+     */
+    int getReadAheadCount()
+    {
+        return _readAheadCount;
+    }
+
+    void setReadAhead(final QueueEntry readAheadEntry, final int readAheadCount)
+    {
+        _readAheadEntry = readAheadEntry;
+        _readAheadCount = readAheadCount;
+    }
+
     @Override
     public String toString()
     {
         return "QueueContext{" +
                "_lastSeenEntry=" + _lastSeenEntry +
                ", _releasedEntry=" + _releasedEntry +
+               ", _shard=" + _shard +
                '}';
     }
 }
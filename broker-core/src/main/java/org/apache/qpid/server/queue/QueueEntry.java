@@ -46,4 +46,36 @@ public interface QueueEntry extends MessageInstance, Comparable<QueueEntry>
     MessageReference newMessageReference();
 
     boolean checkHeld(final long evaluationTime);
+
+    /**
+     * As {@link #checkHeld(long)}, except that an entry already found to be held is taken to remain held until the
+     * time its hold was then found to last until.  Consumers passing over held entries therefore do not evaluate the
+     * hold of each entry again; releasing the entry when it falls due is left to the queue entry timer.
+     */
+    boolean isHeldAt(final long evaluationTime);
+
+    /**
+     * @return the time the entry is scheduled for with the {@link QueueEntryTimer} to check its expiration, or zero
+     */
+    long getScheduledExpiration();
+
+    /**
+     * Records the time the entry is scheduled for with the {@link QueueEntryTimer} to check its expiration.
+     *
+     * @return the time previously recorded, or zero
+     */
+    long setScheduledExpiration(long time);
+
+    /**
+     * @return the time the entry is scheduled for with the {@link QueueEntryTimer} to be released from its hold, or
+     * zero
+     */
+    long getScheduledRelease();
+
+    /**
+     * Records the time the entry is scheduled for with the {@link QueueEntryTimer} to be released from its hold.
+     *
+     * @return the time previously recorded, or zero
+     */
+    long setScheduledRelease(long time);
 }
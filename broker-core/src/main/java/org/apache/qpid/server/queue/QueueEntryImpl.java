@@ -74,6 +74,7 @@ public abstract class QueueEntryImpl implements QueueEntry
     };
 
     private volatile EntryState _state = AVAILABLE_STATE;
+    private volatile long _heldUntil;
 
     private static final
         AtomicReferenceFieldUpdater<QueueEntryImpl, EntryState>
@@ -116,6 +117,20 @@ public abstract class QueueEntryImpl implements QueueEntry
 
     private final MessageEnqueueRecord _enqueueRecord;
 
+    // the times the entry is scheduled for with the queue entry timer, zero if not scheduled
+    private volatile long _scheduledExpiration;
+    private static final AtomicLongFieldUpdater<QueueEntryImpl> _scheduledExpirationUpdater =
+            AtomicLongFieldUpdater.newUpdater(QueueEntryImpl.class, "_scheduledExpiration");
+    private volatile long _scheduledRelease;
+    private static final AtomicLongFieldUpdater<QueueEntryImpl> _scheduledReleaseUpdater =
+            AtomicLongFieldUpdater.newUpdater(QueueEntryImpl.class, "_scheduledRelease");
+
+    private int _flowToDiskSegmentIndex;
+    private volatile FlowToDiskSegments.Segment _flowToDiskSegment;
+    private static final AtomicReferenceFieldUpdater<QueueEntryImpl, FlowToDiskSegments.Segment>
+            _flowToDiskSegmentUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(QueueEntryImpl.class, FlowToDiskSegments.Segment.class, "_flowToDiskSegment");
+
 
     QueueEntryImpl(QueueEntryList queueEntryList)
     {
@@ -486,7 +501,13 @@ public abstract class QueueEntryImpl implements QueueEntry
         EntryState state;
         while((state = _state).getState() == State.AVAILABLE)
         {
-            boolean isHeld = getQueue().isHeld(this, evaluationTime);
+            final long heldUntil = getQueue().getHeldUntil(this);
+            boolean isHeld = heldUntil >= evaluationTime;
+            if(isHeld)
+            {
+                _heldUntil = heldUntil;
+            }
+
             if(state == AVAILABLE_STATE && isHeld)
             {
                 if(!_stateUpdater.compareAndSet(this, state, HELD_STATE))
@@ -577,6 +598,14 @@ public abstract class QueueEntryImpl implements QueueEntry
         {
             notifyStateChange(state, DELETED_STATE);
             _queueEntryList.entryDeleted(this);
+            final Queue<?> queue = getQueue();
+            queue.cancelScheduledEntry(this);
+            queue.entryDeleted(this);
+            final FlowToDiskSegments.Segment flowToDiskSegment = _flowToDiskSegmentUpdater.getAndSet(this, null);
+            if (flowToDiskSegment != null)
+            {
+                flowToDiskSegment.entryDeleted(this, _flowToDiskSegmentIndex, getMessage().getSizeIncludingHeader());
+            }
             onDelete();
             _message.release();
 
@@ -695,6 +724,46 @@ public abstract class QueueEntryImpl implements QueueEntry
     {
     }
 
+    void setFlowToDiskSegment(final FlowToDiskSegments.Segment segment, final int index)
+    {
+        _flowToDiskSegmentIndex = index;
+        _flowToDiskSegment = segment;
+    }
+
+    /**
+     * Detaches the entry from its segment unless that has already been done by the deletion of the entry.
+     *
+     * @return true if the entry was detached
+     */
+    boolean detachFlowToDiskSegment(final FlowToDiskSegments.Segment segment)
+    {
+        return _flowToDiskSegmentUpdater.compareAndSet(this, segment, null);
+    }
+
+    @Override
+    public long getScheduledExpiration()
+    {
+        return _scheduledExpiration;
+    }
+
+    @Override
+    public long setScheduledExpiration(final long time)
+    {
+        return _scheduledExpirationUpdater.getAndSet(this, time);
+    }
+
+    @Override
+    public long getScheduledRelease()
+    {
+        return _scheduledRelease;
+    }
+
+    @Override
+    public long setScheduledRelease(final long time)
+    {
+        return _scheduledReleaseUpdater.getAndSet(this, time);
+    }
+
     public QueueEntryList getQueueEntryList()
     {
         return _queueEntryList;
@@ -712,6 +781,12 @@ public abstract class QueueEntryImpl implements QueueEntry
         return checkHeld(System.currentTimeMillis());
     }
 
+    @Override
+    public boolean isHeldAt(final long evaluationTime)
+    {
+        return (_state == HELD_STATE && evaluationTime <= _heldUntil) || checkHeld(evaluationTime);
+    }
+
     @Override
     public int getDeliveryCount()
     {
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.qpid.server.model.Queue;
+
+/**
+ * Holds the queue entries of a virtual host that need attention at a given time, namely those which expire or stop
+ * being held, so that they can be dealt with as they fall due rather than by periodically walking every queue.
+ * <p>
+ * Time is divided into ticks of a fixed period.  Entries falling due within the same tick share a slot, and the slots
+ * are kept in time order in a sorted map so that only ticks which actually have entries take up space.  Once a tick
+ * has completely passed its slot is removed and every entry in it is handed back to its queue with
+ * {@link org.apache.qpid.server.model.Queue#checkEntryStatus(QueueEntry, long)}.  The cost of processing is therefore
+ * proportional to the number of entries falling due, independent of the depth of the queues.
+ * <p>
+ * An entry may be scheduled for several times, for instance for its expiration and for the time it stops being held,
+ * and its expiration may change after it has been scheduled.  The entry itself records the times it is scheduled
+ * for, one for each reason, so that a superseded time can be cancelled when it is rescheduled and every time can be
+ * cancelled when it is deleted before it falls due.
+ * <p>
+ * A queue may also be scheduled itself, for the times at which the holds of the messages it keeps apart from its
+ * entry list end.  Once such a tick has passed the queue is asked to
+ * {@link org.apache.qpid.server.model.Queue#releaseHeldMessages(long) release} the messages which have fallen due.
+ */
+public class QueueEntryTimer
+{
+    private final long _tickPeriod;
+    private final ConcurrentNavigableMap<Long, Slot> _slots = new ConcurrentSkipListMap<>();
+
+    public QueueEntryTimer(final long tickPeriod)
+    {
+        if (tickPeriod <= 0L)
+        {
+            throw new IllegalArgumentException("Tick period must be positive: " + tickPeriod);
+        }
+        _tickPeriod = tickPeriod;
+    }
+
+    /**
+     * Schedules the entry to be checked by its queue once the given time has passed.
+     */
+    public void schedule(final QueueEntry entry, final long time)
+    {
+        final long tick = time / _tickPeriod;
+        while (true)
+        {
+            final Slot slot = _slots.computeIfAbsent(tick, t -> new Slot());
+            slot.add(entry);
+            if (entry.isDeleted())
+            {
+                // deleted whilst being scheduled, its cancellation may have looked at the slot before it was added
+                slot.remove(entry);
+                return;
+            }
+            // a slot being processed is removed from the map before it is closed, so retrying finds a fresh one
+            if (!slot.isClosed() || !slot.remove(entry))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Schedules the entry for the given time in place of the time it was previously scheduled for, if any, for the
+     * same reason.  The previous time is left alone if the entry is still scheduled in the same tick for either
+     * reason, as recorded by the entry.
+     */
+    public void reschedule(final QueueEntry entry, final long previousTime, final long time)
+    {
+        schedule(entry, time);
+        if (previousTime != 0L)
+        {
+            final long previousTick = previousTime / _tickPeriod;
+            if (previousTick != entry.getScheduledExpiration() / _tickPeriod
+                && previousTick != entry.getScheduledRelease() / _tickPeriod)
+            {
+                cancel(entry, previousTime);
+            }
+        }
+    }
+
+    /**
+     * Schedules the queue to release its held messages once the given time has passed.
+     */
+    public void scheduleHeldMessages(final Queue<?> queue, final long time)
+    {
+        final long tick = time / _tickPeriod;
+        while (true)
+        {
+            final Slot slot = _slots.computeIfAbsent(tick, t -> new Slot());
+            slot.add(queue);
+            if (!slot.isClosed() || !slot.remove(queue))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes a queue scheduled for the given time, such as when the queue no longer holds any messages.
+     */
+    public void cancelHeldMessages(final Queue<?> queue, final long time)
+    {
+        final Slot slot = _slots.get(time / _tickPeriod);
+        if (slot != null)
+        {
+            slot.remove(queue);
+        }
+    }
+
+    /**
+     * Removes an entry scheduled for the given time, such as when the entry is deleted before it falls due.
+     */
+    public void cancel(final QueueEntry entry, final long time)
+    {
+        final Slot slot = _slots.get(time / _tickPeriod);
+        if (slot != null)
+        {
+            slot.remove(entry);
+        }
+    }
+
+    /**
+     * Hands each entry in the ticks which have completely passed by the given time back to its queue, and has each
+     * queue in those ticks release its held messages.
+     *
+     * @return the number of entries and queues processed
+     */
+    public int processDueEntries(final long currentTime)
+    {
+        final long currentTick = currentTime / _tickPeriod;
+        int processed = 0;
+        Map.Entry<Long, Slot> first;
+        while ((first = _slots.firstEntry()) != null && first.getKey() < currentTick)
+        {
+            final Slot slot = first.getValue();
+            if (_slots.remove(first.getKey(), slot))
+            {
+                slot.close();
+                for (QueueEntry entry : slot.getEntries())
+                {
+                    entry.getQueue().checkEntryStatus(entry, currentTime);
+                    processed++;
+                }
+                for (Queue<?> queue : slot.getQueues())
+                {
+                    queue.releaseHeldMessages(currentTime);
+                    processed++;
+                }
+            }
+        }
+        return processed;
+    }
+
+    public int getScheduledCount()
+    {
+        int count = 0;
+        for (Slot slot : _slots.values())
+        {
+            count += slot.getEntries().size() + slot.getQueues().size();
+        }
+        return count;
+    }
+
+    private static final class Slot
+    {
+        private final Set<QueueEntry> _entries = ConcurrentHashMap.newKeySet();
+        private final Set<Queue<?>> _queues = ConcurrentHashMap.newKeySet();
+        private volatile boolean _closed;
+
+        void add(final QueueEntry entry)
+        {
+            _entries.add(entry);
+        }
+
+        boolean remove(final QueueEntry entry)
+        {
+            return _entries.remove(entry);
+        }
+
+        void add(final Queue<?> queue)
+        {
+            _queues.add(queue);
+        }
+
+        boolean remove(final Queue<?> queue)
+        {
+            return _queues.remove(queue);
+        }
+
+        void close()
+        {
+            _closed = true;
+        }
+
+        boolean isClosed()
+        {
+            return _closed;
+        }
+
+        Set<QueueEntry> getEntries()
+        {
+            return _entries;
+        }
+
+        Set<Queue<?>> getQueues()
+        {
+            return _queues;
+        }
+    }
+}
@@ -22,7 +22,15 @@ package org.apache.qpid.server.queue;
 
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a queue.
+ * <p>
+ * The cumulative counters are updated on every enqueue and dequeue from whichever thread performs it, and so use
+ * {@link LongAdder} to avoid contention between those threads. The current depths and their high water marks are
+ * read on the hot path and need exact values, so they remain atomic.
+ */
 final class QueueStatistics
 {
     private final AtomicInteger _queueCount = new AtomicInteger();
@@ -34,17 +42,17 @@ final class QueueStatistics
     private final AtomicInteger _availableCount = new AtomicInteger();
     private final AtomicLong _availableSize = new AtomicLong();
 
-    private final AtomicLong _dequeueCount = new AtomicLong();
-    private final AtomicLong _dequeueSize = new AtomicLong();
+    private final LongAdder _dequeueCount = new LongAdder();
+    private final LongAdder _dequeueSize = new LongAdder();
 
-    private final AtomicLong _enqueueCount = new AtomicLong();
-    private final AtomicLong _enqueueSize = new AtomicLong();
+    private final LongAdder _enqueueCount = new LongAdder();
+    private final LongAdder _enqueueSize = new LongAdder();
 
-    private final AtomicLong _persistentEnqueueCount = new AtomicLong();
-    private final AtomicLong _persistentEnqueueSize = new AtomicLong();
+    private final LongAdder _persistentEnqueueCount = new LongAdder();
+    private final LongAdder _persistentEnqueueSize = new LongAdder();
 
-    private final AtomicLong _persistentDequeueCount = new AtomicLong();
-    private final AtomicLong _persistentDequeueSize = new AtomicLong();
+    private final LongAdder _persistentDequeueCount = new LongAdder();
+    private final LongAdder _persistentDequeueSize = new LongAdder();
 
     private final AtomicInteger _queueCountHwm = new AtomicInteger();
     private final AtomicLong _queueSizeHwm = new AtomicLong();
@@ -52,10 +60,10 @@ final class QueueStatistics
     private final AtomicInteger _availableCountHwm = new AtomicInteger();
     private final AtomicLong _availableSizeHwm = new AtomicLong();
 
-    private final AtomicInteger _expiredCount = new AtomicInteger();
-    private final AtomicLong _expiredSize = new AtomicLong();
-    private final AtomicInteger _malformedCount = new AtomicInteger();
-    private final AtomicLong _malformedSize = new AtomicLong();
+    private final LongAdder _expiredCount = new LongAdder();
+    private final LongAdder _expiredSize = new LongAdder();
+    private final LongAdder _malformedCount = new LongAdder();
+    private final LongAdder _malformedSize = new LongAdder();
 
     public int getQueueCount()
     {
@@ -89,42 +97,42 @@ final class QueueStatistics
 
     public long getEnqueueCount()
     {
-        return _enqueueCount.get();
+        return _enqueueCount.sum();
     }
 
     public long getEnqueueSize()
     {
-        return _enqueueSize.get();
+        return _enqueueSize.sum();
     }
 
     public long getDequeueCount()
     {
-        return _dequeueCount.get();
+        return _dequeueCount.sum();
     }
 
     public long getDequeueSize()
     {
-        return _dequeueSize.get();
+        return _dequeueSize.sum();
     }
 
     public long getPersistentEnqueueCount()
     {
-        return _persistentEnqueueCount.get();
+        return _persistentEnqueueCount.sum();
     }
 
     public long getPersistentEnqueueSize()
     {
-        return _persistentEnqueueSize.get();
+        return _persistentEnqueueSize.sum();
     }
 
     public long getPersistentDequeueCount()
     {
-        return _persistentDequeueCount.get();
+        return _persistentDequeueCount.sum();
     }
 
     public long getPersistentDequeueSize()
     {
-        return _persistentDequeueSize.get();
+        return _persistentDequeueSize.sum();
     }
 
     public int getQueueCountHwm()
@@ -149,22 +157,22 @@ final class QueueStatistics
 
     public int getExpiredCount()
     {
-        return _expiredCount.get();
+        return _expiredCount.intValue();
     }
 
     public long getExpiredSize()
     {
-        return _expiredSize.get();
+        return _expiredSize.sum();
     }
 
     public int getMalformedCount()
     {
-        return _malformedCount.get();
+        return _malformedCount.intValue();
     }
 
     public long getMalformedSize()
     {
-        return _malformedSize.get();
+        return _malformedSize.sum();
     }
 
     void addToQueue(long size)
@@ -225,38 +233,38 @@ final class QueueStatistics
 
     void addToEnqueued(long size)
     {
-        _enqueueCount.incrementAndGet();
-        _enqueueSize.addAndGet(size);
+        _enqueueCount.increment();
+        _enqueueSize.add(size);
     }
 
     void addToDequeued(long size)
     {
-        _dequeueCount.incrementAndGet();
-        _dequeueSize.addAndGet(size);
+        _dequeueCount.increment();
+        _dequeueSize.add(size);
     }
 
     void addToPersistentEnqueued(long size)
     {
-        _persistentEnqueueCount.incrementAndGet();
-        _persistentEnqueueSize.addAndGet(size);
+        _persistentEnqueueCount.increment();
+        _persistentEnqueueSize.add(size);
     }
 
     void addToPersistentDequeued(long size)
     {
-        _persistentDequeueCount.incrementAndGet();
-        _persistentDequeueSize.addAndGet(size);
+        _persistentDequeueCount.increment();
+        _persistentDequeueSize.add(size);
     }
 
     void addToExpired(final long size)
     {
-        _expiredCount.incrementAndGet();
-        _expiredSize.addAndGet(size);
+        _expiredCount.increment();
+        _expiredSize.add(size);
     }
 
     void addToMalformed(final long size)
     {
-        _malformedCount.incrementAndGet();
-        _malformedSize.addAndGet(size);
+        _malformedCount.increment();
+        _malformedSize.add(size);
     }
 
     void reset()
@@ -276,22 +284,22 @@ final class QueueStatistics
         _availableSizeHwm.set(_availableSize.get());
         // _availableSize shouldn't be reset
 
-        _dequeueCount.set(0L);
-        _dequeueSize.set(0L);
+        _dequeueCount.reset();
+        _dequeueSize.reset();
 
-        _enqueueCount.set(0L);
-        _enqueueSize.set(0L);
+        _enqueueCount.reset();
+        _enqueueSize.reset();
 
-        _persistentEnqueueCount.set(0L);
-        _persistentEnqueueSize.set(0L);
+        _persistentEnqueueCount.reset();
+        _persistentEnqueueSize.reset();
 
-        _persistentDequeueCount.set(0L);
-        _persistentDequeueSize.set(0L);
+        _persistentDequeueCount.reset();
+        _persistentDequeueSize.reset();
 
-        _expiredCount.set(0);
-        _expiredSize.set(0L);
+        _expiredCount.reset();
+        _expiredSize.reset();
 
-        _malformedCount.set(0);
-        _malformedSize.set(0L);
+        _malformedCount.reset();
+        _malformedSize.reset();
     }
 }
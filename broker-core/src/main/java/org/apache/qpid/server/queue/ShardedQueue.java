@@ -0,0 +1,46 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import org.apache.qpid.server.model.ManagedAttribute;
+import org.apache.qpid.server.model.ManagedContextDefault;
+import org.apache.qpid.server.model.ManagedObject;
+import org.apache.qpid.server.model.Queue;
+
+/**
+ * A queue spreading its entries over a number of shards, each appended to by the publishing connections mapped to
+ * it. Each consumer drains its own home shard first and then takes entries from the other shards in turn. Messages
+ * published on the same connection keep their relative order, but there is no ordering between shards.
+ */
+@ManagedObject( category = false, type= ShardedQueue.SHARDED_QUEUE_TYPE,
+        amqpName = "org.apache.qpid.ShardedQueue")
+public interface ShardedQueue<X extends ShardedQueue<X>> extends Queue<X>
+{
+    String SHARDS = "shards";
+    String SHARDED_QUEUE_TYPE = "sharded";
+
+    @ManagedContextDefault( name = "queue.shards", description = "The default number of shards of a sharded queue")
+    int DEFAULT_SHARDS = Math.max(1, Math.min(16, Runtime.getRuntime().availableProcessors()));
+
+    @ManagedAttribute(defaultValue = "${queue.shards}", immutable = true,
+            description = "The number of shards the entries of the queue are spread over")
+    int getShards();
+}
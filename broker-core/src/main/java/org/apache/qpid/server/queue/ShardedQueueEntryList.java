@@ -0,0 +1,315 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.MapMaker;
+
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+
+abstract public class ShardedQueueEntryList extends OrderedQueueEntryList
+{
+    public static ShardedQueueMasterList newInstance(ShardedQueueImpl queue)
+    {
+        return new ShardedQueueMasterList(queue, queue.getShards());
+    }
+
+    public ShardedQueueEntryList(final ShardedQueueImpl queue,
+                                 final HeadCreator headCreator)
+    {
+        super(queue, queue.getQueueStatistics(), headCreator);
+    }
+
+    static class ShardedQueueMasterList extends ShardedQueueEntryList
+    {
+        private static final HeadCreator DUMMY_HEAD_CREATOR = list -> null;
+        private final ShardedQueueImpl _queue;
+        private final ShardedQueueEntrySubList[] _shardLists;
+        private final AtomicInteger _shardCounter = new AtomicInteger();
+        // keyed by identity and weakly, so that closed connections do not keep their entry
+        private final ConcurrentMap<Object, Integer> _connectionShards = new MapMaker().weakKeys().makeMap();
+
+        public ShardedQueueMasterList(ShardedQueueImpl queue, int shards)
+        {
+            super(queue, DUMMY_HEAD_CREATOR);
+            _queue = queue;
+            _shardLists = new ShardedQueueEntrySubList[shards];
+            for(int i = 0; i < shards; i++)
+            {
+                _shardLists[i] = new ShardedQueueEntrySubList(queue, i);
+            }
+        }
+
+        @Override
+        public ShardedQueueImpl getQueue()
+        {
+            return _queue;
+        }
+
+        int getShards()
+        {
+            return _shardLists.length;
+        }
+
+        @Override
+        public ShardedQueueEntry add(ServerMessage message, final MessageEnqueueRecord enqueueRecord)
+        {
+            // messages published on the same connection always go to the same shard so that they keep their order,
+            // whichever IO thread they are enqueued on; messages without a connection are spread by thread
+            final Object connectionReference = message.getConnectionReference();
+            final int shard = connectionReference == null
+                    ? (int) (Thread.currentThread().getId() % _shardLists.length)
+                    : getConnectionShard(connectionReference);
+            return (ShardedQueueEntry) _shardLists[shard].add(message, enqueueRecord);
+        }
+
+        /**
+         * Returns the shard of the given publishing connection, assigning the shards round robin to connections as
+         * they first publish to the queue.
+         */
+        int getConnectionShard(final Object connectionReference)
+        {
+            return _connectionShards.computeIfAbsent(connectionReference,
+                                                     reference -> Math.floorMod(_shardCounter.getAndIncrement(),
+                                                                                _shardLists.length));
+        }
+
+        @Override
+        protected ShardedQueueEntry createQueueEntry(final ServerMessage<?> message,
+                                                     final MessageEnqueueRecord enqueueRecord)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ShardedQueueEntry next(QueueEntry node)
+        {
+            return next(node, 0);
+        }
+
+        /**
+         * Returns the entry following the given one when visiting the shards in turn from the given start shard.
+         */
+        ShardedQueueEntry next(final QueueEntry node, final int startShard)
+        {
+            ShardedQueueEntry next = (ShardedQueueEntry) node.getNextValidEntry();
+            if (next == null)
+            {
+                int position = getPosition(node, startShard);
+                while (next == null && ++position < _shardLists.length)
+                {
+                    next = (ShardedQueueEntry) getShardList(position, startShard).getHead().getNextValidEntry();
+                }
+            }
+            return next;
+        }
+
+        /**
+         * Compares two entries by the order in which they are visited when visiting the shards in turn from the
+         * given start shard.
+         */
+        int compare(final QueueEntry entry, final QueueEntry other, final int startShard)
+        {
+            final int position = getPosition(entry, startShard);
+            final int otherPosition = getPosition(other, startShard);
+            return position == otherPosition ? entry.compareTo(other) : Integer.compare(position, otherPosition);
+        }
+
+        /**
+         * Returns whether a consumer visiting the shards in turn from the given start shard, and which has last seen
+         * the given entry, has already reached the shard of the other entry.
+         */
+        boolean hasReachedShard(final QueueEntry lastSeen, final QueueEntry entry, final int startShard)
+        {
+            return getPosition(lastSeen, startShard) >= getPosition(entry, startShard);
+        }
+
+        private int getPosition(final QueueEntry entry, final int startShard)
+        {
+            final int shard = ((ShardedQueueEntrySubList) ((ShardedQueueEntry) entry).getQueueEntryList()).getShard();
+            return Math.floorMod(shard - startShard, _shardLists.length);
+        }
+
+        private ShardedQueueEntrySubList getShardList(final int position, final int startShard)
+        {
+            return _shardLists[(startShard + position) % _shardLists.length];
+        }
+
+        private final class ShardedQueueEntryListIterator implements QueueEntryIterator
+        {
+            private final QueueEntryIterator[] _iterators = new QueueEntryIterator[ _shardLists.length ];
+            private ShardedQueueEntry _lastNode;
+
+            ShardedQueueEntryListIterator()
+            {
+                for(int i = 0; i < _shardLists.length; i++)
+                {
+                    _iterators[i] = _shardLists[i].iterator();
+                }
+                _lastNode = (ShardedQueueEntry) _iterators[0].getNode();
+            }
+
+            @Override
+            public boolean atTail()
+            {
+                for (final QueueEntryIterator iterator : _iterators)
+                {
+                    if (!iterator.atTail())
+                    {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public ShardedQueueEntry getNode()
+            {
+                return _lastNode;
+            }
+
+            @Override
+            public boolean advance()
+            {
+                for (final QueueEntryIterator iterator : _iterators)
+                {
+                    if (iterator.advance())
+                    {
+                        _lastNode = (ShardedQueueEntry) iterator.getNode();
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+
+        @Override
+        public ShardedQueueEntryListIterator iterator()
+        {
+            return new ShardedQueueEntryListIterator();
+        }
+
+        @Override
+        public ShardedQueueEntry getHead()
+        {
+            return getHead(0);
+        }
+
+        ShardedQueueEntry getHead(final int shard)
+        {
+            return (ShardedQueueEntry) _shardLists[shard].getHead();
+        }
+
+        @Override
+        public ShardedQueueEntry getTail()
+        {
+            return getTail(0);
+        }
+
+        ShardedQueueEntry getTail(final int startShard)
+        {
+            return (ShardedQueueEntry) getShardList(_shardLists.length - 1, startShard).getTail();
+        }
+
+        @Override
+        public void entryDeleted(final QueueEntry queueEntry)
+        {
+
+        }
+
+        @Override
+        public QueueEntry getOldestEntry()
+        {
+            QueueEntry oldest = null;
+            for(ShardedQueueEntrySubList subList : _shardLists)
+            {
+                QueueEntry subListOldest = subList.getOldestEntry();
+                if(oldest == null || (subListOldest != null && subListOldest.getMessage().getMessageNumber() < oldest.getMessage().getMessageNumber()))
+                {
+                    oldest = subListOldest;
+                }
+            }
+            return oldest;
+        }
+
+        @Override
+        public QueueEntry getLeastSignificantOldestEntry()
+        {
+            return getOldestEntry();
+        }
+    }
+
+    static class ShardedQueueEntrySubList extends ShardedQueueEntryList
+    {
+        private static final HeadCreator HEAD_CREATOR = list -> new ShardedQueueEntry((ShardedQueueEntryList) list);
+        private final int _shard;
+
+        public ShardedQueueEntrySubList(ShardedQueueImpl queue, int shard)
+        {
+            super(queue, HEAD_CREATOR);
+            _shard = shard;
+        }
+
+        @Override
+        protected ShardedQueueEntry createQueueEntry(ServerMessage<?> message,
+                                                     final MessageEnqueueRecord enqueueRecord)
+        {
+            return new ShardedQueueEntry(this, message, enqueueRecord);
+        }
+
+        public int getShard()
+        {
+            return _shard;
+        }
+
+        @Override
+        public QueueEntry getLeastSignificantOldestEntry()
+        {
+            return getOldestEntry();
+        }
+    }
+
+    static class ShardedQueueEntry extends OrderedQueueEntry
+    {
+        private ShardedQueueEntry(final ShardedQueueEntryList queueEntryList)
+        {
+            super(queueEntryList);
+        }
+
+        public ShardedQueueEntry(ShardedQueueEntrySubList queueEntryList,
+                                 ServerMessage<?> message,
+                                 final MessageEnqueueRecord messageEnqueueRecord)
+        {
+            super(queueEntryList, message, messageEnqueueRecord);
+        }
+
+        @Override
+        public int compareTo(final QueueEntry o)
+        {
+            final int otherShard = ((ShardedQueueEntrySubList) ((ShardedQueueEntry) o).getQueueEntryList()).getShard();
+            final int thisShard = ((ShardedQueueEntrySubList) getQueueEntryList()).getShard();
+            return thisShard == otherShard ? super.compareTo(o) : Integer.compare(thisShard, otherShard);
+        }
+    }
+}
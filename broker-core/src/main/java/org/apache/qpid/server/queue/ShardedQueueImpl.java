@@ -0,0 +1,131 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.qpid.server.configuration.IllegalConfigurationException;
+import org.apache.qpid.server.model.ManagedAttributeField;
+import org.apache.qpid.server.model.ManagedObjectFactoryConstructor;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+
+public class ShardedQueueImpl extends AbstractQueue<ShardedQueueImpl> implements ShardedQueue<ShardedQueueImpl>
+{
+    private final AtomicInteger _consumerShardCounter = new AtomicInteger();
+
+    private ShardedQueueEntryList.ShardedQueueMasterList _entries;
+
+    @ManagedAttributeField
+    private int _shards;
+
+    @ManagedObjectFactoryConstructor
+    public ShardedQueueImpl(Map<String, Object> attributes, QueueManagingVirtualHost<?> virtualHost)
+    {
+        super(attributes, virtualHost);
+    }
+
+    @Override
+    public void onValidate()
+    {
+        super.onValidate();
+        if (_shards < 1)
+        {
+            throw new IllegalConfigurationException(String.format("Number of shards of queue '%s' must be positive: %d",
+                                                                   getName(),
+                                                                   _shards));
+        }
+    }
+
+    @Override
+    protected void onOpen()
+    {
+        super.onOpen();
+        _entries = ShardedQueueEntryList.newInstance(this);
+    }
+
+    @Override
+    public int getShards()
+    {
+        return _shards;
+    }
+
+    @Override
+    ShardedQueueEntryList.ShardedQueueMasterList getEntries()
+    {
+        return _entries;
+    }
+
+    @Override
+    QueueContext createQueueContext(final boolean startAtTail)
+    {
+        final int shard = Math.floorMod(_consumerShardCounter.getAndIncrement(), _entries.getShards());
+        return new QueueContext(startAtTail ? _entries.getTail(shard) : _entries.getHead(shard), shard);
+    }
+
+    @Override
+    QueueEntry nextEntry(final QueueContext context, final QueueEntry entry)
+    {
+        return _entries.next(entry, context.getShard());
+    }
+
+    @Override
+    int compareEntries(final QueueContext context, final QueueEntry entry, final QueueEntry other)
+    {
+        return _entries.compare(entry, other, context.getShard());
+    }
+
+    @Override
+    protected void checkConsumersNotAheadOfDelivery(final QueueEntry entry)
+    {
+        // only the consumers which have reached the shard of the new entry are moved back to it, which always
+        // includes those whose home shard it is; the others will come to it by moving forward.  A consumer whose
+        // last seen entry is in the same shard is moved back too, as it may have found the shard empty and be about
+        // to move on to the next.
+        Iterator<QueueConsumer<?,?>> consumerIterator = getQueueConsumerManager().getAllIterator();
+
+        while (consumerIterator.hasNext() && !entry.isAcquired())
+        {
+            QueueConsumer<?,?> consumer = consumerIterator.next();
+
+            if(!consumer.isClosed())
+            {
+                QueueContext context = consumer.getQueueContext();
+                if(context != null && _entries.hasReachedShard(context.getLastSeenEntry(), entry, context.getShard()))
+                {
+                    QueueEntry released = context.getReleasedEntry();
+                    while(!entry.isAcquired() && (released == null || compareEntries(context, released, entry) > 0))
+                    {
+                        if(QueueContext._releasedUpdater.compareAndSet(context, released, entry))
+                        {
+                            break;
+                        }
+                        else
+                        {
+                            released = context.getReleasedEntry();
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
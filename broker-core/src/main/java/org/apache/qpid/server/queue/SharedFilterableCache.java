@@ -0,0 +1,82 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import org.apache.qpid.server.filter.Filterable;
+import org.apache.qpid.server.filter.MemoizingFilterable;
+
+/**
+ * A small direct-mapped cache of {@link MemoizingFilterable}s for the entries of a queue.  Consumers with filters
+ * tend to examine the same entries at around the same time, so the header values and filter results computed by
+ * one consumer are reused by the others.  Slots are overwritten without coordination; a lost update only costs a
+ * re-evaluation.  Deleted entries are removed so that the cache does not keep their messages alive.
+ */
+final class SharedFilterableCache
+{
+    private final Slot[] _slots;
+    private final int _mask;
+
+    SharedFilterableCache(final int size)
+    {
+        final int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        _slots = new Slot[capacity];
+        _mask = capacity - 1;
+    }
+
+    Filterable getFilterable(final QueueEntry entry)
+    {
+        final int index = (int) entry.getMessage().getMessageNumber() & _mask;
+        final boolean redelivered = entry.isRedelivered();
+        final Slot slot = _slots[index];
+        if (slot != null && slot._entry == entry && slot._redelivered == redelivered)
+        {
+            return slot._filterable;
+        }
+
+        final MemoizingFilterable filterable = new MemoizingFilterable(entry.asFilterable());
+        _slots[index] = new Slot(entry, redelivered, filterable);
+        return filterable;
+    }
+
+    void remove(final QueueEntry entry)
+    {
+        final int index = (int) entry.getMessage().getMessageNumber() & _mask;
+        final Slot slot = _slots[index];
+        if (slot != null && slot._entry == entry)
+        {
+            _slots[index] = null;
+        }
+    }
+
+    private static final class Slot
+    {
+        private final QueueEntry _entry;
+        private final boolean _redelivered;
+        private final MemoizingFilterable _filterable;
+
+        private Slot(final QueueEntry entry, final boolean redelivered, final MemoizingFilterable filterable)
+        {
+            _entry = entry;
+            _redelivered = redelivered;
+            _filterable = filterable;
+        }
+    }
+}
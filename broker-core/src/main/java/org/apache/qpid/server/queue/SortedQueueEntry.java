@@ -46,6 +46,19 @@ public class SortedQueueEntry extends QueueEntryImpl
         super(queueEntryList);
     }
 
+    SortedQueueEntry(final QueueEntryList queueEntryList)
+    {
+        super(queueEntryList);
+    }
+
+    SortedQueueEntry(final QueueEntryList queueEntryList,
+                     final ServerMessage message,
+                     final long entryId,
+                     final MessageEnqueueRecord messageEnqueueRecord)
+    {
+        super(queueEntryList, message, entryId, messageEnqueueRecord);
+    }
+
     public SortedQueueEntry(final SortedQueueEntryList queueEntryList,
                             final ServerMessage message,
                             final long entryId,
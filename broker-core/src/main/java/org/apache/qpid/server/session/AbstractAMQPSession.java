@@ -31,6 +31,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.security.auth.Subject;
 
@@ -93,12 +94,12 @@ public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
     private Iterator<AbstractConsumerTarget> _processPendingIterator;
     private final Set<Consumer<?,X>> _consumers = ConcurrentHashMap.newKeySet();
 
-    private final AtomicLong _messagesIn = new AtomicLong();
-    private final AtomicLong _messagesOut = new AtomicLong();
-    private final AtomicLong _transactedMessagesIn = new AtomicLong();
-    private final AtomicLong _transactedMessagesOut = new AtomicLong();
-    private final AtomicLong _bytesIn = new AtomicLong();
-    private final AtomicLong _bytesOut = new AtomicLong();
+    private final LongAdder _messagesIn = new LongAdder();
+    private final LongAdder _messagesOut = new LongAdder();
+    private final LongAdder _transactedMessagesIn = new LongAdder();
+    private final LongAdder _transactedMessagesOut = new LongAdder();
+    private final LongAdder _bytesIn = new LongAdder();
+    private final LongAdder _bytesOut = new LongAdder();
     private final AtomicLong _producerCount = new AtomicLong();
 
     protected AbstractAMQPSession(final Connection<?> parent, final int sessionId)
@@ -317,78 +318,78 @@ public abstract class AbstractAMQPSession<S extends AbstractAMQPSession<S, X>,
     @Override
     public long getBytesIn()
     {
-        return _bytesIn.get();
+        return _bytesIn.sum();
     }
 
     @Override
     public long getBytesOut()
     {
-        return _bytesOut.get();
+        return _bytesOut.sum();
     }
 
     @Override
     public long getMessagesIn()
     {
-        return _messagesIn.get();
+        return _messagesIn.sum();
     }
 
     @Override
     public long getMessagesOut()
     {
-        return _messagesOut.get();
+        return _messagesOut.sum();
     }
 
     @Override
     public long getTransactedMessagesIn()
     {
-        return _transactedMessagesIn.get();
+        return _transactedMessagesIn.sum();
     }
 
     @Override
     public long getTransactedMessagesOut()
     {
-        return _transactedMessagesOut.get();
+        return _transactedMessagesOut.sum();
     }
 
     @Override
     public void registerMessageDelivered(long messageSize)
     {
-        _messagesOut.incrementAndGet();
-        _bytesOut.addAndGet(messageSize);
+        _messagesOut.increment();
+        _bytesOut.add(messageSize);
         _connection.registerMessageDelivered(messageSize);
     }
 
     @Override
     public void registerMessageReceived(long messageSize)
     {
-        _messagesIn.incrementAndGet();
-        _bytesIn.addAndGet(messageSize);
+        _messagesIn.increment();
+        _bytesIn.add(messageSize);
         _connection.registerMessageReceived(messageSize);
     }
 
     @Override
     public void registerTransactedMessageDelivered()
     {
-        _transactedMessagesOut.incrementAndGet();
+        _transactedMessagesOut.increment();
         _connection.registerTransactedMessageDelivered();
     }
 
     @Override
     public void registerTransactedMessageReceived()
     {
-        _transactedMessagesIn.incrementAndGet();
+        _transactedMessagesIn.increment();
         _connection.registerTransactedMessageReceived();
     }
 
     @Override
     public void resetStatistics()
     {
-        _bytesIn.set(0L);
-        _bytesOut.set(0L);
-        _messagesIn.set(0L);
-        _messagesOut.set(0L);
-        _transactedMessagesIn.set(0L);
-        _transactedMessagesOut.set(0L);
+        _bytesIn.reset();
+        _bytesOut.reset();
+        _messagesIn.reset();
+        _messagesOut.reset();
+        _transactedMessagesIn.reset();
+        _transactedMessagesOut.reset();
     }
 
     @Override
@@ -38,6 +38,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.security.auth.Subject;
 import javax.security.auth.SubjectDomainCombiner;
@@ -118,12 +119,12 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
     private String _clientId;
     private volatile boolean _stopped;
 
-    private final AtomicLong _messagesIn = new AtomicLong();
-    private final AtomicLong _messagesOut = new AtomicLong();
-    private final AtomicLong _transactedMessagesIn = new AtomicLong();
-    private final AtomicLong _transactedMessagesOut = new AtomicLong();
-    private final AtomicLong _bytesIn = new AtomicLong();
-    private final AtomicLong _bytesOut = new AtomicLong();
+    private final LongAdder _messagesIn = new LongAdder();
+    private final LongAdder _messagesOut = new LongAdder();
+    private final LongAdder _transactedMessagesIn = new LongAdder();
+    private final LongAdder _transactedMessagesOut = new LongAdder();
+    private final LongAdder _bytesIn = new LongAdder();
+    private final LongAdder _bytesOut = new LongAdder();
     private final AtomicLong _localTransactionBegins = new AtomicLong();
     private final AtomicLong _localTransactionRollbacks = new AtomicLong();
     private final AtomicLong _localTransactionOpens = new AtomicLong();
@@ -466,8 +467,8 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
     @Override
     public void registerMessageDelivered(long messageSize)
     {
-        _messagesOut.incrementAndGet();
-        _bytesOut.addAndGet(messageSize);
+        _messagesOut.increment();
+        _bytesOut.add(messageSize);
         _statisticsGatherer.registerMessageDelivered(messageSize);
     }
 
@@ -475,22 +476,22 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
     public void registerMessageReceived(long messageSize)
     {
         updateLastMessageInboundTime();
-        _messagesIn.incrementAndGet();
-        _bytesIn.addAndGet(messageSize);
+        _messagesIn.increment();
+        _bytesIn.add(messageSize);
         _statisticsGatherer.registerMessageReceived(messageSize);
     }
 
     @Override
     public void registerTransactedMessageDelivered()
     {
-        _transactedMessagesOut.incrementAndGet();
+        _transactedMessagesOut.increment();
         _statisticsGatherer.registerTransactedMessageDelivered();
     }
 
     @Override
     public void registerTransactedMessageReceived()
     {
-        _transactedMessagesIn.incrementAndGet();
+        _transactedMessagesIn.increment();
         _statisticsGatherer.registerTransactedMessageReceived();
     }
 
@@ -701,37 +702,37 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
     @Override
     public long getBytesIn()
     {
-        return _bytesIn.get();
+        return _bytesIn.sum();
     }
 
     @Override
     public long getBytesOut()
     {
-        return _bytesOut.get();
+        return _bytesOut.sum();
     }
 
     @Override
     public long getMessagesIn()
     {
-        return _messagesIn.get();
+        return _messagesIn.sum();
     }
 
     @Override
     public long getMessagesOut()
     {
-        return _messagesOut.get();
+        return _messagesOut.sum();
     }
 
     @Override
     public long getTransactedMessagesIn()
     {
-        return _transactedMessagesIn.get();
+        return _transactedMessagesIn.sum();
     }
 
     @Override
     public long getTransactedMessagesOut()
     {
-        return _transactedMessagesOut.get();
+        return _transactedMessagesOut.sum();
     }
 
     @Override
@@ -740,12 +741,12 @@ public abstract class AbstractAMQPConnection<C extends AbstractAMQPConnection<C,
         _lastMessageInboundTime = System.currentTimeMillis();
         _lastMessageOutboundTime = System.currentTimeMillis();
 
-        _bytesIn.set(0L);
-        _bytesOut.set(0L);
-        _messagesIn.set(0L);
-        _messagesOut.set(0L);
-        _transactedMessagesIn.set(0L);
-        _transactedMessagesOut.set(0L);
+        _bytesIn.reset();
+        _bytesOut.reset();
+        _messagesIn.reset();
+        _messagesOut.reset();
+        _transactedMessagesIn.reset();
+        _transactedMessagesOut.reset();
         _localTransactionBegins.set(0L);
         _localTransactionRollbacks.set(0L);
 
@@ -45,11 +45,20 @@ public class NetworkConnectionScheduler
     private final long _threadKeepAliveTimeout;
     private final String _name;
     private final int _numberOfSelectors;
+    private final boolean _eventLoop;
     private SelectorThread _selectorThread;
 
     public NetworkConnectionScheduler(final String name,
                                       final int numberOfSelectors, int threadPoolSize,
                                       long threadKeepAliveTimeout)
+    {
+        this(name, numberOfSelectors, threadPoolSize, threadKeepAliveTimeout, false);
+    }
+
+    public NetworkConnectionScheduler(final String name,
+                                      final int numberOfSelectors, int threadPoolSize,
+                                      long threadKeepAliveTimeout,
+                                      boolean eventLoop)
     {
         this(name, numberOfSelectors, threadPoolSize, threadKeepAliveTimeout, new ThreadFactory()
                                     {
@@ -62,7 +71,7 @@ public class NetworkConnectionScheduler
                                             t.setName("IO-pool-" + name + "-" + _count.incrementAndGet());
                                             return t;
                                         }
-                                    });
+                                    }, eventLoop);
     }
 
     @Override
@@ -76,6 +85,7 @@ public class NetworkConnectionScheduler
                ", _threadKeepAliveTimeout=" + _threadKeepAliveTimeout +
                ", _name='" + _name + '\'' +
                ", _numberOfSelectors=" + _numberOfSelectors +
+               ", _eventLoop=" + _eventLoop +
                ", _selectorThread=" + _selectorThread +
                '}';
     }
@@ -84,12 +94,28 @@ public class NetworkConnectionScheduler
                                       final int numberOfSelectors, int threadPoolSize,
                                       long threadKeepAliveTimeout,
                                       ThreadFactory factory)
+    {
+        this(name, numberOfSelectors, threadPoolSize, threadKeepAliveTimeout, factory, false);
+    }
+
+    /**
+     * @param eventLoop if true, each of the <code>threadPoolSize</code> threads owns a selector of its own and
+     *                  processes only the connections registered with it, so that a connection always stays on
+     *                  the same thread.  The number of selectors is then equal to the thread pool size and
+     *                  <code>numberOfSelectors</code> is ignored.
+     */
+    public NetworkConnectionScheduler(String name,
+                                      final int numberOfSelectors, int threadPoolSize,
+                                      long threadKeepAliveTimeout,
+                                      ThreadFactory factory,
+                                      boolean eventLoop)
     {
         _name = name;
         _poolSize = threadPoolSize;
         _threadKeepAliveTimeout = threadKeepAliveTimeout;
         _factory = factory;
         _numberOfSelectors = numberOfSelectors;
+        _eventLoop = eventLoop;
         _selectorThreadName = "Selector-"+name;
     }
 
@@ -98,7 +124,9 @@ public class NetworkConnectionScheduler
     {
         try
         {
-            _selectorThread = new SelectorThread(this, _numberOfSelectors);
+            _selectorThread = _eventLoop
+                    ? new SelectorThread(this, _poolSize, true)
+                    : new SelectorThread(this, _numberOfSelectors);
             final int corePoolSize = _poolSize;
             final int maximumPoolSize = _poolSize;
             final long keepAliveTime = _threadKeepAliveTimeout;
@@ -112,9 +140,19 @@ public class NetworkConnectionScheduler
                                                QpidByteBuffer.createQpidByteBufferTrackingThreadFactory(factory));
             _executor.prestartAllCoreThreads();
             _executor.allowCoreThreadTimeOut(true);
-            for(int i = 0 ; i < _poolSize; i++)
+            if (_eventLoop)
+            {
+                for (Runnable eventLoop : _selectorThread.getEventLoops())
+                {
+                    _executor.execute(eventLoop);
+                }
+            }
+            else
             {
-                _executor.execute(_selectorThread);
+                for (int i = 0; i < _poolSize; i++)
+                {
+                    _executor.execute(_selectorThread);
+                }
             }
         }
         catch (IOException e)
@@ -137,7 +175,8 @@ public class NetworkConnectionScheduler
 
                 if (connection.isStateChanged() || connection.isPartialRead())
                 {
-                    if (_running.get() == _poolSize)
+                    // an event loop requeues the connection behind the others it owns rather than rerunning it
+                    if (_eventLoop || _running.get() == _poolSize)
                     {
                         connection.clearScheduled();
                         schedule(connection);
@@ -230,6 +269,11 @@ public class NetworkConnectionScheduler
         return _poolSize;
     }
 
+    public boolean isEventLoop()
+    {
+        return _eventLoop;
+    }
+
     public void schedule(final NonBlockingConnection connection)
     {
         _selectorThread.addToWork(connection);
@@ -263,12 +263,23 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
                     _pendingIterator = null;
                     _protocolEngine.setTransportBlockedForWriting(false);
                     boolean dataRead = doRead();
+                    final long bufferedSize = _bufferedSize;
                     _protocolEngine.setTransportBlockedForWriting(!doWrite());
+                    final boolean dataWritten = _bufferedSize != bufferedSize;
 
                     if (!_fullyWritten || dataRead || (_delegate.needsWork() && _delegate.getNetInputBuffer().position() != 0))
                     {
                         _protocolEngine.notifyWork();
                     }
+                    else if (!dataWritten)
+                    {
+                        _delegate.releaseIdleBuffers();
+                    }
+                    else if (_delegate.holdsReleasableBuffers())
+                    {
+                        // the buffers are given back by the next pass unless further data is read or written by then
+                        _protocolEngine.notifyWork();
+                    }
 
                 }
                 else
@@ -64,6 +64,17 @@ interface NonBlockingConnectionDelegate
 
     QpidByteBuffer getNetInputBuffer();
 
+    /**
+     * @return true if buffers are held which {@link #releaseIdleBuffers()} could give back once the connection is idle
+     */
+    boolean holdsReleasableBuffers();
+
+    /**
+     * Gives back buffers holding no data still to be processed.  Called once a pass over the connection has neither
+     * read nor written any data.
+     */
+    void releaseIdleBuffers();
+
     void shutdownInput();
 
     void shutdownOutput();
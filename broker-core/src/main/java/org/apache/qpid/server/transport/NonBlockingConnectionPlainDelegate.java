@@ -148,6 +148,17 @@ public class NonBlockingConnectionPlainDelegate implements NonBlockingConnection
         return _netInputBuffer;
     }
 
+    @Override
+    public boolean holdsReleasableBuffers()
+    {
+        return false;
+    }
+
+    @Override
+    public void releaseIdleBuffers()
+    {
+    }
+
     @Override
     public void shutdownInput()
     {
@@ -53,6 +53,7 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
 
     private final SSLEngine _sslEngine;
     private final NonBlockingConnection _parent;
+    private final AmqpPort<?> _port;
     private final int _networkBufferSize;
     private SSLEngineResult _status;
     private final List<QpidByteBuffer> _encryptedOutput = new ArrayList<>();
@@ -68,10 +69,14 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
     private final boolean _enableDiagnosisOfSslEngineLooping;
     private final long _diagnosisOfSslEngineLoopingWarnThreshold;
     private final long _diagnosisOfSslEngineLoopingBreakThreshold;
+    private final boolean _releaseIdleBuffers;
+    private boolean _inputShutdown;
+    private long _heldBufferMemory;
 
     public NonBlockingConnectionTLSDelegate(NonBlockingConnection parent, AmqpPort port)
     {
         _parent = parent;
+        _port = port;
         _sslEngine = createSSLEngine(port);
         _networkBufferSize = port.getNetworkBufferSize();
 
@@ -82,9 +87,14 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
                     + ") is greater then broker network buffer size (" + _networkBufferSize + ")");
         }
 
-        _netInputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
-        _applicationBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
-        _netOutputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+        _releaseIdleBuffers = port.getContextValue(Boolean.class, AmqpPort.PORT_AMQP_TLS_RELEASE_IDLE_BUFFERS);
+        if (!_releaseIdleBuffers)
+        {
+            _netInputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+            _applicationBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+            _netOutputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+            updateHeldBufferMemory();
+        }
         _ignoreInvalidSni = port.isIgnoreInvalidSni();
         _enableDiagnosisOfSslEngineLooping = port.getContextValue(Boolean.class, AmqpPort.PORT_DIAGNOSIS_OF_SSL_ENGINE_LOOPING);
         _diagnosisOfSslEngineLoopingWarnThreshold = port.getContextValue(Integer.class, AmqpPort.PORT_DIAGNOSIS_OF_SSL_ENGINE_LOOPING_WARN_THRESHOLD);
@@ -123,6 +133,11 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
                 }
             }
         }
+        if (_applicationBuffer == null)
+        {
+            _applicationBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+            updateHeldBufferMemory();
+        }
         _netInputBuffer.flip();
         boolean readData = false;
         boolean tasksRun;
@@ -256,6 +271,7 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
                 _applicationBuffer = QpidByteBuffer.allocateDirect(newBufSize);
                 _applicationBuffer.put(currentBuffer);
             }
+            updateHeldBufferMemory();
         }
 
     }
@@ -264,6 +280,17 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
     {
         int totalConsumed = 0;
         boolean encrypted;
+        if (_netOutputBuffer == null)
+        {
+            if (_sslEngine.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING
+                && buffers.stream().noneMatch(QpidByteBuffer::hasRemaining))
+            {
+                // nothing to wrap, so don't borrow an output buffer for an idle connection
+                return 0;
+            }
+            _netOutputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+            updateHeldBufferMemory();
+        }
         do
         {
             if(_sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_UNWRAP)
@@ -442,12 +469,67 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
     @Override
     public QpidByteBuffer getNetInputBuffer()
     {
+        if (_netInputBuffer == null && !_inputShutdown)
+        {
+            _netInputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+            updateHeldBufferMemory();
+        }
         return _netInputBuffer;
     }
 
+    @Override
+    public boolean holdsReleasableBuffers()
+    {
+        return _releaseIdleBuffers && (_netInputBuffer != null || _applicationBuffer != null || _netOutputBuffer != null);
+    }
+
+    /**
+     * Returns to the pool those of the network and application buffers which hold no data still to be processed,
+     * once a pass over the connection has neither read nor written data.  They are borrowed again the next time data
+     * is read or written.  The application buffer is kept whilst the
+     * content of messages read from it is still held as slices of the same memory: disposing of it would free
+     * nothing, and the next read would borrow a whole new buffer.
+     */
+    @Override
+    public void releaseIdleBuffers()
+    {
+        if (_releaseIdleBuffers)
+        {
+            if (_netInputBuffer != null && _netInputBuffer.position() == 0)
+            {
+                _netInputBuffer.dispose();
+                _netInputBuffer = null;
+            }
+            if (_applicationBuffer != null && _applicationBuffer.position() == 0 && !_applicationBuffer.isShared())
+            {
+                _applicationBuffer.dispose();
+                _applicationBuffer = null;
+            }
+            if (_netOutputBuffer != null && _netOutputBuffer.position() == 0)
+            {
+                _netOutputBuffer.dispose();
+                _netOutputBuffer = null;
+            }
+        }
+        updateHeldBufferMemory();
+    }
+
+    private void updateHeldBufferMemory()
+    {
+        final long heldBufferMemory = (_netInputBuffer == null ? 0 : _netInputBuffer.capacity())
+                                      + (_applicationBuffer == null ? 0 : _applicationBuffer.capacity())
+                                      + (_netOutputBuffer == null ? 0 : _netOutputBuffer.capacity());
+        if (heldBufferMemory != _heldBufferMemory)
+        {
+            _port.updateTlsBufferMemory(heldBufferMemory - _heldBufferMemory);
+            _heldBufferMemory = heldBufferMemory;
+        }
+    }
+
     @Override
     public void shutdownInput()
     {
+        _inputShutdown = true;
         if (_netInputBuffer != null)
         {
             _netInputBuffer.dispose();
@@ -459,6 +541,7 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
             _applicationBuffer.dispose();
             _applicationBuffer = null;
         }
+        updateHeldBufferMemory();
     }
 
     @Override
@@ -470,6 +553,7 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
             _netOutputBuffer.dispose();
             _netOutputBuffer = null;
         }
+        updateHeldBufferMemory();
         try
         {
             _sslEngine.closeOutbound();
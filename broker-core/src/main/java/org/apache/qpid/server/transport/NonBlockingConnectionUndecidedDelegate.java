@@ -128,6 +128,17 @@ public class NonBlockingConnectionUndecidedDelegate implements NonBlockingConnec
         return _netInputBuffer;
     }
 
+    @Override
+    public boolean holdsReleasableBuffers()
+    {
+        return false;
+    }
+
+    @Override
+    public void releaseIdleBuffers()
+    {
+    }
+
     @Override
     public void shutdownInput()
     {
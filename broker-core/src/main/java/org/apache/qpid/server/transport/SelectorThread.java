@@ -43,6 +43,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import com.google.common.util.concurrent.SettableFuture;
 import org.slf4j.Logger;
@@ -67,6 +68,7 @@ class SelectorThread extends Thread
     private final BlockingQueue<Runnable> _workQueue = new LinkedBlockingQueue<>();
     private final AtomicInteger _nextSelectorTaskIndex = new AtomicInteger();
     private final SelectionTask[] _selectionTasks;
+    private final boolean _eventLoop;
 
     public final class SelectionTask implements Runnable
     {
@@ -83,6 +85,17 @@ class SelectorThread extends Thread
         /** Set of connections that are currently being selected upon */
         private final Set<NonBlockingConnection> _unscheduledConnections = new HashSet<>();
 
+        /**
+         * In event loop mode, the connections that have been scheduled and are waiting to be processed by
+         * the thread owning this task, and any accept work raised by its selector.
+         */
+        private final Queue<NonBlockingConnection> _readyConnections = new ConcurrentLinkedQueue<>();
+        private final Queue<Runnable> _loopTasks = new ConcurrentLinkedQueue<>();
+        private volatile Thread _eventLoopThread;
+
+        /** Connections made ready by the current select, only accessed by the thread performing it */
+        private final List<NonBlockingConnection> _selectedConnections = new ArrayList<>();
+        private final Consumer<SelectionKey> _selectedKeyAction = this::processSelectedKey;
 
 
         private SelectionTask() throws IOException
@@ -93,7 +106,14 @@ class SelectorThread extends Thread
         @Override
         public void run()
         {
-            performSelect();
+            if (_eventLoop)
+            {
+                runEventLoop();
+            }
+            else
+            {
+                performSelect();
+            }
         }
 
         public boolean acquireSelecting()
@@ -165,98 +185,103 @@ class SelectorThread extends Thread
             return toBeScheduled.isEmpty() ? List.of() : toBeScheduled;
         }
 
-        private List<NonBlockingConnection> processSelectionKeys()
+        /**
+         * Selects upon the selector, handing each ready key straight to {@link #processSelectedKey(SelectionKey)}
+         * rather than accumulating them in the selector's selected-key set.  The returned list is reused by the
+         * next call so must be consumed by the caller before it selects again.
+         */
+        private List<NonBlockingConnection> select(final boolean now) throws IOException
         {
-            Set<SelectionKey> selectionKeys = _selector.selectedKeys();
-            if (selectionKeys.isEmpty())
+            _selectedConnections.clear();
+            if (now)
             {
-                return Collections.emptyList();
+                _selector.selectNow(_selectedKeyAction);
+            }
+            else
+            {
+                _selector.select(_selectedKeyAction, _nextTimeout);
             }
+            return _selectedConnections;
+        }
 
-            List<NonBlockingConnection> toBeScheduled = new ArrayList<>();
-            for (SelectionKey key : selectionKeys)
+        private void processSelectedKey(final SelectionKey key)
+        {
+            if (key.attachment() instanceof NonBlockingNetworkTransport)
             {
-                if (key.attachment() instanceof NonBlockingNetworkTransport)
-                {
-                    final NonBlockingNetworkTransport transport = (NonBlockingNetworkTransport) key.attachment();
-                    final ServerSocketChannel channel = (ServerSocketChannel) key.channel();
-                    final SocketAddress localSocketAddress = channel.socket().getLocalSocketAddress();
+                final NonBlockingNetworkTransport transport = (NonBlockingNetworkTransport) key.attachment();
+                final ServerSocketChannel channel = (ServerSocketChannel) key.channel();
+                final SocketAddress localSocketAddress = channel.socket().getLocalSocketAddress();
 
-                    try
-                    {
-                        channel.register(_selector, 0, transport);
-                    }
-                    catch (ClosedChannelException e)
-                    {
-                        LOGGER.error("Failed to register selector on accepting port {} ",
-                                     localSocketAddress, e);
-                    }
-                    catch (CancelledKeyException e)
-                    {
-                        LOGGER.info("Failed to register selector on accepting port {}"
-                                    + " because selector key is already cancelled", localSocketAddress, e);
-                    }
+                try
+                {
+                    channel.register(_selector, 0, transport);
+                }
+                catch (ClosedChannelException e)
+                {
+                    LOGGER.error("Failed to register selector on accepting port {} ",
+                                 localSocketAddress, e);
+                }
+                catch (CancelledKeyException e)
+                {
+                    LOGGER.info("Failed to register selector on accepting port {}"
+                                + " because selector key is already cancelled", localSocketAddress, e);
+                }
 
-                    _workQueue.add(() -> {
+                submitAcceptWork(this, () -> {
+                        try
+                        {
+                            _scheduler.incrementRunningCount();
+                            transport.acceptSocketChannel(channel);
+                        }
+                        finally
+                        {
                             try
                             {
-                                _scheduler.incrementRunningCount();
-                                transport.acceptSocketChannel(channel);
+                                channel.register(_selector, SelectionKey.OP_ACCEPT, transport);
+                                wakeup();
+                            }
+                            catch (ClosedSelectorException e)
+                            {
+                                LOGGER.info(
+                                        "Failed to register selector on accepting port {} because selector is"
+                                        + " already closed. This is probably a harmless race-condition (QPID-7399)",
+                                        localSocketAddress);
+                            }
+                            catch (ClosedChannelException e)
+                            {
+                                LOGGER.error("Failed to register selector on accepting port {}",
+                                             localSocketAddress, e);
+                            }
+                            catch (CancelledKeyException e)
+                            {
+                                LOGGER.info("Failed to register selector on accepting port {}"
+                                            + " because selector key is already cancelled", localSocketAddress, e);
                             }
                             finally
                             {
-                                try
-                                {
-                                    channel.register(_selector, SelectionKey.OP_ACCEPT, transport);
-                                    wakeup();
-                                }
-                                catch (ClosedSelectorException e)
-                                {
-                                    LOGGER.info(
-                                            "Failed to register selector on accepting port {} because selector is"
-                                            + " already closed. This is probably a harmless race-condition (QPID-7399)",
-                                            localSocketAddress);
-                                }
-                                catch (ClosedChannelException e)
-                                {
-                                    LOGGER.error("Failed to register selector on accepting port {}",
-                                                 localSocketAddress, e);
-                                }
-                                catch (CancelledKeyException e)
-                                {
-                                    LOGGER.info("Failed to register selector on accepting port {}"
-                                                + " because selector key is already cancelled", localSocketAddress, e);
-                                }
-                                finally
-                                {
-                                    _scheduler.decrementRunningCount();
-                                }
+                                _scheduler.decrementRunningCount();
                             }
-                    });
-                }
-                else
+                        }
+                });
+            }
+            else
+            {
+                NonBlockingConnection connection = (NonBlockingConnection) key.attachment();
+                if(connection != null)
                 {
-                    NonBlockingConnection connection = (NonBlockingConnection) key.attachment();
-                    if(connection != null)
+                    try
                     {
-                        try
-                        {
-                            key.channel().register(_selector, 0, connection);
-                        }
-                        catch (ClosedChannelException | CancelledKeyException e)
-                        {
-                            // Ignore - we will schedule the connection anyway
-                        }
-
-                        toBeScheduled.add(connection);
-                        getUnscheduledConnections().remove(connection);
+                        key.interestOps(0);
+                    }
+                    catch (CancelledKeyException e)
+                    {
+                        // Ignore - we will schedule the connection anyway
                     }
-                }
 
+                    _selectedConnections.add(connection);
+                    getUnscheduledConnections().remove(connection);
+                }
             }
-            selectionKeys.clear();
-
-            return toBeScheduled;
         }
 
         private List<NonBlockingConnection> reregisterUnregisteredConnections()
@@ -300,9 +325,7 @@ class SelectorThread extends Thread
                     try
                     {
                         Thread.currentThread().setName(_scheduler.getSelectorThreadName());
-                        _selector.select(_nextTimeout);
-
-                        for (final NonBlockingConnection connection : processSelectionKeys())
+                        for (final NonBlockingConnection connection : select(false))
                         {
                             if (connection.setScheduled())
                             {
@@ -359,6 +382,95 @@ class SelectorThread extends Thread
             }
         }
 
+        /**
+         * Event loop mode: the calling thread owns this task for its lifetime.  It alone selects upon the selector
+         * and it alone processes the connections registered with it, so a connection never migrates between
+         * IO threads.
+         */
+        private void runEventLoop()
+        {
+            _eventLoopThread = Thread.currentThread();
+            try
+            {
+                while (!_closed.get())
+                {
+                    try
+                    {
+                        Thread.currentThread().setName(_scheduler.getSelectorThreadName());
+                        addReadyConnections(select(!_readyConnections.isEmpty()
+                                                   || !_loopTasks.isEmpty()
+                                                   || !_unregisteredConnections.isEmpty()));
+                        addReadyConnections(reregisterUnregisteredConnections());
+                        addReadyConnections(processUnscheduledConnections());
+                        runTasks();
+                    }
+                    catch (IOException e)
+                    {
+                        LOGGER.error("Failed to trying to select()", e);
+                        closeSelector();
+                        return;
+                    }
+
+                    Runnable task;
+                    while ((task = _loopTasks.poll()) != null)
+                    {
+                        task.run();
+                    }
+
+                    // connections rescheduled while processing this batch wait for the next turn of the loop
+                    final List<NonBlockingConnection> connections = new ArrayList<>();
+                    NonBlockingConnection connection;
+                    while ((connection = _readyConnections.poll()) != null)
+                    {
+                        connections.add(connection);
+                    }
+                    for (final NonBlockingConnection readyConnection : connections)
+                    {
+                        _scheduler.processConnection(readyConnection);
+                    }
+                }
+                closeSelector();
+            }
+            finally
+            {
+                _eventLoopThread = null;
+            }
+        }
+
+        private void addReadyConnections(final List<NonBlockingConnection> connections)
+        {
+            for (final NonBlockingConnection connection : connections)
+            {
+                if (connection.setScheduled())
+                {
+                    _readyConnections.add(connection);
+                }
+            }
+        }
+
+        private void schedule(final NonBlockingConnection connection)
+        {
+            _readyConnections.add(connection);
+            wakeupIfRequired();
+        }
+
+        private boolean isOwnedBy(final SelectorThread selectorThread)
+        {
+            return SelectorThread.this == selectorThread;
+        }
+
+        /**
+         * Wakes the selector unless called from the thread owning this task in event loop mode, which always
+         * looks for pending work before it next blocks in select.
+         */
+        private void wakeupIfRequired()
+        {
+            if (Thread.currentThread() != _eventLoopThread)
+            {
+                _selector.wakeup();
+            }
+        }
+
         private void closeSelector()
         {
             try
@@ -382,19 +494,39 @@ class SelectorThread extends Thread
     }
 
     SelectorThread(final NetworkConnectionScheduler scheduler, final int numberOfSelectors) throws IOException
+    {
+        this(scheduler, numberOfSelectors, false);
+    }
+
+    /**
+     * @param eventLoop if true, each selection task is run as a dedicated event loop by one thread which processes
+     *                  all of the connections registered with its selector; the selection tasks are then started
+     *                  via {@link #getEventLoops()} rather than by running this object.
+     */
+    SelectorThread(final NetworkConnectionScheduler scheduler, final int numberOfSelectors, final boolean eventLoop)
+            throws IOException
     {
         _scheduler = scheduler;
+        _eventLoop = eventLoop;
         _selectionTasks = new SelectionTask[numberOfSelectors];
         for(int i = 0; i < numberOfSelectors; i++)
         {
             _selectionTasks[i] = new SelectionTask();
         }
-        for(SelectionTask task : _selectionTasks)
+        if (!eventLoop)
         {
-            _workQueue.add(task);
+            for (SelectionTask task : _selectionTasks)
+            {
+                _workQueue.add(task);
+            }
         }
     }
 
+    List<Runnable> getEventLoops()
+    {
+        return _eventLoop ? List.of(_selectionTasks) : List.of();
+    }
+
     public void addAcceptingSocket(final ServerSocketChannel socketChannel,
                                    final NonBlockingNetworkTransport nonBlockingNetworkTransport)
     {
@@ -580,7 +712,11 @@ class SelectorThread extends Thread
     {
         if(selectionInterestRequiresUpdate(connection))
         {
-            SelectionTask selectionTask = getNextSelectionTask();
+            SelectionTask selectionTask = connection.getSelectionTask();
+            if (!_eventLoop || selectionTask == null || !selectionTask.isOwnedBy(this))
+            {
+                selectionTask = getNextSelectionTask();
+            }
             connection.setSelectionTask(selectionTask);
             selectionTask.getUnregisteredConnections().add(connection);
             selectionTask.wakeup();
@@ -599,7 +735,7 @@ class SelectorThread extends Thread
         if (selectionInterestRequiresUpdate(connection) || connection.getTicker().getModified())
         {
             selectionTask.getUnregisteredConnections().add(connection);
-            selectionTask.wakeup();
+            selectionTask.wakeupIfRequired();
         }
 
     }
@@ -667,7 +803,32 @@ class SelectorThread extends Thread
          }
          if(connection.setScheduled())
          {
-             _workQueue.add(new ConnectionProcessor(_scheduler, connection));
+             if (_eventLoop)
+             {
+                 SelectionTask selectionTask = connection.getSelectionTask();
+                 if (selectionTask == null || !selectionTask.isOwnedBy(this))
+                 {
+                     selectionTask = getNextSelectionTask();
+                     connection.setSelectionTask(selectionTask);
+                 }
+                 selectionTask.schedule(connection);
+             }
+             else
+             {
+                 _workQueue.add(new ConnectionProcessor(_scheduler, connection));
+             }
          }
      }
+
+    private void submitAcceptWork(final SelectionTask selectionTask, final Runnable acceptWork)
+    {
+        if (_eventLoop)
+        {
+            selectionTask._loopTasks.add(acceptWork);
+        }
+        else
+        {
+            _workQueue.add(acceptWork);
+        }
+    }
 }
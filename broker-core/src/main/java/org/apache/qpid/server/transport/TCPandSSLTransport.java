@@ -63,9 +63,11 @@ class TCPandSSLTransport implements AcceptingTransport
         EnumSet<TransportEncryption> encryptionSet = buildEncryptionSet(_transports);
 
         long threadPoolKeepAliveTimeout = _port.getContextValue(Long.class, AmqpPort.PORT_AMQP_THREAD_POOL_KEEP_ALIVE_TIMEOUT);
+        boolean eventLoop = _port.getContextValue(Boolean.class, AmqpPort.PORT_AMQP_THREAD_POOL_EVENT_LOOP);
 
         _scheduler = new NetworkConnectionScheduler("Port-"+_port.getName(), _port.getNumberOfSelectors(),
-                                                    _port.getThreadPoolSize(), threadPoolKeepAliveTimeout);
+                                                    _port.getThreadPoolSize(), threadPoolKeepAliveTimeout,
+                                                    eventLoop);
         _scheduler.start();
         _networkTransport = new NonBlockingNetworkTransport(protocolEngineFactory,
                                                             encryptionSet, _scheduler, _port);
@@ -48,18 +48,22 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -90,6 +94,7 @@ import org.apache.qpid.server.logging.messages.MessageStoreMessages;
 import org.apache.qpid.server.logging.messages.VirtualHostMessages;
 import org.apache.qpid.server.logging.subjects.MessageStoreLogSubject;
 import org.apache.qpid.server.message.AMQMessageHeader;
+import org.apache.qpid.server.message.ConvertedMessageCache;
 import org.apache.qpid.server.message.InstanceProperties;
 import org.apache.qpid.server.message.MessageDeletedException;
 import org.apache.qpid.server.message.MessageDestination;
@@ -136,8 +141,10 @@ import org.apache.qpid.server.plugin.QpidServiceLoader;
 import org.apache.qpid.server.plugin.SystemNodeCreator;
 import org.apache.qpid.server.pool.SuppressingInheritedAccessControlContextThreadFactory;
 import org.apache.qpid.server.protocol.LinkModel;
+import org.apache.qpid.server.queue.MessageContentReadAhead;
 import org.apache.qpid.server.queue.QueueEntry;
 import org.apache.qpid.server.queue.QueueEntryIterator;
+import org.apache.qpid.server.queue.QueueEntryTimer;
 import org.apache.qpid.server.security.AccessControl;
 import org.apache.qpid.server.security.CompoundAccessControl;
 import org.apache.qpid.server.security.Result;
@@ -190,12 +197,12 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     private final Broker<?> _broker;
     private final DtxRegistry _dtxRegistry;
     private final SystemNodeRegistry _systemNodeRegistry = new SystemNodeRegistry();
-    private final AtomicLong _messagesIn = new AtomicLong();
-    private final AtomicLong _messagesOut = new AtomicLong();
-    private final AtomicLong _transactedMessagesIn = new AtomicLong();
-    private final AtomicLong _transactedMessagesOut = new AtomicLong();
-    private final AtomicLong _bytesIn = new AtomicLong();
-    private final AtomicLong _bytesOut = new AtomicLong();
+    private final LongAdder _messagesIn = new LongAdder();
+    private final LongAdder _messagesOut = new LongAdder();
+    private final LongAdder _transactedMessagesIn = new LongAdder();
+    private final LongAdder _transactedMessagesOut = new LongAdder();
+    private final LongAdder _bytesIn = new LongAdder();
+    private final LongAdder _bytesOut = new LongAdder();
     private final AtomicLong _totalConnectionCount = new AtomicLong();
     private final AtomicLong _maximumMessageSize = new AtomicLong();
     private final AtomicBoolean _blocked = new AtomicBoolean();
@@ -272,11 +279,16 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     private boolean _useAsyncRecoverer;
 
     private MessageStore _messageStore;
-    private MessageStoreRecoverer _messageStoreRecoverer;
+    private volatile MessageStoreRecoverer _messageStoreRecoverer;
     private int _fileSystemMaxUsagePercent;
     private Collection<VirtualHostLogger> _virtualHostLoggersToClose;
     private PreferenceStore _preferenceStore;
     private long _flowToDiskCheckPeriod;
+    private long _queueEntryTimerPeriod;
+    private volatile QueueEntryTimer _queueEntryTimer;
+    private volatile MessageContentReadAhead _messageContentReadAhead;
+    private final ConvertedMessageCache.Statistics _convertedMessageCacheStatistics =
+            new ConvertedMessageCache.Statistics();
     private volatile boolean _isDiscardGlobalSharedSubscriptionLinksOnDetach;
 
     public AbstractVirtualHost(final Map<String, Object> attributes, VirtualHostNode<?> virtualHostNode)
@@ -613,6 +625,8 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
 
         _fileSystemMaxUsagePercent = getContextValue(Integer.class, Broker.STORE_FILESYSTEM_MAX_USAGE_PERCENT);
         _flowToDiskCheckPeriod = getContextValue(Long.class, FLOW_TO_DISK_CHECK_PERIOD);
+        _queueEntryTimerPeriod = getContextValue(Long.class, QUEUE_ENTRY_TIMER_PERIOD);
+        _queueEntryTimer = _queueEntryTimerPeriod > 0L ? new QueueEntryTimer(_queueEntryTimerPeriod) : null;
         _isDiscardGlobalSharedSubscriptionLinksOnDetach = getContextValue(Boolean.class, DISCARD_GLOBAL_SHARED_SUBSCRIPTION_LINKS_ON_DETACH);
 
         QpidServiceLoader serviceLoader = new QpidServiceLoader();
@@ -633,6 +647,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         _linkRegistry = createLinkRegistry();
 
         createHousekeepingExecutor();
+        createMessageContentReadAhead();
         openConnectionLimiter();
     }
 
@@ -667,6 +682,37 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         }
     }
 
+    private void createMessageContentReadAhead()
+    {
+        final int depth = getContextValue(Integer.class, READ_AHEAD_DEPTH);
+        if (depth > 0 && _messageContentReadAhead == null)
+        {
+            final int threadCount = getContextValue(Integer.class, READ_AHEAD_THREAD_COUNT);
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount,
+                                                                       threadCount,
+                                                                       60L,
+                                                                       TimeUnit.SECONDS,
+                                                                       new LinkedBlockingQueue<>(),
+                                                                       QpidByteBuffer.createQpidByteBufferTrackingThreadFactory(
+                                                                               new SuppressingInheritedAccessControlContextThreadFactory(
+                                                                                       "virtualhost-" + getName() + "-readahead",
+                                                                                       getSystemTaskSubject("Read-Ahead", getPrincipal()))));
+            // threads are only kept while there is content to read
+            executor.allowCoreThreadTimeOut(true);
+            _messageContentReadAhead = new MessageContentReadAhead(depth, executor);
+        }
+    }
+
+    private void closeMessageContentReadAhead()
+    {
+        final MessageContentReadAhead messageContentReadAhead = _messageContentReadAhead;
+        if (messageContentReadAhead != null)
+        {
+            _messageContentReadAhead = null;
+            messageContentReadAhead.close();
+        }
+    }
+
     private void checkVHostStateIsActive()
     {
         if (getState() != State.ACTIVE)
@@ -1183,6 +1229,15 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         }
     }
 
+    private void initialiseQueueEntryTimer()
+    {
+        final QueueEntryTimer queueEntryTimer = _queueEntryTimer;
+        if (queueEntryTimer != null)
+        {
+            scheduleHouseKeepingTask(_queueEntryTimerPeriod, new QueueEntryTimerTask(queueEntryTimer));
+        }
+    }
+
     private void initialiseFlowToDiskChecking()
     {
         final long period = getFlowToDiskCheckPeriod();
@@ -1194,6 +1249,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
 
     private void shutdownHouseKeeping()
     {
+        closeMessageContentReadAhead();
         if(_houseKeepingTaskExecutor != null)
         {
             _houseKeepingTaskExecutor.shutdown();
@@ -1458,7 +1514,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     @Override
     public long getInMemoryMessageSize()
     {
-        return _messageStore == null ? -1 : _messageStore.getInMemorySize();
+        return _messageStore == null ? -1 : _messageStore.getInMemorySize() + _convertedMessageCacheStatistics.getSize();
     }
 
     @Override
@@ -1473,6 +1529,65 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         return getTargetSize();
     }
 
+    @Override
+    public long getReadAheadHitCount()
+    {
+        final MessageContentReadAhead messageContentReadAhead = _messageContentReadAhead;
+        return messageContentReadAhead == null ? 0L : messageContentReadAhead.getHitCount();
+    }
+
+    @Override
+    public long getReadAheadMissCount()
+    {
+        final MessageContentReadAhead messageContentReadAhead = _messageContentReadAhead;
+        return messageContentReadAhead == null ? 0L : messageContentReadAhead.getMissCount();
+    }
+
+    @Override
+    public long getConvertedMessageCacheHits()
+    {
+        return _convertedMessageCacheStatistics.getHits();
+    }
+
+    @Override
+    public long getConvertedMessageCacheMisses()
+    {
+        return _convertedMessageCacheStatistics.getMisses();
+    }
+
+    @Override
+    public long getConvertedMessageCacheSize()
+    {
+        return _convertedMessageCacheStatistics.getSize();
+    }
+
+    @Override
+    public long getRecoveredEntryCount()
+    {
+        final MessageStoreRecoverer messageStoreRecoverer = _messageStoreRecoverer;
+        return messageStoreRecoverer == null ? 0L : messageStoreRecoverer.getRecoveredEntryCount();
+    }
+
+    @Override
+    public long getRecoveryTime()
+    {
+        final MessageStoreRecoverer messageStoreRecoverer = _messageStoreRecoverer;
+        return messageStoreRecoverer == null ? 0L : messageStoreRecoverer.getRecoveryTime();
+    }
+
+    @Override
+    public long getRecoveryRate()
+    {
+        final long recoveryTime = getRecoveryTime();
+        return recoveryTime <= 0L ? 0L : getRecoveredEntryCount() * 1000L / recoveryTime;
+    }
+
+    @Override
+    public ConvertedMessageCache.Statistics getConvertedMessageCacheStatistics()
+    {
+        return _convertedMessageCacheStatistics;
+    }
+
     @Override
     public <T extends ConfiguredObject<?>> T getAttainedChildFromAddress(final Class<T> childClass,
                                                                          final String address)
@@ -1513,15 +1628,21 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         _totalConnectionCount.set(0L);
         _maximumMessageSize.set(0L);
 
-        _bytesIn.set(0L);
-        _bytesOut.set(0L);
-        _messagesIn.set(0L);
-        _messagesOut.set(0L);
-        _transactedMessagesIn.set(0L);
-        _transactedMessagesOut.set(0L);
+        _bytesIn.reset();
+        _bytesOut.reset();
+        _messagesIn.reset();
+        _messagesOut.reset();
+        _transactedMessagesIn.reset();
+        _transactedMessagesOut.reset();
 
         _messageStore.resetStatistics();
 
+        final MessageContentReadAhead messageContentReadAhead = _messageContentReadAhead;
+        if (messageContentReadAhead != null)
+        {
+            messageContentReadAhead.resetStatistics();
+        }
+
         getChildren(VirtualHostLogger.class).forEach(VirtualHostLogger::resetStatistics);
         getChildren(Queue.class).forEach(Queue::resetStatistics);
         getChildren(Exchange.class).forEach(Exchange::resetStatistics);
@@ -1697,8 +1818,8 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     @Override
     public void registerMessageDelivered(long messageSize)
     {
-        _messagesOut.incrementAndGet();
-        _bytesOut.addAndGet(messageSize);
+        _messagesOut.increment();
+        _bytesOut.add(messageSize);
         _broker.registerMessageDelivered(messageSize);
         reportDirectMemoryBelowTargetIfReached();
     }
@@ -1706,8 +1827,8 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     @Override
     public void registerMessageReceived(long messageSize)
     {
-        _messagesIn.incrementAndGet();
-        _bytesIn.addAndGet(messageSize);
+        _messagesIn.increment();
+        _bytesIn.add(messageSize);
         _broker.registerMessageReceived(messageSize);
         long hwm;
         while((hwm = _maximumMessageSize.get()) < messageSize)
@@ -1720,51 +1841,51 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     @Override
     public void registerTransactedMessageReceived()
     {
-        _transactedMessagesIn.incrementAndGet();
+        _transactedMessagesIn.increment();
         _broker.registerTransactedMessageReceived();
     }
 
     @Override
     public void registerTransactedMessageDelivered()
     {
-        _transactedMessagesOut.incrementAndGet();
+        _transactedMessagesOut.increment();
         _broker.registerTransactedMessageDelivered();
     }
 
     @Override
     public long getMessagesIn()
     {
-        return _messagesIn.get();
+        return _messagesIn.sum();
     }
 
     @Override
     public long getBytesIn()
     {
-        return _bytesIn.get();
+        return _bytesIn.sum();
     }
 
     @Override
     public long getMessagesOut()
     {
-        return _messagesOut.get();
+        return _messagesOut.sum();
     }
 
     @Override
     public long getBytesOut()
     {
-        return _bytesOut.get();
+        return _bytesOut.sum();
     }
 
     @Override
     public long getTransactedMessagesIn()
     {
-        return _transactedMessagesIn.get();
+        return _transactedMessagesIn.sum();
     }
 
     @Override
     public long getTransactedMessagesOut()
     {
-        return _transactedMessagesOut.get();
+        return _transactedMessagesOut.sum();
     }
 
     @Override
@@ -1967,6 +2088,18 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         return getInMemoryMessageSize() > _targetSize.get();
     }
 
+    @Override
+    public QueueEntryTimer getQueueEntryTimer()
+    {
+        return _queueEntryTimer;
+    }
+
+    @Override
+    public MessageContentReadAhead getMessageContentReadAhead()
+    {
+        return _messageContentReadAhead;
+    }
+
     private static class MessageHeaderImpl implements AMQMessageHeader
     {
         private final String _userName;
@@ -2107,12 +2240,33 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                 if (q.getState() == State.ACTIVE)
                 {
                     LOGGER.debug("Checking message status for queue: {}", q.getName());
-                    q.checkMessageStatus();
+                    q.performHousekeeping();
                 }
             }
         }
     }
 
+    private class QueueEntryTimerTask extends HouseKeepingTask
+    {
+        private final QueueEntryTimer _timer;
+
+        QueueEntryTimerTask(final QueueEntryTimer timer)
+        {
+            super("QueueEntryTimer["+AbstractVirtualHost.this.getName()+"]",AbstractVirtualHost.this,_housekeepingJobContext);
+            _timer = timer;
+        }
+
+        @Override
+        public void execute()
+        {
+            final int processed = _timer.processDueEntries(System.currentTimeMillis());
+            if (processed > 0)
+            {
+                LOGGER.debug("Checked {} queue entries which fell due", processed);
+            }
+        }
+    }
+
     class FlowToDiskCheckingTask extends HouseKeepingTask
     {
         public FlowToDiskCheckingTask()
@@ -2128,54 +2282,133 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                 long currentTargetSize = _targetSize.get();
                 reportDirectMemoryAboveTargetIfExceeded(currentTargetSize,
                                                         AbstractVirtualHost.this.getInMemoryMessageSize());
-                List<QueueEntryIterator> queueIterators = new ArrayList<>();
-                for (Queue<?> q : getChildren(Queue.class))
+                final long bytesToFree = AbstractVirtualHost.this.getInMemoryMessageSize() - currentTargetSize;
+                if (flowNewestEntriesToDisk(bytesToFree) < bytesToFree)
                 {
-                    queueIterators.add(q.queueEntryIterator());
+                    // content reloaded after being flowed to disk can only be found by walking the queues
+                    flowToDiskWalkingQueues(currentTargetSize);
                 }
-                Collections.shuffle(queueIterators);
+                else
+                {
+                    reportDirectMemoryBelowTargetIfReached(currentTargetSize,
+                                                           AbstractVirtualHost.this.getInMemoryMessageSize());
+                }
+            }
+        }
 
-                long cumulativeSize = 0;
-                final Iterator<QueueEntryIterator> cyclicIterators = cycle(queueIterators);
-                while (cyclicIterators.hasNext())
+        /**
+         * Flows to disk the newest entries of the queue holding the most candidate messages, as these are the
+         * furthest from the consumers, until at least the given number of bytes have been freed.
+         *
+         * @return the number of bytes freed
+         */
+        private long flowNewestEntriesToDisk(final long bytesToFree)
+        {
+            final PriorityQueue<QueueCandidates> candidates = new PriorityQueue<>();
+            for (Queue<?> q : getChildren(Queue.class))
+            {
+                final long candidateSize = q.getFlowToDiskCandidateSize();
+                if (candidateSize > 0)
+                {
+                    candidates.add(new QueueCandidates(q, candidateSize));
+                }
+            }
+
+            long freed = 0L;
+            QueueCandidates queueCandidates;
+            while (freed < bytesToFree && (queueCandidates = candidates.poll()) != null)
+            {
+                final Queue<?> queue = queueCandidates.getQueue();
+                freed += queue.flowNewestEntriesToDisk();
+                final long candidateSize = queue.getFlowToDiskCandidateSize();
+                if (candidateSize > 0 && candidateSize < queueCandidates.getSize())
+                {
+                    candidates.add(new QueueCandidates(queue, candidateSize));
+                }
+            }
+            LOGGER.debug("Flowed {} bytes of the newest queue entries to disk", freed);
+            return freed;
+        }
+
+        private void flowToDiskWalkingQueues(final long currentTargetSize)
+        {
+            List<QueueEntryIterator> queueIterators = new ArrayList<>();
+            for (Queue<?> q : getChildren(Queue.class))
+            {
+                queueIterators.add(q.queueEntryIterator());
+            }
+            Collections.shuffle(queueIterators);
+
+            long cumulativeSize = 0;
+            final Iterator<QueueEntryIterator> cyclicIterators = cycle(queueIterators);
+            while (cyclicIterators.hasNext())
+            {
+                final QueueEntryIterator queueIterator = cyclicIterators.next();
+                if (queueIterator.advance())
                 {
-                    final QueueEntryIterator queueIterator = cyclicIterators.next();
-                    if (queueIterator.advance())
+                    QueueEntry node = queueIterator.getNode();
+                    if (node != null && !node.isDeleted())
                     {
-                        QueueEntry node = queueIterator.getNode();
-                        if (node != null && !node.isDeleted())
+                        try (MessageReference messageReference = node.getMessage().newReference())
                         {
-                            try (MessageReference messageReference = node.getMessage().newReference())
+                            final StoredMessage storedMessage = messageReference.getMessage().getStoredMessage();
+                            final long inMemorySize = storedMessage.getInMemorySize();
+                            if (inMemorySize > 0)
                             {
-                                final StoredMessage storedMessage = messageReference.getMessage().getStoredMessage();
-                                final long inMemorySize = storedMessage.getInMemorySize();
-                                if (inMemorySize > 0)
+                                if (cumulativeSize <= currentTargetSize)
                                 {
-                                    if (cumulativeSize <= currentTargetSize)
-                                    {
-                                        cumulativeSize += inMemorySize;
-                                    }
+                                    cumulativeSize += inMemorySize;
+                                }
 
-                                    if (cumulativeSize > currentTargetSize && node.getQueue().checkValid(node))
-                                    {
-                                        storedMessage.flowToDisk();
-                                    }
+                                if (cumulativeSize > currentTargetSize && node.getQueue().checkValid(node))
+                                {
+                                    ConvertedMessageCache.evict(messageReference.getMessage());
+                                    storedMessage.flowToDisk();
                                 }
                             }
-                            catch (MessageDeletedException e)
-                            {
-                                // pass
-                            }
+                        }
+                        catch (MessageDeletedException e)
+                        {
+                            // pass
                         }
                     }
-                    else
-                    {
-                        cyclicIterators.remove();
-                    }
                 }
-                reportDirectMemoryBelowTargetIfReached(cumulativeSize,
-                                                       AbstractVirtualHost.this.getInMemoryMessageSize());
+                else
+                {
+                    cyclicIterators.remove();
+                }
             }
+            reportDirectMemoryBelowTargetIfReached(cumulativeSize,
+                                                   AbstractVirtualHost.this.getInMemoryMessageSize());
+        }
+    }
+
+    private static final class QueueCandidates implements Comparable<QueueCandidates>
+    {
+        private final Queue<?> _queue;
+        private final long _size;
+
+        private QueueCandidates(final Queue<?> queue, final long size)
+        {
+            _queue = queue;
+            _size = size;
+        }
+
+        private Queue<?> getQueue()
+        {
+            return _queue;
+        }
+
+        private long getSize()
+        {
+            return _size;
+        }
+
+        @Override
+        public int compareTo(final QueueCandidates other)
+        {
+            // largest first
+            return Long.compare(other._size, _size);
         }
     }
 
@@ -2633,7 +2866,9 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                                                                      getNumberOfSelectors(),
                                                                      getConnectionThreadPoolSize(),
                                                                      threadPoolKeepAliveTimeout,
-                                                                     connectionThreadFactory);
+                                                                     connectionThreadFactory,
+                                                                     getContextValue(Boolean.class,
+                                                                                     VIRTUALHOST_CONNECTION_THREAD_POOL_EVENT_LOOP));
         _networkConnectionScheduler.start();
 
         updateAccessControl();
@@ -2704,6 +2939,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         try
         {
             initialiseHouseKeeping();
+            initialiseQueueEntryTimer();
             initialiseFlowToDiskChecking();
             finalState = State.ACTIVE;
             _acceptsConnections.set(true);
@@ -2771,6 +3007,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     private ListenableFuture<Void> doRestart()
     {
         createHousekeepingExecutor();
+        createMessageContentReadAhead();
 
         final VirtualHostStoreUpgraderAndRecoverer virtualHostStoreUpgraderAndRecoverer =
                 new VirtualHostStoreUpgraderAndRecoverer((VirtualHostNode<?>) getParent());
@@ -22,16 +22,19 @@ package org.apache.qpid.server.virtualhost;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -66,7 +69,7 @@ import org.apache.qpid.server.util.ServerScopedRuntimeException;
 public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(AsynchronousMessageStoreRecoverer.class);
-    private AsynchronousRecoverer _asynchronousRecoverer;
+    private volatile AsynchronousRecoverer _asynchronousRecoverer;
 
     @Override
     public ListenableFuture<Void> recover(final QueueManagingVirtualHost<?> virtualHost)
@@ -85,9 +88,25 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         }
     }
 
+    @Override
+    public long getRecoveredEntryCount()
+    {
+        final AsynchronousRecoverer asynchronousRecoverer = _asynchronousRecoverer;
+        return asynchronousRecoverer == null ? 0L : asynchronousRecoverer.getRecoveredEntryCount();
+    }
+
+    @Override
+    public long getRecoveryTime()
+    {
+        final AsynchronousRecoverer asynchronousRecoverer = _asynchronousRecoverer;
+        return asynchronousRecoverer == null ? 0L : asynchronousRecoverer.getRecoveryTime();
+    }
+
     private static class AsynchronousRecoverer
     {
         public static final int THREAD_POOL_SHUTDOWN_TIMEOUT = 5000;
+        private static final int RECOVERY_BATCH_SIZE = 1024;
+        private static final long PROGRESS_REPORTING_PERIOD = 10000L;
         private final QueueManagingVirtualHost<?> _virtualHost;
         private final EventLogger _eventLogger;
         private final MessageStore _store;
@@ -95,7 +114,7 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         private final long _maxMessageId;
         private final Set<Queue<?>> _recoveringQueues = new CopyOnWriteArraySet<>();
         private final AtomicBoolean _recoveryComplete = new AtomicBoolean();
-        private final Map<Long, MessageReference<? extends ServerMessage<?>>> _recoveredMessages = new HashMap<>();
+        private final Map<Long, MessageReference<? extends ServerMessage<?>>> _recoveredMessages = new ConcurrentHashMap<>();
         private final ListeningExecutorService _queueRecoveryExecutor =
                 MoreExecutors.listeningDecorator(new ThreadPoolExecutor(0,
                                                                         Integer.MAX_VALUE,
@@ -106,6 +125,13 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
 
         private final MessageStore.MessageStoreReader _storeReader;
         private final AtomicBoolean _continueRecovery = new AtomicBoolean(true);
+        private final int _decodingThreadCount;
+        private final ListeningExecutorService _messageDecodingExecutor;
+        private final AtomicLong _recoveredEntryCount = new AtomicLong();
+        private final AtomicLong _lastProgressReportTime = new AtomicLong();
+        private final int _queueCount;
+        private volatile long _recoveryStartTime;
+        private volatile long _recoveryEndTime;
 
         private AsynchronousRecoverer(final QueueManagingVirtualHost<?> virtualHost)
         {
@@ -118,11 +144,28 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
             _maxMessageId = _store.getNextMessageId();
             Collection children = _virtualHost.getChildren(Queue.class);
             _recoveringQueues.addAll((Collection<? extends Queue<?>>) children);
-
+            _queueCount = _recoveringQueues.size();
+
+            final Integer threadCount = virtualHost.getContextValue(Integer.class,
+                                                                    QueueManagingVirtualHost.RECOVERY_THREAD_COUNT);
+            _decodingThreadCount = threadCount == null
+                    ? QueueManagingVirtualHost.DEFAULT_RECOVERY_THREAD_COUNT
+                    : Math.max(1, threadCount);
+            final ThreadPoolExecutor decodingExecutor =
+                    new ThreadPoolExecutor(_decodingThreadCount,
+                                           _decodingThreadCount,
+                                           60L,
+                                           TimeUnit.SECONDS,
+                                           new LinkedBlockingQueue<>(),
+                                           QpidByteBuffer.createQpidByteBufferTrackingThreadFactory(Executors.defaultThreadFactory()));
+            decodingExecutor.allowCoreThreadTimeOut(true);
+            _messageDecodingExecutor = MoreExecutors.listeningDecorator(decodingExecutor);
         }
 
         public ListenableFuture<Void> recover()
         {
+            _recoveryStartTime = System.currentTimeMillis();
+            _lastProgressReportTime.set(_recoveryStartTime);
             getStoreReader().visitDistributedTransactions(new DistributedTransactionVisitor());
 
             List<ListenableFuture<Void>> queueRecoveryFutures = new ArrayList<>();
@@ -171,6 +214,7 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         {
             MessageInstanceVisitor handler = new MessageInstanceVisitor(queue);
             _storeReader.visitMessageInstances(queue, handler);
+            handler.complete();
 
             if (handler.getNumberOfUnknownMessageInstances() > 0)
             {
@@ -192,10 +236,9 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         private synchronized void completeRecovery()
         {
             // at this point nothing should be writing to the map of recovered messages
-            for (Map.Entry<Long,MessageReference<? extends ServerMessage<?>>> entry : _recoveredMessages.entrySet())
+            for (MessageReference<? extends ServerMessage<?>> ref : _recoveredMessages.values())
             {
-                entry.getValue().release();
-                entry.setValue(null); // free up any memory associated with the reference object
+                ref.release();
             }
             final List<StoredMessage<?>> messagesToDelete = new ArrayList<>();
             getStoreReader().visitMessages(storedMessage ->
@@ -227,38 +270,101 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
                 LOGGER.info("Discarded {} orphaned message(s).", unusedMessageCounter);
             }
 
+            _recoveryEndTime = System.currentTimeMillis();
+            if (_queueCount > 0)
+            {
+                final long recoveredEntryCount = _recoveredEntryCount.get();
+                final long elapsed = Math.max(1L, _recoveryEndTime - _recoveryStartTime);
+                LOGGER.info("Recovered {} entry(s) of {} message(s) onto {} queue(s) of virtual host '{}' in {} ms"
+                            + " ({} entry(s)/s).",
+                            recoveredEntryCount, _recoveredMessages.size(), _queueCount, _virtualHost.getName(),
+                            elapsed, recoveredEntryCount * 1000L / elapsed);
+            }
+
             messagesToDelete.clear();
             _recoveredMessages.clear();
             _storeReader.close();
+            _messageDecodingExecutor.shutdown();
             _queueRecoveryExecutor.shutdown();
         }
 
-        private synchronized ServerMessage<?> getRecoveredMessage(final long messageId)
+        long getRecoveredEntryCount()
+        {
+            return _recoveredEntryCount.get();
+        }
+
+        long getRecoveryTime()
+        {
+            final long recoveryStartTime = _recoveryStartTime;
+            if (recoveryStartTime == 0L)
+            {
+                return 0L;
+            }
+            final long recoveryEndTime = _recoveryEndTime;
+            return (recoveryEndTime == 0L ? System.currentTimeMillis() : recoveryEndTime) - recoveryStartTime;
+        }
+
+        private ServerMessage<?> getRecoveredMessage(final long messageId)
         {
             MessageReference<? extends ServerMessage<?>> ref = _recoveredMessages.get(messageId);
             if (ref == null)
             {
-                StoredMessage<?> message = _storeReader.getMessage(messageId);
-                if(message != null)
+                // the store read and metadata decode happen outside of the map so that no bin lock is held through
+                // them.  Should the queues referencing the message be recovered concurrently, only the message
+                // decoded first is referenced: releasing the reference of another would remove the message from
+                // the store, so its decoded metadata is merely dropped
+                final ServerMessage<?> serverMessage = createRecoveredMessage(messageId);
+                if (serverMessage == null)
+                {
+                    return null;
+                }
+                ref = _recoveredMessages.computeIfAbsent(messageId, id -> serverMessage.newReference());
+                if (ref.getMessage() != serverMessage)
                 {
-                    StorableMessageMetaData metaData = message.getMetaData();
+                    serverMessage.getStoredMessage().flowToDisk();
+                }
+            }
+            return ref.getMessage();
+        }
+
+        private ServerMessage<?> createRecoveredMessage(final long messageId)
+        {
+            StoredMessage<?> message = _storeReader.getMessage(messageId);
+            if(message != null)
+            {
+                StorableMessageMetaData metaData = message.getMetaData();
 
-                    @SuppressWarnings("rawtypes")
-                    MessageMetaDataType type = metaData.getType();
+                @SuppressWarnings("rawtypes")
+                MessageMetaDataType type = metaData.getType();
 
-                    @SuppressWarnings("unchecked")
-                    ServerMessage<?> serverMessage = type.createMessage(message);
+                @SuppressWarnings("unchecked")
+                ServerMessage<?> serverMessage = type.createMessage(message);
 
-                    ref = serverMessage.newReference();
-                    _recoveredMessages.put(messageId, ref);
-                }
+                return serverMessage;
+            }
+            return null;
+        }
+
+        private void entriesRecovered(final int count)
+        {
+            final long recoveredEntryCount = _recoveredEntryCount.addAndGet(count);
+            final long lastReportTime = _lastProgressReportTime.get();
+            final long currentTime = System.currentTimeMillis();
+            if (currentTime - lastReportTime >= PROGRESS_REPORTING_PERIOD
+                && _lastProgressReportTime.compareAndSet(lastReportTime, currentTime))
+            {
+                final long elapsed = Math.max(1L, currentTime - _recoveryStartTime);
+                LOGGER.info("Recovery of virtual host '{}' in progress: {} entry(s) recovered ({} entry(s)/s),"
+                            + " {} of {} queue(s) remaining.",
+                            _virtualHost.getName(), recoveredEntryCount, recoveredEntryCount * 1000L / elapsed,
+                            _recoveringQueues.size(), _queueCount);
             }
-            return ref == null ? null : ref.getMessage();
         }
 
         public void cancel()
         {
             _continueRecovery.set(false);
+            _messageDecodingExecutor.shutdown();
             _queueRecoveryExecutor.shutdown();
             try
             {
@@ -498,11 +604,18 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         }
 
 
+        /**
+         * Reads the enqueue records of a queue in batches. The messages of each batch are decoded in parallel, the
+         * batch being partitioned into contiguous slices across the decoding threads, whilst the previous batch is
+         * appended to the queue in store order and the store cursor moves on to the next.
+         */
         private class MessageInstanceVisitor implements MessageInstanceHandler
         {
             private final Queue<?> _queue;
             long _recoveredCount;
             private int _numberOfUnknownMessageInstances;
+            private List<MessageEnqueueRecord> _records = new ArrayList<>(RECOVERY_BATCH_SIZE);
+            private RecoveryBatch _pendingBatch;
 
             private MessageInstanceVisitor(Queue<?> queue)
             {
@@ -514,27 +627,13 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
             public boolean handle(final MessageEnqueueRecord record)
             {
                 long messageId = record.getMessageNumber();
-                String queueName = _queue.getName();
 
                 if(messageId < _maxMessageId)
                 {
-                    ServerMessage<?> message = getRecoveredMessage(messageId);
-
-                    if (message != null)
-                    {
-                        LOGGER.debug("Delivering message id '{}' to queue '{}'", message.getMessageNumber(), queueName);
-
-                        _queue.recover(message, record);
-                        _recoveredCount++;
-                    }
-                    else
+                    _records.add(record);
+                    if (_records.size() == RECOVERY_BATCH_SIZE)
                     {
-                        LOGGER.debug("Message id '{}' referenced in log as enqueued in queue '{}' is unknown, entry will be discarded",
-                                      messageId, queueName);
-                        Transaction txn = _store.newTransaction();
-                        txn.dequeueMessage(record);
-                        txn.commitTranAsync((Void) null);
-                        _numberOfUnknownMessageInstances++;
+                        submitBatch();
                     }
                     return _continueRecovery.get();
                 }
@@ -545,6 +644,62 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
 
             }
 
+            void complete()
+            {
+                if (!_records.isEmpty())
+                {
+                    submitBatch();
+                }
+                appendPendingBatch();
+            }
+
+            private void submitBatch()
+            {
+                final List<MessageEnqueueRecord> records = _records;
+                _records = new ArrayList<>(RECOVERY_BATCH_SIZE);
+                if (_continueRecovery.get())
+                {
+                    final RecoveryBatch batch = new RecoveryBatch(records);
+                    appendPendingBatch();
+                    _pendingBatch = batch;
+                }
+            }
+
+            private void appendPendingBatch()
+            {
+                final RecoveryBatch batch = _pendingBatch;
+                if (batch != null)
+                {
+                    _pendingBatch = null;
+                    final ServerMessage<?>[] messages = batch.getMessages();
+                    final String queueName = _queue.getName();
+                    int recovered = 0;
+                    for (int i = 0; i < messages.length; i++)
+                    {
+                        final MessageEnqueueRecord record = batch.getRecord(i);
+                        final ServerMessage<?> message = messages[i];
+                        if (message != null)
+                        {
+                            LOGGER.debug("Delivering message id '{}' to queue '{}'", message.getMessageNumber(), queueName);
+
+                            _queue.recover(message, record);
+                            recovered++;
+                        }
+                        else
+                        {
+                            LOGGER.debug("Message id '{}' referenced in log as enqueued in queue '{}' is unknown, entry will be discarded",
+                                          record.getMessageNumber(), queueName);
+                            Transaction txn = _store.newTransaction();
+                            txn.dequeueMessage(record);
+                            txn.commitTranAsync((Void) null);
+                            _numberOfUnknownMessageInstances++;
+                        }
+                    }
+                    _recoveredCount += recovered;
+                    entriesRecovered(recovered);
+                }
+            }
+
             long getRecoveredCount()
             {
                 return _recoveredCount;
@@ -555,6 +710,70 @@ public class AsynchronousMessageStoreRecoverer implements MessageStoreRecoverer
                 return _numberOfUnknownMessageInstances;
             }
         }
+
+        private class RecoveryBatch
+        {
+            private final List<MessageEnqueueRecord> _records;
+            private final ServerMessage<?>[] _messages;
+            private final ListenableFuture<List<Void>> _decoded;
+
+            private RecoveryBatch(final List<MessageEnqueueRecord> records)
+            {
+                _records = records;
+                _messages = new ServerMessage<?>[records.size()];
+
+                final int sliceCount = Math.min(_decodingThreadCount, records.size());
+                final int sliceSize = (records.size() + sliceCount - 1) / sliceCount;
+                final List<ListenableFuture<Void>> slices = new ArrayList<>(sliceCount);
+                for (int from = 0; from < records.size(); from += sliceSize)
+                {
+                    final int start = from;
+                    final int end = Math.min(from + sliceSize, records.size());
+                    slices.add(_messageDecodingExecutor.submit(() -> decode(start, end), null));
+                }
+                _decoded = Futures.allAsList(slices);
+            }
+
+            private void decode(final int start, final int end)
+            {
+                for (int i = start; i < end; i++)
+                {
+                    _messages[i] = getRecoveredMessage(_records.get(i).getMessageNumber());
+                }
+            }
+
+            MessageEnqueueRecord getRecord(final int index)
+            {
+                return _records.get(index);
+            }
+
+            ServerMessage<?>[] getMessages()
+            {
+                try
+                {
+                    _decoded.get();
+                    return _messages;
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new ServerScopedRuntimeException("Interrupted whilst decoding recovered messages", e);
+                }
+                catch (ExecutionException e)
+                {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException)
+                    {
+                        throw (RuntimeException) cause;
+                    }
+                    else if (cause instanceof Error)
+                    {
+                        throw (Error) cause;
+                    }
+                    throw new ServerScopedRuntimeException("Failed to decode recovered messages", cause);
+                }
+            }
+        }
     }
 
 
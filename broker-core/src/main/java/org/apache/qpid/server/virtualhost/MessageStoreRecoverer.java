@@ -31,4 +31,14 @@ public interface MessageStoreRecoverer
      * completed, this method call has no effect.
      */
     void cancel();
+
+    /**
+     * @return the number of queue entries recovered so far
+     */
+    long getRecoveredEntryCount();
+
+    /**
+     * @return the time in milliseconds spent recovering, up to now if recovery is still in progress
+     */
+    long getRecoveryTime();
 }
@@ -46,7 +46,9 @@ import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.model.StatisticType;
 import org.apache.qpid.server.model.StatisticUnit;
 import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.server.queue.MessageContentReadAhead;
 import org.apache.qpid.server.queue.QueueEntry;
+import org.apache.qpid.server.queue.QueueEntryTimer;
 import org.apache.qpid.server.security.auth.SocketConnectionMetaData;
 import org.apache.qpid.server.stats.StatisticsGatherer;
 import org.apache.qpid.server.store.DurableConfigurationStore;
@@ -82,6 +84,31 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
     @ManagedContextDefault(name = FLOW_TO_DISK_CHECK_PERIOD)
     long DEFAULT_FLOW_TO_DISK_CHECK_PERIOD = 30000L;
 
+    String QUEUE_ENTRY_TIMER_PERIOD = "virtualhost.queueEntryTimerPeriod";
+    @ManagedContextDefault(name = QUEUE_ENTRY_TIMER_PERIOD,
+                           description = "Time (in milliseconds) between checks for messages whose expiration or hold"
+                                         + " time has passed. If zero or negative, such messages are only found by"
+                                         + " the housekeeping check of every message on the queue.")
+    long DEFAULT_QUEUE_ENTRY_TIMER_PERIOD = 1000L;
+
+    String RECOVERY_THREAD_COUNT = "virtualhost.recoveryThreadCount";
+    @ManagedContextDefault(name = RECOVERY_THREAD_COUNT,
+                           description = "Number of threads decoding the messages of the queues being recovered"
+                                         + " asynchronously, in addition to the thread recovering each queue.")
+    int DEFAULT_RECOVERY_THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    String READ_AHEAD_DEPTH = "virtualhost.readAheadDepth";
+    @ManagedContextDefault(name = READ_AHEAD_DEPTH,
+                           description = "Number of queue entries ahead of each consumer whose content, if flowed to"
+                                         + " disk, is reloaded before the consumer reaches them. If zero or negative,"
+                                         + " content is only reloaded when it is delivered.")
+    int DEFAULT_READ_AHEAD_DEPTH = 16;
+
+    String READ_AHEAD_THREAD_COUNT = "virtualhost.readAheadThreadCount";
+    @ManagedContextDefault(name = READ_AHEAD_THREAD_COUNT,
+                           description = "Number of threads reloading the content of queue entries ahead of consumers.")
+    int DEFAULT_READ_AHEAD_THREAD_COUNT = 2;
+
     String CONNECTION_THREAD_POOL_KEEP_ALIVE_TIMEOUT = "connectionThreadPoolKeepAliveTimeout";
     @SuppressWarnings("unused")
     @ManagedContextDefault(name = QueueManagingVirtualHost.CONNECTION_THREAD_POOL_KEEP_ALIVE_TIMEOUT)
@@ -164,6 +191,13 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
     @ManagedContextDefault( name = VIRTUALHOST_CONNECTION_THREAD_POOL_NUMBER_OF_SELECTORS)
     long DEFAULT_VIRTUALHOST_CONNECTION_THREAD_POOL_NUMBER_OF_SELECTORS = Math.max(DEFAULT_VIRTUALHOST_CONNECTION_THREAD_POOL_SIZE/8, 1);
 
+    String VIRTUALHOST_CONNECTION_THREAD_POOL_EVENT_LOOP = "virtualhost.connectionThreadPool.eventLoop";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = VIRTUALHOST_CONNECTION_THREAD_POOL_EVENT_LOOP,
+            description = "If true, each thread of the connection thread pool runs its own selector and processes"
+                          + " only the connections assigned to it.")
+    boolean DEFAULT_VIRTUALHOST_CONNECTION_THREAD_POOL_EVENT_LOOP = false;
+
     String NAMED_CACHE_MAXIMUM_SIZE = "virtualhost.namedCache.maximumSize";
     @SuppressWarnings("unused")
     @ManagedContextDefault(name = NAMED_CACHE_MAXIMUM_SIZE, description = "Maximum number of entries within the named cached")
@@ -311,6 +345,63 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
             resettable = true)
     long getInboundMessageSizeHighWatermark();
 
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.MESSAGES, label = "Read-Ahead Hits",
+            description = "Total number of messages whose content was reloaded from disk before their delivery.",
+            resettable = true)
+    long getReadAheadHitCount();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.MESSAGES, label = "Read-Ahead Misses",
+            description = "Total number of messages whose content had to be reloaded from disk on delivery.",
+            resettable = true)
+    long getReadAheadMissCount();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+            label = "Converted Message Cache Hits",
+            description = "Number of deliveries which reused a representation of the message previously converted"
+                          + " for another consumer.",
+            metricName = "converted_message_cache_hits_count")
+    long getConvertedMessageCacheHits();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT,
+            label = "Converted Message Cache Misses",
+            description = "Number of deliveries which required the message to be converted.",
+            metricName = "converted_message_cache_misses_count")
+    long getConvertedMessageCacheMisses();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.BYTES,
+            label = "Converted Message Cache Bytes",
+            description = "Current size of the converted messages cached for further deliveries. Included in the"
+                          + " in-memory message bytes.",
+            metricName = "converted_message_cache_size_bytes_total")
+    long getConvertedMessageCacheSize();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT,
+            label = "Recovered Entries",
+            description = "Number of queue entries recovered from the message store since the Virtual Host was"
+                          + " last activated.",
+            metricName = "recovered_entries_count")
+    long getRecoveredEntryCount();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.TIME_DURATION,
+            label = "Recovery Time",
+            description = "Time spent recovering the message store, up to now whilst recovery is in progress.",
+            metricName = "recovery_time_milliseconds")
+    long getRecoveryTime();
+
+    @SuppressWarnings("unused")
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT,
+            label = "Recovery Rate",
+            description = "Number of queue entries recovered from the message store per second.",
+            metricName = "recovery_rate_entries_per_second")
+    long getRecoveryRate();
+
     @ManagedOperation(description = "Resets Virtual Host statistics", changesConfiguredObjectState = true)
     void resetStatistics();
 
@@ -405,6 +496,16 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
 
     boolean isOverTargetSize();
 
+    /**
+     * @return the timer of the queue entries due to expire or stop being held, or null if it is disabled
+     */
+    QueueEntryTimer getQueueEntryTimer();
+
+    /**
+     * @return the read-ahead of message content flowed to disk, or null if it is disabled
+     */
+    MessageContentReadAhead getMessageContentReadAhead();
+
     interface Transaction
     {
         void dequeue(QueueEntry entry);
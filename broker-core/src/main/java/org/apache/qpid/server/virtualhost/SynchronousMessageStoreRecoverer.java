@@ -59,9 +59,14 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(SynchronousMessageStoreRecoverer.class);
 
+    private volatile long _recoveredEntryCount;
+    private volatile long _recoveryStartTime;
+    private volatile long _recoveryEndTime;
+
     @Override
     public ListenableFuture<Void> recover(QueueManagingVirtualHost<?> virtualHost)
     {
+        _recoveryStartTime = System.currentTimeMillis();
         EventLogger eventLogger = virtualHost.getEventLogger();
         MessageStore store = virtualHost.getMessageStore();
         MessageStore.MessageStoreReader storeReader = store.newMessageStoreReader();
@@ -112,6 +117,7 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         {
             Queue<?> queue = entry.getKey();
             Integer deliveredCount = entry.getValue();
+            _recoveredEntryCount += deliveredCount;
             eventLogger.message(logSubject, TransactionLogMessages.RECOVERED(deliveredCount, queue.getName()));
             eventLogger.message(logSubject, TransactionLogMessages.RECOVERY_COMPLETE(queue.getName(), true));
             queue.completeRecovery();
@@ -145,6 +151,7 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         eventLogger.message(logSubject,
                              MessageStoreMessages.RECOVERED(recoveredMessages.size() - unusedMessages.size()));
         eventLogger.message(logSubject, MessageStoreMessages.RECOVERY_COMPLETE());
+        _recoveryEndTime = System.currentTimeMillis();
 
         return Futures.immediateFuture(null);
     }
@@ -155,6 +162,24 @@ public class SynchronousMessageStoreRecoverer implements MessageStoreRecoverer
         // No-op
     }
 
+    @Override
+    public long getRecoveredEntryCount()
+    {
+        return _recoveredEntryCount;
+    }
+
+    @Override
+    public long getRecoveryTime()
+    {
+        final long recoveryStartTime = _recoveryStartTime;
+        if (recoveryStartTime == 0L)
+        {
+            return 0L;
+        }
+        final long recoveryEndTime = _recoveryEndTime;
+        return (recoveryEndTime == 0L ? System.currentTimeMillis() : recoveryEndTime) - recoveryStartTime;
+    }
+
     private static class MessageVisitor implements MessageHandler
     {
 
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.bytebuffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures allocation from and release to the direct buffer pool by many threads at once, comparing
+ * {@link BufferPool} with a single shared queue as used before the pool had per-thread caches.
+ * Each operation takes a few buffers, as a network read or message encoding does, and then releases them.
+ *
+ * Run with: java -cp target/test-classes:... org.apache.qpid.server.bytebuffer.BufferPoolBenchmark [-t threads]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class BufferPoolBenchmark
+{
+    private static final int BUFFER_SIZE = 256;
+    private static final int POOL_SIZE = 1024;
+
+    @Param({"queue", "magazine"})
+    public String _pool;
+
+    @Param({"4"})
+    public int _buffersPerOperation;
+
+    private Pool _bufferPool;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        if ("queue".equals(_pool))
+        {
+            final QueuePool queuePool = new QueuePool(POOL_SIZE);
+            _bufferPool = new Pool()
+            {
+                @Override
+                public ByteBuffer getBuffer()
+                {
+                    return queuePool.getBuffer();
+                }
+
+                @Override
+                public void returnBuffer(final ByteBuffer buffer)
+                {
+                    queuePool.returnBuffer(buffer);
+                }
+            };
+        }
+        else
+        {
+            final BufferPool bufferPool = new BufferPool(POOL_SIZE);
+            _bufferPool = new Pool()
+            {
+                @Override
+                public ByteBuffer getBuffer()
+                {
+                    return bufferPool.getBuffer();
+                }
+
+                @Override
+                public void returnBuffer(final ByteBuffer buffer)
+                {
+                    bufferPool.returnBuffer(buffer);
+                }
+            };
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState
+    {
+        ByteBuffer[] _buffers;
+
+        @Setup(Level.Trial)
+        public void setUp(final BufferPoolBenchmark benchmark)
+        {
+            _buffers = new ByteBuffer[benchmark._buffersPerOperation];
+        }
+    }
+
+    @Benchmark
+    public void allocateAndRelease(final ThreadState state, final Blackhole blackhole)
+    {
+        final ByteBuffer[] buffers = state._buffers;
+        for (int i = 0; i < buffers.length; i++)
+        {
+            ByteBuffer buffer = _bufferPool.getBuffer();
+            if (buffer == null)
+            {
+                buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            }
+            buffers[i] = buffer;
+        }
+        blackhole.consume(buffers);
+        for (int i = buffers.length - 1; i >= 0; i--)
+        {
+            _bufferPool.returnBuffer(buffers[i]);
+            buffers[i] = null;
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        final Options options = new OptionsBuilder()
+                .include(BufferPoolBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private interface Pool
+    {
+        ByteBuffer getBuffer();
+
+        void returnBuffer(ByteBuffer buffer);
+    }
+
+    /**
+     * The pool implementation without per-thread caches, kept as the baseline for comparison.
+     */
+    private static final class QueuePool
+    {
+        private final int _maxSize;
+        private final ConcurrentLinkedQueue<ByteBuffer> _pooledBuffers = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger _size = new AtomicInteger();
+
+        private QueuePool(final int maxSize)
+        {
+            _maxSize = maxSize;
+        }
+
+        private ByteBuffer getBuffer()
+        {
+            final ByteBuffer buffer = _pooledBuffers.poll();
+            if (buffer != null)
+            {
+                _size.decrementAndGet();
+            }
+            return buffer;
+        }
+
+        private void returnBuffer(final ByteBuffer buffer)
+        {
+            buffer.clear();
+            if (_size.get() < _maxSize)
+            {
+                _pooledBuffers.add(buffer);
+                _size.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.bytebuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class BufferPoolTest extends UnitTestBase
+{
+    private static final int MAGAZINE_SIZE = 4;
+    private static final int MAX_SIZE = 8;
+
+    @Test
+    public void testReturnedBufferIsReusedByThread()
+    {
+        final BufferPool pool = new BufferPool(MAX_SIZE, MAGAZINE_SIZE);
+        assertNull(pool.getBuffer(), "Pool should initially be empty");
+
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(1);
+        pool.returnBuffer(buffer);
+
+        assertEquals(1, pool.size());
+        assertEquals(1, pool.getThreadCachedSize());
+        assertEquals(0, pool.getSharedSize());
+        assertSame(buffer, pool.getBuffer());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void testBuffersAreExchangedBetweenThreadsInMagazines() throws Exception
+    {
+        final BufferPool pool = new BufferPool(4 * MAGAZINE_SIZE, MAGAZINE_SIZE);
+        final List<ByteBuffer> returned = allocate(3 * MAGAZINE_SIZE);
+        runInThread(() -> returned.forEach(pool::returnBuffer));
+
+        assertEquals(MAGAZINE_SIZE, pool.getSharedSize(), "Unexpected number of buffers in the depot");
+
+        final List<ByteBuffer> taken = new ArrayList<>();
+        for (int i = 0; i < MAGAZINE_SIZE; i++)
+        {
+            taken.add(pool.getBuffer());
+        }
+        taken.forEach(buffer -> assertNotNull(buffer, "Expected a buffer from the depot"));
+    }
+
+    @Test
+    public void testPoolIsBoundedIncludingThreadCaches() throws Exception
+    {
+        final BufferPool pool = new BufferPool(MAX_SIZE, MAGAZINE_SIZE);
+        final List<ByteBuffer> returnedByOtherThread = allocate(MAGAZINE_SIZE);
+        final CountDownLatch returned = new CountDownLatch(1);
+        final CountDownLatch checked = new CountDownLatch(1);
+        final Thread otherThread = new Thread(() ->
+        {
+            returnedByOtherThread.forEach(pool::returnBuffer);
+            returned.countDown();
+            try
+            {
+                checked.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        otherThread.start();
+        try
+        {
+            assertTrue(returned.await(10, TimeUnit.SECONDS), "Buffers not returned by other thread");
+
+            allocate(MAX_SIZE * 4).forEach(pool::returnBuffer);
+
+            assertEquals(MAX_SIZE, pool.size(), "Pool holds more buffers than its maximum size");
+            assertEquals(MAX_SIZE, pool.getThreadCachedSize(), "Unexpected number of buffers in thread caches");
+        }
+        finally
+        {
+            checked.countDown();
+            otherThread.join();
+        }
+    }
+
+    @Test
+    public void testThreadWhichEmptiedItsCacheDoesNotReserveRoom() throws Exception
+    {
+        final BufferPool pool = new BufferPool(MAX_SIZE, MAGAZINE_SIZE);
+        final List<ByteBuffer> returnedByOtherThread = allocate(MAGAZINE_SIZE);
+        final CountDownLatch emptied = new CountDownLatch(1);
+        final CountDownLatch checked = new CountDownLatch(1);
+        final Thread otherThread = new Thread(() ->
+        {
+            returnedByOtherThread.forEach(pool::returnBuffer);
+            for (int i = 0; i < MAGAZINE_SIZE; i++)
+            {
+                pool.getBuffer();
+            }
+            emptied.countDown();
+            try
+            {
+                checked.await();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        otherThread.start();
+        try
+        {
+            assertTrue(emptied.await(10, TimeUnit.SECONDS), "Cache of other thread not emptied");
+
+            allocate(MAX_SIZE).forEach(pool::returnBuffer);
+
+            assertEquals(MAX_SIZE, pool.size(), "Room in the pool kept by a thread holding no buffers");
+        }
+        finally
+        {
+            checked.countDown();
+            otherThread.join();
+        }
+    }
+
+    @Test
+    public void testCacheOfTerminatedThreadIsReclaimed() throws Exception
+    {
+        final BufferPool pool = new BufferPool(MAX_SIZE, MAGAZINE_SIZE);
+        final List<ByteBuffer> returned = allocate(2 * MAGAZINE_SIZE);
+        runInThread(() -> returned.forEach(pool::returnBuffer));
+
+        assertEquals(0, pool.getSharedSize());
+        assertEquals(2 * MAGAZINE_SIZE, pool.getThreadCachedSize());
+
+        for (int i = 0; i < 2 * MAGAZINE_SIZE; i++)
+        {
+            assertNotNull(pool.getBuffer(), "Expected buffer reclaimed from terminated thread");
+        }
+        assertNull(pool.getBuffer());
+        assertEquals(0, pool.size());
+    }
+
+    private static List<ByteBuffer> allocate(final int number)
+    {
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < number; i++)
+        {
+            buffers.add(ByteBuffer.allocateDirect(1));
+        }
+        return buffers;
+    }
+
+    private static void runInThread(final Runnable runnable) throws Exception
+    {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread thread = new Thread(() -> {
+            try
+            {
+                runnable.run();
+            }
+            catch (Throwable t)
+            {
+                failure.set(t);
+            }
+        });
+        thread.start();
+        thread.join();
+        if (failure.get() != null)
+        {
+            throw new AssertionError("Thread failed", failure.get());
+        }
+    }
+}
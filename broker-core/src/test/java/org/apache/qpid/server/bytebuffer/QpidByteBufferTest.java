@@ -865,6 +865,18 @@ public class QpidByteBufferTest extends UnitTestBase
         }
     }
 
+    @Test
+    public void testSharing()
+    {
+        assertFalse(_parent.isShared(), "Unexpected sharing after creation");
+        final QpidByteBuffer slice = _parent.slice();
+        assertTrue(_parent.isShared(), "Buffer should be shared with its slice");
+        assertTrue(slice.isShared(), "Slice should be shared with its parent");
+
+        slice.dispose();
+        assertFalse(_parent.isShared(), "Unexpected sharing after slice disposal");
+    }
+
     @Test
     public void testSparsity()
     {
@@ -21,6 +21,7 @@
 package org.apache.qpid.server.consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -217,6 +218,72 @@ public class AbstractConsumerTargetTest extends UnitTestBase
         verify(_messageInstance, never()).routeToAlternate(any(Action.class), any(ServerTransaction.class), any());
     }
 
+    @Test
+    public void testSendNextMessageOnlyPullsConsumersWithNotifiedWork()
+    {
+        configureBehaviour(true, MessageSource.MessageConversionExceptionHandlingPolicy.REJECT);
+        final MessageInstanceConsumer idleConsumer = mock(MessageInstanceConsumer.class);
+        _consumerTarget.consumerAdded(idleConsumer);
+
+        assertTrue(_consumerTarget.sendNextMessage(), "Message from first consumer not sent");
+        assertTrue(_consumerTarget.sendNextMessage(), "Message not sent after idle consumer was pulled");
+        verify(idleConsumer, times(1)).pullMessage();
+
+        assertTrue(_consumerTarget.sendNextMessage(), "Message from first consumer not sent");
+        verify(idleConsumer, times(1)).pullMessage();
+
+        _consumerTarget.notifyWork(idleConsumer);
+        assertTrue(_consumerTarget.sendNextMessage(), "Message from first consumer not sent");
+        verify(idleConsumer, times(1)).pullMessage();
+        assertTrue(_consumerTarget.sendNextMessage(), "Message not sent after idle consumer was pulled");
+        verify(idleConsumer, times(2)).pullMessage();
+    }
+
+    @Test
+    public void testSendNextMessageWithoutNotifiedWork()
+    {
+        final MessageInstanceConsumer idleConsumer = mock(MessageInstanceConsumer.class);
+        final MessageInstanceConsumer otherIdleConsumer = mock(MessageInstanceConsumer.class);
+        _consumerTarget = new TestAbstractConsumerTarget();
+        _consumerTarget.consumerAdded(idleConsumer);
+
+        assertFalse(_consumerTarget.sendNextMessage(), "Unexpected message sent");
+        verify(idleConsumer, times(1)).pullMessage();
+
+        _consumerTarget.consumerAdded(otherIdleConsumer);
+        _consumerTarget.notifyWork(otherIdleConsumer);
+        assertFalse(_consumerTarget.sendNextMessage(), "Unexpected message sent");
+        verify(idleConsumer, times(1)).pullMessage();
+        verify(otherIdleConsumer, times(1)).pullMessage();
+
+        _consumerTarget.notifyWork();
+        assertFalse(_consumerTarget.sendNextMessage(), "Unexpected message sent");
+        verify(idleConsumer, times(2)).pullMessage();
+        verify(otherIdleConsumer, times(2)).pullMessage();
+    }
+
+    @Test
+    public void testDrainWithCreditOnEmptyQueueReportsNoMessagesAvailable()
+    {
+        final MessageInstanceConsumer idleConsumer = mock(MessageInstanceConsumer.class);
+        _consumerTarget = new TestAbstractConsumerTarget();
+        // as the queue does, the consumer reports to its target when it finds no message to deliver
+        when(idleConsumer.pullMessage()).thenAnswer(invocation ->
+                                                    {
+                                                        _consumerTarget.noMessagesAvailable();
+                                                        return null;
+                                                    });
+        _consumerTarget.consumerAdded(idleConsumer);
+
+        assertFalse(_consumerTarget.sendNextMessage(), "Unexpected message sent");
+        assertEquals(1, _consumerTarget.getNoMessagesAvailableCount(), "Unexpected number of empty pulls");
+
+        // a drain schedules the target on its session without notifying any of its consumers
+        assertFalse(_consumerTarget.sendNextMessage(), "Unexpected message sent");
+        assertEquals(2, _consumerTarget.getNoMessagesAvailableCount(),
+                     "Drain did not pull the consumer, so the link would never be drained");
+    }
+
     private void configureBehaviour(final boolean acquires,
                                     final MessageSource.MessageConversionExceptionHandlingPolicy exceptionHandlingPolicy)
     {
@@ -228,6 +295,7 @@ public class AbstractConsumerTargetTest extends UnitTestBase
     private class TestAbstractConsumerTarget extends AbstractConsumerTarget<TestAbstractConsumerTarget>
     {
         private boolean _creditRestored;
+        private int _noMessagesAvailableCount;
 
         TestAbstractConsumerTarget()
         {
@@ -267,7 +335,12 @@ public class AbstractConsumerTargetTest extends UnitTestBase
         @Override
         public void noMessagesAvailable()
         {
+            _noMessagesAvailableCount++;
+        }
 
+        int getNoMessagesAvailableCount()
+        {
+            return _noMessagesAvailableCount;
         }
 
         @Override
@@ -244,6 +244,12 @@ public class TestConsumerTarget implements ConsumerTarget<TestConsumerTarget>
 
     }
 
+    @Override
+    public void notifyWork(final MessageInstanceConsumer<TestConsumerTarget> consumer)
+    {
+        notifyWork();
+    }
+
     @Override
     public boolean isNotifyWorkDesired()
     {
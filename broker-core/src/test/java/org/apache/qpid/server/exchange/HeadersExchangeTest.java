@@ -195,6 +195,54 @@ public class HeadersExchangeTest extends UnitTestBase
         List.of(q1, q2, q3).forEach(Queue::close);
     }
 
+    @Test
+    public void testOnBindingUpdated() throws Exception
+    {
+        final Queue<?> q1 = createAndBind("Q1", "F0000=Aardvark");
+
+        routeAndTest(createTestMessage(getArgsMapFromStrings("F0000=Aardvark")), q1);
+        routeAndTest(createTestMessage(getArgsMapFromStrings("F0001=Bear")));
+
+        _exchange.replaceBinding("Q1", q1, getArgsMapFromStrings("F0001=Bear"));
+
+        routeAndTest(createTestMessage(getArgsMapFromStrings("F0000=Aardvark")));
+        routeAndTest(createTestMessage(getArgsMapFromStrings("F0001=Bear")), q1);
+
+        q1.close();
+    }
+
+    @Test
+    public void testBindingWithoutHeaderArguments() throws Exception
+    {
+        final Queue<?> q1 = createAndBind("Q1");
+        final Queue<?> q2 = createAndBind("Q2", "X-match=any");
+        final Queue<?> q3 = createAndBind("Q3", "F0000");
+
+        routeAndTest(_messageWithNoHeaders, q1, q2);
+        routeAndTest(createTestMessage(getArgsMapFromStrings("F0000=Aardvark")), q1, q2, q3);
+
+        List.of(q1, q2, q3).forEach(Queue::close);
+    }
+
+    @Test
+    public void testManyBindings() throws Exception
+    {
+        final List<Queue<?>> queues = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+        {
+            queues.add(createAndBind(getTestName() + i, "region=R" + (i % 5), "id=" + i));
+        }
+        final Queue<?> anyQueue = createAndBind(getTestName() + "_any", "region=R1", "id=7", "X-match=any");
+
+        routeAndTest(createTestMessage(getArgsMapFromStrings("region=R1", "id=11")), queues.get(11), anyQueue);
+        routeAndTest(createTestMessage(getArgsMapFromStrings("region=R2", "id=7")), queues.get(7), anyQueue);
+        routeAndTest(createTestMessage(getArgsMapFromStrings("region=R2", "id=12")), queues.get(12));
+        routeAndTest(createTestMessage(getArgsMapFromStrings("region=R3")));
+
+        queues.forEach(Queue::close);
+        anyQueue.close();
+    }
+
     @Test
     public void testWithSelectors() throws Exception
     {
@@ -258,6 +258,34 @@ public class TopicExchangeTest extends UnitTestBase
         assertEquals(1, result.getNumberOfRoutes());
     }
 
+    @Test
+    public void testRouteAfterBindingChurn()
+    {
+        final Queue<?> queue = _vhost.createChild(Queue.class, Map.of(Queue.NAME, getTestName() + "_queue"));
+        final Queue<?> wildcardQueue = _vhost.createChild(Queue.class, Map.of(Queue.NAME, getTestName() + "_wildcard"));
+        _exchange.bind(wildcardQueue.getName(), "a.#", null, false);
+
+        for (int i = 0; i < 500; i++)
+        {
+            final String bindingKey = "a.b" + i;
+            _exchange.bind(queue.getName(), bindingKey, null, false);
+            assertEquals(2, _exchange.route(_messageWithNoHeaders, bindingKey, _instanceProperties).getNumberOfRoutes(),
+                         "Unexpected number of routes for " + bindingKey);
+            _exchange.deleteBinding(bindingKey, queue);
+        }
+
+        _exchange.bind(queue.getName(), "a.b1", null, false);
+
+        assertEquals(2, _exchange.route(_messageWithNoHeaders, "a.b1", _instanceProperties).getNumberOfRoutes());
+        assertEquals(1, _exchange.route(_messageWithNoHeaders, "a.b2", _instanceProperties).getNumberOfRoutes());
+        assertEquals(0, _exchange.route(_messageWithNoHeaders, "b.b1", _instanceProperties).getNumberOfRoutes());
+
+        _exchange.deleteBinding("a.#", wildcardQueue);
+
+        assertEquals(1, _exchange.route(_messageWithNoHeaders, "a.b1", _instanceProperties).getNumberOfRoutes());
+        assertEquals(0, _exchange.route(_messageWithNoHeaders, "a.b2", _instanceProperties).getNumberOfRoutes());
+    }
+
     @Test
     public void testRouteToQueueWithSelector()
     {
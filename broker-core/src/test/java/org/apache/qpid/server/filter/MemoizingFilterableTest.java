@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.filter.selector.SelectorParser;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class MemoizingFilterableTest extends UnitTestBase
+{
+    @Test
+    public void testHeaderValuesAreRetrievedOnce()
+    {
+        final Filterable delegate = mock(Filterable.class);
+        when(delegate.getHeader("region")).thenReturn("EU");
+        final MemoizingFilterable filterable = new MemoizingFilterable(delegate);
+
+        assertEquals("EU", filterable.getHeader("region"));
+        assertEquals("EU", filterable.getHeader("region"));
+        assertNull(filterable.getHeader("size"));
+        assertNull(filterable.getHeader("size"));
+
+        verify(delegate, times(1)).getHeader("region");
+        verify(delegate, times(1)).getHeader("size");
+    }
+
+    @Test
+    public void testSelectorResultsAreSharedBetweenEqualFilters() throws Exception
+    {
+        final Filterable delegate = mock(Filterable.class);
+        when(delegate.getHeader("region")).thenReturn("EU");
+        when(delegate.getHeader("size")).thenReturn(20);
+        final MemoizingFilterable filterable = new MemoizingFilterable(delegate);
+
+        final JMSSelectorFilter filter1 = new JMSSelectorFilter("region = 'EU' AND size > 10", false);
+        final JMSSelectorFilter filter2 = new JMSSelectorFilter("region = 'EU' AND size > 10", false);
+        final JMSSelectorFilter filter3 = new JMSSelectorFilter("region = 'US' OR size > 100", false);
+
+        assertTrue(filter1.matches(filterable));
+        assertTrue(filter2.matches(filterable));
+        assertFalse(filter3.matches(filterable));
+
+        verify(delegate, times(1)).getHeader("region");
+        verify(delegate, times(1)).getHeader("size");
+    }
+
+    @Test
+    public void testCommonSubExpressionsAreShared() throws Exception
+    {
+        final Filterable delegate = mock(Filterable.class);
+        when(delegate.getHeader("region")).thenReturn("EU");
+        final MemoizingFilterable filterable = new MemoizingFilterable(delegate);
+
+        final JMSSelectorFilter filter1 = new JMSSelectorFilter("region LIKE 'E%' AND colour = 'red'", true);
+        final JMSSelectorFilter filter2 = new JMSSelectorFilter("colour IS NULL AND region LIKE 'E%'", true);
+
+        assertFalse(filter1.matches(filterable));
+        assertTrue(filter2.matches(filterable));
+
+        final SelectorParser<FilterableMessage> parser = new SelectorParser<>();
+        parser.setPropertyExpressionFactory(JMSMessagePropertyExpression.FACTORY);
+        final String sharedExpression = parser.parse("region LIKE 'E%'").toString();
+        assertEquals(Boolean.TRUE, filterable.evaluate(sharedExpression, message ->
+        {
+            throw new AssertionError("Result of the shared sub-expression should have been remembered");
+        }, filterable));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.filter.selector.SelectorParser;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class SelectorCompilerTest extends UnitTestBase
+{
+    private static final List<String> SELECTORS = Arrays.asList(
+            "region = 'EU'",
+            "'EU' = region",
+            "region <> 'EU'",
+            "region = 'EU' AND size > 10",
+            "region = 'EU' AND size > 10 AND priority = 4",
+            "region = 'EU' OR region = 'US' OR size < 5",
+            "(region = 'EU' OR size >= 10) AND NOT (size = 11)",
+            "region IN ('EU', 'US', 'APAC', 'LATAM', 'MEA')",
+            "region NOT IN ('EU', 'US')",
+            "region IS NULL",
+            "region IS NOT NULL AND size <= 100",
+            "10 < size",
+            "size = 10",
+            "TRUE AND region = 'EU'",
+            "FALSE OR region = 'EU'",
+            "region = 'EU' AND FALSE",
+            "region = 'EU' OR TRUE",
+            "NOT FALSE",
+            "size BETWEEN 5 AND 15",
+            "region LIKE 'E%' OR size > 2.5",
+            "JMSPriority > 3 AND JMSType = 'order'");
+
+    private static final List<Object> REGIONS = Arrays.asList("EU", "US", "APAC", null, 1, 10L, Boolean.TRUE);
+    private static final List<Object> SIZES = Arrays.asList(10, 11L, 100, (short) 10, (byte) 11, 3.5d, 10.0f, "10", null);
+
+    @Test
+    public void testCompiledSelectorsAgreeWithInterpretedSelectors() throws Exception
+    {
+        for (String selector : SELECTORS)
+        {
+            final BooleanExpression<FilterableMessage> interpreted = parse(selector);
+            final BooleanExpression<FilterableMessage> compiled = SelectorCompiler.compile(parse(selector));
+
+            for (Object region : REGIONS)
+            {
+                for (Object size : SIZES)
+                {
+                    final Map<String, Object> headers = new HashMap<>();
+                    headers.put("region", region);
+                    headers.put("size", size);
+                    headers.put("priority", size);
+                    final FilterableMessage message = createMessage(headers);
+
+                    final String description = selector + " with " + headers;
+                    assertEquals(interpreted.evaluate(message), compiled.evaluate(message), description);
+                    assertEquals(interpreted.matches(message), compiled.matches(message), description);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledSelectorRetainsSourceText() throws Exception
+    {
+        final BooleanExpression<FilterableMessage> interpreted = parse("region = 'EU' AND size > 10");
+        final BooleanExpression<FilterableMessage> compiled = SelectorCompiler.compile(interpreted);
+
+        assertEquals(interpreted.toString(), compiled.toString());
+    }
+
+    @Test
+    public void testFilterWithAndWithoutCompilation() throws Exception
+    {
+        final Map<String, Object> headers = new HashMap<>();
+        headers.put("region", "EU");
+        headers.put("size", 20);
+        final Filterable message = createMessage(headers);
+
+        final String selector = "region = 'EU' AND size > 10";
+        assertTrue(new JMSSelectorFilter(selector, true).matches(message));
+        assertTrue(new JMSSelectorFilter(selector, false).matches(message));
+
+        headers.put("size", 5);
+        assertFalse(new JMSSelectorFilter(selector, true).matches(message));
+        assertFalse(new JMSSelectorFilter(selector, false).matches(message));
+    }
+
+    private static BooleanExpression<FilterableMessage> parse(final String selector) throws Exception
+    {
+        final SelectorParser<FilterableMessage> parser = new SelectorParser<>();
+        parser.setPropertyExpressionFactory(JMSMessagePropertyExpression.FACTORY);
+        return parser.parse(selector);
+    }
+
+    private static Filterable createMessage(final Map<String, Object> headers)
+    {
+        final Filterable message = mock(Filterable.class);
+        when(message.getHeader(anyString())).thenAnswer(invocation -> headers.get(invocation.<String>getArgument(0)));
+        when(message.getPriority()).thenReturn((byte) 4);
+        when(message.getType()).thenReturn("order");
+        return message;
+    }
+}
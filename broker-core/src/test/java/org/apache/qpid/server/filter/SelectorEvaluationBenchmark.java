@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.filter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.apache.qpid.server.filter.selector.SelectorParser;
+import org.apache.qpid.server.message.AMQMessageHeader;
+
+/**
+ * Compares the interpreted evaluation of a parsed selector with the evaluation of the same selector lowered
+ * by {@link SelectorCompiler}.  The expressions are evaluated directly so that the debug logging performed by
+ * {@link JMSSelectorFilter} does not dominate the measurement.
+ *
+ * Run with: java -cp target/test-classes:... org.apache.qpid.server.filter.SelectorEvaluationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectorEvaluationBenchmark
+{
+    private static final int MESSAGE_POOL_SIZE = 1024;
+    private static final String[] REGIONS = {"EU", "US", "APAC", "LATAM"};
+
+    @Param({"interpreted", "compiled"})
+    public String _evaluation;
+
+    @Param({"region = 'EU' AND size > 10 AND priority = 4",
+            "region IN ('EU', 'US', 'APAC', 'LATAM', 'MEA') OR size < 5",
+            "(region = 'EU' OR region = 'US') AND NOT (size BETWEEN 5 AND 15)"})
+    public String _selector;
+
+    private BooleanExpression<FilterableMessage> _expression;
+    private Filterable[] _messages;
+    private int _messageIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        final SelectorParser<FilterableMessage> parser = new SelectorParser<>();
+        parser.setPropertyExpressionFactory(JMSMessagePropertyExpression.FACTORY);
+        final BooleanExpression<FilterableMessage> parsed = parser.parse(_selector);
+        _expression = "compiled".equals(_evaluation) ? SelectorCompiler.compile(parsed) : parsed;
+
+        final Random random = new Random(0);
+        _messages = new Filterable[MESSAGE_POOL_SIZE];
+        for (int i = 0; i < MESSAGE_POOL_SIZE; i++)
+        {
+            final Map<String, Object> headers = new HashMap<>();
+            headers.put("region", REGIONS[random.nextInt(REGIONS.length)]);
+            headers.put("size", random.nextInt(20));
+            headers.put("priority", random.nextInt(10));
+            _messages[i] = new TestMessage(headers);
+        }
+    }
+
+    @Benchmark
+    public boolean evaluate()
+    {
+        final Filterable message = _messages[_messageIndex++ & (MESSAGE_POOL_SIZE - 1)];
+        return _expression.matches(message);
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        final Options options = new OptionsBuilder()
+                .include(SelectorEvaluationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private static final class TestMessage implements Filterable
+    {
+        private final Map<String, Object> _headers;
+
+        private TestMessage(final Map<String, Object> headers)
+        {
+            _headers = headers;
+        }
+
+        @Override
+        public Object getHeader(final String name)
+        {
+            return _headers.get(name);
+        }
+
+        @Override
+        public AMQMessageHeader getMessageHeader()
+        {
+            return null;
+        }
+
+        @Override
+        public boolean isPersistent()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isRedelivered()
+        {
+            return false;
+        }
+
+        @Override
+        public Object getConnectionReference()
+        {
+            return null;
+        }
+
+        @Override
+        public long getMessageNumber()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getArrivalTime()
+        {
+            return 0;
+        }
+
+        @Override
+        public String getReplyTo()
+        {
+            return null;
+        }
+
+        @Override
+        public String getType()
+        {
+            return null;
+        }
+
+        @Override
+        public byte getPriority()
+        {
+            return 4;
+        }
+
+        @Override
+        public String getMessageId()
+        {
+            return null;
+        }
+
+        @Override
+        public long getTimestamp()
+        {
+            return 0;
+        }
+
+        @Override
+        public String getCorrelationId()
+        {
+            return null;
+        }
+
+        @Override
+        public long getExpiration()
+        {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.message;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.model.NamedAddressSpace;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.plugin.MessageConverter;
+import org.apache.qpid.server.store.StorableMessageMetaData;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+@SuppressWarnings("unchecked")
+public class ConvertedMessageCacheTest extends UnitTestBase
+{
+    private static final long CONVERTED_MESSAGE_SIZE = 100L;
+
+    private TestMessage _message;
+    private ServerMessage<?> _convertedMessage;
+    private MessageConverter<TestMessage, ServerMessage> _converter;
+    private NamedAddressSpace _addressSpace;
+    private ConvertedMessageCache.Statistics _statistics;
+    private MessageInstance _instance;
+
+    @BeforeEach
+    public void setUp()
+    {
+        _message = new TestMessage(mock(StoredMessage.class));
+        _convertedMessage = mock(ServerMessage.class);
+        when(_convertedMessage.getSizeIncludingHeader()).thenReturn(CONVERTED_MESSAGE_SIZE);
+        _converter = mock(MessageConverter.class);
+        _addressSpace = mock(NamedAddressSpace.class);
+        _statistics = new ConvertedMessageCache.Statistics();
+        _instance = mock(MessageInstance.class);
+        when(_addressSpace.getConvertedMessageCacheStatistics()).thenReturn(_statistics);
+        when(_converter.convert(any(TestMessage.class), any(NamedAddressSpace.class))).thenReturn(_convertedMessage);
+    }
+
+    @Test
+    public void testConversionSharedBetweenDeliveries()
+    {
+        try (MessageReference<TestMessage> firstQueue = enqueue();
+             MessageReference<TestMessage> secondQueue = enqueue();
+             MessageReference<ServerMessage> first = ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace);
+             MessageReference<ServerMessage> second = ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace))
+        {
+            assertSame(_convertedMessage, first.getMessage());
+            assertSame(_convertedMessage, second.getMessage());
+            verify(_converter, times(1)).convert(_message, _addressSpace);
+            assertEquals(CONVERTED_MESSAGE_SIZE, _statistics.getSize(), "Unexpected size of cached conversions");
+        }
+
+        assertEquals(1, _statistics.getHits(), "Unexpected number of cache hits");
+        assertEquals(1, _statistics.getMisses(), "Unexpected number of cache misses");
+        assertEquals(0, _statistics.getSize(), "Unexpected size of cached conversions after release");
+    }
+
+    @Test
+    public void testConversionOfMessageOnSingleQueueNotCached()
+    {
+        try (MessageReference<TestMessage> queue = enqueue())
+        {
+            final MessageReference<ServerMessage> delivery =
+                    ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace);
+            assertSame(_convertedMessage, delivery.getMessage());
+            assertEquals(0, _statistics.getSize(), "Conversion unexpectedly cached");
+
+            delivery.release();
+            verify(_converter, times(1)).dispose(_convertedMessage);
+
+            ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace).release();
+            verify(_converter, times(2)).convert(_message, _addressSpace);
+        }
+
+        assertEquals(0, _statistics.getHits(), "Unexpected number of cache hits");
+        assertEquals(2, _statistics.getMisses(), "Unexpected number of cache misses");
+    }
+
+    @Test
+    public void testConversionSharedBetweenConsumersOfSingleQueue()
+    {
+        final int numberOfConsumers = 3;
+        final Queue<?> queue = mock(Queue.class);
+        final UUID queueId = UUID.randomUUID();
+        when(queue.getId()).thenReturn(queueId);
+        when(queue.getConsumerCount()).thenReturn(numberOfConsumers);
+        when(_instance.getOwningResource()).thenReturn(queue);
+
+        try (MessageReference<TestMessage> queueReference = _message.newReference(queue))
+        {
+            for (int i = 0; i < numberOfConsumers; i++)
+            {
+                ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace).release();
+            }
+            verify(_converter, times(1)).convert(_message, _addressSpace);
+        }
+
+        assertEquals(numberOfConsumers - 1, _statistics.getHits(), "Unexpected number of cache hits");
+        assertEquals(1, _statistics.getMisses(), "Unexpected number of cache misses");
+    }
+
+    @Test
+    public void testConversionOfRedeliveredMessageCached()
+    {
+        when(_instance.getDeliveryCount()).thenReturn(1);
+        try (MessageReference<TestMessage> queue = enqueue())
+        {
+            ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace).release();
+            assertEquals(CONVERTED_MESSAGE_SIZE, _statistics.getSize(), "Conversion of redelivered message not cached");
+        }
+    }
+
+    @Test
+    public void testConversionCachedPerAddressSpace()
+    {
+        try (MessageReference<TestMessage> firstQueue = enqueue();
+             MessageReference<TestMessage> secondQueue = enqueue();
+             MessageReference<ServerMessage> first = ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace);
+             MessageReference<ServerMessage> second = ConvertedMessageCache.convert(_message,
+                                                                                     _instance,
+                                                                                     _converter,
+                                                                                     mock(NamedAddressSpace.class)))
+        {
+            verify(_converter, times(2)).convert(any(TestMessage.class), any(NamedAddressSpace.class));
+        }
+    }
+
+    @Test
+    public void testConversionNotPerformedWhilstHoldingCache() throws Exception
+    {
+        final NamedAddressSpace otherAddressSpace = mock(NamedAddressSpace.class);
+        final AtomicBoolean otherConversionCompleted = new AtomicBoolean();
+        when(_converter.convert(_message, _addressSpace)).thenAnswer(invocation ->
+        {
+            final Thread other = new Thread(() ->
+                    ConvertedMessageCache.convert(_message, _instance, _converter, otherAddressSpace).release());
+            other.start();
+            other.join(10000L);
+            otherConversionCompleted.set(!other.isAlive());
+            return _convertedMessage;
+        });
+
+        try (MessageReference<TestMessage> firstQueue = enqueue();
+             MessageReference<TestMessage> secondQueue = enqueue())
+        {
+            ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace).release();
+        }
+
+        assertTrue(otherConversionCompleted.get(), "Conversion for another address space blocked by conversion");
+    }
+
+    @Test
+    public void testConvertedMessageDisposedWhenSourceMessageReleased()
+    {
+        final MessageReference<TestMessage> firstQueue = enqueue();
+        final MessageReference<TestMessage> secondQueue = enqueue();
+        ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace).release();
+        verify(_converter, never()).dispose(_convertedMessage);
+
+        firstQueue.release();
+        secondQueue.release();
+        verify(_converter, times(1)).dispose(_convertedMessage);
+        assertEquals(0, _statistics.getSize(), "Unexpected size of cached conversions after release");
+    }
+
+    @Test
+    public void testConvertedMessageInUseDisposedOnlyAfterLastDelivery()
+    {
+        final MessageReference<TestMessage> firstQueue = enqueue();
+        final MessageReference<TestMessage> secondQueue = enqueue();
+        final MessageReference<ServerMessage> delivery = ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace);
+
+        firstQueue.release();
+        secondQueue.release();
+        verify(_converter, never()).dispose(_convertedMessage);
+
+        delivery.release();
+        delivery.release();
+        verify(_converter, times(1)).dispose(_convertedMessage);
+    }
+
+    @Test
+    public void testEviction()
+    {
+        try (MessageReference<TestMessage> firstQueue = enqueue();
+             MessageReference<TestMessage> secondQueue = enqueue())
+        {
+            final MessageReference<ServerMessage> delivery =
+                    ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace);
+
+            ConvertedMessageCache.evict(_message);
+            verify(_converter, never()).dispose(_convertedMessage);
+            assertEquals(0, _statistics.getSize(), "Unexpected size of cached conversions after eviction");
+
+            delivery.release();
+            verify(_converter, times(1)).dispose(_convertedMessage);
+
+            ConvertedMessageCache.convert(_message, _instance, _converter, _addressSpace).release();
+            verify(_converter, times(2)).convert(_message, _addressSpace);
+        }
+        verify(_converter, times(2)).dispose(_convertedMessage);
+    }
+
+    @Test
+    public void testConversionOfMessageWithoutCache()
+    {
+        final ServerMessage<?> message = mock(ServerMessage.class);
+        final MessageConverter<ServerMessage<?>, ServerMessage> converter = mock(MessageConverter.class);
+        when(converter.convert(message, _addressSpace)).thenReturn(_convertedMessage);
+
+        final MessageReference<ServerMessage> delivery = ConvertedMessageCache.convert(message, _instance, converter, _addressSpace);
+        assertSame(_convertedMessage, delivery.getMessage());
+        verify(converter, never()).dispose(_convertedMessage);
+
+        delivery.release();
+        verify(converter, times(1)).dispose(_convertedMessage);
+    }
+
+    private MessageReference<TestMessage> enqueue()
+    {
+        final UUID queueId = UUID.randomUUID();
+        final TransactionLogResource queue = mock(TransactionLogResource.class);
+        when(queue.getId()).thenReturn(queueId);
+        return _message.newReference(queue);
+    }
+
+    private static class TestMessage extends AbstractServerMessageImpl<TestMessage, StorableMessageMetaData>
+    {
+        TestMessage(final StoredMessage<StorableMessageMetaData> handle)
+        {
+            super(handle, null);
+        }
+
+        @Override
+        public String getInitialRoutingAddress()
+        {
+            return "";
+        }
+
+        @Override
+        public String getTo()
+        {
+            return null;
+        }
+
+        @Override
+        public AMQMessageHeader getMessageHeader()
+        {
+            return null;
+        }
+
+        @Override
+        public long getExpiration()
+        {
+            return 0;
+        }
+
+        @Override
+        public String getMessageType()
+        {
+            return "test";
+        }
+
+        @Override
+        public long getArrivalTime()
+        {
+            return 0;
+        }
+
+        @Override
+        public boolean isResourceAcceptable(final TransactionLogResource resource)
+        {
+            return true;
+        }
+    }
+}
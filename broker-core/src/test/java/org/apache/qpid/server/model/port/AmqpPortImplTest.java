@@ -56,6 +56,7 @@ import org.apache.qpid.server.model.BrokerTestHelper;
 import org.apache.qpid.server.model.KeyStore;
 import org.apache.qpid.server.model.Model;
 import org.apache.qpid.server.model.Port;
+import org.apache.qpid.server.model.State;
 import org.apache.qpid.server.model.SystemConfig;
 import org.apache.qpid.server.model.Transport;
 import org.apache.qpid.server.model.TrustStore;
@@ -266,6 +267,16 @@ public class AmqpPortImplTest extends UnitTestBase
         assertFalse(_port.acceptNewConnectionAndIncrementCount(new InetSocketAddress("example.org", 0)));
     }
 
+    @Test
+    public void testUnavailableTransportProviderFallsBackToDefault()
+    {
+        _port = createPort(getTestName(),
+                           Map.of(AmqpPort.CONTEXT, Map.of(AmqpPort.PORT_AMQP_TRANSPORT_PROVIDER, "Unknown")));
+
+        assertEquals(State.ACTIVE, _port.getState(), "Port not activated with the default transport provider");
+        assertTrue(_port.getBoundPort() > 0, "Port not bound");
+    }
+
     @Test
     public void resetStatistics()
     {
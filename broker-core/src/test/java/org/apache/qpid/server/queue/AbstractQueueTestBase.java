@@ -32,10 +32,12 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -65,6 +67,9 @@ import org.apache.qpid.server.consumer.TestConsumerTarget;
 import org.apache.qpid.server.exchange.DirectExchange;
 import org.apache.qpid.server.exchange.DirectExchangeImpl;
 import org.apache.qpid.server.exchange.ExchangeDefaults;
+import org.apache.qpid.server.filter.AMQPFilterTypes;
+import org.apache.qpid.server.filter.FilterManager;
+import org.apache.qpid.server.filter.JMSSelectorFilter;
 import org.apache.qpid.server.message.AMQMessageHeader;
 import org.apache.qpid.server.message.InstanceProperties;
 import org.apache.qpid.server.message.MessageInstance;
@@ -262,6 +267,172 @@ abstract class AbstractQueueTestBase extends UnitTestBase
                 "Message which was valid was not received");
     }
 
+    @Test
+    public void testHeldMessageReleasedByQueueEntryTimer() throws Exception
+    {
+        _queue.close();
+        final Map<String,Object> attributes = ImmutableMap.<String,Object>builder().putAll(_arguments)
+                .put(Queue.NAME, _qname)
+                .put(Queue.OWNER, _owner)
+                .put(Queue.HOLD_ON_PUBLISH_ENABLED, Boolean.TRUE).build();
+
+        _queue = _virtualHost.createChild(Queue.class, attributes);
+
+        final ServerMessage<?> messageA = createMessage(24L);
+        final AMQMessageHeader messageHeader = messageA.getMessageHeader();
+        final long notValidBefore = System.currentTimeMillis() + 20000L;
+        when(messageHeader.getNotValidBefore()).thenReturn(notValidBefore);
+        _queue.enqueue(messageA, null, null);
+        _consumer = (QueueConsumer<?,?>) _queue
+                .addConsumer(_consumerTarget, null, messageA.getClass(), "test",
+                EnumSet.of(ConsumerOption.ACQUIRES, ConsumerOption.SEES_REQUEUES), 0);
+        while(_consumerTarget.processPending());
+
+        assertEquals(0, (long) _consumerTarget.getMessages().size(),
+                "Message which was not yet valid was received");
+
+        final QueueEntryTimer queueEntryTimer = _virtualHost.getQueueEntryTimer();
+        queueEntryTimer.processDueEntries(notValidBefore - 1000L);
+        while(_consumerTarget.processPending());
+        assertEquals(0, (long) _consumerTarget.getMessages().size(),
+                "Message was released before it fell due");
+
+        // the consumer checks the hold against the current time when delivering
+        when(messageHeader.getNotValidBefore()).thenReturn(System.currentTimeMillis() - 100L);
+        queueEntryTimer.processDueEntries(notValidBefore + 2 * QueueManagingVirtualHost.DEFAULT_QUEUE_ENTRY_TIMER_PERIOD);
+        while(_consumerTarget.processPending());
+        assertEquals(1, (long) _consumerTarget.getMessages().size(),
+                "Message which became valid was not received");
+    }
+
+    @Test
+    public void testHoldOfHeldMessageNotEvaluatedAgainByConsumers() throws Exception
+    {
+        _queue.close();
+        final Map<String,Object> attributes = ImmutableMap.<String,Object>builder().putAll(_arguments)
+                .put(Queue.NAME, _qname)
+                .put(Queue.OWNER, _owner)
+                .put(Queue.HOLD_ON_PUBLISH_ENABLED, Boolean.TRUE).build();
+
+        _queue = _virtualHost.createChild(Queue.class, attributes);
+
+        final ServerMessage<?> messageA = createMessage(24L);
+        final AMQMessageHeader messageHeader = messageA.getMessageHeader();
+        final long notValidBefore = System.currentTimeMillis() + 20000L;
+        when(messageHeader.getNotValidBefore()).thenReturn(notValidBefore);
+        // a message enqueued with a post enqueue action is held in the entry list
+        _queue.enqueue(messageA, entry -> {}, null);
+        _consumer = (QueueConsumer<?,?>) _queue
+                .addConsumer(_consumerTarget, null, messageA.getClass(), "test",
+                EnumSet.of(ConsumerOption.ACQUIRES, ConsumerOption.SEES_REQUEUES), 0);
+        while(_consumerTarget.processPending());
+
+        final QueueEntry entry = (QueueEntry) _queue.getMessagesOnTheQueue().get(0);
+        clearInvocations(messageHeader);
+
+        assertTrue(entry.isHeldAt(notValidBefore - 1000L), "Entry should be held");
+        assertFalse(_consumer.hasInterest(entry), "Consumer should not be interested in held entry");
+        verify(messageHeader, never()).getNotValidBefore();
+
+        assertFalse(entry.isHeldAt(notValidBefore + 1L), "Entry should no longer be held once its hold has passed");
+        verify(messageHeader, atLeastOnce()).getNotValidBefore();
+    }
+
+    @Test
+    public void testDeletedEntryCancelledFromEveryScheduledTime() throws Exception
+    {
+        _queue.close();
+        final Map<String,Object> attributes = ImmutableMap.<String,Object>builder().putAll(_arguments)
+                .put(Queue.NAME, _qname)
+                .put(Queue.OWNER, _owner)
+                .put(Queue.HOLD_ON_PUBLISH_ENABLED, Boolean.TRUE).build();
+
+        _queue = _virtualHost.createChild(Queue.class, attributes);
+
+        final ServerMessage<?> message = createMessage(24L);
+        when(message.getMessageHeader().getNotValidBefore()).thenReturn(System.currentTimeMillis() + 20000L);
+        when(message.getExpiration()).thenReturn(System.currentTimeMillis() + 40000L);
+        // a message enqueued with a post enqueue action is held in the entry list
+        _queue.enqueue(message, entry -> {}, null);
+
+        final QueueEntryTimer queueEntryTimer = _virtualHost.getQueueEntryTimer();
+        assertEquals(2, queueEntryTimer.getScheduledCount(), "Entry not scheduled for its hold and its expiration");
+
+        _queue.clearQueue();
+        assertEquals(0, queueEntryTimer.getScheduledCount(), "Deleted entry retained by the timer");
+    }
+
+    @Test
+    public void testHeldMessageKeptApartFromEntryListUntilDue() throws Exception
+    {
+        _queue.close();
+        final Map<String,Object> attributes = ImmutableMap.<String,Object>builder().putAll(_arguments)
+                .put(Queue.NAME, _qname)
+                .put(Queue.OWNER, _owner)
+                .put(Queue.HOLD_ON_PUBLISH_ENABLED, Boolean.TRUE).build();
+
+        _queue = _virtualHost.createChild(Queue.class, attributes);
+
+        final QueueEntryTimer queueEntryTimer = _virtualHost.getQueueEntryTimer();
+        final int scheduledCount = queueEntryTimer.getScheduledCount();
+        final ServerMessage<?> message = createMessage(24L, 10, 90);
+        final long notValidBefore = System.currentTimeMillis() + 20000L;
+        when(message.getMessageHeader().getNotValidBefore()).thenReturn(notValidBefore);
+        _queue.enqueue(message, null, null);
+
+        assertEquals(0, _queue.getQueueDepthMessages(), "Held message counted in the queue depth");
+        assertEquals(1, _queue.getHeldQueueDepthMessages(), "Held message not counted in the held queue depth");
+        assertEquals(100, _queue.getHeldQueueDepthBytes(), "Unexpected held queue depth");
+        assertTrue(_queue.getMessagesOnTheQueue().isEmpty(), "Held message added to the entry list");
+
+        queueEntryTimer.processDueEntries(notValidBefore - 1000L);
+        assertEquals(1, _queue.getHeldQueueDepthMessages(), "Message released before it fell due");
+
+        when(message.getMessageHeader().getNotValidBefore()).thenReturn(System.currentTimeMillis() - 100L);
+        queueEntryTimer.processDueEntries(notValidBefore + 2 * QueueManagingVirtualHost.DEFAULT_QUEUE_ENTRY_TIMER_PERIOD);
+
+        assertEquals(0, _queue.getHeldQueueDepthMessages(), "Message still held after it fell due");
+        assertEquals(1, _queue.getQueueDepthMessages(), "Message not added to the entry list once it fell due");
+        assertTrue(queueEntryTimer.getScheduledCount() <= scheduledCount, "Queue retained by the timer");
+    }
+
+    @Test
+    public void testHeldMessageClearedFromQueue() throws Exception
+    {
+        _queue.close();
+        final Map<String,Object> attributes = ImmutableMap.<String,Object>builder().putAll(_arguments)
+                .put(Queue.NAME, _qname)
+                .put(Queue.OWNER, _owner)
+                .put(Queue.HOLD_ON_PUBLISH_ENABLED, Boolean.TRUE).build();
+
+        _queue = _virtualHost.createChild(Queue.class, attributes);
+
+        final QueueEntryTimer queueEntryTimer = _virtualHost.getQueueEntryTimer();
+        final int scheduledCount = queueEntryTimer.getScheduledCount();
+        final ServerMessage<?> message = createMessage(24L);
+        when(message.getMessageHeader().getNotValidBefore()).thenReturn(System.currentTimeMillis() + 20000L);
+        _queue.enqueue(message, null, null);
+
+        assertEquals(1, _queue.clearQueue(), "Held message not cleared");
+        assertEquals(0, _queue.getHeldQueueDepthMessages(), "Held message retained");
+        assertEquals(0, _queue.getQueueDepthMessages(), "Cleared message retained in the entry list");
+        assertEquals(scheduledCount, queueEntryTimer.getScheduledCount(), "Cleared message retained by the timer");
+    }
+
+    @Test
+    public void testExpiredMessageRemovedByQueueEntryTimer()
+    {
+        final ServerMessage<?> message = createMessage(24L);
+        when(message.getExpiration()).thenReturn(System.currentTimeMillis() - 1000L);
+        _queue.enqueue(message, null, null);
+
+        _virtualHost.getQueueEntryTimer().processDueEntries(System.currentTimeMillis()
+                                                            + QueueManagingVirtualHost.DEFAULT_QUEUE_ENTRY_TIMER_PERIOD);
+
+        assertEquals(0, _queue.getQueueDepthMessages(), "Expired message was not removed");
+        assertEquals(1, _queue.getTotalExpiredMessages(), "Unexpected number of expired messages");
+    }
+
     @Test
     public void testMessageHoldingDependentOnQueueProperty() throws Exception
     {
@@ -558,6 +729,48 @@ abstract class AbstractQueueTestBase extends UnitTestBase
                 "releasedEntry should be cleared after requeue processed");
     }
 
+    @Test
+    public void testConsumersWithSelectorsShareFilterEvaluation() throws Exception
+    {
+        final ServerMessage<?> messageA = createMessage(24L, (byte) 4, Map.of("region", "EU"), 0);
+        final ServerMessage<?> messageB = createMessage(25L, (byte) 4, Map.of("region", "US"), 0);
+        final ServerMessage<?> messageC = createMessage(26L, (byte) 4, Map.of("region", "EU"), 0);
+
+        final TestConsumerTarget target1 = new TestConsumerTarget();
+        final TestConsumerTarget target2 = new TestConsumerTarget();
+        final TestConsumerTarget target3 = new TestConsumerTarget();
+
+        _queue.addConsumer(target1, createSelectorFilterManager("region = 'EU'"), messageA.getClass(), "test1",
+                           EnumSet.noneOf(ConsumerOption.class), 0);
+        _queue.addConsumer(target2, createSelectorFilterManager("region = 'EU'"), messageA.getClass(), "test2",
+                           EnumSet.noneOf(ConsumerOption.class), 0);
+        _queue.addConsumer(target3, createSelectorFilterManager("region = 'US'"), messageA.getClass(), "test3",
+                           EnumSet.noneOf(ConsumerOption.class), 0);
+
+        _queue.enqueue(messageA, null, null);
+        _queue.enqueue(messageB, null, null);
+        _queue.enqueue(messageC, null, null);
+
+        while(target1.processPending());
+        while(target2.processPending());
+        while(target3.processPending());
+
+        assertEquals(2, (long) target1.getMessages().size(), "Unexpected number of messages for first consumer");
+        assertEquals(2, (long) target2.getMessages().size(), "Unexpected number of messages for second consumer");
+        assertEquals(1, (long) target3.getMessages().size(), "Unexpected number of messages for third consumer");
+
+        verify(messageA.getMessageHeader(), times(1)).getHeader("region");
+        verify(messageB.getMessageHeader(), times(1)).getHeader("region");
+        verify(messageC.getMessageHeader(), times(1)).getHeader("region");
+    }
+
+    private FilterManager createSelectorFilterManager(final String selector) throws Exception
+    {
+        final FilterManager filterManager = new FilterManager();
+        filterManager.add(AMQPFilterTypes.JMS_SELECTOR.toString(), new JMSSelectorFilter(selector));
+        return filterManager;
+    }
+
     @Test
     public void testExclusivePolicy() throws Exception
     {
@@ -1177,6 +1390,36 @@ abstract class AbstractQueueTestBase extends UnitTestBase
         assertEquals(2, _queue.getQueueDepthMessages(), "Unexpected number of messages on the queue");
     }
 
+    @Test
+    public void testNewestEntriesFlowedToDiskFirst()
+    {
+        // avoid the messages being flowed to disk as they are enqueued
+        _virtualHost.setTargetSize(Long.MAX_VALUE);
+
+        final List<StoredMessage<?>> storedMessages = new ArrayList<>();
+        for (int i = 0; i < 2 * FlowToDiskSegments.SEGMENT_SIZE; i++)
+        {
+            final ServerMessage<?> message = createMessage((long) i, 2, 3);
+            final StoredMessage<?> storedMessage = message.getStoredMessage();
+            when(storedMessage.getInMemorySize()).thenReturn(5L);
+            _queue.enqueue(message, null, null);
+            storedMessages.add(storedMessage);
+        }
+        assertEquals(2 * FlowToDiskSegments.SEGMENT_SIZE * 5L, _queue.getFlowToDiskCandidateSize(),
+                "Unexpected candidate size");
+
+        final long freed = _queue.flowNewestEntriesToDisk();
+
+        assertEquals(FlowToDiskSegments.SEGMENT_SIZE * 5L, freed, "Unexpected number of bytes freed");
+        assertEquals(FlowToDiskSegments.SEGMENT_SIZE * 5L, _queue.getFlowToDiskCandidateSize(),
+                "Unexpected candidate size after flowing to disk");
+        verify(storedMessages.get(storedMessages.size() - 1)).flowToDisk();
+        verify(storedMessages.get(0), never()).flowToDisk();
+
+        _queue.clearQueue();
+        assertEquals(0, _queue.getFlowToDiskCandidateSize(), "Deleted entries still counted as candidates");
+    }
+
     @Test
     public void testEnqueuedMalformedMessageDeleted()
     {
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.message.AMQMessageHeader;
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.model.LifetimePolicy;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+
+public class ConcurrentSortedQueueEntryListTest extends QueueEntryListTestBase
+{
+    private static final String[] KEYS_SORTED = SortedQueueEntryListTest.KEYS.clone();
+
+    private QueueManagingVirtualHost<?> _virtualHost;
+    private SortedQueueImpl _testQueue;
+    private ConcurrentSortedQueueEntryList _list;
+
+    @BeforeAll
+    public void beforeAll() throws Exception
+    {
+        _virtualHost = BrokerTestHelper.createVirtualHost(getTestClassName(), this);
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        final Map<String,Object> attributes = Map.of(Queue.ID, randomUUID(),
+                Queue.NAME, getTestName(),
+                Queue.DURABLE, false,
+                Queue.LIFETIME_POLICY, LifetimePolicy.PERMANENT,
+                Queue.CONTEXT, Map.of(SortedQueue.QUEUE_SORTED_CONCURRENT_ENTRY_LIST, "true"),
+                SortedQueue.SORT_KEY, "KEY");
+
+        _testQueue = new SortedQueueImpl(attributes, _virtualHost);
+        _testQueue.open();
+        _list = (ConcurrentSortedQueueEntryList) _testQueue.getEntries();
+
+        Arrays.sort(KEYS_SORTED);
+
+        long messageId = 0L;
+        for (final String key : SortedQueueEntryListTest.KEYS)
+        {
+            _list.add(generateTestMessage(messageId++, key), null);
+        }
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntryList getTestList()
+    {
+        return getTestList(false);
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntryList getTestList(final boolean newList)
+    {
+        if (newList)
+        {
+            return new ConcurrentSortedQueueEntryList(_testQueue, _testQueue.getQueueStatistics());
+        }
+        else
+        {
+            return _list;
+        }
+    }
+
+    @Override
+    public int getExpectedListLength()
+    {
+        return SortedQueueEntryListTest.KEYS.length;
+    }
+
+    @Override
+    public long getExpectedFirstMsgId()
+    {
+        return 67L;
+    }
+
+    @Override
+    public ServerMessage<?> getTestMessageToAdd()
+    {
+        return generateTestMessage(1, "test value");
+    }
+
+    @Override
+    protected SortedQueueImpl getTestQueue()
+    {
+        return _testQueue;
+    }
+
+    @Override
+    @Test
+    public void testIterator() throws Exception
+    {
+        super.testIterator();
+
+        final QueueEntryIterator iter = getTestList().iterator();
+        int count = 0;
+        while (iter.advance())
+        {
+            assertEquals(KEYS_SORTED[count++], iter.getNode().getMessage().getMessageHeader().getHeader("KEY"),
+                    "Sorted queue entry value does not match sorted key array");
+        }
+    }
+
+    @Test
+    public void testNullAndNonUniqueSortKeys()
+    {
+        final ConcurrentSortedQueueEntryList list = getTestList(true);
+        list.add(generateTestMessage(1, "B"), null);
+        list.add(generateTestMessage(2, null), null);
+        list.add(generateTestMessage(3, "A"), null);
+        list.add(generateTestMessage(4, "B"), null);
+        list.add(generateTestMessage(5, null), null);
+
+        final long[] expectedIds = {2, 5, 3, 1, 4};
+        QueueEntry entry = list.getHead();
+        for (final long expectedId : expectedIds)
+        {
+            entry = list.next(entry);
+            assertEquals(expectedId, entry.getMessage().getMessageNumber(), "Unexpected message order");
+        }
+        assertNull(list.next(entry), "Unexpected entry after tail");
+        assertEquals(entry, list.getTail(), "Unexpected tail");
+    }
+
+    @Test
+    public void testNextOfDeletedEntryIsItsSuccessor()
+    {
+        final ConcurrentSortedQueueEntryList list = getTestList(true);
+        final QueueEntry entryA = list.add(generateTestMessage(1, "A"), null);
+        final QueueEntry entryC = list.add(generateTestMessage(2, "C"), null);
+        final QueueEntry entryB = list.add(generateTestMessage(3, "B"), null);
+
+        entryB.acquire();
+        entryB.delete();
+
+        assertEquals(entryC, list.next(entryB), "Unexpected successor of deleted entry");
+        assertEquals(entryC, list.next(entryA), "Deleted entry should not be returned");
+        assertEquals(entryC, entryA.getNextValidEntry(), "Deleted entry should not be returned");
+    }
+
+    @Test
+    public void testGetLeastSignificantOldestEntry()
+    {
+        final ConcurrentSortedQueueEntryList list = getTestList(true);
+
+        final QueueEntry entry1 = list.add(generateTestMessage(1, "B"), null);
+        assertEquals(entry1, list.getLeastSignificantOldestEntry(), "Unexpected last entry");
+
+        list.add(generateTestMessage(2, "C"), null);
+        list.add(generateTestMessage(3, null), null);
+        list.add(generateTestMessage(4, "A"), null);
+        assertEquals(entry1, list.getLeastSignificantOldestEntry(), "Unexpected last entry");
+    }
+
+    @Test
+    public void testConcurrentAddAndDelete() throws Exception
+    {
+        final ConcurrentSortedQueueEntryList list = getTestList(true);
+        final int threads = 4;
+        final int messagesPerThread = 500;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++)
+            {
+                final int thread = t;
+                futures.add(executor.submit(() ->
+                {
+                    start.await();
+                    for (int i = 0; i < messagesPerThread; i++)
+                    {
+                        final long id = (long) thread * messagesPerThread + i;
+                        final QueueEntry entry = list.add(generateTestMessage(id, String.format("%05d", id % 97)), null);
+                        if (i % 2 == 0 && entry.acquire())
+                        {
+                            entry.delete();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        final QueueEntryIterator iter = list.iterator();
+        QueueEntry previous = null;
+        int count = 0;
+        while (iter.advance())
+        {
+            final QueueEntry current = iter.getNode();
+            if (previous != null)
+            {
+                assertTrue(previous.compareTo(current) < 0, "Entries are not in sorted order");
+            }
+            previous = current;
+            count++;
+        }
+        assertEquals(threads * messagesPerThread / 2, count, "Unexpected number of entries");
+    }
+
+    @SuppressWarnings("rawtypes")
+    static ServerMessage<?> generateTestMessage(final long id, final String keyValue)
+    {
+        final ServerMessage<?> message = mock(ServerMessage.class);
+        final AMQMessageHeader hdr = mock(AMQMessageHeader.class);
+        when(message.getMessageHeader()).thenReturn(hdr);
+        when(hdr.getHeader(eq("KEY"))).thenReturn(keyValue);
+        when(hdr.containsHeader(eq("KEY"))).thenReturn(true);
+        when(hdr.getHeaderNames()).thenReturn(Set.of("KEY"));
+        final MessageReference ref = mock(MessageReference.class);
+        when(ref.getMessage()).thenReturn(message);
+        when(message.newReference()).thenReturn(ref);
+        when(message.newReference(any(TransactionLogResource.class))).thenReturn(ref);
+        when(message.getMessageNumber()).thenReturn(id);
+        return message;
+    }
+}
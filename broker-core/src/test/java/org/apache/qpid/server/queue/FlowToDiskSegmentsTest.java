@@ -0,0 +1,198 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class FlowToDiskSegmentsTest extends UnitTestBase
+{
+    private static final long MESSAGE_SIZE = 10L;
+
+    private FlowToDiskSegments _segments;
+
+    @BeforeEach
+    public void setUp()
+    {
+        _segments = new FlowToDiskSegments();
+    }
+
+    @Test
+    public void testNewestSegmentTakenFirst()
+    {
+        final List<QueueEntry> entries = new ArrayList<>();
+        for (int i = 0; i < FlowToDiskSegments.SEGMENT_SIZE + 1; i++)
+        {
+            final QueueEntry entry = createEntry();
+            _segments.add(entry);
+            entries.add(entry);
+        }
+        assertEquals(2, _segments.getSegmentCount(), "Unexpected number of segments");
+        assertEquals(entries.size() * MESSAGE_SIZE, _segments.getSize(), "Unexpected size");
+
+        assertEquals(entries.subList(FlowToDiskSegments.SEGMENT_SIZE, entries.size()), _segments.takeNewest(),
+                     "Unexpected entries in newest segment");
+        assertEquals(FlowToDiskSegments.SEGMENT_SIZE * MESSAGE_SIZE, _segments.getSize(),
+                     "Unexpected size after taking newest segment");
+
+        assertEquals(entries.subList(0, FlowToDiskSegments.SEGMENT_SIZE), _segments.takeNewest(),
+                     "Unexpected entries in oldest segment");
+        assertEquals(0, _segments.getSize(), "Unexpected size after taking all segments");
+        assertTrue(_segments.takeNewest().isEmpty(), "Entries remain after taking all segments");
+    }
+
+    @Test
+    public void testEntriesAddedAfterTakingTracked()
+    {
+        _segments.add(createEntry());
+        assertEquals(1, _segments.takeNewest().size(), "Unexpected number of entries taken");
+
+        final QueueEntry entry = createEntry();
+        _segments.add(entry);
+        assertEquals(MESSAGE_SIZE, _segments.getSize(), "Unexpected size");
+        assertEquals(List.of(entry), _segments.takeNewest(), "Entry added after taking not tracked");
+    }
+
+    @Test
+    public void testDeletedEntriesNotTaken()
+    {
+        final QueueEntry deleted = createEntry();
+        final QueueEntry live = createEntry();
+        _segments.add(deleted);
+        _segments.add(live);
+        when(deleted.isDeleted()).thenReturn(true);
+
+        assertEquals(List.of(live), _segments.takeNewest(), "Unexpected entries taken");
+    }
+
+    @Test
+    public void testDeletedEntryReleasedBySegment()
+    {
+        final QueueEntryImpl deleted = createEntryImpl();
+        final QueueEntryImpl live = createEntryImpl();
+        _segments.add(deleted);
+        _segments.add(live);
+
+        final ArgumentCaptor<FlowToDiskSegments.Segment> segmentCaptor =
+                ArgumentCaptor.forClass(FlowToDiskSegments.Segment.class);
+        final ArgumentCaptor<Integer> indexCaptor = ArgumentCaptor.forClass(Integer.class);
+        verify(deleted).setFlowToDiskSegment(segmentCaptor.capture(), indexCaptor.capture());
+        verify(live).setFlowToDiskSegment(eq(segmentCaptor.getValue()), anyInt());
+
+        segmentCaptor.getValue().entryDeleted(deleted, indexCaptor.getValue(), MESSAGE_SIZE);
+        assertEquals(MESSAGE_SIZE, _segments.getSize(), "Unexpected size after deletion");
+
+        // the deleted entry does not report itself deleted, the segment must have let go of it
+        assertEquals(List.of(live), _segments.takeNewest(), "Unexpected entries taken");
+        assertEquals(0, _segments.getSize(), "Unexpected size after taking");
+    }
+
+    @Test
+    public void testEntriesAddedWhilstTakingAreAllAccounted() throws Exception
+    {
+        final int numberOfProducers = 4;
+        final int entriesPerProducer = 4 * FlowToDiskSegments.SEGMENT_SIZE;
+        final List<List<QueueEntry>> producerEntries = new ArrayList<>();
+        for (int i = 0; i < numberOfProducers; i++)
+        {
+            final List<QueueEntry> entries = new ArrayList<>();
+            for (int j = 0; j < entriesPerProducer; j++)
+            {
+                entries.add(createEntry());
+            }
+            producerEntries.add(entries);
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> producers = new ArrayList<>();
+        for (final List<QueueEntry> entries : producerEntries)
+        {
+            final Thread producer = new Thread(() ->
+            {
+                try
+                {
+                    start.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                entries.forEach(_segments::add);
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        int taken = 0;
+        start.countDown();
+        while (producers.stream().anyMatch(Thread::isAlive))
+        {
+            taken += _segments.takeNewest().size();
+        }
+        for (final Thread producer : producers)
+        {
+            producer.join();
+        }
+        List<QueueEntry> remaining;
+        while (!(remaining = _segments.takeNewest()).isEmpty())
+        {
+            taken += remaining.size();
+        }
+
+        assertEquals(numberOfProducers * entriesPerProducer, taken, "Unexpected number of entries taken");
+        assertEquals(0, _segments.getSize(), "Unexpected size after taking all entries");
+    }
+
+    private QueueEntryImpl createEntryImpl()
+    {
+        final ServerMessage<?> message = mock(ServerMessage.class);
+        when(message.getSizeIncludingHeader()).thenReturn(MESSAGE_SIZE);
+        final QueueEntryImpl entry = mock(QueueEntryImpl.class);
+        when(entry.getMessage()).thenReturn((ServerMessage) message);
+        return entry;
+    }
+
+    private QueueEntry createEntry()
+    {
+        final ServerMessage<?> message = mock(ServerMessage.class);
+        when(message.getSizeIncludingHeader()).thenReturn(MESSAGE_SIZE);
+        final QueueEntry entry = mock(QueueEntry.class);
+        when(entry.getMessage()).thenReturn((ServerMessage) message);
+        return entry;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class MessageContentReadAheadTest extends UnitTestBase
+{
+    private final List<Runnable> _tasks = new ArrayList<>();
+    private MessageContentReadAhead _readAhead;
+
+    @BeforeEach
+    public void setUp()
+    {
+        final ExecutorService executor = mock(ExecutorService.class);
+        doAnswer(invocation ->
+                 {
+                     _tasks.add(invocation.getArgument(0));
+                     return null;
+                 }).when(executor).execute(any(Runnable.class));
+        _readAhead = new MessageContentReadAhead(4, executor);
+    }
+
+    @Test
+    public void testFlowedToDiskContentReloaded()
+    {
+        final StoredMessage<?> storedMessage = createStoredMessage(false);
+        final QueueEntry entry = createEntry(storedMessage);
+
+        _readAhead.readAhead(entry);
+        _readAhead.readAhead(entry);
+        assertEquals(1, _tasks.size(), "Pending entry read ahead more than once");
+
+        runTasks();
+        verify(storedMessage).getContent(0, Integer.MAX_VALUE);
+        assertEquals(1, _readAhead.getHitCount(), "Unexpected hit count");
+
+        _readAhead.readAhead(entry);
+        assertEquals(0, _tasks.size(), "Reloaded content read ahead again");
+
+        when(storedMessage.isInContentInMemory()).thenReturn(false);
+        _readAhead.readAhead(entry);
+        assertEquals(1, _tasks.size(), "Content flowed to disk again not read ahead");
+    }
+
+    @Test
+    public void testContentInMemoryNotReloaded()
+    {
+        final StoredMessage<?> storedMessage = createStoredMessage(true);
+        _readAhead.readAhead(createEntry(storedMessage));
+
+        assertEquals(0, _tasks.size(), "Content in memory read ahead");
+    }
+
+    @Test
+    public void testEntryTakenBeforeReloadNotRead()
+    {
+        final StoredMessage<?> storedMessage = createStoredMessage(false);
+        final QueueEntry entry = createEntry(storedMessage);
+        _readAhead.readAhead(entry);
+        when(entry.isAvailable()).thenReturn(false);
+
+        runTasks();
+        verify(storedMessage, never()).getContent(anyInt(), anyInt());
+        assertEquals(0, _readAhead.getHitCount(), "Unexpected hit count");
+    }
+
+    @Test
+    public void testDeliveryOfFlowedToDiskContentCountedAsMiss()
+    {
+        _readAhead.entryDelivered(createEntry(createStoredMessage(true)));
+        assertEquals(0, _readAhead.getMissCount(), "Delivery of content in memory counted as miss");
+
+        _readAhead.entryDelivered(createEntry(createStoredMessage(false)));
+        assertEquals(1, _readAhead.getMissCount(), "Unexpected miss count");
+
+        _readAhead.resetStatistics();
+        assertEquals(0, _readAhead.getMissCount(), "Miss count not reset");
+    }
+
+    private void runTasks()
+    {
+        final List<Runnable> tasks = new ArrayList<>(_tasks);
+        _tasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private StoredMessage<?> createStoredMessage(final boolean inMemory)
+    {
+        final StoredMessage<?> storedMessage = mock(StoredMessage.class);
+        when(storedMessage.isInContentInMemory()).thenReturn(inMemory);
+        when(storedMessage.getContent(0, Integer.MAX_VALUE)).thenAnswer(invocation ->
+                                                                        {
+                                                                            when(storedMessage.isInContentInMemory()).thenReturn(true);
+                                                                            return mock(QpidByteBuffer.class);
+                                                                        });
+        return storedMessage;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private QueueEntry createEntry(final StoredMessage<?> storedMessage)
+    {
+        final ServerMessage message = mock(ServerMessage.class);
+        when(message.getStoredMessage()).thenReturn(storedMessage);
+        final MessageReference reference = mock(MessageReference.class);
+        when(reference.getMessage()).thenReturn(message);
+
+        final QueueEntry entry = mock(QueueEntry.class);
+        when(entry.isAvailable()).thenReturn(true);
+        when(entry.getMessage()).thenReturn(message);
+        when(entry.newMessageReference()).thenReturn(reference);
+        return entry;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.queue;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.apache.qpid.server.consumer.ConsumerTarget;
+import org.apache.qpid.server.model.Queue;
+
+/**
+ * Measures the consumer bookkeeping done by the queue for each delivery: finding the next interested consumer,
+ * marking it notified, checking the highest notified priority and clearing the notification again when the
+ * consumer pulls.  The consumers are spread evenly over the priority levels and all but those of the lowest
+ * priority are already notified, so finding an interested consumer has to pass over the busy higher levels.
+ *
+ * Run with: java -cp target/test-classes:... org.apache.qpid.server.queue.QueueConsumerManagerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueueConsumerManagerBenchmark
+{
+    @Param({"10", "100", "1000"})
+    public int _consumers;
+
+    @Param({"1", "10", "100"})
+    public int _priorities;
+
+    private QueueConsumerManagerImpl _manager;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        final AbstractQueue<?> queue = mock(AbstractQueue.class);
+        when(queue.getContextValue(Integer.class, Queue.QUEUE_SCAVANGE_COUNT))
+                .thenReturn(Queue.DEFAULT_QUEUE_SCAVANGE_COUNT);
+        _manager = new QueueConsumerManagerImpl(queue);
+
+        final int priorities = Math.min(_priorities, _consumers);
+        final QueueConsumer<?, ?>[] consumers = new QueueConsumer<?, ?>[_consumers];
+        for (int i = 0; i < _consumers; i++)
+        {
+            consumers[i] = createConsumer(i % priorities);
+            _manager.addConsumer(consumers[i]);
+        }
+        for (QueueConsumer<?, ?> consumer : consumers)
+        {
+            if (consumer.getPriority() != 0)
+            {
+                _manager.setNotified(consumer, true);
+            }
+        }
+    }
+
+    @Benchmark
+    public void deliver(final Blackhole blackhole)
+    {
+        final Iterator<QueueConsumer<?, ?>> interested = _manager.getInterestedIterator();
+        final QueueConsumer<?, ?> consumer = interested.next();
+        _manager.setNotified(consumer, true);
+        blackhole.consume(_manager.getHighestNotifiedPriority());
+        _manager.setNotified(consumer, false);
+    }
+
+    private static QueueConsumer<?, ?> createConsumer(final int priority)
+    {
+        // a plain proxy rather than a mock keeps the mocking framework's per-invocation overhead out of the results
+        final QueueConsumerNode[] node = new QueueConsumerNode[1];
+        final InvocationHandler handler = (proxy, method, args) ->
+        {
+            switch (method.getName())
+            {
+                case "getPriority":
+                    return priority;
+                case "acquires":
+                case "isNotifyWorkDesired":
+                    return true;
+                case "getQueueConsumerNode":
+                    return node[0];
+                case "setQueueConsumerNode":
+                    node[0] = (QueueConsumerNode) args[0];
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        };
+        return (QueueConsumer<?, ?>) Proxy.newProxyInstance(BenchmarkConsumer.class.getClassLoader(),
+                                                            new Class<?>[]{BenchmarkConsumer.class},
+                                                            handler);
+    }
+
+    /**
+     * Package-private so that the proxy class is defined in this package and may refer to {@link QueueConsumerNode}.
+     */
+    interface BenchmarkConsumer extends QueueConsumer<BenchmarkConsumer, ConsumerTarget<?>>
+    {
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        final Options options = new OptionsBuilder()
+                .include(QueueConsumerManagerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
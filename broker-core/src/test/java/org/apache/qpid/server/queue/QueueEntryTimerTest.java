@@ -0,0 +1,169 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class QueueEntryTimerTest extends UnitTestBase
+{
+    private static final long TICK_PERIOD = 100L;
+
+    private QueueEntryTimer _timer;
+    private Queue<?> _queue;
+
+    @BeforeEach
+    public void setUp()
+    {
+        _timer = new QueueEntryTimer(TICK_PERIOD);
+        _queue = mock(Queue.class);
+    }
+
+    @Test
+    public void testEntryProcessedOnceItsTickHasPassed()
+    {
+        final QueueEntry early = createEntry();
+        final QueueEntry late = createEntry();
+        _timer.schedule(early, 1050L);
+        _timer.schedule(late, 2050L);
+
+        assertEquals(2, _timer.getScheduledCount());
+        assertEquals(0, _timer.processDueEntries(1099L), "Entry processed before its tick passed");
+        verify(_queue, never()).checkEntryStatus(eq(early), anyLong());
+
+        assertEquals(1, _timer.processDueEntries(1100L), "Unexpected number of entries processed");
+        verify(_queue).checkEntryStatus(early, 1100L);
+        verify(_queue, never()).checkEntryStatus(eq(late), anyLong());
+        assertEquals(1, _timer.getScheduledCount());
+
+        assertEquals(1, _timer.processDueEntries(5000L), "Unexpected number of entries processed");
+        verify(_queue).checkEntryStatus(late, 5000L);
+        assertEquals(0, _timer.getScheduledCount());
+    }
+
+    @Test
+    public void testCancelledEntryNotProcessed()
+    {
+        final QueueEntry entry = createEntry();
+        _timer.schedule(entry, 1050L);
+        _timer.cancel(entry, 1050L);
+
+        assertEquals(0, _timer.processDueEntries(5000L), "Cancelled entry processed");
+        verify(_queue, never()).checkEntryStatus(eq(entry), anyLong());
+    }
+
+    @Test
+    public void testRescheduledEntryNotRetainedAtPreviousTime()
+    {
+        final QueueEntry entry = createEntry();
+        _timer.schedule(entry, 1050L);
+        when(entry.getScheduledExpiration()).thenReturn(2050L);
+        _timer.reschedule(entry, 1050L, 2050L);
+
+        assertEquals(1, _timer.getScheduledCount(), "Entry retained at its previous time");
+        assertEquals(0, _timer.processDueEntries(1100L), "Entry processed at its previous time");
+        assertEquals(1, _timer.processDueEntries(2100L), "Entry not processed at its new time");
+    }
+
+    @Test
+    public void testRescheduledEntryRetainedAtPreviousTimeScheduledForOtherReason()
+    {
+        final QueueEntry entry = createEntry();
+        _timer.schedule(entry, 1050L);
+        when(entry.getScheduledExpiration()).thenReturn(2050L);
+        when(entry.getScheduledRelease()).thenReturn(1060L);
+        _timer.reschedule(entry, 1050L, 2050L);
+
+        assertEquals(1, _timer.processDueEntries(1100L), "Entry not processed for its other reason");
+    }
+
+    @Test
+    public void testDeletedEntryNotScheduled()
+    {
+        final QueueEntry entry = createEntry();
+        when(entry.isDeleted()).thenReturn(true);
+        _timer.schedule(entry, 1050L);
+
+        assertEquals(0, _timer.getScheduledCount(), "Deleted entry scheduled");
+    }
+
+    @Test
+    public void testEntryRescheduledWhileProcessingProcessedOnNextTick()
+    {
+        final QueueEntry entry = createEntry();
+        doAnswer(invocation ->
+                 {
+                     _timer.schedule(entry, invocation.getArgument(1));
+                     return null;
+                 }).when(_queue).checkEntryStatus(eq(entry), anyLong());
+        _timer.schedule(entry, 1050L);
+
+        assertEquals(1, _timer.processDueEntries(1100L), "Unexpected number of entries processed");
+        assertEquals(1, _timer.getScheduledCount(), "Rescheduled entry not retained");
+
+        assertEquals(0, _timer.processDueEntries(1199L), "Rescheduled entry processed within the same tick");
+        assertEquals(1, _timer.processDueEntries(1200L), "Rescheduled entry not processed on the next tick");
+    }
+
+    @Test
+    public void testQueueReleasesHeldMessagesOnceItsTickHasPassed()
+    {
+        _timer.scheduleHeldMessages(_queue, 1050L);
+        _timer.scheduleHeldMessages(_queue, 1060L);
+
+        assertEquals(1, _timer.getScheduledCount(), "Queue should be scheduled once for the same tick");
+        assertEquals(0, _timer.processDueEntries(1099L), "Queue processed before its tick passed");
+        verify(_queue, never()).releaseHeldMessages(anyLong());
+
+        assertEquals(1, _timer.processDueEntries(1100L), "Unexpected number of queues processed");
+        verify(_queue).releaseHeldMessages(1100L);
+    }
+
+    @Test
+    public void testCancelledQueueNotProcessed()
+    {
+        _timer.scheduleHeldMessages(_queue, 1050L);
+        _timer.cancelHeldMessages(_queue, 1050L);
+
+        assertEquals(0, _timer.processDueEntries(5000L), "Cancelled queue processed");
+        verify(_queue, never()).releaseHeldMessages(anyLong());
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private QueueEntry createEntry()
+    {
+        final QueueEntry entry = mock(QueueEntry.class);
+        when(entry.getQueue()).thenReturn((Queue) _queue);
+        return entry;
+    }
+}
@@ -56,7 +56,7 @@ public class QueueStatisticsTest extends UnitTestBase
     {
         final Map<String, Object> statistics = _queue.getStatistics();
 
-        assertEquals(27, statistics.size());
+        assertEquals(29, statistics.size());
 
         assertTrue(statistics.containsKey("availableBytes"));
         assertTrue(statistics.containsKey("availableBytesHighWatermark"));
@@ -65,6 +65,8 @@ public class QueueStatisticsTest extends UnitTestBase
         assertTrue(statistics.containsKey("bindingCount"));
         assertTrue(statistics.containsKey("consumerCount"));
         assertTrue(statistics.containsKey("consumerCountWithCredit"));
+        assertTrue(statistics.containsKey("heldQueueDepthBytes"));
+        assertTrue(statistics.containsKey("heldQueueDepthMessages"));
         assertTrue(statistics.containsKey("producerCount"));
         assertTrue(statistics.containsKey("oldestMessageAge"));
         assertTrue(statistics.containsKey("persistentDequeuedBytes"));
@@ -93,6 +95,8 @@ public class QueueStatisticsTest extends UnitTestBase
         assertEquals(0, statistics.get("bindingCount"));
         assertEquals(0, statistics.get("consumerCount"));
         assertEquals(0, statistics.get("consumerCountWithCredit"));
+        assertEquals(0L, statistics.get("heldQueueDepthBytes"));
+        assertEquals(0, statistics.get("heldQueueDepthMessages"));
         assertEquals(0L, statistics.get("producerCount"));
         assertEquals(0L, statistics.get("oldestMessageAge"));
         assertEquals(0L, statistics.get("persistentDequeuedBytes"));
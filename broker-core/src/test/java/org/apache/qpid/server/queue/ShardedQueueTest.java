@@ -0,0 +1,262 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.consumer.ConsumerOption;
+import org.apache.qpid.server.consumer.TestConsumerTarget;
+import org.apache.qpid.server.message.MessageInstance;
+import org.apache.qpid.server.message.ServerMessage;
+
+public class ShardedQueueTest extends AbstractQueueTestBase
+{
+    private static final int SHARDS = 4;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        setArguments(Map.of(ShardedQueue.SHARDS, SHARDS));
+        super.setUp();
+    }
+
+    @Test
+    public void testMessagesEnqueuedOnDifferentThreadsAreDeliveredOnce() throws Exception
+    {
+        final List<QueueEntry> entries = new CopyOnWriteArrayList<>();
+        long messageId = 0;
+        for (int i = 0; i < SHARDS * 2; i++)
+        {
+            for (int j = 0; j < 10; j++)
+            {
+                enqueueOnNewThread(createMessage(messageId++), entries);
+            }
+        }
+        assertEquals(SHARDS, getShards(entries).size(), "Unexpected number of shards used");
+
+        getQueue().addConsumer(getConsumer(), null, null, "test", EnumSet.of(ConsumerOption.ACQUIRES), 0);
+        while (getConsumer().processPending());
+
+        final Set<Long> received = new HashSet<>();
+        for (final MessageInstance instance : getConsumer().getMessages())
+        {
+            received.add(instance.getMessage().getMessageNumber());
+        }
+        assertEquals(messageId, getConsumer().getMessages().size(), "Unexpected number of messages delivered");
+        assertEquals(messageId, received.size(), "Unexpected number of distinct messages delivered");
+    }
+
+    @Test
+    public void testConsumersDrainTheirHomeShardFirst() throws Exception
+    {
+        final TestConsumerTarget target1 = new TestConsumerTarget();
+        final TestConsumerTarget target2 = new TestConsumerTarget();
+        final QueueConsumer<?, ?> consumer1 = (QueueConsumer<?, ?>) getQueue()
+                .addConsumer(target1, null, null, "test1", EnumSet.of(ConsumerOption.ACQUIRES), 0);
+        final QueueConsumer<?, ?> consumer2 = (QueueConsumer<?, ?>) getQueue()
+                .addConsumer(target2, null, null, "test2", EnumSet.of(ConsumerOption.ACQUIRES), 0);
+        final int homeShard1 = consumer1.getQueueContext().getShard();
+        final int homeShard2 = consumer2.getQueueContext().getShard();
+        assertNotEquals(homeShard1, homeShard2, "Consumers should have different home shards");
+
+        final List<QueueEntry> entries = new CopyOnWriteArrayList<>();
+        long messageId = 0;
+        while (!getShards(entries).contains(homeShard1) || !getShards(entries).contains(homeShard2))
+        {
+            enqueueOnNewThread(createMessage(messageId++), entries);
+        }
+
+        while (target2.processPending());
+        while (target1.processPending());
+
+        assertEquals(homeShard2, getShard(target2.getMessages().get(0)),
+                     "Second consumer should have started with its own shard");
+        assertEquals(messageId, (long) (target1.getMessages().size() + target2.getMessages().size()),
+                     "Unexpected total number of messages delivered");
+    }
+
+    @Test
+    public void testReleasedMessageInEarlierShardIsRedelivered() throws Exception
+    {
+        final List<QueueEntry> entries = new CopyOnWriteArrayList<>();
+        long messageId = 0;
+        while (getShards(entries).size() < 2)
+        {
+            enqueueOnNewThread(createMessage(messageId++), entries);
+        }
+
+        getQueue().addConsumer(getConsumer(), null, null, "test",
+                               EnumSet.of(ConsumerOption.ACQUIRES, ConsumerOption.SEES_REQUEUES), 0);
+        while (getConsumer().processPending());
+        assertEquals(messageId, getConsumer().getMessages().size(), "Unexpected number of messages delivered");
+
+        final MessageInstance first = getConsumer().getMessages().get(0);
+        first.release();
+        while (getConsumer().processPending());
+
+        assertEquals(messageId + 1, getConsumer().getMessages().size(),
+                     "Released message should have been redelivered");
+        assertEquals(first.getMessage().getMessageNumber(),
+                     getConsumer().getMessages().get((int) messageId).getMessage().getMessageNumber(),
+                     "Unexpected redelivered message");
+    }
+
+    @Test
+    public void testMessagesPublishedOnSameConnectionShareAShard() throws Exception
+    {
+        final Object connectionReference = new Object();
+        final List<QueueEntry> entries = new CopyOnWriteArrayList<>();
+        for (long messageId = 0; messageId < SHARDS * 2; messageId++)
+        {
+            enqueueOnNewThread(createMessage(messageId, connectionReference), entries);
+        }
+        assertEquals(1, getShards(entries).size(), "Messages of one connection should share a shard");
+
+        getQueue().addConsumer(getConsumer(), null, null, "test", EnumSet.of(ConsumerOption.ACQUIRES), 0);
+        while (getConsumer().processPending());
+
+        assertEquals(SHARDS * 2, getConsumer().getMessages().size(), "Unexpected number of messages delivered");
+        for (int i = 0; i < SHARDS * 2; i++)
+        {
+            assertEquals(i, getConsumer().getMessages().get(i).getMessage().getMessageNumber(),
+                         "Messages of one connection delivered out of order");
+        }
+    }
+
+    @Test
+    public void testMessagesEnqueuedIntoEarlierShardWhilstConsumerCrossesShardsAreDelivered() throws Exception
+    {
+        final int messagesPerProducer = 2000;
+        final QueueConsumer<?, ?> consumer = (QueueConsumer<?, ?>) getQueue()
+                .addConsumer(getConsumer(), null, null, "test", EnumSet.of(ConsumerOption.ACQUIRES), 0);
+        final int homeShard = consumer.getQueueContext().getShard();
+
+        final List<Thread> producers = new ArrayList<>();
+        for (int shard : new int[]{homeShard, (homeShard + 1) % SHARDS})
+        {
+            final Object connectionReference = getConnectionReferenceForShard(shard);
+            final List<ServerMessage<?>> messages = new ArrayList<>();
+            for (int i = 0; i < messagesPerProducer; i++)
+            {
+                messages.add(createMessage((long) producers.size() * messagesPerProducer + i, connectionReference));
+            }
+            producers.add(new Thread(() -> messages.forEach(message -> getQueue().enqueue(message, null, null))));
+        }
+        producers.forEach(Thread::start);
+
+        boolean producing = true;
+        while (producing)
+        {
+            while (getConsumer().processPending());
+            producing = false;
+            for (final Thread producer : producers)
+            {
+                producing |= producer.isAlive();
+            }
+        }
+        for (final Thread producer : producers)
+        {
+            producer.join();
+        }
+        while (getConsumer().processPending());
+
+        final Set<Long> received = new HashSet<>();
+        for (final MessageInstance instance : getConsumer().getMessages())
+        {
+            received.add(instance.getMessage().getMessageNumber());
+        }
+        assertEquals(producers.size() * messagesPerProducer, received.size(),
+                     "Messages enqueued into a shard the consumer had passed were not delivered");
+    }
+
+    @Test
+    public void testOnlyConsumersWhichReachedShardOfNewEntryAreMovedBack() throws Exception
+    {
+        final QueueConsumer<?, ?> consumer1 = (QueueConsumer<?, ?>) getQueue()
+                .addConsumer(new TestConsumerTarget(), null, null, "test1", EnumSet.of(ConsumerOption.ACQUIRES), 0);
+        final QueueConsumer<?, ?> consumer2 = (QueueConsumer<?, ?>) getQueue()
+                .addConsumer(new TestConsumerTarget(), null, null, "test2", EnumSet.of(ConsumerOption.ACQUIRES), 0);
+        final int homeShard2 = consumer2.getQueueContext().getShard();
+
+        getQueue().enqueue(createMessage(0L, getConnectionReferenceForShard(homeShard2)), null, null);
+
+        assertNull(consumer1.getQueueContext().getReleasedEntry(),
+                   "Consumer which has not reached the shard of the new entry should not be moved back");
+        assertNotNull(consumer2.getQueueContext().getReleasedEntry(),
+                      "Consumer of the shard of the new entry should be moved back");
+    }
+
+    private ServerMessage<?> createMessage(final long messageId, final Object connectionReference)
+    {
+        final ServerMessage<?> message = createMessage(messageId);
+        when(message.getConnectionReference()).thenReturn(connectionReference);
+        return message;
+    }
+
+    private Object getConnectionReferenceForShard(final int shard)
+    {
+        Object connectionReference;
+        do
+        {
+            connectionReference = new Object();
+        }
+        while (((ShardedQueueImpl) getQueue()).getEntries().getConnectionShard(connectionReference) != shard);
+        return connectionReference;
+    }
+
+    private void enqueueOnNewThread(final ServerMessage<?> message, final List<QueueEntry> entries)
+            throws InterruptedException
+    {
+        final Thread thread = new Thread(() -> getQueue().enqueue(message, entry -> entries.add((QueueEntry) entry), null));
+        thread.start();
+        thread.join();
+    }
+
+    private Set<Integer> getShards(final List<QueueEntry> entries)
+    {
+        final Set<Integer> shards = new HashSet<>();
+        for (final QueueEntry entry : new ArrayList<>(entries))
+        {
+            shards.add(getShard(entry));
+        }
+        return shards;
+    }
+
+    private int getShard(final MessageInstance entry)
+    {
+        return ((ShardedQueueEntryList.ShardedQueueEntrySubList) ((QueueEntryImpl) entry).getQueueEntryList()).getShard();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.filter.Filterable;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+public class SharedFilterableCacheTest extends UnitTestBase
+{
+    @Test
+    public void testFilterableSharedForSameEntry()
+    {
+        final SharedFilterableCache cache = new SharedFilterableCache(16);
+        final QueueEntry entry = createEntry(1L);
+
+        assertSame(cache.getFilterable(entry), cache.getFilterable(entry), "Filterable not shared");
+    }
+
+    @Test
+    public void testRemovedEntryNoLongerCached()
+    {
+        final SharedFilterableCache cache = new SharedFilterableCache(16);
+        final QueueEntry entry = createEntry(1L);
+        final Filterable filterable = cache.getFilterable(entry);
+
+        cache.remove(entry);
+
+        assertNotSame(filterable, cache.getFilterable(entry), "Filterable of removed entry still cached");
+    }
+
+    @Test
+    public void testRemovingOtherEntryLeavesSlot()
+    {
+        final SharedFilterableCache cache = new SharedFilterableCache(16);
+        final QueueEntry entry = createEntry(1L);
+        final QueueEntry other = createEntry(17L);
+        final Filterable filterable = cache.getFilterable(entry);
+
+        cache.remove(other);
+
+        assertSame(filterable, cache.getFilterable(entry), "Filterable removed for another entry");
+    }
+
+    private QueueEntry createEntry(final long messageNumber)
+    {
+        final ServerMessage<?> message = mock(ServerMessage.class);
+        when(message.getMessageNumber()).thenReturn(messageNumber);
+        final QueueEntry entry = mock(QueueEntry.class);
+        when(entry.getMessage()).thenReturn((ServerMessage) message);
+        when(entry.asFilterable()).thenReturn(mock(Filterable.class));
+        return entry;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.apache.qpid.server.message.AMQMessageHeader;
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.store.MessageDurability;
+
+/**
+ * Compares enqueue/dequeue throughput of the red/black tree based {@link SortedQueueEntryList}
+ * with the skip list based {@link ConcurrentSortedQueueEntryList} under contention.
+ *
+ * Run with: java -cp target/test-classes:... org.apache.qpid.server.queue.SortedQueueEntryListBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortedQueueEntryListBenchmark
+{
+    private static final String SORT_KEY = "KEY";
+    private static final int MESSAGE_POOL_SIZE = 4096;
+
+    @Param({"tree", "skiplist"})
+    public String _implementation;
+
+    @Param({"10000"})
+    public int _initialDepth;
+
+    private QueueEntryList _list;
+    private ServerMessage<?>[] _messages;
+    private final AtomicInteger _messageIndex = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        final SortedQueueImpl queue = mock(SortedQueueImpl.class, withSettings().stubOnly());
+        when(queue.getSortKey()).thenReturn(SORT_KEY);
+        when(queue.getMessageDurability()).thenReturn(MessageDurability.NEVER);
+
+        final QueueStatistics queueStatistics = new QueueStatistics();
+        _list = "tree".equals(_implementation)
+                ? new SortedQueueEntryList(queue, queueStatistics)
+                : new ConcurrentSortedQueueEntryList(queue, queueStatistics);
+
+        final Random random = new Random(0);
+        _messages = new ServerMessage<?>[MESSAGE_POOL_SIZE];
+        for (int i = 0; i < MESSAGE_POOL_SIZE; i++)
+        {
+            _messages[i] = createMessage(i, String.format("%08d", random.nextInt(1_000_000)));
+        }
+
+        for (int i = 0; i < _initialDepth; i++)
+        {
+            _list.add(nextMessage(), null);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public QueueEntry enqueueDequeueSingleThread()
+    {
+        return enqueueDequeue();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public QueueEntry enqueueDequeueFourThreads()
+    {
+        return enqueueDequeue();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public QueueEntry enqueueDequeueSixteenThreads()
+    {
+        return enqueueDequeue();
+    }
+
+    private QueueEntry enqueueDequeue()
+    {
+        final QueueEntry added = _list.add(nextMessage(), null);
+        QueueEntry entry = _list.getHead();
+        while ((entry = _list.next(entry)) != null)
+        {
+            if (entry.acquire())
+            {
+                entry.delete();
+                break;
+            }
+        }
+        return added;
+    }
+
+    private ServerMessage<?> nextMessage()
+    {
+        return _messages[(_messageIndex.getAndIncrement() & Integer.MAX_VALUE) % MESSAGE_POOL_SIZE];
+    }
+
+    /**
+     * Messages are plain proxies rather than mocks so that the mocking framework does not dominate the measurement.
+     */
+    private static ServerMessage<?> createMessage(final long id, final String key)
+    {
+        final AMQMessageHeader header = proxy(AMQMessageHeader.class, (method, args) ->
+                "getHeader".equals(method) && SORT_KEY.equals(args[0]) ? key : null);
+        final ServerMessage<?>[] message = new ServerMessage<?>[1];
+        final MessageReference<?> reference = proxy(MessageReference.class, (method, args) ->
+                "getMessage".equals(method) ? message[0] : null);
+        message[0] = proxy(ServerMessage.class, (method, args) ->
+        {
+            switch (method)
+            {
+                case "getMessageHeader":
+                    return header;
+                case "getMessageNumber":
+                    return id;
+                case "newReference":
+                    return reference;
+                default:
+                    return null;
+            }
+        });
+        return message[0];
+    }
+
+    private static <T> T proxy(final Class<T> type, final BiFunction<String, Object[], Object> handler)
+    {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+        {
+            if ("equals".equals(method.getName()))
+            {
+                return proxy == args[0];
+            }
+            else if ("hashCode".equals(method.getName()))
+            {
+                return System.identityHashCode(proxy);
+            }
+            final Object result = handler.apply(method.getName(), args);
+            if (result == null && method.getReturnType().isPrimitive())
+            {
+                final Class<?> returnType = method.getReturnType();
+                if (returnType == boolean.class)
+                {
+                    return false;
+                }
+                else if (returnType == void.class)
+                {
+                    return null;
+                }
+                return returnType == int.class ? (Object) 0 : (Object) 0L;
+            }
+            return result;
+        }));
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        final Options options = new OptionsBuilder()
+                .include(SortedQueueEntryListBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
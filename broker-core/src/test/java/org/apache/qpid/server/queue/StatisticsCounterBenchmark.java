@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost of the statistics updated when many threads publish to the same queue, comparing the
+ * {@link LongAdder} based counters with the {@link AtomicLong} counters used before.
+ * Each operation counts one inbound message and its size at session, connection, virtual host and broker level,
+ * and one enqueue on the queue, as publishing a message does.
+ *
+ * Run with: java -cp target/test-classes:... org.apache.qpid.server.queue.StatisticsCounterBenchmark [-t threads]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class StatisticsCounterBenchmark
+{
+    private static final int MESSAGE_SIZE = 1024;
+
+    @Param({"atomic", "adder"})
+    public String _counters;
+
+    private PublishStatistics _statistics;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        _statistics = "atomic".equals(_counters) ? new AtomicPublishStatistics() : new AdderPublishStatistics();
+    }
+
+    @Benchmark
+    public void publish()
+    {
+        _statistics.messagePublished(MESSAGE_SIZE);
+    }
+
+    private interface PublishStatistics
+    {
+        void messagePublished(long size);
+    }
+
+    private static class AdderPublishStatistics implements PublishStatistics
+    {
+        private final LongAdder[] _messagesIn = newAdders();
+        private final LongAdder[] _bytesIn = newAdders();
+        private final QueueStatistics _queueStatistics = new QueueStatistics();
+
+        @Override
+        public void messagePublished(final long size)
+        {
+            for (int i = 0; i < _messagesIn.length; i++)
+            {
+                _messagesIn[i].increment();
+                _bytesIn[i].add(size);
+            }
+            _queueStatistics.addToEnqueued(size);
+        }
+
+        private static LongAdder[] newAdders()
+        {
+            final LongAdder[] adders = new LongAdder[4];
+            for (int i = 0; i < adders.length; i++)
+            {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+
+    private static class AtomicPublishStatistics implements PublishStatistics
+    {
+        private final AtomicLong[] _messagesIn = newAtomics();
+        private final AtomicLong[] _bytesIn = newAtomics();
+        private final AtomicLong _enqueueCount = new AtomicLong();
+        private final AtomicLong _enqueueSize = new AtomicLong();
+
+        @Override
+        public void messagePublished(final long size)
+        {
+            for (int i = 0; i < _messagesIn.length; i++)
+            {
+                _messagesIn[i].incrementAndGet();
+                _bytesIn[i].addAndGet(size);
+            }
+            _enqueueCount.incrementAndGet();
+            _enqueueSize.addAndGet(size);
+        }
+
+        private static AtomicLong[] newAtomics()
+        {
+            final AtomicLong[] atomics = new AtomicLong[4];
+            for (int i = 0; i < atomics.length; i++)
+            {
+                atomics[i] = new AtomicLong();
+            }
+            return atomics;
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        final Options options = new OptionsBuilder()
+                .include(StatisticsCounterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -22,10 +22,14 @@ package org.apache.qpid.server.transport;
 
 import static org.apache.qpid.test.utils.JvmVendor.IBM;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeFalse;
 import static org.junit.jupiter.api.condition.JRE.JAVA_11;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -33,10 +37,12 @@ import java.io.ByteArrayInputStream;
 import java.net.InetAddress;
 import java.net.SocketAddress;
 import java.security.KeyStore;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
@@ -52,6 +58,7 @@ import org.junit.jupiter.api.condition.EnabledForJreRange;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.logging.EventLogger;
 import org.apache.qpid.server.model.Broker;
 import org.apache.qpid.server.model.Protocol;
@@ -64,6 +71,10 @@ public class TCPandSSLTransportTest extends UnitTestBase
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(TCPandSSLTransportTest.class);
 
+    private final AtomicLong _tlsBufferMemory = new AtomicLong();
+    private final AtomicLong _maximumTlsBufferMemory = new AtomicLong();
+    private final AtomicLong _tlsBufferMemoryWhileConnected = new AtomicLong(-1);
+
     /** self signed cert keystore valid until Oct 2024 */
     private static final String KEYSTORE_STRING =
             "/u3+7QAAAAIAAAABAAAAAQAKc2VsZnNpZ25lZAAAAUkYmo+uAAAFATCCBP0wDgYKKwYBBAEqAhEB"
@@ -186,7 +197,39 @@ public class TCPandSSLTransportTest extends UnitTestBase
                 "Should be able to connect using TLSv1.3");
     }
 
+    @Test
+    public void testTLSv1_2SupportOnSSLOnlyPortWithEventLoop()
+    {
+        assertDoesNotThrow(() -> checkHandshakeWithTlsProtocol("TLSv1.2", true, 5, Transport.SSL),
+                "Should be able to connect using TLSv1.2 to each event loop");
+    }
+
+    @Test
+    public void testTLSv1_2SupportOnSharedPortWithEventLoop()
+    {
+        assertDoesNotThrow(() -> checkHandshakeWithTlsProtocol("TLSv1.2", true, 5, Transport.TCP, Transport.SSL),
+                "Should be able to connect using TLSv1.2 to each event loop");
+    }
+
+    @Test
+    public void testTlsBuffersReleasedWhenConnectionIdle() throws Exception
+    {
+        checkHandshakeWithTlsProtocol("TLSv1.2", false, 2, Transport.SSL);
+
+        assertTrue(_maximumTlsBufferMemory.get() > 0, "TLS buffer memory should have been held during the handshake");
+        assertEquals(0, _tlsBufferMemoryWhileConnected.get(),
+                "TLS buffer memory should have been released by idle connections");
+    }
+
+    private void checkHandshakeWithTlsProtocol(final String clientProtocol,
+                                               final Transport... transports) throws Exception
+    {
+        checkHandshakeWithTlsProtocol(clientProtocol, false, 1, transports);
+    }
+
     private void checkHandshakeWithTlsProtocol(final String clientProtocol,
+                                               final boolean eventLoop,
+                                               final int numberOfConnections,
                                                final Transport... transports) throws Exception
     {
         final KeyStore keyStore = KeyStore.getInstance("JKS");
@@ -201,12 +244,22 @@ public class TCPandSSLTransportTest extends UnitTestBase
         final AmqpPort<?> port = mock(AmqpPort.class);
         when(port.getPort()).thenReturn(0);
         when(port.getName()).thenReturn("testAmqp");
-        when(port.getNetworkBufferSize()).thenReturn(64*1024);
+        // as on a broker, the network buffers are whole pooled buffers if the pool has been set up by earlier tests
+        final int pooledBufferSize = QpidByteBuffer.getPooledBufferSize();
+        when(port.getNetworkBufferSize()).thenReturn(pooledBufferSize > 0 ? pooledBufferSize : 64*1024);
         when(port.acceptNewConnectionAndIncrementCount(any(SocketAddress.class))).thenReturn(true);
         when(port.getThreadPoolSize()).thenReturn(2);
         when(port.getNumberOfSelectors()).thenReturn(1);
         when(port.getSSLContext()).thenReturn(sslContext);
         when(port.getContextValue(Long.class, AmqpPort.PORT_AMQP_THREAD_POOL_KEEP_ALIVE_TIMEOUT)).thenReturn(1L);
+        when(port.getContextValue(Boolean.class, AmqpPort.PORT_AMQP_THREAD_POOL_EVENT_LOOP)).thenReturn(eventLoop);
+        when(port.getContextValue(Boolean.class, AmqpPort.PORT_AMQP_TLS_RELEASE_IDLE_BUFFERS)).thenReturn(true);
+        doAnswer(invocation ->
+        {
+            final long held = _tlsBufferMemory.addAndGet(invocation.getArgument(0));
+            _maximumTlsBufferMemory.accumulateAndGet(held, Math::max);
+            return null;
+        }).when(port).updateTlsBufferMemory(anyLong());
         when(port.getContextValue(Integer.class, AmqpPort.PORT_AMQP_ACCEPT_BACKLOG))
                 .thenReturn(AmqpPort.DEFAULT_PORT_AMQP_ACCEPT_BACKLOG);
         when(port.getProtocolHandshakeTimeout()).thenReturn(AmqpPort.DEFAULT_PROTOCOL_HANDSHAKE_TIMEOUT);
@@ -234,14 +287,32 @@ public class TCPandSSLTransportTest extends UnitTestBase
 
         clientContext.init(null, tmf.getTrustManagers(), null);
 
-        try (final SSLSocket sslSocket = (SSLSocket) clientContext.getSocketFactory()
-                .createSocket(InetAddress.getLoopbackAddress(), transport.getAcceptingPort()))
+        final List<SSLSocket> sockets = new ArrayList<>();
+        try
         {
-            sslSocket.setEnabledProtocols(new String[]{clientProtocol});
-            sslSocket.startHandshake();
+            for (int i = 0; i < numberOfConnections; i++)
+            {
+                final SSLSocket sslSocket = (SSLSocket) clientContext.getSocketFactory()
+                        .createSocket(InetAddress.getLoopbackAddress(), transport.getAcceptingPort());
+                sockets.add(sslSocket);
+                sslSocket.setEnabledProtocols(new String[]{clientProtocol});
+                sslSocket.startHandshake();
+            }
+
+            // well within the protocol handshake timeout, after which the broker closes the connections anyway
+            final long timeout = System.currentTimeMillis() + 1000;
+            while (_tlsBufferMemory.get() != 0 && System.currentTimeMillis() < timeout)
+            {
+                Thread.sleep(10);
+            }
+            _tlsBufferMemoryWhileConnected.set(_tlsBufferMemory.get());
         }
         finally
         {
+            for (final SSLSocket sslSocket : sockets)
+            {
+                sslSocket.close();
+            }
             transport.close();
         }
     }
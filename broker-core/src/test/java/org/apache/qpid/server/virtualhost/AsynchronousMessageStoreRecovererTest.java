@@ -23,6 +23,7 @@ package org.apache.qpid.server.virtualhost;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
@@ -35,7 +36,9 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
@@ -43,8 +46,10 @@ import java.util.concurrent.ExecutionException;
 import com.google.common.util.concurrent.ListenableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import org.apache.qpid.server.logging.EventLogger;
+import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.store.MessageStore;
@@ -143,6 +148,72 @@ public class AsynchronousMessageStoreRecovererTest extends UnitTestBase
                 serverMessage.getMessageNumber() == storedMessage.getMessageNumber()), same(messageEnqueueRecord));
     }
 
+    @Test
+    public void testRecoveryOfManyMessagesPreservesQueueOrder() throws Exception
+    {
+        final int numberOfRecords = 2500;
+        final UUID queueId = randomUUID();
+        final Queue<?> queue = mock(Queue.class);
+        when(queue.getId()).thenReturn(queueId);
+        when(_virtualHost.getChildren(eq(Queue.class))).thenReturn(Set.of(queue));
+        when(_virtualHost.getContextValue(Integer.class, QueueManagingVirtualHost.RECOVERY_THREAD_COUNT)).thenReturn(4);
+        when(_store.getNextMessageId()).thenReturn((long) numberOfRecords + 1);
+        final Transaction transaction = mock(Transaction.class);
+        when(_store.newTransaction()).thenReturn(transaction);
+
+        final List<StoredMessage<?>> testMessages = new ArrayList<>();
+        final List<MessageEnqueueRecord> records = new ArrayList<>();
+        final List<Long> expectedMessageNumbers = new ArrayList<>();
+        final List<MessageEnqueueRecord> expectedRecords = new ArrayList<>();
+        int unknownMessageCount = 0;
+        for (long messageNumber = 1; messageNumber <= numberOfRecords; messageNumber++)
+        {
+            if (messageNumber % 100 == 0)
+            {
+                unknownMessageCount++;
+            }
+            else
+            {
+                testMessages.add(createTestMessage(messageNumber));
+            }
+            final MessageEnqueueRecord record = mock(MessageEnqueueRecord.class);
+            when(record.getQueueId()).thenReturn(queueId);
+            when(record.getMessageNumber()).thenReturn(messageNumber);
+            records.add(record);
+            if (messageNumber % 100 != 0)
+            {
+                expectedMessageNumbers.add(messageNumber);
+                expectedRecords.add(record);
+            }
+        }
+
+        final MockStoreReader storeReader = new MockStoreReader(records, testMessages);
+        when(_store.newMessageStoreReader()).thenReturn(storeReader);
+
+        final AsynchronousMessageStoreRecoverer recoverer = new AsynchronousMessageStoreRecoverer();
+        final ListenableFuture<Void> result = recoverer.recover(_virtualHost);
+        assertNull(result.get());
+
+        final ArgumentCaptor<ServerMessage> messageCaptor = ArgumentCaptor.forClass(ServerMessage.class);
+        final ArgumentCaptor<MessageEnqueueRecord> recordCaptor = ArgumentCaptor.forClass(MessageEnqueueRecord.class);
+        verify(queue, times(expectedRecords.size())).recover(messageCaptor.capture(), recordCaptor.capture());
+
+        final List<Long> recoveredMessageNumbers = new ArrayList<>();
+        for (final ServerMessage message : messageCaptor.getAllValues())
+        {
+            recoveredMessageNumbers.add(message.getMessageNumber());
+        }
+        assertEquals(expectedMessageNumbers, recoveredMessageNumbers, "Unexpected order of recovered messages");
+        assertEquals(expectedRecords, recordCaptor.getAllValues(), "Unexpected order of recovered entries");
+        verify(transaction, times(unknownMessageCount)).dequeueMessage(any(MessageEnqueueRecord.class));
+
+        assertEquals(expectedRecords.size(), recoverer.getRecoveredEntryCount(), "Unexpected recovered entry count");
+        final long recoveryTime = recoverer.getRecoveryTime();
+        assertTrue(recoveryTime >= 0L, "Unexpected recovery time");
+        Thread.sleep(10L);
+        assertEquals(recoveryTime, recoverer.getRecoveryTime(), "Recovery time changed after recovery completed");
+    }
+
     private StoredMessage<?> createTestMessage(final long messageNumber)
     {
         final StorableMessageMetaData metaData = new TestMessageMetaData(messageNumber, 0);
@@ -156,11 +227,16 @@ public class AsynchronousMessageStoreRecovererTest extends UnitTestBase
     {
         private final List<MessageEnqueueRecord> _messageEnqueueRecords;
         private final List<StoredMessage<?>> _messages;
+        private final Map<Long, StoredMessage<?>> _messagesById = new HashMap<>();
 
         private MockStoreReader(final List<MessageEnqueueRecord> messageEnqueueRecords, final List<StoredMessage<?>> messages)
         {
             _messageEnqueueRecords = messageEnqueueRecords;
             _messages = messages;
+            for (final StoredMessage<?> message: messages)
+            {
+                _messagesById.put(message.getMessageNumber(), message);
+            }
         }
 
         @Override
@@ -197,14 +273,7 @@ public class AsynchronousMessageStoreRecovererTest extends UnitTestBase
         @Override
         public StoredMessage<?> getMessage(final long messageId)
         {
-            for (final StoredMessage<?> message: _messages)
-            {
-                if (message.getMessageNumber() == messageId)
-                {
-                    return message;
-                }
-            }
-            return null;
+            return _messagesById.get(messageId);
         }
 
         @Override
@@ -30,11 +30,13 @@ import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.consumer.AbstractConsumerTarget;
 import org.apache.qpid.server.logging.EventLogger;
 import org.apache.qpid.server.logging.messages.ChannelMessages;
+import org.apache.qpid.server.message.ConvertedMessageCache;
 import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.message.MessageInstance;
 import org.apache.qpid.server.message.MessageInstance.ConsumerAcquiredState;
 import org.apache.qpid.server.message.MessageInstance.EntryState;
 import org.apache.qpid.server.message.MessageInstanceConsumer;
+import org.apache.qpid.server.message.MessageReference;
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.plugin.MessageConverter;
@@ -188,7 +190,7 @@ public class ConsumerTarget_0_10 extends AbstractConsumerTarget<ConsumerTarget_0
         MessageProperties messageProps = null;
 
         MessageTransferMessage msg;
-        MessageConverter<? super ServerMessage, MessageTransferMessage> converter = null;
+        MessageReference<MessageTransferMessage> convertedMessageReference = null;
 
         if(serverMsg instanceof MessageTransferMessage)
         {
@@ -202,8 +204,10 @@ public class ConsumerTarget_0_10 extends AbstractConsumerTarget<ConsumerTarget_0
             {
                 throw new MessageConversionException(String.format("Cannot convert malformed message '%s'", serverMsg));
             }
-            converter = (MessageConverter<? super ServerMessage, MessageTransferMessage>) MessageConverterRegistry.getConverter(serverMsg.getClass(), MessageTransferMessage.class);
-            msg = converter.convert(serverMsg, _session.getAddressSpace());
+            MessageConverter<? super ServerMessage, MessageTransferMessage> converter =
+                    (MessageConverter<? super ServerMessage, MessageTransferMessage>) MessageConverterRegistry.getConverter(serverMsg.getClass(), MessageTransferMessage.class);
+            convertedMessageReference = ConvertedMessageCache.convert(serverMsg, entry, converter, _session.getAddressSpace());
+            msg = convertedMessageReference.getMessage();
         }
 
         DeliveryProperties origDeliveryProps = msg.getHeader() == null ? null : msg.getHeader().getDeliveryProperties();
@@ -256,6 +260,7 @@ public class ConsumerTarget_0_10 extends AbstractConsumerTarget<ConsumerTarget_0
         if(msgCompressed && !compressionSupported && bodyBuffer != null)
         {
             QpidByteBuffer uncompressedBuffer = inflateIfPossible(bodyBuffer);
+            messageProps = new MessageProperties(messageProps);
             messageProps.setContentEncoding(null);
             bodyBuffer.dispose();
             bodyBuffer = uncompressedBuffer;
@@ -267,10 +272,7 @@ public class ConsumerTarget_0_10 extends AbstractConsumerTarget<ConsumerTarget_0
                 && bodyBuffer.remaining() > _session.getConnection().getMessageCompressionThreshold())
         {
             QpidByteBuffer compressedBuffers = deflateIfPossible(bodyBuffer);
-            if(messageProps == null)
-            {
-                messageProps = new MessageProperties();
-            }
+            messageProps = messageProps == null ? new MessageProperties() : new MessageProperties(messageProps);
             messageProps.setContentEncoding(GZIPUtils.GZIP_CONTENT_ENCODING);
             bodyBuffer.dispose();
             bodyBuffer = compressedBuffers;
@@ -315,9 +317,9 @@ public class ConsumerTarget_0_10 extends AbstractConsumerTarget<ConsumerTarget_0
 
         _session.sendMessage(xfr, _postIdSettingAction);
         xfr.dispose();
-        if(converter != null)
+        if(convertedMessageReference != null)
         {
-            converter.dispose(msg);
+            convertedMessageReference.release();
         }
         _postIdSettingAction.setAction(null);
         _postIdSettingAction.setXfr(null);
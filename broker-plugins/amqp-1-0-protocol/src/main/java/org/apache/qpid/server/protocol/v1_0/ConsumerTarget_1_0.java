@@ -32,9 +32,11 @@ import org.apache.qpid.server.consumer.AbstractConsumerTarget;
 import org.apache.qpid.server.logging.EventLogger;
 import org.apache.qpid.server.logging.LogSubject;
 import org.apache.qpid.server.logging.messages.ChannelMessages;
+import org.apache.qpid.server.message.ConvertedMessageCache;
 import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.message.MessageInstance;
 import org.apache.qpid.server.message.MessageInstanceConsumer;
+import org.apache.qpid.server.message.MessageReference;
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.Queue;
 import org.apache.qpid.server.plugin.MessageConverter;
@@ -132,10 +134,10 @@ class ConsumerTarget_1_0 extends AbstractConsumerTarget<ConsumerTarget_1_0>
     {
         ServerMessage serverMessage = entry.getMessage();
         Message_1_0 message;
-        final MessageConverter<? super ServerMessage, Message_1_0> converter;
+        final MessageReference<Message_1_0> convertedMessageReference;
         if(serverMessage instanceof Message_1_0)
         {
-            converter = null;
+            convertedMessageReference = null;
             message = (Message_1_0) serverMessage;
         }
         else
@@ -144,7 +146,7 @@ class ConsumerTarget_1_0 extends AbstractConsumerTarget<ConsumerTarget_1_0>
             {
                 throw new MessageConversionException(String.format("Cannot convert malformed message '%s'", serverMessage));
             }
-            converter =
+            final MessageConverter<? super ServerMessage, Message_1_0> converter =
                     (MessageConverter<? super ServerMessage, Message_1_0>) MessageConverterRegistry.getConverter(serverMessage.getClass(), Message_1_0.class);
             if (converter == null)
             {
@@ -154,7 +156,9 @@ class ConsumerTarget_1_0 extends AbstractConsumerTarget<ConsumerTarget_1_0>
                         serverMessage.getClass(),
                         Message_1_0.class));
             }
-            message = converter.convert(serverMessage, _linkEndpoint.getAddressSpace());
+            convertedMessageReference =
+                    ConvertedMessageCache.convert(serverMessage, entry, converter, _linkEndpoint.getAddressSpace());
+            message = convertedMessageReference.getMessage();
         }
 
         Transfer transfer = new Transfer();
@@ -163,7 +167,7 @@ class ConsumerTarget_1_0 extends AbstractConsumerTarget<ConsumerTarget_1_0>
             QpidByteBuffer bodyContent = message.getContent();
             HeaderSection headerSection = message.getHeaderSection();
 
-            UnsignedInteger ttl = headerSection == null ? null : headerSection.getValue().getTtl();
+            UnsignedInteger ttl = headerSection == null ? null : headerSection.getTtl();
             if (entry.getDeliveryCount() != 0 || ttl != null)
             {
                 Header header = new Header();
@@ -325,9 +329,9 @@ class ConsumerTarget_1_0 extends AbstractConsumerTarget<ConsumerTarget_1_0>
         finally
         {
             transfer.dispose();
-            if(converter != null)
+            if(convertedMessageReference != null)
             {
-                converter.dispose(message);
+                convertedMessageReference.release();
             }
         }
     }
@@ -23,6 +23,7 @@ package org.apache.qpid.server.protocol.v1_0;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -41,6 +42,7 @@ import org.apache.qpid.server.protocol.v1_0.messaging.SectionDecoderImpl;
 import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
 import org.apache.qpid.server.protocol.v1_0.type.Binary;
 import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedByte;
 import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
 import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.AmqpSequenceSection;
@@ -265,7 +267,7 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
     @Override
     public boolean isPersistent()
     {
-        return _headerSection != null && Boolean.TRUE.equals(_headerSection.getValue().getDurable());
+        return _headerSection != null && Boolean.TRUE.equals(_headerSection.getDurable());
     }
 
     public MessageHeader_1_0 getMessageHeader()
@@ -487,86 +489,50 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
         @Override
         public String getCorrelationId()
         {
-            if (_propertiesSection == null || _propertiesSection.getValue().getCorrelationId() == null)
-            {
-                return null;
-            }
-            else
-            {
-                return _propertiesSection.getValue().getCorrelationId().toString();
-            }
+            final Object value = _propertiesSection == null ? null : _propertiesSection.getCorrelationId();
+            return value == null ? null : value.toString();
         }
 
         @Override
         public long getExpiration()
         {
-            final UnsignedInteger ttl = _headerSection == null ? null : _headerSection.getValue().getTtl();
+            final UnsignedInteger ttl = _headerSection == null ? null : _headerSection.getTtl();
             return ttl == null ? 0L : ttl.longValue() + getArrivalTime();
         }
 
         @Override
         public String getMessageId()
         {
-            if (_propertiesSection == null || _propertiesSection.getValue().getMessageId() == null)
-            {
-                return null;
-            }
-            else
-            {
-                return _propertiesSection.getValue().getMessageId().toString();
-            }
+            final Object value = _propertiesSection == null ? null : _propertiesSection.getMessageId();
+            return value == null ? null : value.toString();
         }
 
         @Override
         public String getMimeType()
         {
-            if (_propertiesSection == null || _propertiesSection.getValue().getContentType() == null)
-            {
-                return null;
-            }
-            else
-            {
-                return _propertiesSection.getValue().getContentType().toString();
-            }
+            final Symbol value = _propertiesSection == null ? null : _propertiesSection.getContentType();
+            return value == null ? null : value.toString();
         }
 
         @Override
         public String getEncoding()
         {
-            if (_propertiesSection == null || _propertiesSection.getValue().getContentEncoding() == null)
-            {
-                return null;
-            }
-            else
-            {
-                return _propertiesSection.getValue().getContentEncoding().toString();
-            }
+            final Symbol value = _propertiesSection == null ? null : _propertiesSection.getContentEncoding();
+            return value == null ? null : value.toString();
         }
 
         @Override
         public byte getPriority()
         {
-            if (_headerSection == null || _headerSection.getValue().getPriority() == null)
-            {
-                return 4; //javax.jms.Message.DEFAULT_PRIORITY;
-            }
-            else
-            {
-                return _headerSection.getValue().getPriority().byteValue();
-            }
+            final UnsignedByte priority = _headerSection == null ? null : _headerSection.getPriority();
+            return priority == null ? 4 : priority.byteValue(); //javax.jms.Message.DEFAULT_PRIORITY;
         }
 
         @Override
         public long getTimestamp()
         {
-            if (_propertiesSection == null || _propertiesSection.getValue().getCreationTime() == null)
-            {
-                return 0L;
-            }
-            else
-            {
-                return _propertiesSection.getValue().getCreationTime().getTime();
-            }
+            final Date creationTime = _propertiesSection == null ? null : _propertiesSection.getCreationTime();
+            return creationTime == null ? 0L : creationTime.getTime();
         }
 
 
@@ -577,12 +543,12 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
             Object annotation;
 
             if (_messageAnnotationsSection != null && (annotation =
-                    _messageAnnotationsSection.getValue().get(DELIVERY_TIME)) instanceof Number)
+                    _messageAnnotationsSection.getAnnotation(DELIVERY_TIME)) instanceof Number)
             {
                 notValidBefore = ((Number) annotation).longValue();
             }
             else if (_messageAnnotationsSection != null && (annotation =
-                    _messageAnnotationsSection.getValue().get(NOT_VALID_BEFORE)) instanceof Number)
+                    _messageAnnotationsSection.getAnnotation(NOT_VALID_BEFORE)) instanceof Number)
             {
                 notValidBefore = ((Number) annotation).longValue();
             }
@@ -602,14 +568,7 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
         @Override
         public String getReplyTo()
         {
-            if (_propertiesSection == null || _propertiesSection.getValue().getReplyTo() == null)
-            {
-                return null;
-            }
-            else
-            {
-                return _propertiesSection.getValue().getReplyTo();
-            }
+            return _propertiesSection == null ? null : _propertiesSection.getReplyTo();
         }
 
         @Override
@@ -622,38 +581,32 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
         @Override
         public String getGroupId()
         {
-            if (_propertiesSection == null || _propertiesSection.getValue().getGroupId() == null)
-            {
-                return null;
-            }
-            else
-            {
-                return _propertiesSection.getValue().getGroupId();
-            }
+            return _propertiesSection == null ? null : _propertiesSection.getGroupId();
         }
 
         @Override
         public String getUserId()
         {
-            if (_propertiesSection == null || _propertiesSection.getValue().getUserId() == null)
+            if (_propertiesSection == null)
             {
                 return null;
             }
-            else
+            if (_decodedUserId.get() == null)
             {
-                if (_decodedUserId.get() == null)
+                final Binary encodededUserId = _propertiesSection.getUserId();
+                if (encodededUserId == null)
                 {
-                    Binary encodededUserId = _propertiesSection.getValue().getUserId();
-                    _decodedUserId.set(new String(encodededUserId.getArray(), StandardCharsets.UTF_8));
+                    return null;
                 }
-                return _decodedUserId.get();
+                _decodedUserId.set(new String(encodededUserId.getArray(), StandardCharsets.UTF_8));
             }
+            return _decodedUserId.get();
         }
 
         @Override
         public Object getHeader(final String name)
         {
-            return _applicationPropertiesSection == null ? null : _applicationPropertiesSection.getValue().get(name);
+            return _applicationPropertiesSection == null ? null : _applicationPropertiesSection.getProperty(name);
         }
 
         @Override
@@ -666,7 +619,7 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
             for (String key : names)
             {
-                if (!_applicationPropertiesSection.getValue().containsKey(key))
+                if (!_applicationPropertiesSection.containsProperty(key))
                 {
                     return false;
                 }
@@ -687,17 +640,17 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
         @Override
         public boolean containsHeader(final String name)
         {
-            return _applicationPropertiesSection != null && _applicationPropertiesSection.getValue().containsKey(name);
+            return _applicationPropertiesSection != null && _applicationPropertiesSection.containsProperty(name);
         }
 
         public String getSubject()
         {
-            return _propertiesSection == null ? null : _propertiesSection.getValue().getSubject();
+            return _propertiesSection == null ? null : _propertiesSection.getSubject();
         }
 
         public String getTo()
         {
-            return _propertiesSection == null ? null : _propertiesSection.getValue().getTo();
+            return _propertiesSection == null ? null : _propertiesSection.getTo();
         }
 
         public Map<String, Object> getHeadersAsMap()
@@ -27,6 +27,7 @@ import org.apache.qpid.server.protocol.v1_0.messaging.SectionEncoder;
 import org.apache.qpid.server.protocol.v1_0.messaging.SectionEncoderImpl;
 import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
 import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.codec.SectionFieldReader;
 import org.apache.qpid.server.protocol.v1_0.type.transport.AmqpError;
 import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
 
@@ -37,7 +38,9 @@ public abstract class AbstractSection<T, S extends NonEncodingRetainingSection<T
                                                                                             .registerMessagingLayer()
                                                                                             .registerTransactionLayer()
                                                                                             .registerSecurityLayer();
+    private static final ValueHandler VALUE_HANDLER = new ValueHandler(TYPE_REGISTRY);
     private T _value;
+    private boolean _fieldRead;
 
     private S _section;
     private QpidByteBuffer _encodedForm;
@@ -59,7 +62,7 @@ public abstract class AbstractSection<T, S extends NonEncodingRetainingSection<T
 
     protected AbstractSection(final AbstractSection<T, S> otherAbstractSection)
     {
-        _value = otherAbstractSection.getValue();
+        _value = otherAbstractSection.getValueIfDecoded();
         _section = otherAbstractSection._section;
         _encodedForm = otherAbstractSection.getEncodedForm();
         _encodedSize = _encodedForm.remaining();
@@ -78,6 +81,82 @@ public abstract class AbstractSection<T, S extends NonEncodingRetainingSection<T
         return _value;
     }
 
+    /**
+     * Returns the value if it has already been decoded (or the section was created from a value), otherwise null.
+     * Field accessors use this to avoid going back to the encoded form once the whole section is available.
+     * <p>
+     * Only the first field access is left to read the encoded form: a section whose fields are read is usually read
+     * again (by selectors, exchanges, message grouping or sorting), so any further access decodes the section once
+     * and is served from the decoded value from then on.
+     */
+    protected synchronized final T getDecodedValue()
+    {
+        if (getValueIfDecoded() == null)
+        {
+            if (_fieldRead)
+            {
+                return getValue();
+            }
+            _fieldRead = true;
+        }
+        return _value;
+    }
+
+    private synchronized T getValueIfDecoded()
+    {
+        if (_value == null && _section != null)
+        {
+            _value = _section.getValue();
+        }
+        return _value;
+    }
+
+    protected final <F> F readListField(final int index, final Class<F> expectedType)
+    {
+        try (QpidByteBuffer input = getEncodedForm())
+        {
+            final Object value = SectionFieldReader.readListField(input, index, VALUE_HANDLER);
+            if (value != null && !expectedType.isInstance(value))
+            {
+                throw new AmqpErrorException(AmqpError.DECODE_ERROR,
+                                             "Wrong type for field %d of '%s'. Expected '%s' but got '%s'.",
+                                             index,
+                                             getClass().getSimpleName(),
+                                             expectedType.getSimpleName(),
+                                             value.getClass().getSimpleName());
+            }
+            return expectedType.cast(value);
+        }
+        catch (AmqpErrorException e)
+        {
+            throw new ConnectionScopedRuntimeException("Cannot decode section", e);
+        }
+    }
+
+    protected final Object readMapValue(final SectionFieldReader.MapFormat format, final byte[] key)
+    {
+        try (QpidByteBuffer input = getEncodedForm())
+        {
+            return SectionFieldReader.readMapValue(input, format, key, VALUE_HANDLER);
+        }
+        catch (AmqpErrorException e)
+        {
+            throw new ConnectionScopedRuntimeException("Cannot decode section", e);
+        }
+    }
+
+    protected final boolean containsMapKey(final SectionFieldReader.MapFormat format, final byte[] key)
+    {
+        try (QpidByteBuffer input = getEncodedForm())
+        {
+            return SectionFieldReader.containsMapKey(input, format, key);
+        }
+        catch (AmqpErrorException e)
+        {
+            throw new ConnectionScopedRuntimeException("Cannot decode section", e);
+        }
+    }
+
     @Override
     public synchronized final QpidByteBuffer getEncodedForm()
     {
@@ -21,11 +21,13 @@
 
 package org.apache.qpid.server.protocol.v1_0.type.messaging;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.codec.DescribedTypeConstructor;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.codec.ApplicationPropertiesConstructor;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.codec.SectionFieldReader;
 
 public class ApplicationPropertiesSection extends AbstractSection<Map<String,Object>, ApplicationProperties>
 {
@@ -45,6 +47,27 @@ public class ApplicationPropertiesSection extends AbstractSection<Map<String,Obj
         super(applicationPropertiesSection);
     }
 
+    public Object getProperty(final String name)
+    {
+        final Map<String, Object> value = getDecodedValue();
+        if (value != null)
+        {
+            return value.get(name);
+        }
+        return readMapValue(SectionFieldReader.MapFormat.APPLICATION_PROPERTIES, name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean containsProperty(final String name)
+    {
+        final Map<String, Object> value = getDecodedValue();
+        if (value != null)
+        {
+            return value.containsKey(name);
+        }
+        return containsMapKey(SectionFieldReader.MapFormat.APPLICATION_PROPERTIES,
+                              name.getBytes(StandardCharsets.UTF_8));
+    }
+
     @Override
     public ApplicationPropertiesSection copy()
     {
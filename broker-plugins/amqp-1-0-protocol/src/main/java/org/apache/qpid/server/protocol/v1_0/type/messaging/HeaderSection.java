@@ -23,6 +23,8 @@ package org.apache.qpid.server.protocol.v1_0.type.messaging;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.codec.DescribedTypeConstructor;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedByte;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.codec.HeaderConstructor;
 
 public class HeaderSection extends AbstractSection<Header, Header>
@@ -42,6 +44,24 @@ public class HeaderSection extends AbstractSection<Header, Header>
         super(headerSection);
     }
 
+    public Boolean getDurable()
+    {
+        final Header value = getDecodedValue();
+        return value == null ? readListField(0, Boolean.class) : value.getDurable();
+    }
+
+    public UnsignedByte getPriority()
+    {
+        final Header value = getDecodedValue();
+        return value == null ? readListField(1, UnsignedByte.class) : value.getPriority();
+    }
+
+    public UnsignedInteger getTtl()
+    {
+        final Header value = getDecodedValue();
+        return value == null ? readListField(2, UnsignedInteger.class) : value.getTtl();
+    }
+
     @Override
     public HeaderSection copy()
     {
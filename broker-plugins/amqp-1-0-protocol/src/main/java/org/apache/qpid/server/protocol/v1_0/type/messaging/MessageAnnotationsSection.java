@@ -21,12 +21,14 @@
 
 package org.apache.qpid.server.protocol.v1_0.type.messaging;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.codec.DescribedTypeConstructor;
 import org.apache.qpid.server.protocol.v1_0.type.Symbol;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.codec.MessageAnnotationsConstructor;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.codec.SectionFieldReader;
 
 public class MessageAnnotationsSection extends AbstractSection<Map<Symbol,Object>, MessageAnnotations>
 {
@@ -45,6 +47,16 @@ public class MessageAnnotationsSection extends AbstractSection<Map<Symbol,Object
         super(messageAnnotationsSection);
     }
 
+    public Object getAnnotation(final Symbol key)
+    {
+        final Map<Symbol, Object> value = getDecodedValue();
+        if (value != null)
+        {
+            return value.get(key);
+        }
+        return readMapValue(SectionFieldReader.MapFormat.ANNOTATIONS, key.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
     @Override
     public MessageAnnotationsSection copy()
     {
@@ -21,8 +21,12 @@
 
 package org.apache.qpid.server.protocol.v1_0.type.messaging;
 
+import java.util.Date;
+
 import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.codec.DescribedTypeConstructor;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.codec.PropertiesConstructor;
 
 public class PropertiesSection extends AbstractSection<Properties, Properties>
@@ -42,6 +46,66 @@ public class PropertiesSection extends AbstractSection<Properties, Properties>
         super(propertiesSection);
     }
 
+    public Object getMessageId()
+    {
+        final Properties value = getDecodedValue();
+        return value == null ? readListField(0, Object.class) : value.getMessageId();
+    }
+
+    public Binary getUserId()
+    {
+        final Properties value = getDecodedValue();
+        return value == null ? readListField(1, Binary.class) : value.getUserId();
+    }
+
+    public String getTo()
+    {
+        final Properties value = getDecodedValue();
+        return value == null ? readListField(2, String.class) : value.getTo();
+    }
+
+    public String getSubject()
+    {
+        final Properties value = getDecodedValue();
+        return value == null ? readListField(3, String.class) : value.getSubject();
+    }
+
+    public String getReplyTo()
+    {
+        final Properties value = getDecodedValue();
+        return value == null ? readListField(4, String.class) : value.getReplyTo();
+    }
+
+    public Object getCorrelationId()
+    {
+        final Properties value = getDecodedValue();
+        return value == null ? readListField(5, Object.class) : value.getCorrelationId();
+    }
+
+    public Symbol getContentType()
+    {
+        final Properties value = getDecodedValue();
+        return value == null ? readListField(6, Symbol.class) : value.getContentType();
+    }
+
+    public Symbol getContentEncoding()
+    {
+        final Properties value = getDecodedValue();
+        return value == null ? readListField(7, Symbol.class) : value.getContentEncoding();
+    }
+
+    public Date getCreationTime()
+    {
+        final Properties value = getDecodedValue();
+        return value == null ? readListField(9, Date.class) : value.getCreationTime();
+    }
+
+    public String getGroupId()
+    {
+        final Properties value = getDecodedValue();
+        return value == null ? readListField(10, String.class) : value.getGroupId();
+    }
+
     @Override
     public PropertiesSection copy()
     {
@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v1_0.type.messaging.codec;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
+import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
+import org.apache.qpid.server.protocol.v1_0.type.transport.AmqpError;
+import org.apache.qpid.server.protocol.v1_0.type.transport.ConnectionError;
+
+/**
+ * Reads individual fields directly from the retained encoding of a list or map section.  Only the requested
+ * value is constructed, every other value is skipped using the width carried by its format code, so looking up
+ * a single field neither allocates the decoded section nor copies the encoded bytes.
+ */
+public final class SectionFieldReader
+{
+    private static final int DESCRIBED_TYPE = 0x00;
+    private static final int LIST0 = 0x45;
+    private static final int LIST8 = 0xc0;
+    private static final int LIST32 = 0xd0;
+    private static final int MAP8 = 0xc1;
+    private static final int MAP32 = 0xd1;
+    private static final int ARRAY8 = 0xe0;
+    private static final int ARRAY32 = 0xf0;
+
+    public enum MapFormat
+    {
+        /** String keys, values restricted to simple types, as required of application-properties. */
+        APPLICATION_PROPERTIES(0xa1, 0xb1, true),
+        /** Symbol keys (other key types are tolerated and skipped), values of any type. */
+        ANNOTATIONS(0xa3, 0xb3, false);
+
+        private final int _shortKeyFormatCode;
+        private final int _longKeyFormatCode;
+        private final boolean _strict;
+
+        MapFormat(final int shortKeyFormatCode, final int longKeyFormatCode, final boolean strict)
+        {
+            _shortKeyFormatCode = shortKeyFormatCode;
+            _longKeyFormatCode = longKeyFormatCode;
+            _strict = strict;
+        }
+    }
+
+    private SectionFieldReader()
+    {
+    }
+
+    public static Object readListField(final QpidByteBuffer encodedSection,
+                                       final int index,
+                                       final ValueHandler valueHandler) throws AmqpErrorException
+    {
+        skipDescriptor(encodedSection);
+        final int count;
+        final int constructorByte = readFormatCode(encodedSection);
+        switch (constructorByte)
+        {
+            case LIST0:
+                count = 0;
+                break;
+            case LIST8:
+                count = readCount(encodedSection, 1);
+                break;
+            case LIST32:
+                count = readCount(encodedSection, 4);
+                break;
+            default:
+                throw new AmqpErrorException(AmqpError.DECODE_ERROR, "The described section must always be a list");
+        }
+
+        if (index >= count)
+        {
+            return null;
+        }
+        for (int i = 0; i < index; i++)
+        {
+            skipValue(encodedSection);
+        }
+        return valueHandler.parse(encodedSection);
+    }
+
+    /**
+     * Returns the value mapped to the given key or null if the map has no such key.  The whole map is scanned
+     * so that malformed entries and a duplicate of the requested key are reported just as a full decode would;
+     * unlike a full decode, duplicates of other keys are not detected.
+     */
+    public static Object readMapValue(final QpidByteBuffer encodedSection,
+                                      final MapFormat format,
+                                      final byte[] key,
+                                      final ValueHandler valueHandler) throws AmqpErrorException
+    {
+        final int valuePosition = findMapValue(encodedSection, format, key);
+        if (valuePosition < 0)
+        {
+            return null;
+        }
+        encodedSection.position(valuePosition);
+        return valueHandler.parse(encodedSection);
+    }
+
+    public static boolean containsMapKey(final QpidByteBuffer encodedSection,
+                                         final MapFormat format,
+                                         final byte[] key) throws AmqpErrorException
+    {
+        return findMapValue(encodedSection, format, key) >= 0;
+    }
+
+    public static void skipValue(final QpidByteBuffer in) throws AmqpErrorException
+    {
+        final int formatCode = readFormatCode(in);
+        if (formatCode == DESCRIBED_TYPE)
+        {
+            skipValue(in);
+            skipValue(in);
+            return;
+        }
+
+        final int width;
+        switch (formatCode >> 4)
+        {
+            case 0x4:
+                width = 0;
+                break;
+            case 0x5:
+                width = 1;
+                break;
+            case 0x6:
+                width = 2;
+                break;
+            case 0x7:
+                width = 4;
+                break;
+            case 0x8:
+                width = 8;
+                break;
+            case 0x9:
+                width = 16;
+                break;
+            case 0xa:
+            case 0xc:
+            case 0xe:
+                width = readSize(in, 1);
+                break;
+            case 0xb:
+            case 0xd:
+            case 0xf:
+                width = readSize(in, 4);
+                break;
+            default:
+                throw new AmqpErrorException(ConnectionError.FRAMING_ERROR,
+                                             "Unknown type format-code 0x%02x",
+                                             formatCode);
+        }
+        skip(in, width);
+    }
+
+    private static int findMapValue(final QpidByteBuffer in,
+                                    final MapFormat format,
+                                    final byte[] key) throws AmqpErrorException
+    {
+        skipDescriptor(in);
+        final int count;
+        final int constructorByte = readFormatCode(in);
+        switch (constructorByte)
+        {
+            case MAP8:
+                count = readCount(in, 1);
+                break;
+            case MAP32:
+                count = readCount(in, 4);
+                break;
+            default:
+                throw new AmqpErrorException(ConnectionError.FRAMING_ERROR,
+                                             "The described section must always be a map");
+        }
+        if ((count & 0x1) == 1)
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR,
+                                         "Map cannot have odd number of elements: %d",
+                                         count);
+        }
+
+        int valuePosition = -1;
+        for (int i = 0; i < count / 2; i++)
+        {
+            final boolean matches = readKeyAndCompare(in, format, key);
+            if (matches)
+            {
+                if (valuePosition >= 0)
+                {
+                    throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Map cannot have duplicate keys");
+                }
+                valuePosition = in.position();
+            }
+
+            if (format._strict)
+            {
+                checkSimpleValue(in);
+            }
+            skipValue(in);
+        }
+        return valuePosition;
+    }
+
+    private static boolean readKeyAndCompare(final QpidByteBuffer in,
+                                             final MapFormat format,
+                                             final byte[] key) throws AmqpErrorException
+    {
+        final int formatCode = readFormatCode(in);
+        final int length;
+        if (formatCode == format._shortKeyFormatCode)
+        {
+            length = readSize(in, 1);
+        }
+        else if (formatCode == format._longKeyFormatCode)
+        {
+            length = readSize(in, 4);
+        }
+        else if (format._strict)
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR,
+                                         "Unexpected key format-code 0x%02x",
+                                         formatCode);
+        }
+        else
+        {
+            in.position(in.position() - 1);
+            skipValue(in);
+            return false;
+        }
+
+        final int start = in.position();
+        skip(in, length);
+        if (length != key.length)
+        {
+            return false;
+        }
+        for (int i = 0; i < length; i++)
+        {
+            if (in.get(start + i) != key[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkSimpleValue(final QpidByteBuffer in) throws AmqpErrorException
+    {
+        if (!in.hasRemaining())
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Insufficient data - expected type, no data remaining");
+        }
+        switch (in.get(in.position()) & 0xff)
+        {
+            case DESCRIBED_TYPE:
+            case LIST0:
+            case LIST8:
+            case LIST32:
+            case MAP8:
+            case MAP32:
+            case ARRAY8:
+            case ARRAY32:
+                throw new AmqpErrorException(AmqpError.DECODE_ERROR,
+                                             "Application properties do not allow non-primitive values");
+            default:
+        }
+    }
+
+    private static void skipDescriptor(final QpidByteBuffer in) throws AmqpErrorException
+    {
+        if (readFormatCode(in) != DESCRIBED_TYPE)
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Not a described type.");
+        }
+        skipValue(in);
+    }
+
+    private static int readFormatCode(final QpidByteBuffer in) throws AmqpErrorException
+    {
+        if (!in.hasRemaining())
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Insufficient data - expected type, no data remaining");
+        }
+        return in.getUnsignedByte();
+    }
+
+    private static int readCount(final QpidByteBuffer in, final int sizeBytes) throws AmqpErrorException
+    {
+        final int size = readSize(in, sizeBytes);
+        if (!in.hasRemaining(size))
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Insufficient data to decode section.");
+        }
+        if (size < sizeBytes)
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Compound size %d too small for its count", size);
+        }
+        return readSize(in, sizeBytes);
+    }
+
+    private static int readSize(final QpidByteBuffer in, final int sizeBytes) throws AmqpErrorException
+    {
+        if (!in.hasRemaining(sizeBytes))
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Insufficient data to decode section.");
+        }
+        final int size = sizeBytes == 1 ? in.getUnsignedByte() : in.getInt();
+        if (size < 0)
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Invalid size %d", size);
+        }
+        return size;
+    }
+
+    private static void skip(final QpidByteBuffer in, final int length) throws AmqpErrorException
+    {
+        if (!in.hasRemaining(length))
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Insufficient data to decode section.");
+        }
+        in.position(in.position() + length);
+    }
+}
@@ -21,18 +21,25 @@
 
 package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
 
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.server.protocol.v1_0.codec.AbstractDescribedTypeWriter;
 import org.apache.qpid.server.protocol.v1_0.codec.AbstractListWriter;
 import org.apache.qpid.server.protocol.v1_0.codec.UnsignedLongWriter;
 import org.apache.qpid.server.protocol.v1_0.codec.ValueWriter;
 
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
 import org.apache.qpid.server.protocol.v1_0.type.UnsignedLong;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Accepted;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
 
 public class TransferWriter extends AbstractDescribedTypeWriter<Transfer>
 {
     private static final ValueWriter<UnsignedLong> DESCRIPTOR_WRITER = UnsignedLongWriter.getWriter((byte) 0x14);
-    private static final Factory<Transfer> FACTORY = TransferWriter::new;
+    private static final Factory<Transfer> FACTORY =
+            (registry, object) -> DeliveryTransferWriter.isApplicable(object)
+                    ? new DeliveryTransferWriter(object)
+                    : new TransferWriter(registry, object);
 
     private TransferWriter(final Registry registry, final Transfer object)
     {
@@ -177,6 +184,132 @@ public class TransferWriter extends AbstractDescribedTypeWriter<Transfer>
         }
     }
 
+    /**
+     * Writes the first transfer of a delivery in the shapes the broker sends on its sending links.
+     * <p>
+     * The encoding is a fixed template in which only the handle, delivery-id, delivery-tag, the settled and more
+     * flags and the presence of the accepted state vary. The handle and delivery-id use the four octet uint encoding
+     * so that each sits at a fixed offset, and the remaining fields are constants. This avoids creating a writer for
+     * each field of the list and walking the fields twice, once to size and once to write the performative.
+     * <p>
+     * The list stops after the last field present. An absent settled or more flag that precedes a present field is
+     * written as null, which like omitting it means false.
+     */
+    private static final class DeliveryTransferWriter implements ValueWriter<Transfer>
+    {
+        private static final byte[] HEADER = {
+                (byte) 0x00,       // described type
+                (byte) 0x53, 0x14, // smallulong descriptor of transfer
+                (byte) 0xc0        // list8
+        };
+        private static final byte[] ACCEPTED = {
+                (byte) 0x00,       // described type
+                (byte) 0x53, 0x24, // smallulong descriptor of accepted
+                (byte) 0x45        // list0
+        };
+        private static final byte UINT = (byte) 0x70;
+        private static final byte UINT0 = (byte) 0x43;
+        private static final byte VBIN8 = (byte) 0xa0;
+        private static final byte NULL = (byte) 0x40;
+        private static final byte TRUE = (byte) 0x41;
+        private static final byte FALSE = (byte) 0x42;
+
+        private static final int MESSAGE_FORMAT_COUNT = 4;
+        private static final int SETTLED_COUNT = 5;
+        private static final int MORE_COUNT = 6;
+        private static final int STATE_COUNT = 8;
+
+        // count, handle, delivery-id, delivery-tag constructor and width, message-format
+        private static final int FIXED_LIST_SIZE = 1 + 5 + 5 + 2 + 1;
+        // settled, more, rcv-settle-mode, state
+        private static final int MAXIMUM_OPTIONAL_SIZE = 1 + 1 + 1 + ACCEPTED.length;
+        private static final int MAXIMUM_TAG_LENGTH = 255 - FIXED_LIST_SIZE - MAXIMUM_OPTIONAL_SIZE;
+
+        private final Transfer _value;
+        private final byte[] _deliveryTag;
+        private final int _count;
+        private final int _listSize;
+
+        private DeliveryTransferWriter(final Transfer value)
+        {
+            _value = value;
+            _deliveryTag = value.getDeliveryTag().getArray();
+            if (value.getState() != null)
+            {
+                _count = STATE_COUNT;
+            }
+            else if (value.getMore() != null)
+            {
+                _count = MORE_COUNT;
+            }
+            else if (value.getSettled() != null)
+            {
+                _count = SETTLED_COUNT;
+            }
+            else
+            {
+                _count = MESSAGE_FORMAT_COUNT;
+            }
+            _listSize = FIXED_LIST_SIZE + _deliveryTag.length + (_count - MESSAGE_FORMAT_COUNT)
+                        + (_count == STATE_COUNT ? ACCEPTED.length - 1 : 0);
+        }
+
+        static boolean isApplicable(final Transfer transfer)
+        {
+            final Binary deliveryTag = transfer.getDeliveryTag();
+            return transfer.getHandle() != null
+                   && transfer.getDeliveryId() != null
+                   && deliveryTag != null
+                   && deliveryTag.getArray().length <= MAXIMUM_TAG_LENGTH
+                   && UnsignedInteger.ZERO.equals(transfer.getMessageFormat())
+                   && transfer.getRcvSettleMode() == null
+                   && (transfer.getState() == null || transfer.getState() instanceof Accepted)
+                   && transfer.getResume() == null
+                   && transfer.getAborted() == null
+                   && transfer.getBatchable() == null;
+        }
+
+        @Override
+        public int getEncodedSize()
+        {
+            return HEADER.length + 1 + _listSize;
+        }
+
+        @Override
+        public void writeToBuffer(final QpidByteBuffer buffer)
+        {
+            buffer.put(HEADER);
+            buffer.put((byte) _listSize);
+            buffer.put((byte) _count);
+            buffer.put(UINT);
+            buffer.putInt(_value.getHandle().intValue());
+            buffer.put(UINT);
+            buffer.putInt(_value.getDeliveryId().intValue());
+            buffer.put(VBIN8);
+            buffer.put((byte) _deliveryTag.length);
+            buffer.put(_deliveryTag);
+            buffer.put(UINT0);
+            if (_count >= SETTLED_COUNT)
+            {
+                buffer.put(encode(_value.getSettled()));
+            }
+            if (_count >= MORE_COUNT)
+            {
+                buffer.put(encode(_value.getMore()));
+            }
+            if (_count == STATE_COUNT)
+            {
+                buffer.put(NULL);
+                buffer.put(ACCEPTED);
+            }
+        }
+
+        private static byte encode(final Boolean value)
+        {
+            return value == null ? NULL : value ? TRUE : FALSE;
+        }
+    }
+
     public static void register(ValueWriter.Registry registry)
     {
         registry.register(Transfer.class, FACTORY);
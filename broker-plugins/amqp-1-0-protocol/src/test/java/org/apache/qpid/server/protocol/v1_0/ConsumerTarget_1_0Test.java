@@ -20,7 +20,9 @@
  */
 package org.apache.qpid.server.protocol.v1_0;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
@@ -46,6 +48,7 @@ import org.apache.qpid.server.model.Consumer;
 import org.apache.qpid.server.protocol.v1_0.messaging.SectionDecoderImpl;
 import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
 import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Accepted;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.ApplicationProperties;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.ApplicationPropertiesSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.DeliveryAnnotations;
@@ -58,7 +61,9 @@ import org.apache.qpid.server.protocol.v1_0.type.messaging.HeaderSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.MessageAnnotations;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.MessageAnnotationsSection;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.Properties;
+import org.apache.qpid.server.protocol.v1_0.type.transport.SenderSettleMode;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
+import org.apache.qpid.server.protocol.v1_0.type.transport.codec.TransferWriter;
 import org.apache.qpid.server.store.StoredMessage;
 import org.apache.qpid.test.utils.UnitTestBase;
 
@@ -78,16 +83,7 @@ class ConsumerTarget_1_0Test extends UnitTestBase
     @BeforeAll
     void setUp()
     {
-        final AMQPConnection_1_0 connection = mock(AMQPConnection_1_0.class);
-        final Session_1_0 session = mock(Session_1_0.class);
-        _sendingLinkEndpoint = mock(SendingLinkEndpoint.class);
-        when(_sendingLinkEndpoint.getSession()).thenReturn(session);
-        when(_sendingLinkEndpoint.isAttached()).thenReturn(true);
-        when(session.getAMQPConnection()).thenReturn(connection);
-        when(session.getConnection()).thenReturn(connection);
-        when(connection.getDescribedTypeRegistry()).thenReturn(AMQP_DESCRIBED_TYPE_REGISTRY);
-        when(connection.getContextValue(Long.class, Consumer.SUSPEND_NOTIFICATION_PERIOD)).thenReturn(10000L);
-
+        _sendingLinkEndpoint = createSendingLinkEndpoint();
         _consumerTarget = new ConsumerTarget_1_0(_sendingLinkEndpoint, true);
     }
 
@@ -141,6 +137,69 @@ class ConsumerTarget_1_0Test extends UnitTestBase
         assertTrue(sentHeader.getTtl().longValue() <= 1000, "Unexpected ttl");
     }
 
+    @Test
+    void unsettledDeliveryWrittenFromTemplate()
+    {
+        final Transfer transfer = sendAndCaptureTransfer(SenderSettleMode.UNSETTLED);
+
+        assertNull(transfer.getSettled());
+        assertFalse(AMQP_DESCRIBED_TYPE_REGISTRY.getValueWriter(transfer) instanceof TransferWriter,
+                    "Unsettled delivery should be written from the template");
+    }
+
+    @Test
+    void preSettledDeliveryWrittenFromTemplate()
+    {
+        final Transfer transfer = sendAndCaptureTransfer(SenderSettleMode.SETTLED);
+
+        assertTrue(transfer.getSettled());
+        assertTrue(transfer.getState() instanceof Accepted);
+        assertFalse(AMQP_DESCRIBED_TYPE_REGISTRY.getValueWriter(transfer) instanceof TransferWriter,
+                    "Pre-settled delivery should be written from the template");
+    }
+
+    private Transfer sendAndCaptureTransfer(final SenderSettleMode sendingSettlementMode)
+    {
+        final SendingLinkEndpoint sendingLinkEndpoint = createSendingLinkEndpoint();
+        when(sendingLinkEndpoint.getSendingSettlementMode()).thenReturn(sendingSettlementMode);
+        final ConsumerTarget_1_0 consumerTarget = new ConsumerTarget_1_0(sendingLinkEndpoint, true);
+        final Message_1_0 message = createTestMessage(new Header(), System.currentTimeMillis());
+        final MessageInstance messageInstance = mock(MessageInstance.class);
+        when(messageInstance.getMessage()).thenReturn(message);
+
+        final AtomicReference<Transfer> transferRef = new AtomicReference<>();
+        doAnswer(invocation ->
+        {
+            // fields set by the link and session on the way to the connection
+            final Transfer transfer = invocation.getArgument(0);
+            transfer.setMessageFormat(UnsignedInteger.ZERO);
+            transfer.setHandle(UnsignedInteger.ONE);
+            transfer.setDeliveryId(UnsignedInteger.valueOf(42));
+            transferRef.set(transfer);
+            return null;
+        }).when(sendingLinkEndpoint).transfer(any(Transfer.class), anyBoolean());
+
+        consumerTarget.doSend(mock(MessageInstanceConsumer.class), messageInstance, false);
+
+        final Transfer transfer = transferRef.get();
+        assertNotNull(transfer, "Transfer is not sent");
+        return transfer;
+    }
+
+    private SendingLinkEndpoint createSendingLinkEndpoint()
+    {
+        final AMQPConnection_1_0 connection = mock(AMQPConnection_1_0.class);
+        final Session_1_0 session = mock(Session_1_0.class);
+        final SendingLinkEndpoint sendingLinkEndpoint = mock(SendingLinkEndpoint.class);
+        when(sendingLinkEndpoint.getSession()).thenReturn(session);
+        when(sendingLinkEndpoint.isAttached()).thenReturn(true);
+        when(session.getAMQPConnection()).thenReturn(connection);
+        when(session.getConnection()).thenReturn(connection);
+        when(connection.getDescribedTypeRegistry()).thenReturn(AMQP_DESCRIBED_TYPE_REGISTRY);
+        when(connection.getContextValue(Long.class, Consumer.SUSPEND_NOTIFICATION_PERIOD)).thenReturn(10000L);
+        return sendingLinkEndpoint;
+    }
+
     private Message_1_0 createTestMessage(final Header header, long arrivalTime)
     {
         final DeliveryAnnotationsSection deliveryAnnotations =
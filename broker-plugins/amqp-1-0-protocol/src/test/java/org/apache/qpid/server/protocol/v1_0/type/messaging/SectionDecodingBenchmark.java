@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v1_0.type.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.messaging.SectionDecoder;
+import org.apache.qpid.server.protocol.v1_0.messaging.SectionDecoderImpl;
+import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+
+/**
+ * Measures the per message cost of the header, annotation and application-property reads made when a message
+ * arrives (durability, ttl, delivery time, user id, subject and routing key), comparing decoding the whole
+ * section on first access with reading the individual fields from the retained encoding.
+ * Use -prof gc to compare the allocation per message.
+ *
+ * Run with: java -cp target/test-classes:... org.apache.qpid.server.protocol.v1_0.type.messaging.SectionDecodingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SectionDecodingBenchmark
+{
+    private static final Symbol DELIVERY_TIME = Symbol.valueOf("x-opt-delivery-time");
+    private static final SectionDecoder SECTION_DECODER = new SectionDecoderImpl(AMQPDescribedTypeRegistry.newInstance()
+                                                                                                         .registerTransportLayer()
+                                                                                                         .registerMessagingLayer()
+                                                                                                         .getSectionDecoderRegistry());
+
+    @Param({"decoded", "fields"})
+    public String _access;
+
+    @Param({"10"})
+    public int _applicationProperties;
+
+    private byte[] _payload;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        final Header header = new Header();
+        header.setDurable(true);
+        header.setTtl(UnsignedInteger.valueOf(60000));
+
+        final Map<Symbol, Object> annotations = new HashMap<>();
+        annotations.put(Symbol.valueOf("x-opt-jms-msg-type"), (byte) 5);
+        annotations.put(Symbol.valueOf("x-opt-jms-dest"), (byte) 0);
+
+        final Properties properties = new Properties();
+        properties.setMessageId("ID:a2f3c1e2-8b9c-4f1e-9d6a-3c7b8e9f0a1b:1:1:1-1");
+        properties.setUserId(new Binary("guest".getBytes(StandardCharsets.UTF_8)));
+        properties.setTo("queue");
+        properties.setContentType(Symbol.valueOf("text/plain"));
+        properties.setCreationTime(new Date());
+
+        final Map<String, Object> applicationProperties = new HashMap<>();
+        for (int i = 0; i < _applicationProperties; i++)
+        {
+            applicationProperties.put("property" + i, "value" + i);
+        }
+
+        final List<EncodingRetainingSection<?>> sections = new ArrayList<>();
+        sections.add(header.createEncodingRetainingSection());
+        sections.add(new MessageAnnotations(annotations).createEncodingRetainingSection());
+        sections.add(properties.createEncodingRetainingSection());
+        sections.add(new ApplicationProperties(applicationProperties).createEncodingRetainingSection());
+        sections.add(new Data(new Binary(new byte[256])).createEncodingRetainingSection());
+
+        int size = 0;
+        for (EncodingRetainingSection<?> section : sections)
+        {
+            size += (int) section.getEncodedSize();
+        }
+        try (QpidByteBuffer buffer = QpidByteBuffer.allocate(false, size))
+        {
+            for (EncodingRetainingSection<?> section : sections)
+            {
+                section.writeTo(buffer);
+                section.dispose();
+            }
+            buffer.flip();
+            _payload = new byte[size];
+            buffer.get(_payload);
+        }
+    }
+
+    @Benchmark
+    public void arrive(final Blackhole blackhole) throws AmqpErrorException
+    {
+        final List<EncodingRetainingSection<?>> sections;
+        try (QpidByteBuffer payload = QpidByteBuffer.wrap(_payload))
+        {
+            sections = SECTION_DECODER.parseAll(payload);
+        }
+        final HeaderSection header = (HeaderSection) sections.get(0);
+        final MessageAnnotationsSection annotations = (MessageAnnotationsSection) sections.get(1);
+        final PropertiesSection properties = (PropertiesSection) sections.get(2);
+        final ApplicationPropertiesSection applicationProperties = (ApplicationPropertiesSection) sections.get(3);
+
+        if ("decoded".equals(_access))
+        {
+            blackhole.consume(header.getValue().getDurable());
+            blackhole.consume(header.getValue().getTtl());
+            blackhole.consume(annotations.getValue().get(DELIVERY_TIME));
+            blackhole.consume(properties.getValue().getUserId());
+            blackhole.consume(applicationProperties.getValue().get("routing-key"));
+            blackhole.consume(applicationProperties.getValue().get("routing_key"));
+            blackhole.consume(properties.getValue().getSubject());
+        }
+        else
+        {
+            blackhole.consume(header.getDurable());
+            blackhole.consume(header.getTtl());
+            blackhole.consume(annotations.getAnnotation(DELIVERY_TIME));
+            blackhole.consume(properties.getUserId());
+            blackhole.consume(applicationProperties.getProperty("routing-key"));
+            blackhole.consume(applicationProperties.getProperty("routing_key"));
+            blackhole.consume(properties.getSubject());
+        }
+
+        for (EncodingRetainingSection<?> section : sections)
+        {
+            section.dispose();
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        final Options options = new OptionsBuilder()
+                .include(SectionDecodingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
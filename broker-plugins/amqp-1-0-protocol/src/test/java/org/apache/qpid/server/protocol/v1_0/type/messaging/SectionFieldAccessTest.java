@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v1_0.type.messaging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedByte;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedLong;
+import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+class SectionFieldAccessTest extends UnitTestBase
+{
+    @Test
+    void headerFields()
+    {
+        final Header header = new Header();
+        header.setDurable(true);
+        header.setPriority(UnsignedByte.valueOf((byte) 7));
+        header.setTtl(UnsignedInteger.valueOf(1000));
+
+        final HeaderSection section = reencode(header.createEncodingRetainingSection(), HeaderSection::new);
+        try
+        {
+            assertEquals(Boolean.TRUE, section.getDurable());
+            assertUndecoded(section);
+            assertEquals(UnsignedByte.valueOf((byte) 7), section.getPriority());
+            assertDecoded(section);
+            assertEquals(UnsignedInteger.valueOf(1000), section.getTtl());
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    void propertiesFields()
+    {
+        final Properties properties = new Properties();
+        properties.setMessageId("id");
+        properties.setUserId(new Binary("user".getBytes(StandardCharsets.UTF_8)));
+        properties.setSubject("subject");
+        properties.setCreationTime(new Date(1234L));
+        properties.setGroupId("group");
+
+        final PropertiesSection section = reencode(properties.createEncodingRetainingSection(), PropertiesSection::new);
+        try
+        {
+            assertEquals("id", section.getMessageId());
+            assertUndecoded(section);
+            assertEquals(new Binary("user".getBytes(StandardCharsets.UTF_8)), section.getUserId());
+            assertDecoded(section);
+            assertNull(section.getTo());
+            assertEquals("subject", section.getSubject());
+            assertEquals(new Date(1234L), section.getCreationTime());
+            assertEquals("group", section.getGroupId());
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    void propertiesFieldBeyondEncodedList()
+    {
+        final Properties properties = new Properties();
+        properties.setTo("queue");
+
+        final PropertiesSection section = reencode(properties.createEncodingRetainingSection(), PropertiesSection::new);
+        try
+        {
+            assertEquals("queue", section.getTo());
+            assertNull(section.getGroupId());
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    void applicationProperties()
+    {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("routing-key", "foo");
+        map.put("b", null);
+
+        final ApplicationPropertiesSection section =
+                reencode(new ApplicationProperties(map).createEncodingRetainingSection(), ApplicationPropertiesSection::new);
+        try
+        {
+            assertEquals("foo", section.getProperty("routing-key"));
+            assertUndecoded(section);
+            assertEquals(1, section.getProperty("a"));
+            assertDecoded(section);
+            assertNull(section.getProperty("routing"));
+            assertTrue(section.containsProperty("b"));
+            assertFalse(section.containsProperty("c"));
+            assertEquals(map, section.getValue());
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    void applicationPropertyLookedUpOnceNotDecoded()
+    {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+
+        final ApplicationPropertiesSection section =
+                reencode(new ApplicationProperties(map).createEncodingRetainingSection(), ApplicationPropertiesSection::new);
+        try
+        {
+            assertTrue(section.containsProperty("a"));
+            assertUndecoded(section);
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    void applicationPropertiesWithNonPrimitiveValue()
+    {
+        final ApplicationPropertiesSection section = new ApplicationPropertiesSection(QpidByteBuffer.wrap(new byte[]{
+                0x00, 0x53, 0x74, (byte) 0xc1, 5, 2, (byte) 0xa1, 1, 'a', 0x45}));
+        try
+        {
+            assertThrows(ConnectionScopedRuntimeException.class, () -> section.getProperty("b"));
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    void applicationPropertiesWithDuplicateKey()
+    {
+        final ApplicationPropertiesSection section = new ApplicationPropertiesSection(QpidByteBuffer.wrap(new byte[]{
+                0x00, 0x53, 0x74, (byte) 0xc1, 9, 4, (byte) 0xa1, 1, 'a', 0x41, (byte) 0xa1, 1, 'a', 0x42}));
+        try
+        {
+            assertThrows(ConnectionScopedRuntimeException.class, () -> section.getProperty("a"));
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    void messageAnnotations()
+    {
+        final Map<Symbol, Object> map = new LinkedHashMap<>();
+        map.put(Symbol.valueOf("x-opt-jms-msg-type"), (byte) 1);
+        map.put(Symbol.valueOf("x-opt-delivery-time"), 5000L);
+
+        final MessageAnnotationsSection section =
+                reencode(new MessageAnnotations(map).createEncodingRetainingSection(), MessageAnnotationsSection::new);
+        try
+        {
+            assertEquals(5000L, section.getAnnotation(Symbol.valueOf("x-opt-delivery-time")));
+            assertUndecoded(section);
+            assertNull(section.getAnnotation(Symbol.valueOf("x-qpid-not-valid-before")));
+            assertDecoded(section);
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    void messageAnnotationsSkipsNonSymbolKeys()
+    {
+        final MessageAnnotationsSection section = new MessageAnnotationsSection(QpidByteBuffer.wrap(new byte[]{
+                0x00, 0x53, 0x72, (byte) 0xc1, 8, 4, 0x53, 1, 0x41, (byte) 0xa3, 1, 'x', 0x42}));
+        try
+        {
+            assertEquals(Boolean.FALSE, section.getAnnotation(Symbol.valueOf("x")));
+            assertEquals(Boolean.TRUE, section.getValue().get(UnsignedLong.valueOf(1)));
+        }
+        finally
+        {
+            section.dispose();
+        }
+    }
+
+    @Test
+    void copyDoesNotDecode()
+    {
+        final Header header = new Header();
+        header.setTtl(UnsignedInteger.valueOf(10));
+
+        final HeaderSection section = reencode(header.createEncodingRetainingSection(), HeaderSection::new);
+        final HeaderSection copy = section.copy();
+        try
+        {
+            assertUndecoded(section);
+            assertEquals(UnsignedInteger.valueOf(10), copy.getTtl());
+        }
+        finally
+        {
+            copy.dispose();
+            section.dispose();
+        }
+    }
+
+    private static <S extends EncodingRetainingSection<?>> S reencode(final EncodingRetainingSection<?> decoded,
+                                                                      final Function<QpidByteBuffer, S> factory)
+    {
+        try (QpidByteBuffer encodedForm = decoded.getEncodedForm())
+        {
+            return factory.apply(encodedForm);
+        }
+        finally
+        {
+            decoded.dispose();
+        }
+    }
+
+    private static void assertUndecoded(final AbstractSection<?, ?> section)
+    {
+        assertTrue(section.toString().startsWith("<Undecoded"), "Section unexpectedly decoded");
+    }
+
+    private static void assertDecoded(final AbstractSection<?, ?> section)
+    {
+        assertFalse(section.toString().startsWith("<Undecoded"), "Section unexpectedly not decoded");
+    }
+}
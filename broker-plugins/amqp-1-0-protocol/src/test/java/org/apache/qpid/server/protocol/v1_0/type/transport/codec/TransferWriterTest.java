@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.protocol.v1_0.type.transport.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueWriter;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Accepted;
+import org.apache.qpid.server.protocol.v1_0.type.transaction.TransactionalState;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
+import org.apache.qpid.test.utils.UnitTestBase;
+
+class TransferWriterTest extends UnitTestBase
+{
+    private static final AMQPDescribedTypeRegistry TYPE_REGISTRY = AMQPDescribedTypeRegistry.newInstance()
+            .registerTransportLayer()
+            .registerMessagingLayer()
+            .registerTransactionLayer()
+            .registerSecurityLayer();
+
+    @Test
+    void settledDeliveryTransfer() throws Exception
+    {
+        final Transfer transfer = createDeliveryTransfer(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        transfer.setSettled(true);
+        assertFalse(TYPE_REGISTRY.getValueWriter(transfer) instanceof TransferWriter,
+                    "Delivery transfer should be written from the template");
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertDeliveryFields(transfer, decoded);
+        assertTrue(decoded.getSettled());
+        assertNull(decoded.getMore());
+    }
+
+    @Test
+    void unsettledDeliveryTransferWithMore() throws Exception
+    {
+        final Transfer transfer = createDeliveryTransfer(new byte[]{(byte) 0xff});
+        transfer.setSettled(false);
+        transfer.setMore(true);
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertDeliveryFields(transfer, decoded);
+        assertFalse(decoded.getSettled());
+        assertTrue(decoded.getMore());
+    }
+
+    @Test
+    void largeHandleAndDeliveryId() throws Exception
+    {
+        final Transfer transfer = createDeliveryTransfer(new byte[0]);
+        transfer.setHandle(UnsignedInteger.valueOf(0xfffffffeL));
+        transfer.setDeliveryId(UnsignedInteger.valueOf(0x80000001L));
+        transfer.setSettled(false);
+
+        assertDeliveryFields(transfer, encodeAndDecode(transfer));
+    }
+
+    @Test
+    void unsettledDeliveryTransferWithoutSettled() throws Exception
+    {
+        final Transfer transfer = createDeliveryTransfer(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertFalse(TYPE_REGISTRY.getValueWriter(transfer) instanceof TransferWriter,
+                    "Delivery transfer without settled should be written from the template");
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertDeliveryFields(transfer, decoded);
+        assertNull(decoded.getSettled());
+        assertNull(decoded.getMore());
+    }
+
+    @Test
+    void unsettledDeliveryTransferWithoutSettledWithMore() throws Exception
+    {
+        final Transfer transfer = createDeliveryTransfer(new byte[]{7});
+        transfer.setMore(true);
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertDeliveryFields(transfer, decoded);
+        assertNull(decoded.getSettled());
+        assertTrue(decoded.getMore());
+    }
+
+    @Test
+    void settledDeliveryTransferWithAcceptedState() throws Exception
+    {
+        final Transfer transfer = createDeliveryTransfer(new byte[]{42});
+        transfer.setSettled(true);
+        transfer.setState(new Accepted());
+        assertFalse(TYPE_REGISTRY.getValueWriter(transfer) instanceof TransferWriter,
+                    "Delivery transfer with accepted state should be written from the template");
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertDeliveryFields(transfer, decoded);
+        assertTrue(decoded.getSettled());
+        assertNull(decoded.getMore());
+        assertNull(decoded.getRcvSettleMode());
+        assertTrue(decoded.getState() instanceof Accepted);
+    }
+
+    @Test
+    void settledDeliveryTransferWithAcceptedStateAndMore() throws Exception
+    {
+        final Transfer transfer = createDeliveryTransfer(new byte[]{42});
+        transfer.setSettled(true);
+        transfer.setMore(true);
+        transfer.setState(new Accepted());
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertDeliveryFields(transfer, decoded);
+        assertTrue(decoded.getSettled());
+        assertTrue(decoded.getMore());
+        assertTrue(decoded.getState() instanceof Accepted);
+    }
+
+    @Test
+    void transferWithTransactionalState() throws Exception
+    {
+        final Transfer transfer = createDeliveryTransfer(new byte[]{42});
+        final TransactionalState state = new TransactionalState();
+        state.setTxnId(new Binary(new byte[]{1}));
+        transfer.setState(state);
+        assertTrue(TYPE_REGISTRY.getValueWriter(transfer) instanceof TransferWriter,
+                   "Transfer with transactional state should be written field by field");
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertDeliveryFields(transfer, decoded);
+        assertTrue(decoded.getState() instanceof TransactionalState);
+    }
+
+    @Test
+    void continuationTransfer() throws Exception
+    {
+        final Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ONE);
+        transfer.setMore(false);
+
+        final Transfer decoded = encodeAndDecode(transfer);
+
+        assertEquals(transfer.getHandle(), decoded.getHandle());
+        assertNull(decoded.getDeliveryId());
+        assertNull(decoded.getDeliveryTag());
+        assertFalse(decoded.getMore());
+    }
+
+    private Transfer createDeliveryTransfer(final byte[] deliveryTag)
+    {
+        final Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.valueOf(3));
+        transfer.setDeliveryId(UnsignedInteger.valueOf(123456));
+        transfer.setDeliveryTag(new Binary(deliveryTag));
+        transfer.setMessageFormat(UnsignedInteger.ZERO);
+        return transfer;
+    }
+
+    private void assertDeliveryFields(final Transfer expected, final Transfer actual)
+    {
+        assertEquals(expected.getHandle(), actual.getHandle());
+        assertEquals(expected.getDeliveryId(), actual.getDeliveryId());
+        assertEquals(expected.getDeliveryTag(), actual.getDeliveryTag());
+        assertEquals(UnsignedInteger.ZERO, actual.getMessageFormat());
+    }
+
+    private Transfer encodeAndDecode(final Transfer transfer) throws Exception
+    {
+        final ValueWriter<Transfer> writer = TYPE_REGISTRY.getValueWriter(transfer);
+        final int encodedSize = writer.getEncodedSize();
+        try (QpidByteBuffer buffer = QpidByteBuffer.allocate(false, encodedSize))
+        {
+            writer.writeToBuffer(buffer);
+            assertEquals(encodedSize, buffer.position(), "Unexpected encoded size");
+            buffer.flip();
+
+            final Object decoded = new ValueHandler(TYPE_REGISTRY).parse(buffer);
+            assertFalse(buffer.hasRemaining(), "Unexpected trailing bytes");
+            return (Transfer) decoded;
+        }
+    }
+}
@@ -0,0 +1,611 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport.epoll;
+
+import java.net.BindException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.security.Principal;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.Protocol;
+import org.apache.qpid.server.model.Transport;
+import org.apache.qpid.server.model.port.AmqpPort;
+import org.apache.qpid.server.transport.AcceptingTransport;
+import org.apache.qpid.server.transport.ByteBufferSender;
+import org.apache.qpid.server.transport.MultiVersionProtocolEngine;
+import org.apache.qpid.server.transport.MultiVersionProtocolEngineFactory;
+import org.apache.qpid.server.transport.PortBindFailureException;
+import org.apache.qpid.server.transport.SchedulingDelayNotificationListener;
+import org.apache.qpid.server.transport.ServerNetworkConnection;
+import org.apache.qpid.server.transport.TransportException;
+import org.apache.qpid.server.transport.network.Ticker;
+import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
+
+/**
+ * Plain TCP transport running on edge-triggered native epoll. Each connection is bound to one event loop of the
+ * port's thread pool, which reads, processes the pending work of the protocol engine and writes for it, so the
+ * NonBlockingConnection/ProtocolEngine contract is kept while the selector and its selected-key sets are not used.
+ */
+class EpollTransport implements AcceptingTransport
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(EpollTransport.class);
+    private static final String WILDCARD_ADDRESS = "*";
+
+    private final AmqpPort<?> _port;
+    private final Broker<?> _broker;
+    private final MultiVersionProtocolEngineFactory _factory;
+
+    private EventLoopGroup _acceptorGroup;
+    private EventLoopGroup _ioGroup;
+    private Channel _serverChannel;
+
+    EpollTransport(final AmqpPort<?> port,
+                   final Set<Protocol> supported,
+                   final Protocol defaultSupportedProtocolReply)
+    {
+        _port = port;
+        _broker = (Broker<?>) port.getParent();
+        _factory = new MultiVersionProtocolEngineFactory(_broker,
+                                                         supported,
+                                                         defaultSupportedProtocolReply,
+                                                         port,
+                                                         Transport.TCP);
+    }
+
+    @Override
+    public void start()
+    {
+        final String bindingAddress = _port.getBindingAddress();
+        final InetSocketAddress address =
+                bindingAddress == null || bindingAddress.trim().isEmpty() || WILDCARD_ADDRESS.equals(bindingAddress.trim())
+                        ? new InetSocketAddress(_port.getPort())
+                        : new InetSocketAddress(bindingAddress.trim(), _port.getPort());
+        final int networkBufferSize = _port.getNetworkBufferSize();
+
+        _acceptorGroup = new EpollEventLoopGroup(1, new DefaultThreadFactory("Acceptor-Port-" + _port.getName()));
+        _ioGroup = new EpollEventLoopGroup(_port.getThreadPoolSize(),
+                                           QpidByteBuffer.createQpidByteBufferTrackingThreadFactory(
+                                                   new DefaultThreadFactory("IO-epoll-Port-" + _port.getName())));
+
+        final ServerBootstrap bootstrap = new ServerBootstrap()
+                .group(_acceptorGroup, _ioGroup)
+                .channel(EpollServerSocketChannel.class)
+                .option(ChannelOption.SO_BACKLOG, _port.getContextValue(Integer.class, AmqpPort.PORT_AMQP_ACCEPT_BACKLOG))
+                .option(ChannelOption.SO_REUSEADDR, true)
+                .childOption(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED)
+                .childOption(ChannelOption.TCP_NODELAY, _port.isTcpNoDelay())
+                .childOption(ChannelOption.SO_SNDBUF, networkBufferSize)
+                .childOption(ChannelOption.SO_RCVBUF, networkBufferSize)
+                .childHandler(new ChannelInitializer<>()
+                {
+                    @Override
+                    protected void initChannel(final Channel channel)
+                    {
+                        channel.pipeline().addLast(new EpollConnection(channel));
+                    }
+                });
+
+        final ChannelFuture bindFuture = bootstrap.bind(address).awaitUninterruptibly();
+        if (!bindFuture.isSuccess())
+        {
+            shutdownGroups();
+            if (bindFuture.cause() instanceof BindException)
+            {
+                throw new PortBindFailureException(address);
+            }
+            throw new TransportException("Failed to start AMQP on port : " + _port, bindFuture.cause());
+        }
+        _serverChannel = bindFuture.channel();
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            if (_serverChannel != null)
+            {
+                _serverChannel.close().awaitUninterruptibly();
+            }
+        }
+        finally
+        {
+            shutdownGroups();
+        }
+    }
+
+    @Override
+    public int getAcceptingPort()
+    {
+        final Channel serverChannel = _serverChannel;
+        return serverChannel == null ? _port.getPort() : ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    @Override
+    public boolean updatesSSLContext()
+    {
+        return false;
+    }
+
+    private void shutdownGroups()
+    {
+        if (_acceptorGroup != null)
+        {
+            _acceptorGroup.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+        }
+        if (_ioGroup != null)
+        {
+            _ioGroup.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private class EpollConnection extends ChannelInboundHandlerAdapter
+            implements ServerNetworkConnection, ByteBufferSender
+    {
+        private final Channel _channel;
+        private final ConcurrentLinkedQueue<QpidByteBuffer> _buffers = new ConcurrentLinkedQueue<>();
+        private final AtomicLong _bufferedSize = new AtomicLong();
+
+        private MultiVersionProtocolEngine _protocolEngine;
+        private QpidByteBuffer _netInputBuffer;
+        private Iterator<Runnable> _pendingIterator;
+        private ScheduledFuture<?> _tickFuture;
+        private boolean _unexpectedByteBufferSizeReported;
+        private volatile boolean _closed;
+        private volatile long _maxReadIdleMillis;
+        private volatile long _maxWriteIdleMillis;
+
+        EpollConnection(final Channel channel)
+        {
+            _channel = channel;
+        }
+
+        @Override
+        public void channelActive(final ChannelHandlerContext ctx)
+        {
+            _protocolEngine = _factory.newProtocolEngine(_channel.remoteAddress());
+            if (_protocolEngine == null)
+            {
+                LOGGER.error("No Engine available.");
+                _closed = true;
+                _channel.close();
+                return;
+            }
+
+            _netInputBuffer = QpidByteBuffer.allocateDirect(_broker.getNetworkBufferSize());
+            _protocolEngine.setNetworkConnection(this);
+            _protocolEngine.setWorkListener(object -> _channel.eventLoop().execute(this::doWork));
+            scheduleTick();
+        }
+
+        @Override
+        public void channelRead(final ChannelHandlerContext ctx, final Object msg)
+        {
+            final ByteBuf data = (ByteBuf) msg;
+            try
+            {
+                if (_closed)
+                {
+                    return;
+                }
+                _protocolEngine.setIOThread(Thread.currentThread());
+                while (data.isReadable())
+                {
+                    final int length = Math.min(data.readableBytes(), _netInputBuffer.remaining());
+                    _netInputBuffer.put(data.nioBuffer(data.readerIndex(), length));
+                    data.skipBytes(length);
+
+                    _netInputBuffer.flip();
+                    _protocolEngine.received(_netInputBuffer);
+                    restoreNetInputBufferForRead();
+                }
+            }
+            catch (ConnectionScopedRuntimeException e)
+            {
+                LOGGER.info("Exception performing I/O for connection '{}' : {}", _channel.remoteAddress(), e.getMessage());
+                close();
+            }
+            finally
+            {
+                if (_protocolEngine != null)
+                {
+                    _protocolEngine.setIOThread(null);
+                }
+                data.release();
+            }
+        }
+
+        @Override
+        public void channelReadComplete(final ChannelHandlerContext ctx)
+        {
+            doWork();
+        }
+
+        @Override
+        public void channelWritabilityChanged(final ChannelHandlerContext ctx)
+        {
+            _channel.config().setAutoRead(_channel.isWritable());
+            doWork();
+        }
+
+        @Override
+        public void channelInactive(final ChannelHandlerContext ctx)
+        {
+            _closed = true;
+            if (_tickFuture != null)
+            {
+                _tickFuture.cancel(false);
+            }
+            QpidByteBuffer buffer;
+            while ((buffer = _buffers.poll()) != null)
+            {
+                buffer.dispose();
+            }
+            if (_protocolEngine != null)
+            {
+                _protocolEngine.closed();
+                _netInputBuffer.dispose();
+            }
+        }
+
+        @Override
+        public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause)
+        {
+            if (LOGGER.isDebugEnabled())
+            {
+                LOGGER.debug("Exception performing I/O for connection '{}'", _channel.remoteAddress(), cause);
+            }
+            else
+            {
+                LOGGER.info("Exception performing I/O for connection '{}' : {}",
+                            _channel.remoteAddress(), cause.getMessage());
+            }
+            _channel.close();
+        }
+
+        private void doWork()
+        {
+            if (_closed)
+            {
+                return;
+            }
+            _protocolEngine.clearWork();
+            try
+            {
+                final long currentTime = System.currentTimeMillis();
+                final Ticker ticker = _protocolEngine.getAggregateTicker();
+                if (ticker.getTimeToNextTick(currentTime) <= 0)
+                {
+                    ticker.tick(currentTime);
+                }
+
+                _protocolEngine.setIOThread(Thread.currentThread());
+                if (processPending())
+                {
+                    _pendingIterator = null;
+                }
+                doWrite();
+                _protocolEngine.setTransportBlockedForWriting(!_channel.isWritable());
+            }
+            catch (ConnectionScopedRuntimeException e)
+            {
+                LOGGER.info("Exception performing I/O for connection '{}' : {}", _channel.remoteAddress(), e.getMessage());
+                close();
+            }
+            finally
+            {
+                _protocolEngine.setIOThread(null);
+            }
+            scheduleTick();
+        }
+
+        /**
+         * Runs the pending work of the protocol engine until it is done or the channel stops accepting writes,
+         * in which case the work is resumed once the channel becomes writable again.
+         */
+        private boolean processPending()
+        {
+            if (_pendingIterator == null)
+            {
+                _pendingIterator = _protocolEngine.processPendingIterator();
+            }
+
+            final int networkBufferSize = _port.getNetworkBufferSize();
+            while (_pendingIterator.hasNext())
+            {
+                if (!_channel.isWritable())
+                {
+                    return false;
+                }
+                _pendingIterator.next().run();
+                if (_bufferedSize.get() >= networkBufferSize)
+                {
+                    doWrite();
+                }
+            }
+            return true;
+        }
+
+        private void doWrite()
+        {
+            if (_buffers.isEmpty())
+            {
+                return;
+            }
+
+            int size = 0;
+            final List<QpidByteBuffer> toBeWritten = new ArrayList<>(_buffers.size());
+            QpidByteBuffer buffer;
+            while ((buffer = _buffers.poll()) != null)
+            {
+                size += buffer.remaining();
+                toBeWritten.add(buffer);
+            }
+            _bufferedSize.addAndGet(-size);
+
+            final ByteBuf data = _channel.alloc().directBuffer(size);
+            for (final QpidByteBuffer tmp : toBeWritten)
+            {
+                final int remaining = tmp.remaining();
+                tmp.copyTo(data.nioBuffer(data.writerIndex(), remaining));
+                data.writerIndex(data.writerIndex() + remaining);
+                tmp.dispose();
+            }
+
+            _channel.writeAndFlush(data).addListener((ChannelFutureListener) future ->
+            {
+                if (!future.isSuccess())
+                {
+                    LOGGER.info("Exception on write: {}", future.cause().getMessage());
+                    future.channel().close();
+                }
+            });
+        }
+
+        private void scheduleTick()
+        {
+            if (_closed)
+            {
+                return;
+            }
+            if (_tickFuture != null)
+            {
+                _tickFuture.cancel(false);
+            }
+            final long timeToNextTick = _protocolEngine.getAggregateTicker().getTimeToNextTick(System.currentTimeMillis());
+            _tickFuture = _channel.eventLoop().schedule(this::doWork, Math.max(timeToNextTick, 0), TimeUnit.MILLISECONDS);
+        }
+
+        private void restoreNetInputBufferForRead()
+        {
+            try (QpidByteBuffer oldNetInputBuffer = _netInputBuffer)
+            {
+                final int unprocessedDataLength = _netInputBuffer.remaining();
+
+                _netInputBuffer.limit(_netInputBuffer.capacity());
+                _netInputBuffer = oldNetInputBuffer.slice();
+                _netInputBuffer.limit(unprocessedDataLength);
+            }
+            if (_netInputBuffer.limit() != _netInputBuffer.capacity())
+            {
+                _netInputBuffer.position(_netInputBuffer.limit());
+                _netInputBuffer.limit(_netInputBuffer.capacity());
+            }
+            else
+            {
+                try (QpidByteBuffer currentBuffer = _netInputBuffer)
+                {
+                    final int newBufSize;
+                    if (currentBuffer.capacity() < _broker.getNetworkBufferSize())
+                    {
+                        newBufSize = _broker.getNetworkBufferSize();
+                    }
+                    else
+                    {
+                        newBufSize = currentBuffer.capacity() + _broker.getNetworkBufferSize();
+                        reportUnexpectedByteBufferSizeUsage();
+                    }
+
+                    _netInputBuffer = QpidByteBuffer.allocateDirect(newBufSize);
+                    _netInputBuffer.put(currentBuffer);
+                }
+            }
+        }
+
+        private void reportUnexpectedByteBufferSizeUsage()
+        {
+            if (!_unexpectedByteBufferSizeReported)
+            {
+                LOGGER.info("At least one frame unexpectedly does not fit into default byte buffer size ({}B) on a connection {}.",
+                            _broker.getNetworkBufferSize(), this);
+                _unexpectedByteBufferSizeReported = true;
+            }
+        }
+
+        @Override
+        public ByteBufferSender getSender()
+        {
+            return this;
+        }
+
+        @Override
+        public void start()
+        {
+        }
+
+        @Override
+        public boolean isDirectBufferPreferred()
+        {
+            return true;
+        }
+
+        @Override
+        public void send(final QpidByteBuffer msg)
+        {
+            if (msg.remaining() > 0)
+            {
+                _bufferedSize.addAndGet(msg.remaining());
+                _buffers.add(msg.duplicate());
+            }
+            msg.position(msg.limit());
+        }
+
+        @Override
+        public void flush()
+        {
+        }
+
+        @Override
+        public void close()
+        {
+            if (_channel.eventLoop().inEventLoop())
+            {
+                closeAfterFinalWrite();
+            }
+            else
+            {
+                _channel.eventLoop().execute(this::closeAfterFinalWrite);
+            }
+        }
+
+        private void closeAfterFinalWrite()
+        {
+            if (!_closed)
+            {
+                _closed = true;
+                doWrite();
+                _channel.writeAndFlush(Unpooled.EMPTY_BUFFER).addListener(ChannelFutureListener.CLOSE);
+            }
+        }
+
+        @Override
+        public SocketAddress getRemoteAddress()
+        {
+            return _channel.remoteAddress();
+        }
+
+        @Override
+        public SocketAddress getLocalAddress()
+        {
+            return _channel.localAddress();
+        }
+
+        @Override
+        public void setMaxWriteIdleMillis(final long millis)
+        {
+            _maxWriteIdleMillis = millis;
+        }
+
+        @Override
+        public void setMaxReadIdleMillis(final long millis)
+        {
+            _maxReadIdleMillis = millis;
+        }
+
+        @Override
+        public Principal getPeerPrincipal()
+        {
+            return null;
+        }
+
+        @Override
+        public Certificate getPeerCertificate()
+        {
+            return null;
+        }
+
+        @Override
+        public long getMaxReadIdleMillis()
+        {
+            return _maxReadIdleMillis;
+        }
+
+        @Override
+        public long getMaxWriteIdleMillis()
+        {
+            return _maxWriteIdleMillis;
+        }
+
+        @Override
+        public String getTransportInfo()
+        {
+            return "";
+        }
+
+        @Override
+        public long getScheduledTime()
+        {
+            return 0;
+        }
+
+        @Override
+        public void addSchedulingDelayNotificationListeners(final SchedulingDelayNotificationListener listener)
+        {
+        }
+
+        @Override
+        public void removeSchedulingDelayNotificationListeners(final SchedulingDelayNotificationListener listener)
+        {
+        }
+
+        @Override
+        public String getSelectedHost()
+        {
+            return null;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "EpollConnection[" + _channel.remoteAddress() + "]";
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport.epoll;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import io.netty.channel.epoll.Epoll;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.model.Transport;
+import org.apache.qpid.server.plugin.PluggableService;
+import org.apache.qpid.server.plugin.TransportProviderFactory;
+import org.apache.qpid.server.transport.TransportProvider;
+
+/**
+ * Provides the native epoll transport for plain TCP ports whose context sets
+ * {@link org.apache.qpid.server.model.port.AmqpPort#PORT_AMQP_TRANSPORT_PROVIDER} to {@value #TYPE}.
+ */
+@PluggableService
+public class EpollTransportProviderFactory implements TransportProviderFactory
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(EpollTransportProviderFactory.class);
+
+    private static final String TYPE = "Epoll";
+
+    @Override
+    public Set<Set<Transport>> getSupportedTransports()
+    {
+        return Set.of(EnumSet.of(Transport.TCP));
+    }
+
+    @Override
+    public TransportProvider getTransportProvider(final Set<Transport> transports)
+    {
+        if (!Epoll.isAvailable())
+        {
+            LOGGER.debug("Native epoll transport is not available", Epoll.unavailabilityCause());
+            return null;
+        }
+        return new EpollTransportProvider();
+    }
+
+    @Override
+    public String getType()
+    {
+        return TYPE;
+    }
+}
@@ -30,13 +30,16 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -49,8 +52,10 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import org.slf4j.Logger;
 
@@ -84,6 +89,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     private static final String QUEUE_ENTRY_TABLE_NAME_SUFFIX = "QPID_QUEUE_ENTRIES";
     private static final String META_DATA_TABLE_NAME_SUFFIX = "QPID_MESSAGE_METADATA";
     private static final String MESSAGE_CONTENT_TABLE_NAME_SUFFIX = "QPID_MESSAGE_CONTENT";
+    private static final String MESSAGE_CONTENT_CHUNKS_TABLE_NAME_SUFFIX = "QPID_MESSAGE_CONTENT_CHUNKS";
     private static final String XID_TABLE_NAME_SUFFIX = "QPID_XIDS";
     private static final String XID_ACTIONS_TABLE_NAME_SUFFIX = "QPID_XID_ACTIONS";
 
@@ -95,7 +101,21 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     private static final String EXECUTOR_SHUTDOWN_TIMEOUT = "qpid.jdbcstore.executorShutdownTimeoutInSeconds";
     private static final int EXECUTOR_SHUTDOWN_TIMEOUT_DEFAULT = 5;
 
-    private static final int DB_VERSION = 8;
+    static final String GROUP_COMMIT_ENABLED = "qpid.jdbcstore.groupCommitEnabled";
+    private static final boolean GROUP_COMMIT_ENABLED_DEFAULT = false;
+    static final String GROUP_COMMIT_BATCH_SIZE = "qpid.jdbcstore.groupCommitBatchSize";
+    private static final int GROUP_COMMIT_BATCH_SIZE_DEFAULT = 256;
+    static final String GROUP_COMMIT_LINGER_TIME = "qpid.jdbcstore.groupCommitLingerTimeInMillis";
+    private static final long GROUP_COMMIT_LINGER_TIME_DEFAULT = 2L;
+
+    /**
+     * When positive, message content is written as a sequence of rows of at most this many bytes rather than as
+     * a single BLOB, allowing content to be read back piecemeal.
+     */
+    static final String CONTENT_CHUNK_SIZE = "qpid.jdbcstore.contentChunkSize";
+    private static final int CONTENT_CHUNK_SIZE_DEFAULT = 0;
+
+    private static final int DB_VERSION = 9;
 
     private final AtomicLong _messageId = new AtomicLong(0);
 
@@ -120,6 +140,8 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     private ScheduledThreadPoolExecutor _executor;
     private volatile int _inClauseMaxSize;
     private volatile int _executorShutdownTimeOut;
+    private volatile JDBCGroupCommitter<GroupCommitJob> _groupCommitter;
+    private volatile int _contentChunkSize;
 
     public AbstractJDBCMessageStore()
     {
@@ -131,6 +153,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         try (Connection conn = newAutoCommitConnection())
         {
             setMaxMessageId(conn, "SELECT max(message_id) FROM " + getMessageContentTableName(), 1);
+            setMaxMessageId(conn, "SELECT max(message_id) FROM " + getMessageContentChunksTableName(), 1);
             setMaxMessageId(conn, "SELECT max(message_id) FROM " + getMetaDataTableName(), 1);
             setMaxMessageId(conn, "SELECT queue_id, max(message_id) FROM " + getQueueEntryTableName()
                                   + " GROUP BY queue_id ", 2);
@@ -194,6 +217,8 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
                             upgradeFromV6();
                         case 7:
                             upgradeFromV7();
+                        case 8:
+                            upgradeFromV8();
                         case DB_VERSION:
                             return;
                         default:
@@ -205,6 +230,12 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
 
     }
 
+    private void upgradeFromV8() throws SQLException
+    {
+        // the content chunks table is created on open
+        updateDbVersion(9);
+    }
+
     private void upgradeFromV7() throws SQLException
     {
         updateDbVersion(8);
@@ -250,11 +281,35 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         _executor.prestartAllCoreThreads();
 
         _inClauseMaxSize = getContextValue(Integer.class, IN_CLAUSE_MAX_SIZE, IN_CLAUSE_MAX_SIZE_DEFAULT);
+        _contentChunkSize = getContextValue(Integer.class, CONTENT_CHUNK_SIZE, CONTENT_CHUNK_SIZE_DEFAULT);
+
+        if (getContextValue(Boolean.class, GROUP_COMMIT_ENABLED, GROUP_COMMIT_ENABLED_DEFAULT))
+        {
+            final int batchSize = getContextValue(Integer.class, GROUP_COMMIT_BATCH_SIZE, GROUP_COMMIT_BATCH_SIZE_DEFAULT);
+            final long lingerTime = getContextValue(Long.class, GROUP_COMMIT_LINGER_TIME, GROUP_COMMIT_LINGER_TIME_DEFAULT);
+            _groupCommitter = new JDBCGroupCommitter<>(parent.getName(), batchSize, lingerTime, this::writeGroup);
+            _groupCommitter.start();
+        }
+    }
+
+    /**
+     * Writes the transactions queued for group commit and stops the commit thread.  Stores must call this
+     * before releasing the resources needed to obtain connections.
+     */
+    protected void stopGroupCommitter()
+    {
+        final JDBCGroupCommitter<GroupCommitJob> groupCommitter = _groupCommitter;
+        if (groupCommitter != null)
+        {
+            _groupCommitter = null;
+            groupCommitter.stop();
+        }
     }
 
     @Override
     public void closeMessageStore()
     {
+        stopGroupCommitter();
         for (StoredJDBCMessage<?> message : _messages)
         {
             message.clear(true);
@@ -302,6 +357,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             createQueueEntryTable(conn);
             createMetaDataTable(conn);
             createMessageContentTable(conn);
+            createMessageContentChunksTable(conn);
             createXidTable(conn);
             createXidActionTable(conn);
         }
@@ -381,6 +437,24 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
 
     }
 
+    private void createMessageContentChunksTable(final Connection conn) throws SQLException
+    {
+        if(!tableExists(getMessageContentChunksTableName(), conn))
+        {
+            try (Statement stmt = conn.createStatement())
+            {
+                stmt.execute("CREATE TABLE "
+                             + getMessageContentChunksTableName()
+                             + " ( message_id "
+                             + getSqlBigIntType()
+                             + " not null, chunk_offset int not null, content "
+                             + getSqlBlobType()
+                             + ", PRIMARY KEY (message_id, chunk_offset) ) "
+                             + getSqlBlobStorage("content"));
+            }
+        }
+    }
+
     private void createXidTable(final Connection conn) throws SQLException
     {
         if(!tableExists(getXidTableName(), conn))
@@ -604,6 +678,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         try (Statement stmt = conn.createStatement())
         {
             stmt.executeUpdate("DELETE FROM " + getMessageContentTableName() + " WHERE message_id IN " + inpart);
+            stmt.executeUpdate("DELETE FROM " + getMessageContentChunksTableName() + " WHERE message_id IN " + inpart);
             getLogger().debug("Deleted content for messages {}", messageIds);
         }
         conn.commit();
@@ -788,7 +863,29 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     {
         Connection conn = connWrapper.getConnection();
 
+        try
+        {
+            for(Transaction.EnqueueRecord enqueue : enqueues)
+            {
+                StoredMessage storedMessage = enqueue.getMessage().getStoredMessage();
+                if(storedMessage instanceof StoredJDBCMessage)
+                {
+                    ((StoredJDBCMessage) storedMessage).store(conn);
+                }
+            }
+        }
+        catch (SQLException e)
+        {
+            getLogger().error("Failed to record xid", e);
+            throw new StoreException("Error writing xid ", e);
+        }
 
+        return insertXid(conn, format, globalId, branchId, enqueues, dequeues);
+    }
+
+    private List<Runnable> insertXid(Connection conn, long format, byte[] globalId, byte[] branchId,
+                                     Transaction.EnqueueRecord[] enqueues, Transaction.DequeueRecord[] dequeues) throws StoreException
+    {
         try
         {
 
@@ -801,15 +898,6 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
                 stmt.executeUpdate();
             }
 
-            for(Transaction.EnqueueRecord enqueue : enqueues)
-            {
-                StoredMessage storedMessage = enqueue.getMessage().getStoredMessage();
-                if(storedMessage instanceof StoredJDBCMessage)
-                {
-                    ((StoredJDBCMessage) storedMessage).store(conn);
-                }
-            }
-
             try(PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + getXidActionsTableName()
                                                                + " ( format, global_id, branch_id, action_type, " +
                                                                "queue_id, message_id ) values (?,?,?,?,?,?) "))
@@ -876,6 +964,11 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         return _tablePrefix + MESSAGE_CONTENT_TABLE_NAME_SUFFIX;
     }
 
+    private String getMessageContentChunksTableName()
+    {
+        return _tablePrefix + MESSAGE_CONTENT_CHUNKS_TABLE_NAME_SUFFIX;
+    }
+
     private String getXidTableName()
     {
         return _tablePrefix + XID_TABLE_NAME_SUFFIX;
@@ -979,17 +1072,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             stmt.setLong(1, messageId);
 
-            final int bodySize = 1 + metaData.getStorableSize();
-            byte[] underlying = new byte[bodySize];
-            underlying[0] = (byte) metaData.getType().ordinal();
-            try (QpidByteBuffer buf = QpidByteBuffer.wrap(underlying))
-            {
-                buf.position(1);
-                try (QpidByteBuffer bufSlice = buf.slice())
-                {
-                    metaData.writeToBuffer(buf);
-                }
-            }
+            final byte[] underlying = serializeMetaData(metaData);
             try(ByteArrayInputStream bis = new ByteArrayInputStream(underlying))
             {
                 stmt.setBinaryStream(2, bis, underlying.length);
@@ -1009,6 +1092,168 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     }
 
 
+    private static byte[] serializeMetaData(final StorableMessageMetaData metaData)
+    {
+        final int bodySize = 1 + metaData.getStorableSize();
+        byte[] underlying = new byte[bodySize];
+        underlying[0] = (byte) metaData.getType().ordinal();
+        try (QpidByteBuffer buf = QpidByteBuffer.wrap(underlying))
+        {
+            buf.position(1);
+            try (QpidByteBuffer bufSlice = buf.slice())
+            {
+                metaData.writeToBuffer(buf);
+            }
+        }
+        return underlying;
+    }
+
+    private void writeGroup(final List<GroupCommitJob> jobs)
+    {
+        final Set<StoredJDBCMessage<?>> messages = new LinkedHashSet<>();
+        for (GroupCommitJob job : jobs)
+        {
+            messages.addAll(job._messages);
+        }
+
+        final List<StoredJDBCMessage<?>> storedMessages = new ArrayList<>(messages.size());
+        try (Connection conn = newConnection())
+        {
+            try
+            {
+                storeMessages(conn, messages, storedMessages);
+                writeQueueEntries(conn, jobs);
+                for (GroupCommitJob job : jobs)
+                {
+                    // post commit actions of a previous, rolled back, attempt to write the job are discarded
+                    job._postCommitActions.clear();
+                    for (Action<Connection> action : job._actions)
+                    {
+                        action.performAction(conn);
+                    }
+                }
+                conn.commit();
+            }
+            catch (SQLException | RuntimeException e)
+            {
+                rollbackQuietly(conn);
+                throw e;
+            }
+        }
+        catch (SQLException e)
+        {
+            throw new StoreException("Error committing group of " + jobs.size() + " transactions: " + e.getMessage(), e);
+        }
+
+        for (StoredJDBCMessage<?> message : storedMessages)
+        {
+            message.markStored();
+        }
+        getLogger().debug("Group commit of {} transactions completed", jobs.size());
+    }
+
+    private void rollbackQuietly(final Connection conn)
+    {
+        try
+        {
+            conn.rollback();
+        }
+        catch (SQLException e)
+        {
+            getLogger().debug("Failed to rollback group commit transaction", e);
+        }
+    }
+
+    private void storeMessages(final Connection conn,
+                               final Collection<StoredJDBCMessage<?>> messages,
+                               final List<StoredJDBCMessage<?>> storedMessages) throws SQLException
+    {
+        if (messages.isEmpty())
+        {
+            return;
+        }
+
+        final List<AutoCloseable> resources = new ArrayList<>();
+        try (PreparedStatement metaDataStmt = conn.prepareStatement("INSERT INTO " + getMetaDataTableName()
+                                                                    + "( message_id , meta_data ) values (?, ?)");
+             PreparedStatement contentStmt = conn.prepareStatement(getContentInsertSql()))
+        {
+            for (StoredJDBCMessage<?> message : messages)
+            {
+                if (message.addToBatch(metaDataStmt, contentStmt, resources))
+                {
+                    storedMessages.add(message);
+                }
+            }
+            if (!storedMessages.isEmpty())
+            {
+                metaDataStmt.executeBatch();
+                contentStmt.executeBatch();
+            }
+        }
+        finally
+        {
+            closeResources(resources);
+        }
+    }
+
+    private void writeQueueEntries(final Connection conn, final List<GroupCommitJob> jobs) throws SQLException
+    {
+        boolean hasEnqueues = false;
+        boolean hasDequeues = false;
+        for (GroupCommitJob job : jobs)
+        {
+            hasEnqueues |= !job._enqueues.isEmpty();
+            hasDequeues |= !job._dequeues.isEmpty();
+        }
+
+        if (hasEnqueues)
+        {
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + getQueueEntryTableName()
+                                                                + " (queue_id, message_id) values (?,?)"))
+            {
+                for (GroupCommitJob job : jobs)
+                {
+                    for (MessageEnqueueRecord record : job._enqueues)
+                    {
+                        stmt.setString(1, record.getQueueId().toString());
+                        stmt.setLong(2, record.getMessageNumber());
+                        stmt.addBatch();
+                    }
+                }
+                stmt.executeBatch();
+            }
+        }
+
+        if (hasDequeues)
+        {
+            final List<MessageEnqueueRecord> dequeues = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + getQueueEntryTableName()
+                                                                + " WHERE queue_id = ? AND message_id =?"))
+            {
+                for (GroupCommitJob job : jobs)
+                {
+                    for (MessageEnqueueRecord record : job._dequeues)
+                    {
+                        stmt.setString(1, record.getQueueId().toString());
+                        stmt.setLong(2, record.getMessageNumber());
+                        stmt.addBatch();
+                        dequeues.add(record);
+                    }
+                }
+                final int[] results = stmt.executeBatch();
+                for (int i = 0; i < results.length; i++)
+                {
+                    if (results[i] != 1 && results[i] != Statement.SUCCESS_NO_INFO)
+                    {
+                        throw new StoreException("Unable to find message with id " + dequeues.get(i).getMessageNumber()
+                                                 + " on queue with id " + dequeues.get(i).getQueueId());
+                    }
+                }
+            }
+        }
+    }
+
     private static class RecordImpl implements Transaction.EnqueueRecord, Transaction.DequeueRecord, TransactionLogResource, EnqueueableMessage
     {
 
@@ -1136,20 +1381,91 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     {
         getLogger().debug("Adding content for message {}", messageId);
 
-        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + getMessageContentTableName()
-                                                            + "( message_id, content ) values (?, ?)");
-             QpidByteBuffer bodyDuplicate = contentBody.duplicate();
-             InputStream inputStream = bodyDuplicate.asInputStream())
+        final List<AutoCloseable> resources = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(getContentInsertSql()))
         {
-            stmt.setLong(1, messageId);
-            stmt.setBinaryStream(2, inputStream, contentBody.remaining());
-            stmt.executeUpdate();
+            addContentToBatch(stmt, messageId, contentBody, resources);
+            stmt.executeBatch();
         }
-        catch (SQLException | IOException e)
+        catch (SQLException e)
         {
             JdbcUtils.closeConnection(conn, getLogger());
             throw new StoreException("Error adding content for message " + messageId + ": " + e.getMessage(), e);
         }
+        finally
+        {
+            closeResources(resources);
+        }
+    }
+
+    private String getContentInsertSql()
+    {
+        if (_contentChunkSize > 0)
+        {
+            return "INSERT INTO " + getMessageContentChunksTableName()
+                   + "( message_id, chunk_offset, content ) values (?, ?, ?)";
+        }
+        else
+        {
+            return "INSERT INTO " + getMessageContentTableName() + "( message_id, content ) values (?, ?)";
+        }
+    }
+
+    /**
+     * Adds the rows holding the given content to a batch of the statement returned by {@link #getContentInsertSql()}.
+     * The streams feeding the rows are added to {@code resources} and must be closed by the caller once the batch
+     * has been executed.
+     */
+    private void addContentToBatch(final PreparedStatement stmt,
+                                   final long messageId,
+                                   final QpidByteBuffer content,
+                                   final List<AutoCloseable> resources) throws SQLException
+    {
+        final int chunkSize = _contentChunkSize;
+        final int contentSize = content.remaining();
+        if (chunkSize <= 0)
+        {
+            final QpidByteBuffer contentDuplicate = content.duplicate();
+            resources.add(contentDuplicate);
+            final InputStream inputStream = contentDuplicate.asInputStream();
+            resources.add(inputStream);
+            stmt.setLong(1, messageId);
+            stmt.setBinaryStream(2, inputStream, contentSize);
+            stmt.addBatch();
+        }
+        else
+        {
+            int chunkOffset = 0;
+            do
+            {
+                final int length = Math.min(chunkSize, contentSize - chunkOffset);
+                final QpidByteBuffer chunk = content.view(chunkOffset, length);
+                resources.add(chunk);
+                final InputStream inputStream = chunk.asInputStream();
+                resources.add(inputStream);
+                stmt.setLong(1, messageId);
+                stmt.setInt(2, chunkOffset);
+                stmt.setBinaryStream(3, inputStream, length);
+                stmt.addBatch();
+                chunkOffset += length;
+            }
+            while (chunkOffset < contentSize);
+        }
+    }
+
+    private void closeResources(final List<AutoCloseable> resources)
+    {
+        for (AutoCloseable resource : Lists.reverse(resources))
+        {
+            try
+            {
+                resource.close();
+            }
+            catch (Exception e)
+            {
+                getLogger().debug("Failed to close content stream", e);
+            }
+        }
     }
 
     QpidByteBuffer getAllContent(long messageId) throws StoreException
@@ -1170,11 +1486,33 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
                     return QpidByteBuffer.asQpidByteBuffer(blobAsInputStream);
                 }
             }
-            else
+
+            final QpidByteBuffer content = getContentChunks(conn, messageId, 0, Integer.MAX_VALUE);
+            if (content == null)
             {
                 throw new StoreException("Unable to find message with id " + messageId);
             }
+            return content;
+        }
+        catch (SQLException | IOException e)
+        {
+            throw new StoreException("Error retrieving content for message " + messageId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the given range of the content of a message stored in chunks, fetching only the chunks overlapping
+     * the range.
+     *
+     * @return the content, or null if the message content is not stored in chunks
+     */
+    QpidByteBuffer getContentRange(long messageId, int offset, int length) throws StoreException
+    {
+        getLogger().debug("Message Id: {} Getting content body from offset {} length {}", messageId, offset, length);
 
+        try (Connection conn = newAutoCommitConnection())
+        {
+            return getContentChunks(conn, messageId, offset, length);
         }
         catch (SQLException | IOException e)
         {
@@ -1182,6 +1520,59 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         }
     }
 
+    private QpidByteBuffer getContentChunks(final Connection conn,
+                                            final long messageId,
+                                            final int offset,
+                                            final int length) throws SQLException, IOException
+    {
+        final long end = (long) offset + length;
+        final List<QpidByteBuffer> chunks = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT chunk_offset, content FROM "
+                                                            + getMessageContentChunksTableName()
+                                                            + " WHERE message_id = ? AND chunk_offset < ?"
+                                                            + " AND chunk_offset >= (SELECT max(chunk_offset) FROM "
+                                                            + getMessageContentChunksTableName()
+                                                            + " WHERE message_id = ? AND chunk_offset <= ?)"
+                                                            + " ORDER BY chunk_offset"))
+        {
+            stmt.setLong(1, messageId);
+            stmt.setLong(2, end);
+            stmt.setLong(3, messageId);
+            stmt.setInt(4, offset);
+            boolean found = false;
+            try (ResultSet rs = stmt.executeQuery())
+            {
+                long remaining = length;
+                while (rs.next())
+                {
+                    found = true;
+                    final int chunkOffset = rs.getInt(1);
+                    if (remaining > 0)
+                    {
+                        try (InputStream chunkAsInputStream = getBlobAsInputStream(rs, 2))
+                        {
+                            ByteStreams.skipFully(chunkAsInputStream, Math.max(0, offset - chunkOffset));
+                            final QpidByteBuffer chunk =
+                                    QpidByteBuffer.asQpidByteBuffer(ByteStreams.limit(chunkAsInputStream, remaining));
+                            chunks.add(chunk);
+                            remaining -= chunk.remaining();
+                        }
+                    }
+                }
+            }
+
+            if (!found)
+            {
+                return null;
+            }
+            return QpidByteBuffer.concatenate(chunks);
+        }
+        finally
+        {
+            chunks.forEach(QpidByteBuffer::close);
+        }
+    }
+
     @Override
     public boolean isPersistent()
     {
@@ -1209,6 +1600,8 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     protected class JDBCTransaction implements Transaction
     {
         private final ConnectionWrapper _connWrapper;
+        private final JDBCGroupCommitter<GroupCommitJob> _groupCommitter;
+        private GroupCommitJob _groupCommitJob;
         private int _storeSizeIncrease;
         private final List<Runnable> _preCommitActions = new ArrayList<>();
         private final List<Runnable> _postCommitActions = new ArrayList<>();
@@ -1216,6 +1609,15 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
 
         protected JDBCTransaction()
         {
+            _groupCommitter = AbstractJDBCMessageStore.this._groupCommitter;
+            if (_groupCommitter != null)
+            {
+                // the work is written by the group committer's connection on commit
+                _connWrapper = null;
+                _groupCommitJob = new GroupCommitJob();
+                return;
+            }
+
             try
             {
                 _connWrapper = new ConnectionWrapper(newConnection());
@@ -1234,6 +1636,17 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             checkMessageStoreOpen();
 
             final StoredMessage storedMessage = message.getStoredMessage();
+            if (_groupCommitJob != null)
+            {
+                if (storedMessage instanceof StoredJDBCMessage)
+                {
+                    _groupCommitJob._messages.add((StoredJDBCMessage<?>) storedMessage);
+                    _storeSizeIncrease += storedMessage.getContentSize();
+                }
+                final JDBCEnqueueRecord record = new JDBCEnqueueRecord(queue.getId(), message.getMessageNumber());
+                _groupCommitJob._enqueues.add(record);
+                return record;
+            }
             if(storedMessage instanceof StoredJDBCMessage)
             {
                 _preCommitActions.add(() -> {
@@ -1258,6 +1671,11 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             checkMessageStoreOpen();
 
+            if (_groupCommitJob != null)
+            {
+                _groupCommitJob._dequeues.add(enqueueRecord);
+                return;
+            }
             AbstractJDBCMessageStore.this.dequeueMessage(_connWrapper,
                                                          enqueueRecord.getQueueId(),
                                                          enqueueRecord.getMessageNumber());
@@ -1267,6 +1685,13 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         public void commitTran()
         {
             checkMessageStoreOpen();
+            if (_groupCommitJob != null)
+            {
+                awaitGroupCommit(submitGroupCommitJob());
+                storedSizeChange(_storeSizeIncrease);
+                doPostCommitActions();
+                return;
+            }
             doPreCommitActions();
             AbstractJDBCMessageStore.this.commitTran(_connWrapper);
             storedSizeChange(_storeSizeIncrease);
@@ -1277,6 +1702,14 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         public <X> ListenableFuture<X> commitTranAsync(final X val)
         {
             checkMessageStoreOpen();
+            if (_groupCommitJob != null)
+            {
+                final ListenableFuture<X> futureResult =
+                        Futures.transform(submitGroupCommitJob(), result -> val, MoreExecutors.directExecutor());
+                storedSizeChange(_storeSizeIncrease);
+                doPostCommitActions();
+                return futureResult;
+            }
             doPreCommitActions();
             ListenableFuture<X> futureResult = AbstractJDBCMessageStore.this.commitTranAsync(_connWrapper, val);
             storedSizeChange(_storeSizeIncrease);
@@ -1284,6 +1717,35 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             return futureResult;
         }
 
+        private ListenableFuture<Void> submitGroupCommitJob()
+        {
+            final GroupCommitJob job = _groupCommitJob;
+            _groupCommitJob = new GroupCommitJob();
+            _groupCommitter.commit(job);
+            return job._future;
+        }
+
+        private void awaitGroupCommit(final ListenableFuture<Void> future)
+        {
+            try
+            {
+                future.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new StoreException("Interrupted whilst waiting for group commit", e);
+            }
+            catch (ExecutionException e)
+            {
+                if (e.getCause() instanceof RuntimeException)
+                {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new StoreException("Group commit failed", e.getCause());
+            }
+        }
+
         private void doPreCommitActions()
         {
             for(Runnable action : _preCommitActions)
@@ -1311,6 +1773,11 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         public void abortTran()
         {
             checkMessageStoreOpen();
+            if (_groupCommitJob != null)
+            {
+                _groupCommitJob = new GroupCommitJob();
+                return;
+            }
             _preCommitActions.clear();
             _messagesToEnqueue.clear();
             AbstractJDBCMessageStore.this.abortTran(_connWrapper);
@@ -1321,6 +1788,15 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             checkMessageStoreOpen();
 
+            if (_groupCommitJob != null)
+            {
+                _groupCommitJob._actions.add(conn -> AbstractJDBCMessageStore.this.removeXid(new ConnectionWrapper(conn),
+                                                                                            record.getFormat(),
+                                                                                            record.getGlobalId(),
+                                                                                            record.getBranchId()));
+                return;
+            }
+
             AbstractJDBCMessageStore.this.removeXid(_connWrapper,
                                                     record.getFormat(),
                                                     record.getGlobalId(),
@@ -1336,6 +1812,27 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             checkMessageStoreOpen();
 
+            if (_groupCommitJob != null)
+            {
+                // the enqueued messages are written with the rest of the group and only marked as stored once the
+                // group is committed
+                final GroupCommitJob job = _groupCommitJob;
+                if (enqueues != null)
+                {
+                    for (EnqueueRecord enqueue : enqueues)
+                    {
+                        final StoredMessage<?> storedMessage = enqueue.getMessage().getStoredMessage();
+                        if (storedMessage instanceof StoredJDBCMessage)
+                        {
+                            job._messages.add((StoredJDBCMessage<?>) storedMessage);
+                            _storeSizeIncrease += storedMessage.getContentSize();
+                        }
+                    }
+                }
+                job._actions.add(conn -> job._postCommitActions.addAll(
+                        AbstractJDBCMessageStore.this.insertXid(conn, format, globalId, branchId, enqueues, dequeues)));
+                return new JDBCStoredXidRecord(format, globalId, branchId);
+            }
             _postCommitActions.addAll(AbstractJDBCMessageStore.this.recordXid(_connWrapper, format, globalId, branchId, enqueues, dequeues));
             return new JDBCStoredXidRecord(format, globalId, branchId);
         }
@@ -1610,6 +2107,17 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         @Override
         public synchronized QpidByteBuffer getContent(int offset, int length)
         {
+            if (isPartialContentReadable(offset, length))
+            {
+                // read the chunks covering the range without caching the content in memory
+                checkMessageStoreOpen();
+                final QpidByteBuffer content = AbstractJDBCMessageStore.this.getContentRange(_messageId, offset, length);
+                if (content != null)
+                {
+                    return content;
+                }
+            }
+
             QpidByteBuffer contentAsByteBuffer = getContentAsByteBuffer();
             if (length == Integer.MAX_VALUE)
             {
@@ -1618,6 +2126,18 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             return contentAsByteBuffer.view(offset, length);
         }
 
+        private boolean isPartialContentReadable(final int offset, final int length)
+        {
+            return _contentChunkSize > 0
+                   && _messageDataRef != null
+                   && _messageDataRef.getData() == null
+                   && stored()
+                   && offset >= 0
+                   && offset < _contentSize
+                   && length > 0
+                   && (offset > 0 || length < _contentSize);
+        }
+
         @Override
         public int getContentSize()
         {
@@ -1646,6 +2166,38 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             }
         }
 
+        synchronized boolean addToBatch(final PreparedStatement metaDataStmt,
+                                        final PreparedStatement contentStmt,
+                                        final List<AutoCloseable> resources) throws SQLException
+        {
+            if (_messageDataRef == null || stored())
+            {
+                return false;
+            }
+
+            final byte[] metaData = serializeMetaData(_messageDataRef.getMetaData());
+            metaDataStmt.setLong(1, _messageId);
+            metaDataStmt.setBinaryStream(2, new ByteArrayInputStream(metaData), metaData.length);
+            metaDataStmt.addBatch();
+
+            addContentToBatch(contentStmt,
+                              _messageId,
+                              _messageDataRef.getData() == null
+                                      ? QpidByteBuffer.emptyQpidByteBuffer()
+                                      : _messageDataRef.getData(),
+                              resources);
+            return true;
+        }
+
+        synchronized void markStored()
+        {
+            if (_messageDataRef != null)
+            {
+                getLogger().debug("Stored message {} to store", _messageId);
+                _messageDataRef.setSoft();
+            }
+        }
+
         synchronized ListenableFuture<Void> flushToStore()
         {
             if (_messageDataRef != null)
@@ -2039,6 +2591,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         return Arrays.asList(getDbVersionTableName(),
                              getMetaDataTableName(),
                              getMessageContentTableName(),
+                             getMessageContentChunksTableName(),
                              getQueueEntryTableName(),
                              getXidTableName(),
                              getXidActionsTableName());
@@ -2059,6 +2612,33 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         }
     }
 
+    private static final class GroupCommitJob implements JDBCGroupCommitter.Job
+    {
+        private final List<StoredJDBCMessage<?>> _messages = new ArrayList<>();
+        private final List<MessageEnqueueRecord> _enqueues = new ArrayList<>();
+        private final List<MessageEnqueueRecord> _dequeues = new ArrayList<>();
+        private final List<Action<Connection>> _actions = new ArrayList<>();
+        private final List<Runnable> _postCommitActions = new ArrayList<>();
+        private final SettableFuture<Void> _future = SettableFuture.create();
+
+        @Override
+        public void complete()
+        {
+            for (Runnable action : _postCommitActions)
+            {
+                action.run();
+            }
+            _postCommitActions.clear();
+            _future.set(null);
+        }
+
+        @Override
+        public void abort(final RuntimeException e)
+        {
+            _future.setException(e);
+        }
+    }
+
     private static class JDBCEnqueueRecord implements MessageEnqueueRecord
     {
         private final UUID _queueId;
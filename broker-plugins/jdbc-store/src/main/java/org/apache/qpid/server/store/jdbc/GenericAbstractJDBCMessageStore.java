@@ -79,6 +79,7 @@ public abstract class GenericAbstractJDBCMessageStore extends AbstractJDBCMessag
             }
             finally
             {
+                stopGroupCommitter();
                 doClose();
                 super.closeMessageStore();
             }
@@ -0,0 +1,220 @@
+/*
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*   http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*
+*/
+package org.apache.qpid.server.store.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.store.StoreException;
+
+/**
+ * Coalesces the commits of concurrent store transactions into a single JDBC transaction, in the spirit of the
+ * BDB store's CoalescingCommiter.  Jobs are queued by the committing threads and written by a single commit thread
+ * in groups of up to {@code batchSize} jobs.  When fewer jobs are waiting, the commit thread lingers for up to
+ * {@code lingerTime} milliseconds to allow more of them to arrive.
+ * <p>
+ * If writing a group fails, each of its jobs is retried on its own so that a single failing transaction does not
+ * abort the others.
+ */
+final class JDBCGroupCommitter<J extends JDBCGroupCommitter.Job>
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(JDBCGroupCommitter.class);
+
+    interface Job
+    {
+        void complete();
+
+        void abort(RuntimeException e);
+    }
+
+    interface GroupWriter<J>
+    {
+        void write(List<J> jobs);
+    }
+
+    private final Queue<J> _jobQueue = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue#size() walks the queue, so the number of queued jobs is counted separately
+    private final AtomicInteger _jobQueueSize = new AtomicInteger();
+    private final Object _lock = new Object();
+    private final AtomicBoolean _stopped = new AtomicBoolean();
+    private final int _batchSize;
+    private final long _lingerTimeNanos;
+    private final GroupWriter<J> _writer;
+    private final Thread _commitThread;
+
+    JDBCGroupCommitter(final String name, final int batchSize, final long lingerTime, final GroupWriter<J> writer)
+    {
+        _batchSize = Math.max(batchSize, 1);
+        _lingerTimeNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(lingerTime, 0L));
+        _writer = writer;
+        _commitThread = new Thread(this::run, "Commit-Thread-" + name);
+        _commitThread.setDaemon(true);
+    }
+
+    void start()
+    {
+        _commitThread.start();
+    }
+
+    void stop()
+    {
+        synchronized (_lock)
+        {
+            _stopped.set(true);
+            _lock.notifyAll();
+        }
+        if (Thread.currentThread() != _commitThread)
+        {
+            try
+            {
+                _commitThread.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        final StoreException e = new StoreException("Commit thread has been stopped, transaction aborted");
+        J job;
+        while ((job = _jobQueue.poll()) != null)
+        {
+            _jobQueueSize.decrementAndGet();
+            job.abort(e);
+        }
+    }
+
+    void commit(final J job)
+    {
+        synchronized (_lock)
+        {
+            if (_stopped.get())
+            {
+                throw new StoreException("Commit thread is stopped");
+            }
+            _jobQueue.add(job);
+            _jobQueueSize.incrementAndGet();
+            _lock.notifyAll();
+        }
+    }
+
+    private void run()
+    {
+        final List<J> group = new ArrayList<>(_batchSize);
+        while (!_stopped.get())
+        {
+            awaitJobs();
+            writeQueuedJobs(group);
+        }
+        // commit whatever was queued before the committer was stopped
+        while (!_jobQueue.isEmpty())
+        {
+            writeQueuedJobs(group);
+        }
+    }
+
+    private void awaitJobs()
+    {
+        synchronized (_lock)
+        {
+            try
+            {
+                while (!_stopped.get() && _jobQueue.isEmpty())
+                {
+                    _lock.wait();
+                }
+
+                if (_lingerTimeNanos > 0L)
+                {
+                    final long lingerUntil = System.nanoTime() + _lingerTimeNanos;
+                    long remaining = _lingerTimeNanos;
+                    while (!_stopped.get() && remaining > 0L && _jobQueueSize.get() < _batchSize)
+                    {
+                        TimeUnit.NANOSECONDS.timedWait(_lock, remaining);
+                        remaining = lingerUntil - System.nanoTime();
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                // ignore - queued jobs are written regardless
+            }
+        }
+    }
+
+    private void writeQueuedJobs(final List<J> group)
+    {
+        J job;
+        while (group.size() < _batchSize && (job = _jobQueue.poll()) != null)
+        {
+            _jobQueueSize.decrementAndGet();
+            group.add(job);
+        }
+        if (!group.isEmpty())
+        {
+            writeGroup(group);
+            group.clear();
+        }
+    }
+
+    private void writeGroup(final List<J> group)
+    {
+        try
+        {
+            _writer.write(group);
+            group.forEach(Job::complete);
+            LOGGER.debug("Committed group of {} transaction(s)", group.size());
+        }
+        catch (RuntimeException groupException)
+        {
+            if (group.size() == 1)
+            {
+                group.get(0).abort(groupException);
+            }
+            else
+            {
+                LOGGER.debug("Commit of group of {} transactions failed, committing individually",
+                             group.size(), groupException);
+                for (J job : group)
+                {
+                    try
+                    {
+                        _writer.write(Collections.singletonList(job));
+                        job.complete();
+                    }
+                    catch (RuntimeException e)
+                    {
+                        job.abort(e);
+                    }
+                }
+            }
+        }
+    }
+}
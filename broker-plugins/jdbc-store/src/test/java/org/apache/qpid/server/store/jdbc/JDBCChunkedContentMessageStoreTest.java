@@ -0,0 +1,94 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.store.jdbc;
+
+import static org.apache.qpid.server.store.jdbc.AbstractJDBCMessageStore.CONTENT_CHUNK_SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.server.store.MessageHandle;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.server.store.TestMessageMetaData;
+
+/**
+ * Runs the message store tests with message content stored in chunks.
+ */
+public class JDBCChunkedContentMessageStoreTest extends JDBCMessageStoreTest
+{
+    private static final int CHUNK_SIZE = 4;
+
+    @Test
+    public void testContentRangeReadFromChunks()
+    {
+        final byte[] content = new byte[CHUNK_SIZE * 5 + 1];
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte) i;
+        }
+        final MessageHandle<TestMessageMetaData> handle =
+                getStore().addMessage(new TestMessageMetaData(1, content.length));
+        try (QpidByteBuffer buffer = QpidByteBuffer.wrap(content))
+        {
+            handle.addContent(buffer);
+        }
+        final StoredMessage<TestMessageMetaData> message = handle.allContentAdded();
+        assertTrue(message.flowToDisk());
+
+        assertContent(Arrays.copyOfRange(content, 5, 14), message, 5, 9);
+        assertContent(Arrays.copyOfRange(content, 8, 12), message, 8, 4);
+        assertContent(Arrays.copyOfRange(content, 20, 21), message, 20, 1);
+        assertFalse(message.isInContentInMemory(), "Range reads should not load the content into memory");
+
+        assertContent(content, message, 0, content.length);
+        assertTrue(message.isInContentInMemory());
+    }
+
+    private void assertContent(final byte[] expected,
+                               final StoredMessage<?> message,
+                               final int offset,
+                               final int length)
+    {
+        try (QpidByteBuffer buffer = message.getContent(offset, length))
+        {
+            final byte[] actual = new byte[buffer.remaining()];
+            buffer.get(actual);
+            assertArrayEquals(expected, actual, String.format("Unexpected content at offset %d length %d", offset, length));
+        }
+    }
+
+    @Override
+    protected VirtualHost createVirtualHost()
+    {
+        final VirtualHost virtualHost = super.createVirtualHost();
+        when(virtualHost.getContextKeys(false)).thenReturn(Set.of(CONTENT_CHUNK_SIZE));
+        when(virtualHost.getContextValue(Integer.class, CONTENT_CHUNK_SIZE)).thenReturn(CHUNK_SIZE);
+        return virtualHost;
+    }
+}
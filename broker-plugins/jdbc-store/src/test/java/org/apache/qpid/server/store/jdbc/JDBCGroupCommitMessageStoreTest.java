@@ -0,0 +1,178 @@
+/*
+*
+* Licensed to the Apache Software Foundation (ASF) under one
+* or more contributor license agreements.  See the NOTICE file
+* distributed with this work for additional information
+* regarding copyright ownership.  The ASF licenses this file
+* to you under the Apache License, Version 2.0 (the
+* "License"); you may not use this file except in compliance
+* with the License.  You may obtain a copy of the License at
+*
+*   http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*
+*/
+package org.apache.qpid.server.store.jdbc;
+
+import static org.apache.qpid.server.store.jdbc.AbstractJDBCMessageStore.GROUP_COMMIT_BATCH_SIZE;
+import static org.apache.qpid.server.store.jdbc.AbstractJDBCMessageStore.GROUP_COMMIT_ENABLED;
+import static org.apache.qpid.server.store.jdbc.AbstractJDBCMessageStore.GROUP_COMMIT_LINGER_TIME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import org.apache.qpid.server.message.AMQMessageHeader;
+import org.apache.qpid.server.message.internal.InternalMessage;
+import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.server.store.MessageDurability;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+import org.apache.qpid.server.store.MessageStore;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.server.store.Transaction;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.store.handler.DistributedTransactionHandler;
+
+/**
+ * Runs the message store tests with group commit enabled.
+ */
+public class JDBCGroupCommitMessageStoreTest extends JDBCMessageStoreTest
+{
+    private static final int BATCH_SIZE = 8;
+    private static final String XID_GROUP_ROLLBACK_TEST = "testXidCommittedWithItsMessageWhenGroupIsRolledBack";
+
+    @Test
+    public void testConcurrentTransactionsAreCommittedTogether() throws Exception
+    {
+        final MessageStore store = getStore();
+        final TransactionLogResource queue = mock(TransactionLogResource.class);
+        when(queue.getId()).thenReturn(UUID.randomUUID());
+        when(queue.getName()).thenReturn(getTestName());
+        when(queue.getMessageDurability()).thenReturn(MessageDurability.ALWAYS);
+
+        final int numberOfTransactions = BATCH_SIZE * 3 + 1;
+        final List<ListenableFuture<Void>> futures = new ArrayList<>();
+        final Set<Long> enqueued = new HashSet<>();
+        for (int i = 0; i < numberOfTransactions; i++)
+        {
+            final InternalMessage message = InternalMessage.createMessage(store,
+                                                                          mock(AMQMessageHeader.class),
+                                                                          "message" + i,
+                                                                          true,
+                                                                          queue.getName());
+            final Transaction transaction = store.newTransaction();
+            final MessageEnqueueRecord record = transaction.enqueueMessage(queue, message);
+            enqueued.add(record.getMessageNumber());
+            futures.add(transaction.commitTranAsync(null));
+        }
+        Futures.allAsList(futures).get(10, TimeUnit.SECONDS);
+
+        final Set<Long> visited = new HashSet<>();
+        store.newMessageStoreReader().visitMessageInstances(queue, record -> {
+            visited.add(record.getMessageNumber());
+            return true;
+        });
+        assertEquals(enqueued, visited, "Unexpected enqueue records");
+    }
+
+    @Test
+    public void testXidCommittedWithItsMessageWhenGroupIsRolledBack() throws Exception
+    {
+        final MessageStore store = getStore();
+        final UUID queueId = UUID.randomUUID();
+        final TransactionLogResource queue = mock(TransactionLogResource.class);
+        when(queue.getId()).thenReturn(queueId);
+        when(queue.getName()).thenReturn(getTestName());
+        when(queue.getMessageDurability()).thenReturn(MessageDurability.ALWAYS);
+
+        final InternalMessage message = InternalMessage.createMessage(store,
+                                                                      mock(AMQMessageHeader.class),
+                                                                      "xid message",
+                                                                      true,
+                                                                      queue.getName());
+        final Transaction.EnqueueRecord enqueueRecord = mock(Transaction.EnqueueRecord.class);
+        when(enqueueRecord.getResource()).thenReturn(queue);
+        when(enqueueRecord.getMessage()).thenReturn(message);
+
+        final Transaction xidTransaction = store.newTransaction();
+        xidTransaction.recordXid(1L,
+                                 new byte[]{1},
+                                 new byte[]{2},
+                                 new Transaction.EnqueueRecord[]{enqueueRecord},
+                                 new Transaction.DequeueRecord[0]);
+
+        // removing an xid which does not exist fails the group after the other xid has been written
+        final Transaction.StoredXidRecord unknownXid = mock(Transaction.StoredXidRecord.class);
+        when(unknownXid.getFormat()).thenReturn(2L);
+        when(unknownXid.getGlobalId()).thenReturn(new byte[]{3});
+        when(unknownXid.getBranchId()).thenReturn(new byte[]{4});
+        final Transaction failingTransaction = store.newTransaction();
+        failingTransaction.removeXid(unknownXid);
+
+        final ListenableFuture<Void> xidFuture = xidTransaction.commitTranAsync(null);
+        final ListenableFuture<Void> failingFuture = failingTransaction.commitTranAsync(null);
+
+        xidFuture.get(10, TimeUnit.SECONDS);
+        assertThrows(ExecutionException.class,
+                     () -> failingFuture.get(10, TimeUnit.SECONDS),
+                     "Removal of unknown xid should have failed");
+
+        reopenStore();
+
+        final MessageStore.MessageStoreReader reader = getStore().newMessageStoreReader();
+        final DistributedTransactionHandler handler = mock(DistributedTransactionHandler.class);
+        reader.visitDistributedTransactions(handler);
+        verify(handler, times(1)).handle(any(Transaction.StoredXidRecord.class), any(), any());
+
+        final StoredMessage<?> storedMessage = reader.getMessage(message.getMessageNumber());
+        assertNotNull(storedMessage, "Message enqueued by the xid was not stored");
+        assertEquals(message.getStoredMessage().getContentSize(), storedMessage.getContentSize(),
+                     "Unexpected content size of message enqueued by the xid");
+        reader.close();
+    }
+
+    @Override
+    protected VirtualHost createVirtualHost()
+    {
+        final VirtualHost virtualHost = super.createVirtualHost();
+        when(virtualHost.getContextKeys(false)).thenReturn(Set.of(GROUP_COMMIT_ENABLED,
+                                                                  GROUP_COMMIT_BATCH_SIZE,
+                                                                  GROUP_COMMIT_LINGER_TIME));
+        when(virtualHost.getContextValue(Boolean.class, GROUP_COMMIT_ENABLED)).thenReturn(true);
+        if (XID_GROUP_ROLLBACK_TEST.equals(getTestName()))
+        {
+            // the committer lingers until both transactions of the test are queued so that they form one group
+            when(virtualHost.getContextValue(Integer.class, GROUP_COMMIT_BATCH_SIZE)).thenReturn(2);
+            when(virtualHost.getContextValue(Long.class, GROUP_COMMIT_LINGER_TIME)).thenReturn(5000L);
+        }
+        else
+        {
+            when(virtualHost.getContextValue(Integer.class, GROUP_COMMIT_BATCH_SIZE)).thenReturn(BATCH_SIZE);
+            when(virtualHost.getContextValue(Long.class, GROUP_COMMIT_LINGER_TIME)).thenReturn(1L);
+        }
+        return virtualHost;
+    }
+}
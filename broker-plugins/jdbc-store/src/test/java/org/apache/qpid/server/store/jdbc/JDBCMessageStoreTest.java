@@ -309,7 +309,7 @@ public class JDBCMessageStoreTest extends MessageStoreTestCase
     @Override
     protected VirtualHost createVirtualHost()
     {
-        _connectionURL = "jdbc:derby:memory:/" + getTestName();
+        _connectionURL = "jdbc:derby:memory:/" + getClass().getSimpleName() + "_" + getTestName();
 
         final JDBCVirtualHost jdbcVirtualHost = mock(JDBCVirtualHost.class);
         when(jdbcVirtualHost.getConnectionUrl()).thenReturn(_connectionURL + ";create=true");
@@ -257,6 +257,12 @@ public class ProxyMessageSource implements MessageSource, MessageDestination
             _underlying.notifyWork();
         }
 
+        @Override
+        public void notifyWork(final MessageInstanceConsumer<WrappingTarget<T>> consumer)
+        {
+            _underlying.notifyWork();
+        }
+
         @Override
         public void updateNotifyWorkDesired()
         {
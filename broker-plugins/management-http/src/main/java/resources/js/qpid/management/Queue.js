@@ -268,13 +268,15 @@ define(["dojo/_base/declare",
         var queueTypeKeys = {
             priority: "priorities",
             lvq: "lvqKey",
-            sorted: "sortKey"
+            sorted: "sortKey",
+            sharded: "shards"
         };
 
         var queueTypeKeyNames = {
             priority: "Number of priorities",
             lvq: "LVQ key",
-            sorted: "Sort key"
+            sorted: "Sort key",
+            sharded: "Number of shards"
         };
 
         function QueueUpdater(tabObject)
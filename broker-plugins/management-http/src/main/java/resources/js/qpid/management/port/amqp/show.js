@@ -131,7 +131,7 @@ define(["dojo/query",
                 modelObj: this.modelObj,
                 type: restData.type,
                 management: this.management,
-                defaultStatistics: ["connectionCount", "totalConnectionCount"]
+                defaultStatistics: ["connectionCount", "totalConnectionCount", "tlsBufferMemory"]
             });
             this.portStatistics.placeAt(this.portStatisticsNode);
             this.portStatistics.allStatsToggle.domNode.style.display = 'none';
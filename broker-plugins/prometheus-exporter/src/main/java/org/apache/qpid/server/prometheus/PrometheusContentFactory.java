@@ -75,7 +75,7 @@ public class PrometheusContentFactory implements ContentFactory
             {
                 try (final Writer writer = new OutputStreamWriter(outputStream))
                 {
-                    TextFormat.write004(writer, Collections.enumeration(qpidCollector.collect()));
+                    qpidCollector.write(writer);
                     writer.flush();
                 }
             }
@@ -19,11 +19,14 @@
  */
 package org.apache.qpid.server.prometheus;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import io.prometheus.client.Collector;
@@ -38,9 +41,15 @@ import org.apache.qpid.server.model.StatisticUnit;
 
 public class QpidCollector extends Collector
 {
-    private static final MetricFamilySamples IGNORED = new MetricFamilySamples(null, null, null, null);
     static final String COUNT_SUFFIX = "count";
     static final String TOTAL_SUFFIX = "total";
+    private static final String COUNTER_NAME_SUFFIX = "_" + TOTAL_SUFFIX;
+
+    /**
+     * Metrics of each configured object class, built once from the type registry and shared between scrapes.
+     */
+    private static final Map<Class<?>, Map<String, ObjectMetric>> OBJECT_METRICS = new ConcurrentHashMap<>();
+
     private final Predicate<ConfiguredObjectStatistic<?,?>> _includeStatisticFilter;
     private final Predicate<String> _includeMetricFilter;
     private final ConfiguredObject<?> _root;
@@ -60,75 +69,204 @@ public class QpidCollector extends Collector
     public List<MetricFamilySamples> collect()
     {
         final List<MetricFamilySamples> metricFamilySamples = new ArrayList<>();
-        addObjectMetrics(_root, List.of(), new HashMap<>(), metricFamilySamples);
-        addChildrenMetrics(metricFamilySamples, _root, List.of("name"));
+        scrape(new MetricSink<RuntimeException>()
+        {
+            private MetricFamilySamples _family;
+
+            @Override
+            public void startFamily(final ObjectMetric metric, final List<String> labelNames)
+            {
+                if (metric.getStatisticType() == StatisticType.CUMULATIVE)
+                {
+                    _family = new CounterMetricFamily(metric.getName(), metric.getDescription(), labelNames);
+                }
+                else
+                {
+                    _family = new GaugeMetricFamily(metric.getName(), metric.getDescription(), labelNames);
+                }
+                metricFamilySamples.add(_family);
+            }
+
+            @Override
+            public void addSample(final ConfiguredObject<?> object, final List<String> labelNames, final double value)
+            {
+                _family.samples.add(new MetricFamilySamples.Sample(_family.name,
+                                                                   labelNames,
+                                                                   buildLabelValues(object),
+                                                                   value));
+            }
+        });
         return metricFamilySamples;
     }
 
-    private void addObjectMetrics(final ConfiguredObject<?> object,
-                                  final List<String> labelNames,
-                                  final Map<String, MetricFamilySamples> metricFamilyMap,
-                                  final List<MetricFamilySamples> metricFamilySamples)
+    /**
+     * Writes the metrics in the Prometheus text exposition format as they are read from the model, without
+     * collecting them first.
+     */
+    void write(final Writer writer) throws IOException
     {
-        final Map<String, Object> statsMap = object.getStatistics();
-        for (final Map.Entry<String, Object> entry : statsMap.entrySet())
+        scrape(new MetricSink<IOException>()
         {
-            MetricFamilySamples family = metricFamilyMap.get(entry.getKey());
-            if (family == null)
+            private String _name;
+
+            @Override
+            public void startFamily(final ObjectMetric metric, final List<String> labelNames) throws IOException
             {
-                family = createMetricFamilySamples(entry.getKey(), object, labelNames);
-                metricFamilyMap.put(entry.getKey(), family);
-                if (family != IGNORED)
-                {
-                    metricFamilySamples.add(family);
-                }
+                _name = metric.getName();
+                writer.write("# HELP ");
+                writer.write(_name);
+                writer.write(' ');
+                writeEscaped(writer, metric.getDescription(), false);
+                writer.write('\n');
+
+                writer.write("# TYPE ");
+                writer.write(_name);
+                writer.write(metric.getStatisticType() == StatisticType.CUMULATIVE ? " counter\n" : " gauge\n");
             }
-            if (family != IGNORED)
+
+            @Override
+            public void addSample(final ConfiguredObject<?> object, final List<String> labelNames, final double value)
+                    throws IOException
             {
-                final List<String> labelsValues = buildLabelValues(object);
-                final double doubleValue = toDoubleValue(entry.getValue());
-                family.samples.add(new MetricFamilySamples.Sample(family.name, labelNames, labelsValues, doubleValue));
+                writer.write(_name);
+                if (!labelNames.isEmpty())
+                {
+                    writer.write('{');
+                    ConfiguredObject<?> o = object;
+                    for (final String labelName : labelNames)
+                    {
+                        writer.write(labelName);
+                        writer.write("=\"");
+                        writeEscaped(writer, o.getName(), true);
+                        writer.write("\",");
+                        o = o.getParent();
+                    }
+                    writer.write('}');
+                }
+                writer.write(' ');
+                writer.write(doubleToGoString(value));
+                writer.write('\n');
             }
-        }
+        });
+    }
+
+    private <E extends Exception> void scrape(final MetricSink<E> sink) throws E
+    {
+        scrape(sink, _root.getCategoryClass(), List.of(_root), List.of());
     }
 
-    private MetricFamilySamples createMetricFamilySamples(final String statisticName,
-                                                          final ConfiguredObject<?> object,
-                                                          final List<String> labelNames)
+    private <E extends Exception> void scrape(final MetricSink<E> sink,
+                                              final Class<? extends ConfiguredObject> category,
+                                              final List<ConfiguredObject<?>> objects,
+                                              final List<String> labelNames) throws E
     {
-        final ConfiguredObjectStatistic<?, ?> configuredObjectStatistic =
-                findConfiguredObjectStatistic(statisticName, object.getTypeClass());
-        if (configuredObjectStatistic == null || !_includeStatisticFilter.test(configuredObjectStatistic))
+        addObjectMetrics(sink, objects, labelNames);
+
+        final List<String> childLabelNames;
+        if (labelNames.isEmpty())
+        {
+            childLabelNames = List.of("name");
+        }
+        else
         {
-            return IGNORED;
+            childLabelNames = new ArrayList<>(labelNames);
+            childLabelNames.add(String.format("%s_name", toSnakeCase(category.getSimpleName())));
         }
-        final StatisticType type = configuredObjectStatistic.getStatisticType();
-        final String familyName = getFamilyName(object.getCategoryClass(), configuredObjectStatistic);
 
-        if (!_includeMetricFilter.test(familyName))
+        for (final Class<? extends ConfiguredObject> childClass : _model.getChildTypes(category))
         {
-            return IGNORED;
+            final List<ConfiguredObject<?>> children = new ArrayList<>();
+            for (final ConfiguredObject<?> object : objects)
+            {
+                final Collection<? extends ConfiguredObject> objectChildren = object.getChildren(childClass);
+                if (objectChildren != null)
+                {
+                    for (final ConfiguredObject<?> child : objectChildren)
+                    {
+                        children.add(child);
+                    }
+                }
+            }
+            if (!children.isEmpty())
+            {
+                scrape(sink, childClass, children, childLabelNames);
+            }
         }
+    }
 
-        if (type == StatisticType.CUMULATIVE)
+    /**
+     * Emits the metrics of objects of the same category one family at a time, so that all samples of a family are
+     * adjacent in the output.
+     */
+    private <E extends Exception> void addObjectMetrics(final MetricSink<E> sink,
+                                                        final List<ConfiguredObject<?>> objects,
+                                                        final List<String> labelNames) throws E
+    {
+        final Map<String, ObjectMetric> families = new LinkedHashMap<>();
+        Class<?> previousClass = null;
+        for (final ConfiguredObject<?> object : objects)
         {
-            return new CounterMetricFamily(familyName, configuredObjectStatistic.getDescription(), labelNames);
+            if (object.getClass() != previousClass)
+            {
+                previousClass = object.getClass();
+                for (final ObjectMetric metric : getObjectMetrics(object).values())
+                {
+                    families.putIfAbsent(metric.getStatisticName(), metric);
+                }
+            }
         }
-        else
+
+        for (final ObjectMetric family : families.values())
         {
-            return new GaugeMetricFamily(familyName, configuredObjectStatistic.getDescription(), labelNames);
+            if (!_includeStatisticFilter.test(family.getDefinition())
+                || !_includeMetricFilter.test(family.getFamilyName()))
+            {
+                continue;
+            }
+
+            boolean started = false;
+            for (final ConfiguredObject<?> object : objects)
+            {
+                final ObjectMetric metric = getObjectMetrics(object).get(family.getStatisticName());
+                final Object value = metric == null ? null : metric.getValue(object);
+                if (value != null)
+                {
+                    if (!started)
+                    {
+                        sink.startFamily(family, labelNames);
+                        started = true;
+                    }
+                    sink.addSample(object, labelNames, toDoubleValue(value));
+                }
+            }
         }
     }
 
-    private ConfiguredObjectStatistic<?, ?> findConfiguredObjectStatistic(final String statisticName,
-                                                                          final Class<? extends ConfiguredObject> typeClass)
+    private Map<String, ObjectMetric> getObjectMetrics(final ConfiguredObject<?> object)
+    {
+        return OBJECT_METRICS.computeIfAbsent(object.getClass(), c -> createObjectMetrics(object));
+    }
+
+    private Map<String, ObjectMetric> createObjectMetrics(final ConfiguredObject<?> object)
     {
-        final Collection<ConfiguredObjectStatistic<?, ?>> statisticsDefinitions =
-                _model.getTypeRegistry().getStatistics(typeClass);
-        return statisticsDefinitions.stream()
-                                    .filter(s -> statisticName.equals(s.getName()))
-                                    .findFirst()
-                                    .orElse(null);
+        final Collection<ConfiguredObjectStatistic<?, ?>> definitions =
+                _model.getTypeRegistry().getStatistics(object.getTypeClass());
+        final Map<String, ObjectMetric> metrics = new LinkedHashMap<>();
+        for (final ConfiguredObjectStatistic<?, ?> statistic : _model.getTypeRegistry().getStatistics(object.getClass()))
+        {
+            final ConfiguredObjectStatistic<?, ?> definition = definitions.stream()
+                                                                          .filter(s -> statistic.getName().equals(s.getName()))
+                                                                          .findFirst()
+                                                                          .orElse(null);
+            if (definition != null)
+            {
+                metrics.put(statistic.getName(),
+                            new ObjectMetric(statistic,
+                                             definition,
+                                             getFamilyName(object.getCategoryClass(), definition)));
+            }
+        }
+        return metrics;
     }
 
     private List<String> buildLabelValues(final ConfiguredObject<?> object)
@@ -143,25 +281,29 @@ public class QpidCollector extends Collector
         return labelsValues;
     }
 
-    private void addChildrenMetrics(final List<MetricFamilySamples> metricFamilySamples,
-                                    final ConfiguredObject<?> object,
-                                    final List<String> childLabelNames)
+    private static void writeEscaped(final Writer writer, final String value, final boolean labelValue)
+            throws IOException
     {
-        final Class<? extends ConfiguredObject> category = object.getCategoryClass();
-        for (final Class<? extends ConfiguredObject> childClass : _model.getChildTypes(category))
+        if (value == null)
         {
-            final Collection<? extends ConfiguredObject> children = object.getChildren(childClass);
-            if (children != null && !children.isEmpty())
+            return;
+        }
+        for (int i = 0; i < value.length(); i++)
+        {
+            final char c = value.charAt(i);
+            switch (c)
             {
-                final Map<String, MetricFamilySamples> childrenMetricFamilyMap = new HashMap<>();
-                for (final ConfiguredObject<?> child : children)
-                {
-                    addObjectMetrics(child, childLabelNames, childrenMetricFamilyMap, metricFamilySamples);
-                    final List<String> labelNames = new ArrayList<>(childLabelNames);
-                    final String label = String.format("%s_name", toSnakeCase(childClass.getSimpleName()));
-                    labelNames.add(label);
-                    addChildrenMetrics(metricFamilySamples, child, labelNames);
-                }
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '"':
+                    writer.write(labelValue ? "\\\"" : "\"");
+                    break;
+                default:
+                    writer.write(c);
             }
         }
     }
@@ -252,4 +394,68 @@ public class QpidCollector extends Collector
         }
         return suffix;
     }
+
+    private interface MetricSink<E extends Exception>
+    {
+        void startFamily(ObjectMetric metric, List<String> labelNames) throws E;
+
+        void addSample(ConfiguredObject<?> object, List<String> labelNames, double value) throws E;
+    }
+
+    private static final class ObjectMetric
+    {
+        private final ConfiguredObjectStatistic<?, ?> _statistic;
+        private final ConfiguredObjectStatistic<?, ?> _definition;
+        private final String _familyName;
+        private final String _name;
+
+        private ObjectMetric(final ConfiguredObjectStatistic<?, ?> statistic,
+                             final ConfiguredObjectStatistic<?, ?> definition,
+                             final String familyName)
+        {
+            _statistic = statistic;
+            _definition = definition;
+            _familyName = familyName;
+            // counter families drop the _total suffix from their name as the Prometheus client does
+            _name = definition.getStatisticType() == StatisticType.CUMULATIVE && familyName.endsWith(COUNTER_NAME_SUFFIX)
+                    ? familyName.substring(0, familyName.length() - COUNTER_NAME_SUFFIX.length())
+                    : familyName;
+        }
+
+        String getStatisticName()
+        {
+            return _statistic.getName();
+        }
+
+        ConfiguredObjectStatistic<?, ?> getDefinition()
+        {
+            return _definition;
+        }
+
+        String getFamilyName()
+        {
+            return _familyName;
+        }
+
+        String getName()
+        {
+            return _name;
+        }
+
+        String getDescription()
+        {
+            return _definition.getDescription();
+        }
+
+        StatisticType getStatisticType()
+        {
+            return _definition.getStatisticType();
+        }
+
+        @SuppressWarnings("unchecked")
+        Object getValue(final ConfiguredObject<?> object)
+        {
+            return ((ConfiguredObjectStatistic<ConfiguredObject<?>, ?>) _statistic).getValue(object);
+        }
+    }
 }
@@ -29,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.StringWriter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -209,6 +210,46 @@ public class QpidCollectorTest extends UnitTestBase
     }
 
 
+    @Test
+    public void testWriteForSiblingObjects() throws Exception
+    {
+        createTestEngine(ELECTRIC_ENGINE_NAME, TestElecEngineImpl.TEST_ELEC_ENGINE_TYPE);
+        createTestEngine(PETROL_ENGINE_NAME, TestPetrolEngineImpl.TEST_PETROL_ENGINE_TYPE);
+        _root.move(DESIRED_MILEAGE);
+
+        final StringWriter writer = new StringWriter();
+        _qpidCollector.write(writer);
+        final List<String> lines = List.of(writer.toString().split("\n"));
+
+        final String engineTemperature = String.valueOf((double) TestAbstractEngineImpl.TEST_TEMPERATURE);
+        assertThat(lines.stream().filter(l -> l.startsWith("# TYPE")).collect(Collectors.toList()),
+                   is(equalTo(List.of("# TYPE " + QPID_TEST_CAR_MILEAGE_COUNT + " counter",
+                                      "# TYPE " + QPID_TEST_ENGINE_TEMPERATURE_TOTAL + " gauge"))));
+        assertThat(lines.contains(QPID_TEST_CAR_MILEAGE_COUNT + " " + (double) DESIRED_MILEAGE), is(equalTo(true)));
+        assertThat(lines.contains(String.format("%s{name=\"%s\",} %s",
+                                                QPID_TEST_ENGINE_TEMPERATURE_TOTAL,
+                                                ELECTRIC_ENGINE_NAME,
+                                                engineTemperature)), is(equalTo(true)));
+        assertThat(lines.contains(String.format("%s{name=\"%s\",} %s",
+                                                QPID_TEST_ENGINE_TEMPERATURE_TOTAL,
+                                                PETROL_ENGINE_NAME,
+                                                engineTemperature)), is(equalTo(true)));
+    }
+
+    @Test
+    public void testWriteEscapesLabelValues() throws Exception
+    {
+        final String engineName = "my\"engine\\";
+        createTestEngine(engineName, TestElecEngineImpl.TEST_ELEC_ENGINE_TYPE);
+
+        final StringWriter writer = new StringWriter();
+        _qpidCollector.write(writer);
+
+        assertThat(writer.toString().contains(String.format("%s{name=\"my\\\"engine\\\\\",}",
+                                                            QPID_TEST_ENGINE_TEMPERATURE_TOTAL)),
+                   is(equalTo(true)));
+    }
+
     private Collector.MetricFamilySamples.Sample findSampleByLabelValue(final Collector.MetricFamilySamples metricFamilySamples,
                                                                         final String nameLabelValue)
     {
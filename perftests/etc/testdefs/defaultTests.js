@@ -106,14 +106,15 @@ function createTest(name, numberOfParticipantPairs, acknowledgeMode, deliveryMod
     return test;
 }
 
-function createCompetingConsumerTest(name, numberOfParticipantPairs, transport)
+function createCompetingConsumerTest(name, numberOfParticipantPairs, transport, numberOfProducers, queueAttributes)
 {
     var destination = "testQueue_competing";
     var test = {
         "_name": name,
         "_queues": [{
             "_name": destination,
-            "_durable": true
+            "_durable": true,
+            "_attributes": queueAttributes || {}
         }],
         "_clients": []
     };
@@ -128,10 +129,23 @@ function createCompetingConsumerTest(name, numberOfParticipantPairs, transport)
         connectionFactory = "sslconnectionfactory_noprefetch";
     }
 
-    test._clients.push({
-        "_name": "producingClient",
-        "_connections": [createProducerConnection(0, connectionFactory, destination, ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE, DELIVERY_MODE_TRANSIENT)]
-    });
+    if (numberOfProducers === undefined || numberOfProducers === 1)
+    {
+        test._clients.push({
+            "_name": "producingClient",
+            "_connections": [createProducerConnection(0, connectionFactory, destination, ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE, DELIVERY_MODE_TRANSIENT)]
+        });
+    }
+    else
+    {
+        for (var j = 0; j < numberOfProducers; j++)
+        {
+            test._clients.push({
+                "_name": "producingClient_" + j,
+                "_connections": [createProducerConnection(j, connectionFactory, destination, ACKNOWLEDGE_MODE_AUTO_ACKNOWLEDGE, DELIVERY_MODE_TRANSIENT)]
+            });
+        }
+    }
 
     for (var i = 0; i < numberOfParticipantPairs; i++)
     {
@@ -178,7 +192,16 @@ var jsonObject = {
             "SSL"),
         createCompetingConsumerTest("competing_consumers_plain",
             30,
-            "PLAIN")
+            "PLAIN"),
+        createCompetingConsumerTest("competing_consumers_multiple_producers_plain",
+            30,
+            "PLAIN",
+            8),
+        createCompetingConsumerTest("competing_consumers_multiple_producers_sharded_plain",
+            30,
+            "PLAIN",
+            8,
+            {"type": "sharded"})
     ]
 };
 
@@ -25,6 +25,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,7 @@ import javax.jms.MessageConsumer;
 import javax.jms.QueueBrowser;
 import javax.jms.Session;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
@@ -98,7 +100,7 @@ public class QpidRestAPIQueueCreator implements QueueCreator
         for (QueueConfig queueConfig : configs)
         {
             final String queueName = queueConfig.getName();
-            managementCreateQueue(queueName, context);
+            managementCreateQueue(queueName, queueConfig.getAttributes(), context);
         }
     }
 
@@ -268,11 +270,22 @@ public class QpidRestAPIQueueCreator implements QueueCreator
         }
     }
 
-    private void managementCreateQueue(final String name, final HttpClientContext context)
+    private void managementCreateQueue(final String name,
+                                       final Map<String, Object> attributes,
+                                       final HttpClientContext context)
     {
         HttpPut put = new HttpPut(String.format(_queueApiUrl, _virtualhostnode, _virtualhost, name));
 
-        StringEntity input = new StringEntity("{}", StandardCharsets.UTF_8);
+        final String json;
+        try
+        {
+            json = new ObjectMapper().writeValueAsString(attributes == null ? Collections.emptyMap() : attributes);
+        }
+        catch (JsonProcessingException e)
+        {
+            throw new DistributedTestException("Failed to convert attributes of queue " + name, e);
+        }
+        StringEntity input = new StringEntity(json, StandardCharsets.UTF_8);
         input.setContentType("application/json");
         put.setEntity(input);
 